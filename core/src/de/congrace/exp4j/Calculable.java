@@ -28,4 +28,12 @@ public interface Calculable {
 	 *            the value of the variable
 	 */
 	public void setVariable(Variable var);
+
+	/**
+	 * return the names of the variables which are actually referenced by the
+	 * expression, in order of first appearance
+	 * 
+	 * @return the referenced variable names
+	 */
+	public String[] getReferencedVariableNames();
 }
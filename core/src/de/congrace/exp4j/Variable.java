@@ -14,7 +14,7 @@ public class Variable {
 
 	private final String name;
 
-	private final double doubleValue;
+	private double doubleValue;
 	private final double[] arrayValue;
 
 	private final double start, step;
@@ -83,6 +83,18 @@ public class Variable {
 		return arrayValue;
 	}
 
+	/*
+	 * Change the value of a double variable in place.  A variable bound to an expression
+	 * can then be reused when the expression is evaluated repeatedly.
+	 */
+	public void setDoubleValue(double d){
+		if (primary != Primary.DOUBLE){
+			throw new IllegalStateException("Variable " + name + " is not a double variable");
+		}
+		this.doubleValue = d;
+		this.arrayValue[0] = d;
+	}
+
 	public double getStep(){
 		return step;
 	}
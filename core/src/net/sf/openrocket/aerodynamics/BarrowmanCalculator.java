@@ -5,7 +5,6 @@ import static net.sf.openrocket.util.MathUtil.pow2;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.Map;
@@ -13,13 +12,13 @@ import java.util.Queue;
 
 import net.sf.openrocket.aerodynamics.barrowman.FinSetCalc;
 import net.sf.openrocket.aerodynamics.barrowman.RocketComponentCalc;
+import net.sf.openrocket.rocketcomponent.CompiledConfiguration;
 import net.sf.openrocket.rocketcomponent.ComponentAssembly;
 import net.sf.openrocket.rocketcomponent.ExternalComponent;
 import net.sf.openrocket.rocketcomponent.ExternalComponent.Finish;
 import net.sf.openrocket.rocketcomponent.FinSet;
 import net.sf.openrocket.rocketcomponent.FlightConfiguration;
 import net.sf.openrocket.rocketcomponent.InstanceContext;
-import net.sf.openrocket.rocketcomponent.InstanceMap;
 import net.sf.openrocket.rocketcomponent.Rocket;
 import net.sf.openrocket.rocketcomponent.RocketComponent;
 import net.sf.openrocket.rocketcomponent.SymmetricComponent;
@@ -40,8 +39,29 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 	private static final String BARROWMAN_PACKAGE = "net.sf.openrocket.aerodynamics.barrowman";
 	private static final String BARROWMAN_SUFFIX = "Calc";
 	
+	/** The maximum number of component calculators kept in the shared cache. */
+	private static final int SHARED_CALC_COUNT = 2000;
+	
+	/*
+	 * The component calculators shared by all calculator instances, for example those of
+	 * parallel simulations of the same design.  The least recently used ones are discarded
+	 * first.  Access is synchronized on the map.
+	 */
+	private static final Map<CalcKey, RocketComponentCalc> sharedCalcs =
+			new LinkedHashMap<CalcKey, RocketComponentCalc>(16, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<CalcKey, RocketComponentCalc> eldest) {
+					return size() > SHARED_CALC_COUNT;
+				}
+			};
+	
 	private Map<RocketComponent, RocketComponentCalc> calcMap = null;
 	
+	// the instances of calcMap's components in the compiled configuration, with their calculators
+	private CompiledConfiguration calcConfiguration = null;
+	private InstanceContext[] calcContexts = null;
+	private RocketComponentCalc[] calcObjects = null;
+	
 	private double cacheDiameter = -1;
 	private double cacheLength = -1;
 
@@ -160,7 +180,7 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 	/**
 	 * Perform the actual CP calculation.
 	 */
-	private AerodynamicForces calculateNonAxialForces(FlightConfiguration configuration, FlightConditions conditions,
+	protected AerodynamicForces calculateNonAxialForces(FlightConfiguration configuration, FlightConditions conditions,
 			Map<RocketComponent, AerodynamicForces> calculators, WarningSet warnings) {
 		
 		checkCache(configuration);
@@ -179,37 +199,32 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 			warnings.add( Warning.DIAMETER_DISCONTINUITY);
 		}
 		
-		final InstanceMap imap = configuration.getActiveInstances();
+		final CompiledConfiguration compiled = configuration.getCompiledConfiguration();
+		if (compiled != calcConfiguration)
+			buildCalcInstances(compiled);
 
 		final AerodynamicForces assemblyForces= new AerodynamicForces().zero();
 
-		// iterate through all components
-	    for(Map.Entry<RocketComponent, ArrayList<InstanceContext>> entry: imap.entrySet() ) {
-			final RocketComponent comp = entry.getKey();
-			RocketComponentCalc calcObj = calcMap.get(comp);
-
-			// System.err.println("comp=" + comp);
-			if (null != calcObj) {
-				// iterate across component instances
-				final ArrayList<InstanceContext> contextList = entry.getValue();
+		// iterate across the instances of all components with a calculator
+		for (int i = 0; i < calcContexts.length; i++) {
+			final InstanceContext context = calcContexts[i];
+			final RocketComponent comp = context.component;
+			final RocketComponentCalc calcObj = calcObjects[i];
 
-				for(InstanceContext context: contextList ) {
-					AerodynamicForces instanceForces = new AerodynamicForces().zero();
-					
-					calcObj.calculateNonaxialForces(conditions, context.transform, instanceForces, warnings);
-					Coordinate cp_comp = instanceForces.getCP();
-					
-					Coordinate cp_abs = context.transform.transform(cp_comp);
-					if ((comp instanceof FinSet) && (((FinSet)comp).getFinCount() > 2))
-						cp_abs = cp_abs.setY(0.0).setZ(0.0);
-					
-					instanceForces.setCP(cp_abs);
-					double CN_instanced = instanceForces.getCN();
-					instanceForces.setCm(CN_instanced * instanceForces.getCP().x / conditions.getRefLength());
-					// System.err.println("instanceForces=" + instanceForces);
-					assemblyForces.merge(instanceForces);
-				}
-			}
+			AerodynamicForces instanceForces = new AerodynamicForces().zero();
+			
+			calcObj.calculateNonaxialForces(conditions, context.transform, instanceForces, warnings);
+			Coordinate cp_comp = instanceForces.getCP();
+			
+			Coordinate cp_abs = context.transform.transform(cp_comp);
+			if ((comp instanceof FinSet) && (((FinSet)comp).getFinCount() > 2))
+				cp_abs = cp_abs.setY(0.0).setZ(0.0);
+			
+			instanceForces.setCP(cp_abs);
+			double CN_instanced = instanceForces.getCN();
+			instanceForces.setCm(CN_instanced * instanceForces.getCP().x / conditions.getRefLength());
+			// System.err.println("instanceForces=" + instanceForces);
+			assemblyForces.merge(instanceForces);
 		}
 
 		// System.err.println("assemblyForces=" + assemblyForces);
@@ -273,20 +288,34 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 	 * @param set				Set to handle 
 	 * @return
 	 */
-	private double calculateFrictionDrag(FlightConfiguration configuration, FlightConditions conditions,
+	protected double calculateFrictionDrag(FlightConfiguration configuration, FlightConditions conditions,
 			Map<RocketComponent, AerodynamicForces> map, WarningSet set) {
+		double Re = conditions.getVelocity() * configuration.getLength() /
+				conditions.getAtmosphericConditions().getKinematicViscosity();
+		return calculateFrictionDrag(configuration, conditions, Re, map, set);
+	}
+	
+	
+	/**
+	 * Calculation of drag coefficient due to air friction at the given Reynolds number.
+	 * 
+	 * @param configuration		Rocket configuration
+	 * @param conditions		Flight conditions taken into account
+	 * @param Re				Reynolds number based on the length of the configuration
+	 * @param map				?
+	 * @param set				Set to handle 
+	 * @return
+	 */
+	protected double calculateFrictionDrag(FlightConfiguration configuration, FlightConditions conditions,
+			double Re, Map<RocketComponent, AerodynamicForces> map, WarningSet set) {
 		double c1 = 1.0, c2 = 1.0;
 		
 		double mach = conditions.getMach();
-		double Re;
 		double Cf;
 		
 		if (calcMap == null)
 			buildCalcMap(configuration);
 		
-		Re = conditions.getVelocity() * configuration.getLength() /
-				conditions.getAtmosphericConditions().getKinematicViscosity();
-		
 		// Calculate the skin friction coefficient (assume non-roughness limited)
 		if (configuration.getRocket().isPerfectFinish()) {
 			
@@ -498,7 +527,7 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 	 * @param set				Set to handle 
 	 * @return
 	 */
-	private double calculatePressureDrag(FlightConfiguration configuration, FlightConditions conditions,
+	protected double calculatePressureDrag(FlightConfiguration configuration, FlightConditions conditions,
 			Map<RocketComponent, AerodynamicForces> map, WarningSet warnings) {
 		
 		double stagnation, base, total;
@@ -557,7 +586,7 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 	 * @param set				Set to handle 
 	 * @return
 	 */
-	private double calculateBaseDrag(FlightConfiguration configuration, FlightConditions conditions,
+	protected double calculateBaseDrag(FlightConfiguration configuration, FlightConditions conditions,
 			Map<RocketComponent, AerodynamicForces> map, WarningSet warnings) {
 		
 		double base, total;
@@ -766,32 +795,117 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 		super.voidAerodynamicCache();
 		
 		calcMap = null;
+		calcConfiguration = null;
 		cacheDiameter = -1;
 		cacheLength = -1;
 	}
 	
 	
 	private void buildCalcMap(FlightConfiguration configuration) {
-		Iterator<RocketComponent> iterator;
-		
 		calcMap = new HashMap<RocketComponent, RocketComponentCalc>();
+		calcConfiguration = null;
 
+		Rocket rocket = configuration.getRocket();
 		for (RocketComponent comp: configuration.getActiveComponents()) {
 			if (!comp.isAerodynamic())
 				continue;
 			
-			RocketComponentCalc calcObj = (RocketComponentCalc) Reflection.construct(BARROWMAN_PACKAGE, comp, BARROWMAN_SUFFIX, comp);
-			//String isNull = (null==calcObj?"null":"valid");
-			//System.err.println("    >> At component: "+c.getName() +"=="+c.getID()+". CalcObj is "+isNull);
-			
-			calcMap.put(comp, calcObj ); 
+			calcMap.put(comp, getComponentCalc(rocket, comp));
 		}
 	}
 	
+	/**
+	 * Return the calculator of a component of the rocket.  Calculators are not modified
+	 * after construction, so a calculator is shared by all copies of the rocket that have
+	 * the same component ID's and the same aerodynamic and tree modification IDs.
+	 * The calculators depend on the neighbouring components as well, for example on the
+	 * radius of the body a fin set is attached to, which is why the modification IDs of
+	 * the rocket are used instead of those of the component.  The modification IDs are
+	 * not updated while the events of the rocket are disabled, so the calculators are not
+	 * shared then.
+	 */
+	static RocketComponentCalc getComponentCalc(Rocket rocket, RocketComponent comp) {
+		if (!rocket.isEventsEnabled()) {
+			return (RocketComponentCalc) Reflection.construct(BARROWMAN_PACKAGE, comp, BARROWMAN_SUFFIX, comp);
+		}
+		
+		CalcKey key = new CalcKey(comp.getID(), rocket.getAerodynamicModID(), rocket.getTreeModID());
+		
+		RocketComponentCalc calcObj;
+		synchronized (sharedCalcs) {
+			calcObj = sharedCalcs.get(key);
+		}
+		if (calcObj != null) {
+			return calcObj;
+		}
+		
+		// Construct outside the lock, another thread may store an equal calculator meanwhile
+		calcObj = (RocketComponentCalc) Reflection.construct(BARROWMAN_PACKAGE, comp, BARROWMAN_SUFFIX, comp);
+		synchronized (sharedCalcs) {
+			RocketComponentCalc existing = sharedCalcs.get(key);
+			if (existing != null) {
+				return existing;
+			}
+			sharedCalcs.put(key, calcObj);
+		}
+		return calcObj;
+	}
+	
+	/**
+	 * Pair the instances of the compiled configuration with the calculators of their
+	 * components, so that the non-axial forces can be summed without map lookups.
+	 */
+	private void buildCalcInstances(CompiledConfiguration compiled) {
+		ArrayList<InstanceContext> contexts = new ArrayList<InstanceContext>();
+		ArrayList<RocketComponentCalc> calcs = new ArrayList<RocketComponentCalc>();
+		
+		for (InstanceContext context : compiled.getInstances()) {
+			RocketComponentCalc calcObj = calcMap.get(context.component);
+			if (null != calcObj) {
+				contexts.add(context);
+				calcs.add(calcObj);
+			}
+		}
+		
+		calcContexts = contexts.toArray(new InstanceContext[0]);
+		calcObjects = calcs.toArray(new RocketComponentCalc[0]);
+		calcConfiguration = compiled;
+	}
+	
 	@Override
 	public int getModID() {
 		// Only cached data is stored, return constant mod ID
 		return 0;
 	}
 	
+	
+	/**
+	 * The key of a shared component calculator.
+	 */
+	private static final class CalcKey {
+		private final String componentID;
+		private final int aeroModID;
+		private final int treeModID;
+		
+		CalcKey(String componentID, int aeroModID, int treeModID) {
+			this.componentID = componentID;
+			this.aeroModID = aeroModID;
+			this.treeModID = treeModID;
+		}
+		
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof CalcKey))
+				return false;
+			CalcKey other = (CalcKey) o;
+			return aeroModID == other.aeroModID && treeModID == other.treeModID &&
+					componentID.equals(other.componentID);
+		}
+		
+		@Override
+		public int hashCode() {
+			return componentID.hashCode() + 31 * (aeroModID + 31 * treeModID);
+		}
+	}
+	
 }
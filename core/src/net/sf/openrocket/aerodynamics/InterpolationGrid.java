@@ -0,0 +1,132 @@
+package net.sf.openrocket.aerodynamics;
+
+/**
+ * A set of functions of two variables tabulated on a regular grid and interpolated
+ * bilinearly.  The grid nodes are computed on demand, when a cell surrounding them is
+ * first used, so only the part of the grid that is actually visited is ever computed.
+ * Arguments outside the grid are clamped to its edges.
+ * <p>
+ * This class is not thread-safe.
+ */
+abstract class InterpolationGrid {
+
+	private final double x0, dx;
+	private final double y0, dy;
+	private final int nx, ny;
+	private final int values;
+
+	// Node values by x index, allocated when the first node of the column is computed
+	private final double[][] data;
+	private final boolean[][] computed;
+
+	private final double[] node;
+
+
+	/**
+	 * Create a grid.
+	 *
+	 * @param x0		the lower bound of the first variable.
+	 * @param x1		the upper bound of the first variable.
+	 * @param dx		the grid spacing of the first variable.
+	 * @param y0		the lower bound of the second variable.
+	 * @param y1		the upper bound of the second variable.
+	 * @param dy		the grid spacing of the second variable.
+	 * @param values	the number of functions tabulated.
+	 */
+	protected InterpolationGrid(double x0, double x1, double dx, double y0, double y1, double dy, int values) {
+		this.x0 = x0;
+		this.dx = dx;
+		this.y0 = y0;
+		this.dy = dy;
+		this.nx = Math.max((int) Math.ceil((x1 - x0) / dx - 1e-9), 1) + 1;
+		this.ny = Math.max((int) Math.ceil((y1 - y0) / dy - 1e-9), 1) + 1;
+		this.values = values;
+		this.data = new double[nx][];
+		this.computed = new boolean[nx][];
+		this.node = new double[values];
+	}
+
+
+	/**
+	 * Compute the function values at a grid node.
+	 *
+	 * @param x			the first variable.
+	 * @param y			the second variable.
+	 * @param result	the array in which to store the values.
+	 */
+	protected abstract void compute(double x, double y, double[] result);
+
+
+	/**
+	 * Interpolate the function values at the given point.
+	 *
+	 * @param x			the first variable.
+	 * @param y			the second variable.
+	 * @param result	the array in which to store the values.
+	 * @return			<code>result</code>.
+	 */
+	public double[] interpolate(double x, double y, double[] result) {
+		double fx = (x - x0) / dx;
+		double fy = (y - y0) / dy;
+		if (!(fx > 0))
+			fx = 0;
+		if (!(fy > 0))
+			fy = 0;
+
+		int ix = Math.min((int) fx, nx - 2);
+		int iy = Math.min((int) fy, ny - 2);
+		double tx = Math.min(fx - ix, 1);
+		double ty = Math.min(fy - iy, 1);
+
+		double[] c0 = column(ix, iy);
+		double[] c1 = column(ix + 1, iy);
+		int i0 = iy * values;
+		int i1 = i0 + values;
+		for (int i = 0; i < values; i++) {
+			double a = c0[i0 + i] + ty * (c0[i1 + i] - c0[i0 + i]);
+			double b = c1[i0 + i] + ty * (c1[i1 + i] - c1[i0 + i]);
+			result[i] = a + tx * (b - a);
+		}
+		return result;
+	}
+
+
+	/**
+	 * Return the number of grid nodes computed so far.
+	 */
+	public int getComputedCount() {
+		int count = 0;
+		for (boolean[] column : computed) {
+			if (column != null) {
+				for (boolean b : column) {
+					if (b)
+						count++;
+				}
+			}
+		}
+		return count;
+	}
+
+
+	/**
+	 * Return the node values of column ix, ensuring nodes iy and iy+1 have been computed.
+	 */
+	private double[] column(int ix, int iy) {
+		double[] column = data[ix];
+		boolean[] done = computed[ix];
+		if (column == null) {
+			column = new double[ny * values];
+			done = new boolean[ny];
+			data[ix] = column;
+			computed[ix] = done;
+		}
+		for (int j = iy; j <= iy + 1; j++) {
+			if (!done[j]) {
+				compute(x0 + ix * dx, y0 + j * dy, node);
+				System.arraycopy(node, 0, column, j * values, values);
+				done[j] = true;
+			}
+		}
+		return column;
+	}
+}
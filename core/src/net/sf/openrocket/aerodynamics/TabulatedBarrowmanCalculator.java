@@ -0,0 +1,303 @@
+package net.sf.openrocket.aerodynamics;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import net.sf.openrocket.rocketcomponent.FlightConfiguration;
+import net.sf.openrocket.rocketcomponent.RocketComponent;
+import net.sf.openrocket.util.Coordinate;
+import net.sf.openrocket.util.MathUtil;
+
+/**
+ * An extended Barrowman calculator that interpolates the aerodynamic coefficients
+ * from lookup tables instead of evaluating every component at every call.
+ * <p>
+ * For a fixed set of active stages the non-axial coefficients are functions of the
+ * Mach number and angle of attack only, and the drag coefficients functions of the
+ * Mach and Reynolds numbers only.  These are tabulated per set of active stages on a
+ * Mach x AOA and Mach x log10(Re) grid, whose nodes are computed with the Barrowman
+ * method when first needed.  The tables are discarded when the aerodynamic or tree
+ * modification ID of the rocket changes.  The interpolation error is largest below
+ * Mach 0.05 at angles of attack over 45 degrees, where the body lift is faded out and the
+ * dynamic pressure is negligible anyway.
+ * <p>
+ * The non-axial forces are calculated directly when they depend on the lateral wind
+ * direction (configurations with one or two fins or asymmetric pods), when the roll
+ * rate is large enough to produce fin roll damping and for a component analysis.
+ * The pitch and yaw damping moments are always calculated directly.
+ */
+public class TabulatedBarrowmanCalculator extends BarrowmanCalculator {
+
+	/** Maximum Mach number tabulated, above which the forces are calculated directly. */
+	public static final double MAX_MACH = 5;
+
+	private static final double MACH_STEP = 0.01;
+	private static final double AOA_STEP = 0.5 * Math.PI / 180;
+	private static final double MIN_LOG_RE = 4;
+	private static final double MAX_LOG_RE = 9;
+	private static final double LOG_RE_STEP = 0.05;
+
+	/** Roll rate below which the fin roll damping is zero (rad/s) */
+	private static final double ROLL_DAMPING_LIMIT = 0.1;
+
+	private static final double LARGE_AOA = 17.5 * Math.PI / 180;
+
+	// Indices of the tabulated non-axial values
+	private static final int CNA = 0;
+	private static final int CN = 1;
+	private static final int CM = 2;
+	private static final int CSIDE = 3;
+	private static final int CYAW = 4;
+	private static final int CROLL_FORCE = 5;
+	private static final int CP_X = 6;
+	private static final int NON_AXIAL_VALUES = 7;
+
+	// Indices of the tabulated drag values
+	private static final int FRICTION_CD = 0;
+	private static final int PRESSURE_CD = 1;
+	private static final int BASE_CD = 2;
+	private static final int DRAG_VALUES = 3;
+
+
+	private final Map<Long, Table> tables = new HashMap<Long, Table>();
+	private long lastKey = -1;
+	private Table lastTable = null;
+
+	private final double[] nonAxial = new double[NON_AXIAL_VALUES];
+
+
+	public TabulatedBarrowmanCalculator() {
+
+	}
+
+
+	@Override
+	public TabulatedBarrowmanCalculator newInstance() {
+		return new TabulatedBarrowmanCalculator();
+	}
+
+
+	/**
+	 * Return the total number of grid nodes computed in the current tables.
+	 */
+	public int getComputedNodeCount() {
+		int count = 0;
+		for (Table table : tables.values()) {
+			count += table.nonAxialGrid.getComputedCount() + table.dragGrid.getComputedCount();
+		}
+		return count;
+	}
+
+
+	@Override
+	protected AerodynamicForces calculateNonAxialForces(FlightConfiguration configuration, FlightConditions conditions,
+			Map<RocketComponent, AerodynamicForces> calculators, WarningSet warnings) {
+
+		Table table = (calculators == null) ? getTable(configuration, conditions) : null;
+		if (table == null || !table.axisymmetric || Math.abs(conditions.getRollRate()) >= ROLL_DAMPING_LIMIT) {
+			return super.calculateNonAxialForces(configuration, conditions, calculators, warnings);
+		}
+
+		if (warnings == null)
+			warnings = ignoreWarningSet;
+
+		double aoa = conditions.getAOA();
+		if (aoa > LARGE_AOA)
+			warnings.add(new Warning.LargeAOA(aoa));
+		warnings.addAll(table.warnings);
+
+		table.nonAxialGrid.interpolate(conditions.getMach(), aoa, nonAxial);
+
+		AerodynamicForces forces = new AerodynamicForces().zero();
+		forces.setCNa(nonAxial[CNA]);
+		forces.setCN(nonAxial[CN]);
+		forces.setCm(nonAxial[CM]);
+		forces.setCside(nonAxial[CSIDE]);
+		forces.setCyaw(nonAxial[CYAW]);
+		forces.setCrollForce(nonAxial[CROLL_FORCE]);
+		forces.setCroll(nonAxial[CROLL_FORCE]);
+		forces.setCP(new Coordinate(nonAxial[CP_X], 0, 0, nonAxial[CNA]));
+		return forces;
+	}
+
+
+	@Override
+	protected double calculateFrictionDrag(FlightConfiguration configuration, FlightConditions conditions,
+			Map<RocketComponent, AerodynamicForces> map, WarningSet set) {
+		Table table = (map == null) ? getTable(configuration, conditions) : null;
+		if (table == null) {
+			return super.calculateFrictionDrag(configuration, conditions, map, set);
+		}
+		return table.getDrag(configuration, conditions)[FRICTION_CD];
+	}
+
+
+	@Override
+	protected double calculatePressureDrag(FlightConfiguration configuration, FlightConditions conditions,
+			Map<RocketComponent, AerodynamicForces> map, WarningSet warnings) {
+		Table table = (map == null) ? getTable(configuration, conditions) : null;
+		if (table == null) {
+			return super.calculatePressureDrag(configuration, conditions, map, warnings);
+		}
+		return table.getDrag(configuration, conditions)[PRESSURE_CD];
+	}
+
+
+	@Override
+	protected double calculateBaseDrag(FlightConfiguration configuration, FlightConditions conditions,
+			Map<RocketComponent, AerodynamicForces> map, WarningSet warnings) {
+		Table table = (map == null) ? getTable(configuration, conditions) : null;
+		if (table == null) {
+			return super.calculateBaseDrag(configuration, conditions, map, warnings);
+		}
+		return table.getDrag(configuration, conditions)[BASE_CD];
+	}
+
+
+	@Override
+	protected void voidAerodynamicCache() {
+		super.voidAerodynamicCache();
+
+		tables.clear();
+		lastKey = -1;
+		lastTable = null;
+	}
+
+
+	/**
+	 * Return the table of the active stages of the configuration, or <code>null</code>
+	 * if the conditions are outside the tabulated range.
+	 */
+	private Table getTable(FlightConfiguration configuration, FlightConditions conditions) {
+		if (!(conditions.getMach() <= MAX_MACH) || configuration.getStageCount() >= Long.SIZE)
+			return null;
+
+		long key = 0;
+		for (int stage = 0; stage < configuration.getStageCount(); stage++) {
+			if (configuration.isStageActive(stage))
+				key |= 1L << stage;
+		}
+
+		Table table;
+		if (key == lastKey) {
+			table = lastTable;
+		} else {
+			table = tables.get(key);
+		}
+		if (table == null || table.refLength != conditions.getRefLength()) {
+			table = new Table(configuration, conditions.getRefLength());
+			tables.put(key, table);
+		}
+		table.configuration = configuration;
+		lastKey = key;
+		lastTable = table;
+		return table;
+	}
+
+
+	/**
+	 * The coefficient tables of one set of active stages.  The nodes are computed with
+	 * the configuration of the latest lookup, which always has the same active stages.
+	 */
+	private class Table {
+		private FlightConfiguration configuration;
+		private final double refLength;
+		private final FlightConditions sample;
+		private final WarningSet warnings = new WarningSet();
+		private final boolean axisymmetric;
+
+		private final InterpolationGrid nonAxialGrid;
+		private final InterpolationGrid dragGrid;
+
+		private final double[] drag = new double[DRAG_VALUES];
+		private double lastMach = Double.NaN;
+		private double lastLogRe = Double.NaN;
+
+
+		public Table(FlightConfiguration configuration, double refLength) {
+			this.configuration = configuration;
+			this.refLength = refLength;
+			this.sample = new FlightConditions(null);
+			this.sample.setRefLength(refLength);
+
+			this.nonAxialGrid = new InterpolationGrid(0, MAX_MACH, MACH_STEP, 0, Math.PI, AOA_STEP, NON_AXIAL_VALUES) {
+				@Override
+				protected void compute(double mach, double aoa, double[] result) {
+					computeNonAxial(mach, aoa, result);
+				}
+			};
+			this.dragGrid = new InterpolationGrid(0, MAX_MACH, MACH_STEP, MIN_LOG_RE, MAX_LOG_RE, LOG_RE_STEP, DRAG_VALUES) {
+				@Override
+				protected void compute(double mach, double logRe, double[] result) {
+					computeDrag(mach, logRe, result);
+				}
+			};
+
+			// Geometry warnings and dependency on the lateral wind direction
+			WarningSet sampleWarnings = new WarningSet();
+			double[] cn = new double[3];
+			for (int i = 0; i < cn.length; i++) {
+				setSample(0.3, 5 * Math.PI / 180);
+				sample.setTheta(i * 2 * Math.PI / 7);
+				cn[i] = TabulatedBarrowmanCalculator.super.calculateNonAxialForces(this.configuration, sample,
+						null, sampleWarnings).getCN();
+			}
+			for (Warning w : sampleWarnings) {
+				if (!(w instanceof Warning.LargeAOA))
+					warnings.add(w);
+			}
+			axisymmetric = MathUtil.equals(cn[0], cn[1]) && MathUtil.equals(cn[0], cn[2]);
+		}
+
+
+		/**
+		 * Return the drag coefficients in the given flight conditions.  The values are
+		 * valid until the next call.
+		 */
+		public double[] getDrag(FlightConfiguration configuration, FlightConditions conditions) {
+			double mach = conditions.getMach();
+			double Re = conditions.getVelocity() * configuration.getLength() /
+					conditions.getAtmosphericConditions().getKinematicViscosity();
+			double logRe = (Re > 0) ? Math.log10(Re) : MIN_LOG_RE;
+			if (mach != lastMach || logRe != lastLogRe) {
+				dragGrid.interpolate(mach, logRe, drag);
+				lastMach = mach;
+				lastLogRe = logRe;
+			}
+			return drag;
+		}
+
+
+		private void computeNonAxial(double mach, double aoa, double[] result) {
+			setSample(mach, aoa);
+			AerodynamicForces f = TabulatedBarrowmanCalculator.super.calculateNonAxialForces(configuration, sample,
+					null, ignoreWarningSet);
+			result[CNA] = f.getCNa();
+			result[CN] = f.getCN();
+			result[CM] = f.getCm();
+			result[CSIDE] = f.getCside();
+			result[CYAW] = f.getCyaw();
+			result[CROLL_FORCE] = f.getCrollForce();
+			result[CP_X] = f.getCP().x;
+		}
+
+		private void computeDrag(double mach, double logRe, double[] result) {
+			setSample(mach, 0);
+			result[FRICTION_CD] = TabulatedBarrowmanCalculator.super.calculateFrictionDrag(configuration, sample,
+					Math.pow(10, logRe), null, ignoreWarningSet);
+			result[PRESSURE_CD] = TabulatedBarrowmanCalculator.super.calculatePressureDrag(configuration, sample,
+					null, ignoreWarningSet);
+			result[BASE_CD] = TabulatedBarrowmanCalculator.super.calculateBaseDrag(configuration, sample,
+					null, ignoreWarningSet);
+		}
+
+		private void setSample(double mach, double aoa) {
+			sample.setMach(mach);
+			sample.setAOA(aoa);
+			sample.setTheta(0);
+			sample.setRollRate(0);
+			sample.setPitchRate(0);
+			sample.setYawRate(0);
+		}
+	}
+}
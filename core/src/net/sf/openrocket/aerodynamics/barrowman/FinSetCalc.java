@@ -77,6 +77,7 @@ public class FinSetCalc extends RocketComponentCalc {
 		calculateFinGeometry(fin);
 		calculatePoly();
 		calculateInterferenceFinCount(component);
+		geometryWarnings.immute();
 	}
 	
 	/*
@@ -6,6 +6,13 @@ import net.sf.openrocket.aerodynamics.WarningSet;
 import net.sf.openrocket.rocketcomponent.RocketComponent;
 import net.sf.openrocket.util.Transformation;
 
+/**
+ * The aerodynamic calculator of a single component.  All the data needed from the
+ * component is computed when the calculator is constructed, and the calculator must not
+ * be modified afterwards, since the same calculator is used by several
+ * {@link net.sf.openrocket.aerodynamics.BarrowmanCalculator} instances, possibly in
+ * different threads.
+ */
 public abstract class RocketComponentCalc {
 
 	public RocketComponentCalc(RocketComponent component) {
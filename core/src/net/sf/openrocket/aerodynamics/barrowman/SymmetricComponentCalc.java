@@ -44,6 +44,12 @@ public class SymmetricComponentCalc extends RocketComponentCalc {
 	private final double planformArea, planformCenter;
 	private final double sinphi;
 	
+	private final boolean isTube;
+	private final double cna;
+	private final double cpx;
+	// Pressure drag interpolator of nose cones and shoulders, null for other shapes
+	private final LinearInterpolator interpolator;
+	
 	public SymmetricComponentCalc(RocketComponent c) {
 		super(c);
 		if (!(c instanceof SymmetricComponent)) {
@@ -77,14 +83,30 @@ public class SymmetricComponentCalc extends RocketComponentCalc {
 			throw new UnsupportedOperationException("Unknown component type " +
 					component.getComponentName());
 		}
+		
+		// Pre-calculate the results, so that the calculator is not modified after construction
+		if (MathUtil.equals(foreRadius, aftRadius)) {
+			isTube = true;
+			cna = 0;
+			cpx = Double.NaN;
+		} else {
+			isTube = false;
+			
+			final double A0 = Math.PI * pow2(foreRadius);
+			final double A1 = Math.PI * pow2(aftRadius);
+			
+			cna = 2 * (A1 - A0);
+			cpx = (length * A1 - fullVolume) / (A1 - A0);
+		}
+		
+		if (!isTube && length >= 0.001 && aftRadius > foreRadius) {
+			interpolator = calculateNoseInterpolator();
+		} else {
+			interpolator = null;
+		}
 	}
 	
 	
-	private boolean isTube = false;
-	private double cnaCache = Double.NaN;
-	private double cpCache = Double.NaN;
-	
-	
 	/**
 	 * Calculates the non-axial forces produced by the fins (normal and side forces,
 	 * pitch, yaw and roll moments, CP position, CNa).
@@ -99,33 +121,13 @@ public class SymmetricComponentCalc extends RocketComponentCalc {
 	public void calculateNonaxialForces(FlightConditions conditions, Transformation transform,
 			AerodynamicForces forces, WarningSet warnings) {
 		
-		// Pre-calculate and store the results
-		if (Double.isNaN(cnaCache)) {
-			final double r0 = foreRadius;
-			final double r1 = aftRadius;
-			
-			if (MathUtil.equals(r0, r1)) {
-				isTube = true;
-				cnaCache = 0;
-			} else {
-				isTube = false;
-				
-				final double A0 = Math.PI * pow2(r0);
-				final double A1 = Math.PI * pow2(r1);
-				
-				cnaCache = 2 * (A1 - A0);
-				//System.out.println("cnaCache = " + cnaCache);
-				cpCache = (length * A1 - fullVolume) / (A1 - A0);
-			}
-		}
-		
 		Coordinate cp;
 		
 		// If fore == aft, only body lift is encountered
 		if (isTube) {
 			cp = getLiftCP(conditions, warnings);
 		} else {
-			cp = new Coordinate(cpCache, 0, 0, cnaCache * conditions.getSincAOA() /
+			cp = new Coordinate(cpx, 0, 0, cna * conditions.getSincAOA() /
 					conditions.getRefArea()).average(getLiftCP(conditions, warnings));
 		}
 		
@@ -172,9 +174,6 @@ public class SymmetricComponentCalc extends RocketComponentCalc {
 	}
 	
 	
-
-	private LinearInterpolator interpolator = null;
-	
 	@Override
 	public double calculatePressureDragForce(FlightConditions conditions,
 			double stagnationCD, double baseCD, WarningSet warnings) {
@@ -204,10 +203,6 @@ public class SymmetricComponentCalc extends RocketComponentCalc {
 		
 
 		// All nose cones and shoulders from pre-calculated and interpolating 
-		if (interpolator == null) {
-			calculateNoseInterpolator();
-		}
-		
 		return interpolator.getValue(conditions.getMach()) * frontalArea / conditions.getRefArea();
 	}
 	
@@ -265,7 +260,7 @@ public class SymmetricComponentCalc extends RocketComponentCalc {
 	}
 	
 	/**
-	 * Calculate the LinearInterpolator 'interpolator'.  After this call, if can be used
+	 * Calculate the pressure drag interpolator of a nose cone or shoulder.  It can be used
 	 * to get the pressure drag coefficient at any Mach number.
 	 * 
 	 * First, the transonic/supersonic region is computed.  For conical and ogive shapes
@@ -278,11 +273,11 @@ public class SymmetricComponentCalc extends RocketComponentCalc {
 	 * region is interpolated in the form   Cd = a*M^b + Cd(M=0).
 	 */
 	@SuppressWarnings("null")
-	private void calculateNoseInterpolator() {
+	private LinearInterpolator calculateNoseInterpolator() {
 		LinearInterpolator int1 = null, int2 = null;
 		double p = 0;
 		
-		interpolator = new LinearInterpolator();
+		LinearInterpolator interpolator = new LinearInterpolator();
 		
 
 		/*
@@ -386,7 +381,7 @@ public class SymmetricComponentCalc extends RocketComponentCalc {
 		double minValue = interpolator.getValue(min);
 		if (minValue < 0.001) {
 			// No interpolation necessary
-			return;
+			return interpolator;
 		}
 		
 		double cdMach0 = 0.8 * pow2(sinphi);
@@ -394,7 +389,7 @@ public class SymmetricComponentCalc extends RocketComponentCalc {
 		
 		// These should not occur, but might cause havoc for the interpolation
 		if ((cdMach0 >= minValue - 0.01) || (minDeriv <= 0.01)) {
-			return;
+			return interpolator;
 		}
 		
 		// Cd = a*M^b + cdMach0
@@ -404,6 +399,7 @@ public class SymmetricComponentCalc extends RocketComponentCalc {
 		for (double m = 0; m < minValue; m += 0.05) {
 			interpolator.addPoint(m, a * Math.pow(m, b) + cdMach0);
 		}
+		return interpolator;
 	}
 	
 	
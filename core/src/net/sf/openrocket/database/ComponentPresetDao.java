@@ -3,6 +3,7 @@ package net.sf.openrocket.database;
 import java.util.List;
 
 import net.sf.openrocket.preset.ComponentPreset;
+import net.sf.openrocket.preset.TypedKey;
 
 public interface ComponentPresetDao {
 
@@ -49,6 +50,19 @@ public interface ComponentPresetDao {
 	 */
 	public List<ComponentPreset> listForTypes( List<ComponentPreset.Type> types );
 
+	/**
+	 * Returns the component presets of the given type whose dimension is within a range,
+	 * for example the body tubes whose inner diameter fits a motor.  Presets that do not
+	 * have the dimension are not returned.
+	 * @param type		the searched type
+	 * @param dimension	the dimension, one of {@link ComponentPreset#OUTER_DIAMETER},
+	 * 					{@link ComponentPreset#INNER_DIAMETER} and {@link ComponentPreset#LENGTH}
+	 * @param min		the minimum value of the dimension, inclusive
+	 * @param max		the maximum value of the dimension, inclusive
+	 * @return			the list of components matching the type and range
+	 */
+	public List<ComponentPreset> listForType( ComponentPreset.Type type, TypedKey<Double> dimension, double min, double max );
+
 	/**
 	 * set or reset a component preset as favorite
 	 * @param preset	the preset to be set as favorite
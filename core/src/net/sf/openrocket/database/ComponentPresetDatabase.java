@@ -1,20 +1,40 @@
 package net.sf.openrocket.database;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import net.sf.openrocket.preset.ComponentPreset;
+import net.sf.openrocket.preset.TypedKey;
 import net.sf.openrocket.startup.Application;
 
+/**
+ * The database of component presets.
+ * <p>
+ * The queries are answered from indices of the presets by type, by manufacturer and part
+ * number and by the outer diameter, inner diameter and length of the presets of each type.
+ * The indices are built on the first query after the database has been modified, and they
+ * return the presets in the order of the database.
+ */
 public class ComponentPresetDatabase extends Database<ComponentPreset> implements ComponentPresetDao {
 
 	private static final Logger logger = LoggerFactory.getLogger(ComponentPresetDatabase.class);
 	
+	/** The dimensions by which the presets can be searched with a range query. */
+	private static final List<TypedKey<Double>> INDEXED_DIMENSIONS = Arrays.asList(
+			ComponentPreset.OUTER_DIAMETER, ComponentPreset.INNER_DIAMETER, ComponentPreset.LENGTH);
+
+	private volatile Index index = null;
+
 	public ComponentPresetDatabase() {
 		super();
 	}
@@ -27,6 +47,7 @@ public class ComponentPresetDatabase extends Database<ComponentPreset> implement
 	@Override
 	public void insert( ComponentPreset preset ) {
 		list.add(preset);
+		index = null;
 	}
 
 	@Override
@@ -35,15 +56,8 @@ public class ComponentPresetDatabase extends Database<ComponentPreset> implement
 			return Collections.<ComponentPreset>emptyList();
 		}
 
-		List<ComponentPreset> result = new ArrayList<ComponentPreset>(list.size()/6);
-
-		for( ComponentPreset preset : list ) {
-			if ( preset.get(ComponentPreset.TYPE).equals(type) ) {
-				result.add(preset);
-			}
-		}
-		return result;
-
+		Index index = getIndex();
+		return index.toList(index.typePositions(type));
 	}
 
 	/**
@@ -60,12 +74,11 @@ public class ComponentPresetDatabase extends Database<ComponentPreset> implement
 			return listForType(type);
 		}
 
-		List<ComponentPreset> result = new ArrayList<ComponentPreset>(list.size()/6);
-
 		Set<String> favorites = Application.getPreferences().getComponentFavorites(type);
 
-		for( ComponentPreset preset : list ) {
-			if ( preset.get(ComponentPreset.TYPE).equals(type) && favorites.contains(preset.preferenceKey())) {
+		List<ComponentPreset> result = new ArrayList<ComponentPreset>();
+		for( ComponentPreset preset : listForType(type) ) {
+			if ( favorites.contains(preset.preferenceKey()) ) {
 				result.add(preset);
 			}
 		}
@@ -82,35 +95,41 @@ public class ComponentPresetDatabase extends Database<ComponentPreset> implement
 			return listForType(type[0]);
 		}
 
-		List<ComponentPreset> result = new ArrayList<ComponentPreset>(list.size()/6);
-
-		for( ComponentPreset preset : list ) {
-			ComponentPreset.Type presetType = preset.get(ComponentPreset.TYPE);
-			typeLoop: for( int i=0; i<type.length; i++ ) {
-				if ( presetType.equals(type[i]) ) {
-					result.add(preset);
-					break typeLoop; // from inner loop.
-				}
-			}
-
+		Index index = getIndex();
+		int[][] positions = new int[type.length][];
+		for( int i=0; i<type.length; i++ ) {
+			positions[i] = index.typePositions(type[i]);
 		}
-		return result;
+		return index.toList(union(positions));
 	}
 
 	@Override
 	public List<ComponentPreset> listForTypes( List<ComponentPreset.Type> types ) {
-		return listForTypes( (ComponentPreset.Type[]) types.toArray() );
+		return listForTypes( types.toArray(new ComponentPreset.Type[types.size()]) );
+	}
+
+	@Override
+	public List<ComponentPreset> listForType( ComponentPreset.Type type, TypedKey<Double> dimension, double min, double max ) {
+		if ( !INDEXED_DIMENSIONS.contains(dimension) ) {
+			throw new IllegalArgumentException("Dimension " + dimension + " is not indexed");
+		}
+		if ( type == null || !(min <= max) ) {
+			return Collections.<ComponentPreset>emptyList();
+		}
+
+		Index index = getIndex();
+		DimensionIndex dimensionIndex = index.dimensions.get(type).get(dimension);
+		return index.toList(dimensionIndex.positions(min, max));
 	}
 
 	@Override
 	public List<ComponentPreset> find(String manufacturer, String partNo) {
-		List<ComponentPreset> presets = new ArrayList<ComponentPreset>();
-		for( ComponentPreset preset : list ) {
-			if ( preset.getManufacturer().getSimpleName().equals(manufacturer) && preset.getPartNo().equals(partNo) ) {
-				presets.add(preset);
-			}
+		Index index = getIndex();
+		Map<String, int[]> parts = index.parts.get(manufacturer);
+		if ( parts == null || !parts.containsKey(partNo) ) {
+			return new ArrayList<ComponentPreset>();
 		}
-		return presets;
+		return index.toList(parts.get(partNo));
 	}
 
 	@Override
@@ -119,4 +138,226 @@ public class ComponentPresetDatabase extends Database<ComponentPreset> implement
 		this.fireAddEvent(preset);
 	}
 
+	/*
+	 * All modifications of the database through the Database methods fire an event,
+	 * so the indices are dropped there.
+	 */
+	@Override
+	protected void fireAddEvent(ComponentPreset element) {
+		index = null;
+		super.fireAddEvent(element);
+	}
+
+	@Override
+	protected void fireRemoveEvent(ComponentPreset element) {
+		index = null;
+		super.fireRemoveEvent(element);
+	}
+
+
+	private Index getIndex() {
+		Index current = index;
+		if ( current == null ) {
+			current = new Index(list);
+			index = current;
+			logger.debug("Indexed {} component presets", list.size());
+		}
+		return current;
+	}
+
+	/*
+	 * Return the union of sorted position arrays in ascending order.
+	 */
+	private static int[] union(int[][] positions) {
+		int count = 0;
+		for( int[] p : positions ) {
+			count += p.length;
+		}
+		int[] result = new int[count];
+		count = 0;
+		for( int[] p : positions ) {
+			System.arraycopy(p, 0, result, count, p.length);
+			count += p.length;
+		}
+		Arrays.sort(result);
+
+		// The same type may have been given more than once
+		int n = 0;
+		for( int i=0; i<result.length; i++ ) {
+			if ( n == 0 || result[i] != result[n-1] ) {
+				result[n++] = result[i];
+			}
+		}
+		return Arrays.copyOf(result, n);
+	}
+
+
+	/**
+	 * The indices of a snapshot of the presets of the database.  The presets are referred
+	 * to by their positions in the snapshot, so that the results of all queries are in
+	 * the order of the database.
+	 */
+	private static final class Index {
+		private static final int[] NONE = new int[0];
+
+		private final ComponentPreset[] presets;
+		private final Map<ComponentPreset.Type, int[]> types =
+				new EnumMap<ComponentPreset.Type, int[]>(ComponentPreset.Type.class);
+		private final Map<String, Map<String, int[]>> parts = new HashMap<String, Map<String, int[]>>();
+		private final Map<ComponentPreset.Type, Map<TypedKey<Double>, DimensionIndex>> dimensions =
+				new EnumMap<ComponentPreset.Type, Map<TypedKey<Double>, DimensionIndex>>(ComponentPreset.Type.class);
+
+		Index(List<ComponentPreset> list) {
+			presets = list.toArray(new ComponentPreset[list.size()]);
+
+			Map<ComponentPreset.Type, IntList> typeLists = new EnumMap<ComponentPreset.Type, IntList>(ComponentPreset.Type.class);
+			Map<String, Map<String, IntList>> partLists = new HashMap<String, Map<String, IntList>>();
+			for( int i=0; i<presets.length; i++ ) {
+				ComponentPreset preset = presets[i];
+
+				ComponentPreset.Type type = preset.getType();
+				IntList typeList = typeLists.get(type);
+				if ( typeList == null ) {
+					typeList = new IntList();
+					typeLists.put(type, typeList);
+				}
+				typeList.add(i);
+
+				String manufacturer = preset.getManufacturer().getSimpleName();
+				Map<String, IntList> partNos = partLists.get(manufacturer);
+				if ( partNos == null ) {
+					partNos = new HashMap<String, IntList>();
+					partLists.put(manufacturer, partNos);
+				}
+				IntList partList = partNos.get(preset.getPartNo());
+				if ( partList == null ) {
+					partList = new IntList();
+					partNos.put(preset.getPartNo(), partList);
+				}
+				partList.add(i);
+			}
+
+			for( ComponentPreset.Type type : ComponentPreset.Type.values() ) {
+				int[] positions = typeLists.containsKey(type) ? typeLists.get(type).toArray() : NONE;
+				types.put(type, positions);
+
+				Map<TypedKey<Double>, DimensionIndex> typeDimensions = new HashMap<TypedKey<Double>, DimensionIndex>();
+				for( TypedKey<Double> dimension : INDEXED_DIMENSIONS ) {
+					typeDimensions.put(dimension, new DimensionIndex(presets, positions, dimension));
+				}
+				dimensions.put(type, typeDimensions);
+			}
+
+			for( Map.Entry<String, Map<String, IntList>> e : partLists.entrySet() ) {
+				Map<String, int[]> partNos = new HashMap<String, int[]>();
+				for( Map.Entry<String, IntList> p : e.getValue().entrySet() ) {
+					partNos.put(p.getKey(), p.getValue().toArray());
+				}
+				parts.put(e.getKey(), partNos);
+			}
+		}
+
+		int[] typePositions(ComponentPreset.Type type) {
+			return (type == null) ? NONE : types.get(type);
+		}
+
+		List<ComponentPreset> toList(int[] positions) {
+			List<ComponentPreset> result = new ArrayList<ComponentPreset>(positions.length);
+			for( int position : positions ) {
+				result.add(presets[position]);
+			}
+			return result;
+		}
+	}
+
+
+	/**
+	 * The values of one dimension of the presets of one type, sorted by the value, with
+	 * the positions of the presets.  Presets without the dimension are not included.
+	 */
+	private static final class DimensionIndex {
+		private final double[] values;
+		private final int[] positions;
+
+		DimensionIndex(ComponentPreset[] presets, int[] typePositions, TypedKey<Double> dimension) {
+			IntList withDimension = new IntList();
+			for( int position : typePositions ) {
+				if ( presets[position].has(dimension) ) {
+					withDimension.add(position);
+				}
+			}
+			final int[] p = withDimension.toArray();
+			final double[] v = new double[p.length];
+			Integer[] order = new Integer[p.length];
+			for( int i=0; i<p.length; i++ ) {
+				v[i] = presets[p[i]].get(dimension);
+				order[i] = i;
+			}
+			Arrays.sort(order, new Comparator<Integer>() {
+				@Override
+				public int compare(Integer a, Integer b) {
+					return Double.compare(v[a], v[b]);
+				}
+			});
+
+			values = new double[p.length];
+			positions = new int[p.length];
+			for( int i=0; i<p.length; i++ ) {
+				values[i] = v[order[i]];
+				positions[i] = p[order[i]];
+			}
+		}
+
+		/*
+		 * Return the positions of the presets whose value is within [min, max] in ascending order.
+		 */
+		int[] positions(double min, double max) {
+			int from = lowerBound(min);
+			int to = lowerBound(Math.nextUp(max));
+			if ( from >= to ) {
+				return Index.NONE;
+			}
+			int[] result = Arrays.copyOfRange(positions, from, to);
+			Arrays.sort(result);
+			return result;
+		}
+
+		/*
+		 * Return the index of the first value that is not less than x.
+		 */
+		private int lowerBound(double x) {
+			int low = 0;
+			int high = values.length;
+			while ( low < high ) {
+				int mid = (low + high) >>> 1;
+				if ( values[mid] < x ) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			return low;
+		}
+	}
+
+
+	/**
+	 * A growable list of int values.
+	 */
+	private static final class IntList {
+		private int[] values = new int[8];
+		private int size = 0;
+
+		void add(int value) {
+			if ( size == values.length ) {
+				values = Arrays.copyOf(values, size * 2);
+			}
+			values[size++] = value;
+		}
+
+		int[] toArray() {
+			return Arrays.copyOf(values, size);
+		}
+	}
+
 }
@@ -1,5 +1,6 @@
 package net.sf.openrocket.database;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInputStream;
@@ -9,7 +10,6 @@ import java.util.List;
 import net.sf.openrocket.file.iterator.DirectoryIterator;
 import net.sf.openrocket.file.iterator.FileIterator;
 import net.sf.openrocket.gui.util.SimpleFileFilter;
-import net.sf.openrocket.gui.util.SwingPreferences;
 import net.sf.openrocket.preset.ComponentPreset;
 import net.sf.openrocket.preset.xml.OpenRocketComponentLoader;
 import net.sf.openrocket.startup.Application;
@@ -65,13 +65,14 @@ public class ComponentPresetDatabaseLoader extends AsynchronousDatabaseLoader {
 	 * uses the directory defined in the preferences
 	 */
 	private void loadUserComponents() {
+		File directory = Application.getPreferences().getDefaultUserComponentDirectory();
+		if (directory == null) {
+			return;
+		}
 		SimpleFileFilter orcFilter = new SimpleFileFilter("", false, "orc");
 		FileIterator iterator;
 		try {
-			iterator = new DirectoryIterator(
-					((SwingPreferences) Application.getPreferences()).getDefaultUserComponentDirectory(),
-					orcFilter,
-					true);
+			iterator = new DirectoryIterator(directory, orcFilter, true);
 		} catch (IOException ioex) {
 			log.debug("Error opening UserComponentDirectory", ioex);
 			return;
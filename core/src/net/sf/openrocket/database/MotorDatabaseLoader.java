@@ -6,6 +6,7 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInputStream;
+import java.net.URL;
 import java.util.List;
 
 import org.slf4j.Logger;
@@ -16,10 +17,11 @@ import net.sf.openrocket.file.iterator.DirectoryIterator;
 import net.sf.openrocket.file.iterator.FileIterator;
 import net.sf.openrocket.file.motor.GeneralMotorLoader;
 import net.sf.openrocket.gui.util.SimpleFileFilter;
-import net.sf.openrocket.gui.util.SwingPreferences;
 import net.sf.openrocket.motor.ThrustCurveMotor;
+import net.sf.openrocket.motor.ThrustCurveMotorSnapshot;
 import net.sf.openrocket.startup.Application;
 import net.sf.openrocket.util.BugException;
+import net.sf.openrocket.util.JarUtil;
 import net.sf.openrocket.util.Pair;
 
 /**
@@ -62,7 +64,7 @@ public class MotorDatabaseLoader extends AsynchronousDatabaseLoader {
 		GeneralMotorLoader loader = new GeneralMotorLoader();
 		SimpleFileFilter fileFilter = new SimpleFileFilter("", loader.getSupportedExtensions());
 		log.info("Starting reading user-defined motors");
-		for (File file : ((SwingPreferences) Application.getPreferences()).getUserThrustCurveFiles()) {
+		for (File file : Application.getPreferences().getUserThrustCurveFiles()) {
 			if (file.isFile()) {
 				loadFile(loader, file);
 			} else if (file.isDirectory()) {
@@ -77,19 +79,49 @@ public class MotorDatabaseLoader extends AsynchronousDatabaseLoader {
 
 	/**
 	 * Loads the default, with established serialized manufacturing and data
-	 * uses directory "datafiles/thrustcurves" for data  
+	 * uses directory "datafiles/thrustcurves" for data.  Both motor database
+	 * snapshots and Java-serialized databases are read.
 	 */
 	private void loadSerializedMotorDatabase() {
 		log.info("Starting reading serialized motor database");
-		FileIterator iterator = DirectoryIterator.findDirectory(THRUSTCURVE_DIRECTORY, new SimpleFileFilter("", false, "ser"));
+		FileIterator iterator = DirectoryIterator.findDirectory(THRUSTCURVE_DIRECTORY,
+				new SimpleFileFilter("", false, "ser", ThrustCurveMotorSnapshot.EXTENSION));
 		while (iterator.hasNext()) {
 			Pair<String, InputStream> f = iterator.next();
-			loadSerialized(f);
+			if (f.getU().endsWith("." + ThrustCurveMotorSnapshot.EXTENSION)) {
+				loadSnapshot(f);
+			} else {
+				loadSerialized(f);
+			}
 		}
 		log.info("Ending reading serialized motor database, motorCount=" + motorCount);
 	}
 	
 	
+	/**
+	 * loads a motor database snapshot.  When the snapshot is a plain file it is
+	 * memory-mapped, otherwise it is read from the stream.
+	 * 
+	 * @param f	the pair of a String with the filename and the input stream
+	 */
+	private void loadSnapshot(Pair<String, InputStream> f) {
+		try {
+			log.debug("Reading motor snapshot " + f.getU());
+			List<ThrustCurveMotor> motors;
+			URL url = ClassLoader.getSystemResource(THRUSTCURVE_DIRECTORY + f.getU());
+			if (url != null && "file".equals(url.getProtocol())) {
+				f.getV().close();
+				motors = ThrustCurveMotorSnapshot.read(JarUtil.urlToFile(url));
+			} else {
+				motors = ThrustCurveMotorSnapshot.read(f.getV());
+			}
+			addMotors(motors);
+		} catch (Exception ex) {
+			throw new BugException(ex);
+		}
+	}
+	
+	
 	/**
 	 * loads a serailized motor data from an stream
 	 * 
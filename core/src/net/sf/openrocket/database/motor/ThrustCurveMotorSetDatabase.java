@@ -1,67 +1,125 @@
 package net.sf.openrocket.database.motor;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
+import net.sf.openrocket.motor.Manufacturer;
 import net.sf.openrocket.motor.Motor;
 import net.sf.openrocket.motor.ThrustCurveMotor;
 
 /**
  * A database containing ThrustCurveMotorSet objects and allowing adding a motor
  * to the database.
+ * <p>
+ * Lookups are answered from indices over all motors in the database, which are
+ * rebuilt lazily on the first query after motors have been added.
  * 
  * @author Sampo Niskanen <sampo.niskanen@iki.fi>
  */
 public class ThrustCurveMotorSetDatabase implements MotorDatabase {
 	
+	/** Tolerance used when matching motor diameter and length. */
+	private static final double SIZE_TOLERANCE = 0.005;
+
 	private final List<ThrustCurveMotorSet> motorSets = new ArrayList<ThrustCurveMotorSet>();
 	
+	private MotorIndex index = null;
+
 	@Override
 	public ThrustCurveMotor findMotor(String digest) {
 		if (digest == null) {
 			return null;
 		}
-		for (ThrustCurveMotorSet set : motorSets) {
-			for (ThrustCurveMotor m : set.getMotors()) {
-				if (digest.equals(m.getDigest())) {
-					return m;
-				}
-			}
-		}
-		
-		return null;
-		
+		return getIndex().digests.get(digest);
 	}
 	
 	@Override
 	public List<ThrustCurveMotor> findMotors(Motor.Type type, String manufacturer, String designation,
 			double diameter, double length) {
+		MotorIndex idx = getIndex();
+
+		// Start from the most selective index available
+		int[] candidates;
+		if (designation != null) {
+			candidates = idx.designations.get(designation.toLowerCase(Locale.ENGLISH));
+		} else if (manufacturer != null) {
+			candidates = idx.forManufacturer(manufacturer);
+		} else if (!Double.isNaN(diameter)) {
+			candidates = idx.byDiameter.range(diameter - 2 * SIZE_TOLERANCE, diameter + 2 * SIZE_TOLERANCE);
+		} else if (!Double.isNaN(length)) {
+			candidates = idx.byLength.range(length - 2 * SIZE_TOLERANCE, length + 2 * SIZE_TOLERANCE);
+		} else {
+			candidates = null;
+		}
+
 		ArrayList<ThrustCurveMotor> results = new ArrayList<ThrustCurveMotor>();
-		
-		for (ThrustCurveMotorSet set : motorSets) {
-			for (ThrustCurveMotor m : set.getMotors()) {
-				boolean match = true;
-				if (type != null && type != set.getType())
-					match = false;
-				else if (manufacturer != null && !m.getManufacturer().matches(manufacturer))
-					match = false;
-				else if (designation != null && !designation.equalsIgnoreCase(m.getDesignation()))
-					match = false;
-				else if (!Double.isNaN(diameter) && (Math.abs(diameter - m.getDiameter()) > 0.005))
-					match = false;
-				else if (!Double.isNaN(length) && (Math.abs(length - m.getLength()) > 0.005))
-					match = false;
-					
-				if (match)
-					results.add(m);
+		if (candidates == null) {
+			if (designation != null || manufacturer != null) {
+				return results;
 			}
+			candidates = idx.all();
 		}
 		
+		for (int i : candidates) {
+			ThrustCurveMotor m = idx.motors[i];
+			boolean match = true;
+			if (type != null && type != idx.types[i])
+				match = false;
+			else if (manufacturer != null && !m.getManufacturer().matches(manufacturer))
+				match = false;
+			else if (designation != null && !designation.equalsIgnoreCase(m.getDesignation()))
+				match = false;
+			else if (!Double.isNaN(diameter) && (Math.abs(diameter - m.getDiameter()) > SIZE_TOLERANCE))
+				match = false;
+			else if (!Double.isNaN(length) && (Math.abs(length - m.getLength()) > SIZE_TOLERANCE))
+				match = false;
+
+			if (match)
+				results.add(m);
+		}
+
 		return results;
 	}
 	
 	
+	/**
+	 * Return all motors whose diameter and length lie within the given inclusive ranges,
+	 * in database order.  NaN bounds are ignored.
+	 *
+	 * @param minDiameter	the minimum diameter, or NaN.
+	 * @param maxDiameter	the maximum diameter, or NaN.
+	 * @param minLength		the minimum length, or NaN.
+	 * @param maxLength		the maximum length, or NaN.
+	 * @return				a list of the matching motors.
+	 */
+	public List<ThrustCurveMotor> findMotorsBySize(double minDiameter, double maxDiameter,
+			double minLength, double maxLength) {
+		MotorIndex idx = getIndex();
+
+		int[] candidates = idx.byDiameter.range(
+				Double.isNaN(minDiameter) ? Double.NEGATIVE_INFINITY : minDiameter,
+				Double.isNaN(maxDiameter) ? Double.POSITIVE_INFINITY : maxDiameter);
+
+		ArrayList<ThrustCurveMotor> results = new ArrayList<ThrustCurveMotor>();
+		for (int i : candidates) {
+			ThrustCurveMotor m = idx.motors[i];
+			if (!Double.isNaN(minLength) && m.getLength() < minLength)
+				continue;
+			if (!Double.isNaN(maxLength) && m.getLength() > maxLength)
+				continue;
+			results.add(m);
+		}
+		return results;
+	}
+
+
 	/**
 	 * Return a list of all ThrustCurveMotorSets.
 	 */
@@ -77,7 +135,9 @@ public class ThrustCurveMotorSetDatabase implements MotorDatabase {
 	 * 
 	 * @param motor		the motor to add
 	 */
-	public void addMotor(ThrustCurveMotor motor) {
+	public synchronized void addMotor(ThrustCurveMotor motor) {
+		index = null;
+
 		// Iterate from last to first, as this is most likely to hit early when loading files
 		for (int i = motorSets.size() - 1; i >= 0; i--) {
 			ThrustCurveMotorSet set = motorSets.get(i);
@@ -92,4 +152,176 @@ public class ThrustCurveMotorSetDatabase implements MotorDatabase {
 		motorSets.add(newSet);
 	}
 	
+
+	private synchronized MotorIndex getIndex() {
+		if (index == null) {
+			index = new MotorIndex(motorSets);
+		}
+		return index;
+	}
+
+
+	/**
+	 * Immutable lookup structures over a snapshot of the database.  Motors are
+	 * numbered in database order, and every index lists motor numbers in increasing
+	 * order so that results keep the order of a full scan.
+	 */
+	private static final class MotorIndex {
+
+		private final ThrustCurveMotor[] motors;
+		private final Motor.Type[] types;
+
+		private final Map<String, ThrustCurveMotor> digests = new HashMap<String, ThrustCurveMotor>();
+		private final Map<String, int[]> designations;
+		private final Map<Manufacturer, int[]> manufacturers;
+		private final SortedIndex byDiameter;
+		private final SortedIndex byLength;
+
+		public MotorIndex(List<ThrustCurveMotorSet> sets) {
+			List<ThrustCurveMotor> motorList = new ArrayList<ThrustCurveMotor>();
+			List<Motor.Type> typeList = new ArrayList<Motor.Type>();
+			for (ThrustCurveMotorSet set : sets) {
+				for (ThrustCurveMotor m : set.getMotors()) {
+					motorList.add(m);
+					typeList.add(set.getType());
+				}
+			}
+			motors = motorList.toArray(new ThrustCurveMotor[0]);
+			types = typeList.toArray(new Motor.Type[0]);
+
+			Map<String, List<Integer>> designationLists = new HashMap<String, List<Integer>>();
+			Map<Manufacturer, List<Integer>> manufacturerLists = new LinkedHashMap<Manufacturer, List<Integer>>();
+			double[] diameters = new double[motors.length];
+			double[] lengths = new double[motors.length];
+
+			for (int i = 0; i < motors.length; i++) {
+				ThrustCurveMotor m = motors[i];
+
+				// First motor with a digest wins, as with a linear search
+				if (m.getDigest() != null && !digests.containsKey(m.getDigest())) {
+					digests.put(m.getDigest(), m);
+				}
+				if (m.getDesignation() != null) {
+					add(designationLists, m.getDesignation().toLowerCase(Locale.ENGLISH), i);
+				}
+				add(manufacturerLists, m.getManufacturer(), i);
+				diameters[i] = m.getDiameter();
+				lengths[i] = m.getLength();
+			}
+
+			designations = toArrays(designationLists);
+			manufacturers = toArrays(manufacturerLists);
+			byDiameter = new SortedIndex(diameters);
+			byLength = new SortedIndex(lengths);
+		}
+
+		public int[] all() {
+			int[] all = new int[motors.length];
+			for (int i = 0; i < all.length; i++) {
+				all[i] = i;
+			}
+			return all;
+		}
+
+		/**
+		 * Return the motors of all manufacturers matching the given name, or null if none match.
+		 */
+		public int[] forManufacturer(String name) {
+			int[] result = null;
+			for (Map.Entry<Manufacturer, int[]> e : manufacturers.entrySet()) {
+				if (e.getKey().matches(name)) {
+					result = (result == null) ? e.getValue() : merge(result, e.getValue());
+				}
+			}
+			return result;
+		}
+
+		private static <K> void add(Map<K, List<Integer>> map, K key, int value) {
+			List<Integer> list = map.get(key);
+			if (list == null) {
+				list = new ArrayList<Integer>();
+				map.put(key, list);
+			}
+			list.add(value);
+		}
+
+		private static <K> Map<K, int[]> toArrays(Map<K, List<Integer>> lists) {
+			Map<K, int[]> map = new LinkedHashMap<K, int[]>();
+			for (Map.Entry<K, List<Integer>> e : lists.entrySet()) {
+				List<Integer> list = e.getValue();
+				int[] array = new int[list.size()];
+				for (int i = 0; i < array.length; i++) {
+					array[i] = list.get(i);
+				}
+				map.put(e.getKey(), array);
+			}
+			return map;
+		}
+
+		private static int[] merge(int[] a, int[] b) {
+			int[] result = Arrays.copyOf(a, a.length + b.length);
+			System.arraycopy(b, 0, result, a.length, b.length);
+			Arrays.sort(result);
+			return result;
+		}
+	}
+
+
+	/**
+	 * Motor numbers sorted by a dimension, supporting inclusive range queries.
+	 */
+	private static final class SortedIndex {
+
+		private final double[] values;
+		private final int[] order;
+
+		public SortedIndex(final double[] keys) {
+			Integer[] boxed = new Integer[keys.length];
+			for (int i = 0; i < keys.length; i++) {
+				boxed[i] = i;
+			}
+			Arrays.sort(boxed, new Comparator<Integer>() {
+				@Override
+				public int compare(Integer a, Integer b) {
+					return Double.compare(keys[a], keys[b]);
+				}
+			});
+
+			values = new double[keys.length];
+			order = new int[keys.length];
+			for (int i = 0; i < keys.length; i++) {
+				order[i] = boxed[i];
+				values[i] = keys[order[i]];
+			}
+		}
+
+		/**
+		 * Return the motor numbers with a value in [min, max], in increasing motor number order.
+		 */
+		public int[] range(double min, double max) {
+			int start = lowerBound(min);
+			int end = start;
+			while (end < values.length && values[end] <= max) {
+				end++;
+			}
+			int[] result = Arrays.copyOfRange(order, start, end);
+			Arrays.sort(result);
+			return result;
+		}
+
+		private int lowerBound(double key) {
+			int low = 0;
+			int high = values.length;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (values[mid] < key) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			return low;
+		}
+	}
+
 }
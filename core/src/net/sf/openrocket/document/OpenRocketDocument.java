@@ -25,6 +25,7 @@ import net.sf.openrocket.rocketcomponent.FlightConfiguration;
 import net.sf.openrocket.rocketcomponent.FlightConfigurationId;
 import net.sf.openrocket.rocketcomponent.Rocket;
 import net.sf.openrocket.rocketcomponent.RocketComponent;
+import net.sf.openrocket.rocketcomponent.RocketSnapshot;
 import net.sf.openrocket.simulation.FlightDataType;
 import net.sf.openrocket.simulation.customexpression.CustomExpression;
 import net.sf.openrocket.simulation.extension.SimulationExtension;
@@ -72,9 +73,10 @@ public class OpenRocketDocument implements ComponentChangeListener {
 	
 	/** 
 	 * The undo history of the rocket.   Whenever a new undo position is created while the
-	 * rocket is in "dirty" state, the rocket is copied here.
+	 * rocket is in "dirty" state, a snapshot of the rocket is stored here.  Consecutive
+	 * snapshots share the components that have not changed in between.
 	 */
-	private LinkedList<Rocket> undoHistory = new LinkedList<Rocket>();
+	private LinkedList<RocketSnapshot> undoHistory = new LinkedList<RocketSnapshot>();
 	private LinkedList<String> undoDescription = new LinkedList<String>();
 	
 	/**
@@ -483,7 +485,7 @@ public class OpenRocketDocument implements ComponentChangeListener {
 	 */
 	private void addStateToUndoHistory(String description) {
 		// Add the current state to the undo history
-		undoHistory.add(rocket.copyWithOriginalID());
+		undoHistory.add(RocketSnapshot.take(rocket, undoHistory.peekLast()));
 		undoDescription.add(null);
 		nextDescription = description;
 		undoPosition++;
@@ -572,7 +574,7 @@ public class OpenRocketDocument implements ComponentChangeListener {
 		undoHistory.clear();
 		undoDescription.clear();
 		
-		undoHistory.add(rocket.copyWithOriginalID());
+		undoHistory.add(RocketSnapshot.take(rocket, null));
 		undoDescription.add(null);
 		undoPosition = 0;
 		
@@ -686,14 +688,12 @@ public class OpenRocketDocument implements ComponentChangeListener {
 				logUndoError("undo position inconsistency");
 			}
 			// Modifications have been made, save the state and restore previous state
-			undoHistory.add(rocket.copyWithOriginalID());
+			undoHistory.add(RocketSnapshot.take(rocket, undoHistory.peekLast()));
 			undoDescription.add(null);
 		}
 		
 		rocket.checkComponentStructure();
-		undoHistory.get(undoPosition).checkComponentStructure();
-		undoHistory.get(undoPosition).copyWithOriginalID().checkComponentStructure();
-		rocket.loadFrom(undoHistory.get(undoPosition).copyWithOriginalID());
+		rocket.loadFrom(undoHistory.get(undoPosition).toRocket());
 		rocket.checkComponentStructure();
 	}
 	
@@ -715,7 +715,7 @@ public class OpenRocketDocument implements ComponentChangeListener {
 		
 		undoPosition++;
 		
-		rocket.loadFrom(undoHistory.get(undoPosition).copyWithOriginalID());
+		rocket.loadFrom(undoHistory.get(undoPosition).toRocket());
 	}
 	
 	
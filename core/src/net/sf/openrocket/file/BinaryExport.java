@@ -0,0 +1,127 @@
+package net.sf.openrocket.file;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+import net.sf.openrocket.simulation.FlightDataBranch;
+import net.sf.openrocket.simulation.FlightDataType;
+import net.sf.openrocket.simulation.FlightEvent;
+import net.sf.openrocket.unit.Unit;
+
+/**
+ * Exports flight data in a compact binary format that stores the values of each field
+ * as one contiguous column.  All numbers are little-endian.
+ * <pre>
+ *   4 bytes   magic "ORFD"
+ *   int32     format version, currently 1
+ *   string    branch name
+ *   int32     number of fields
+ *   int32     number of data points
+ *   int32     number of flight events
+ *   for each field:  string name, string unit
+ *   for each event:  string event type, float64 time in seconds
+ *   for each field:  the float64 values of all data points, in the unit of the field
+ * </pre>
+ * A string is stored as an int32 byte count followed by the UTF-8 bytes.  Fields that the
+ * branch does not contain are written as NaN.
+ */
+public class BinaryExport {
+
+	/** The magic bytes at the start of the file */
+	public static final byte[] MAGIC = { 'O', 'R', 'F', 'D' };
+
+	/** The version of the format written */
+	public static final int FORMAT_VERSION = 1;
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * Exports the specified flight data branch into a binary file.  The stream is closed
+	 * after writing.
+	 *
+	 * @param stream		the stream to write to.
+	 * @param branch		the branch to export.
+	 * @param fields		the fields to export (in appropriate order).
+	 * @param units			the units of the fields.
+	 * @throws IOException	if an I/O exception occurs.
+	 */
+	public static void exportBinary(OutputStream stream, FlightDataBranch branch,
+			FlightDataType[] fields, Unit[] units) throws IOException {
+
+		if (fields.length != units.length) {
+			throw new IllegalArgumentException("fields and units lengths must be equal " +
+					"(" + fields.length + " vs " + units.length + ")");
+		}
+
+		try (OutputStream os = stream) {
+
+			ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			int n = branch.getLength();
+			List<FlightEvent> events = branch.getEvents();
+			Collections.sort(events);
+
+			// Header
+			buffer.put(MAGIC);
+			buffer.putInt(FORMAT_VERSION);
+			putString(os, buffer, branch.getBranchName());
+			buffer.putInt(fields.length);
+			buffer.putInt(n);
+			buffer.putInt(events.size());
+			for (int i = 0; i < fields.length; i++) {
+				putString(os, buffer, fields[i].getName());
+				putString(os, buffer, units[i].getUnit());
+			}
+			for (FlightEvent e : events) {
+				putString(os, buffer, e.getType().name());
+				ensureSpace(os, buffer, 8);
+				buffer.putDouble(e.getTime());
+			}
+
+			// Columns
+			for (int i = 0; i < fields.length; i++) {
+				DoubleBuffer column = branch.getColumn(fields[i]);
+				Unit unit = units[i];
+				for (int pos = 0; pos < n; pos++) {
+					if (buffer.remaining() < 8) {
+						flush(os, buffer);
+					}
+					double value = (column != null) ? column.get(pos) : Double.NaN;
+					buffer.putDouble(unit.toUnit(value));
+				}
+			}
+			flush(os, buffer);
+
+		}
+	}
+
+
+	private static void putString(OutputStream os, ByteBuffer buffer, String str) throws IOException {
+		byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+		ensureSpace(os, buffer, 4);
+		buffer.putInt(bytes.length);
+		if (buffer.remaining() >= bytes.length) {
+			buffer.put(bytes);
+		} else {
+			flush(os, buffer);
+			os.write(bytes);
+		}
+	}
+
+	private static void ensureSpace(OutputStream os, ByteBuffer buffer, int bytes) throws IOException {
+		if (buffer.remaining() < bytes) {
+			flush(os, buffer);
+		}
+	}
+
+	private static void flush(OutputStream os, ByteBuffer buffer) throws IOException {
+		os.write(buffer.array(), 0, buffer.position());
+		buffer.clear();
+	}
+
+}
@@ -2,8 +2,9 @@ package net.sf.openrocket.file;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.PrintWriter;
-import java.util.ArrayList;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.DoubleBuffer;
 import java.util.Collections;
 import java.util.List;
 
@@ -19,8 +20,15 @@ import net.sf.openrocket.util.TextUtil;
 
 public class CSVExport {
 	
+	/** Number of characters collected before they are written to the stream */
+	private static final int BLOCK_SIZE = 64 * 1024;
+	
 	/**
 	 * Exports the specified flight data branch into a CSV file.
+	 * <p>
+	 * The lines are formatted into a reused buffer directly from the flight data columns
+	 * and written to the stream in large blocks, so the stream does not need to be buffered.
+	 * The stream is closed after writing.
 	 * 
 	 * @param stream				the stream to write to.
 	 * @param simulation			the simulation being exported.
@@ -45,49 +53,42 @@ public class CSVExport {
 		}
 		
 
-		PrintWriter writer = null;
-		try {
+		try (Writer writer = new OutputStreamWriter(stream)) {
 			
-			writer = new PrintWriter(stream);
+			Block out = new Block(writer);
 			
 			// Write the initial comments
 			if (simulationComments) {
-				writeSimulationComments(writer, simulation, branch, fields, commentStarter);
+				writeSimulationComments(out, simulation, branch, fields, commentStarter);
 			}
 			
 			if (simulationComments && fieldComments) {
-				writer.println(commentStarter);
+				out.sb.append(commentStarter);
+				out.endLine();
 			}
 			
 			if (fieldComments) {
-				writer.print(commentStarter + " ");
+				out.sb.append(commentStarter).append(' ');
 				for (int i = 0; i < fields.length; i++) {
-					writer.print(fields[i].getName() + " (" + units[i].getUnit() + ")");
+					out.sb.append(fields[i].getName()).append(" (").append(units[i].getUnit()).append(')');
 					if (i < fields.length - 1) {
-						writer.print(fieldSeparator);
+						out.sb.append(fieldSeparator);
 					}
 				}
-				writer.println();
+				out.endLine();
 			}
 			
-			writeData(writer, branch, fields, units, fieldSeparator,
+			writeData(out, branch, fields, units, fieldSeparator,
 					eventComments, commentStarter);
 			
-
-		} finally {
-			if (writer != null) {
-				try {
-					writer.close();
-				} catch (Exception e) {
-					e.printStackTrace();
-				}
-			}
+			out.flush();
+			
 		}
 	}
 	
-	private static void writeData(PrintWriter writer, FlightDataBranch branch,
+	private static void writeData(Block out, FlightDataBranch branch,
 			FlightDataType[] fields, Unit[] units, String fieldSeparator, boolean eventComments,
-			String commentStarter) {
+			String commentStarter) throws IOException {
 		
 		// Number of data points
 		int n = branch.getLength();
@@ -97,22 +98,24 @@ public class CSVExport {
 		Collections.sort(events);
 		int eventPosition = 0;
 		
-		// List of field values
-		List<List<Double>> fieldValues = new ArrayList<List<Double>>();
-		for (FlightDataType t : fields) {
-			fieldValues.add(branch.get(t));
+		// List of field values, missing fields are written as NaN
+		DoubleBuffer[] fieldValues = new DoubleBuffer[fields.length];
+		for (int i = 0; i < fields.length; i++) {
+			fieldValues[i] = branch.getColumn(fields[i]);
 		}
 		
 		// Time variable
-		List<Double> time = branch.get(FlightDataType.TYPE_TIME);
+		DoubleBuffer time = branch.getColumn(FlightDataType.TYPE_TIME);
 		if (eventComments && time == null) {
 			// If time information is not available, print events at beginning of file
 			for (FlightEvent e : events) {
-				printEvent(writer, e, commentStarter);
+				printEvent(out, e, commentStarter);
 			}
 			eventPosition = events.size();
 		}
 		
+		final StringBuilder sb = out.sb;
+		final int last = fields.length - 1;
 
 		// Loop over all data points
 		for (int pos = 0; pos < n; pos++) {
@@ -123,27 +126,27 @@ public class CSVExport {
 				
 				while ((eventPosition < events.size()) &&
 						(events.get(eventPosition).getTime() <= t)) {
-					printEvent(writer, events.get(eventPosition), commentStarter);
+					printEvent(out, events.get(eventPosition), commentStarter);
 					eventPosition++;
 				}
 			}
 			
 			// Store CSV line
-			for (int i = 0; i < fields.length; i++) {
-				double value = fieldValues.get(i).get(pos);
-				writer.print(TextUtil.doubleToString(units[i].toUnit(value)));
-				if (i < fields.length - 1) {
-					writer.print(fieldSeparator);
+			for (int i = 0; i <= last; i++) {
+				double value = (fieldValues[i] != null) ? fieldValues[i].get(pos) : Double.NaN;
+				TextUtil.appendDouble(sb, units[i].toUnit(value));
+				if (i < last) {
+					sb.append(fieldSeparator);
 				}
 			}
-			writer.println();
+			out.endLine();
 			
 		}
 		
 		// Store any remaining events
 		if (eventComments && time != null) {
 			while (eventPosition < events.size()) {
-				printEvent(writer, events.get(eventPosition), commentStarter);
+				printEvent(out, events.get(eventPosition), commentStarter);
 				eventPosition++;
 			}
 		}
@@ -151,15 +154,17 @@ public class CSVExport {
 	}
 	
 	
-	private static void printEvent(PrintWriter writer, FlightEvent e,
-			String commentStarter) {
-		writer.println(commentStarter + " Event " + e.getType().name() +
-				" occurred at t=" + TextUtil.doubleToString(e.getTime()) + " seconds");
+	private static void printEvent(Block out, FlightEvent e,
+			String commentStarter) throws IOException {
+		out.sb.append(commentStarter).append(" Event ").append(e.getType().name()).append(" occurred at t=");
+		TextUtil.appendDouble(out.sb, e.getTime());
+		out.sb.append(" seconds");
+		out.endLine();
 	}
 	
-	private static void writeSimulationComments(PrintWriter writer,
+	private static void writeSimulationComments(Block out,
 			Simulation simulation, FlightDataBranch branch, FlightDataType[] fields,
-			String commentStarter) {
+			String commentStarter) throws IOException {
 		
 		String line;
 		
@@ -189,24 +194,64 @@ public class CSVExport {
 			break;
 		}
 		
-		writer.println(commentStarter + " " + line);
+		out.println(commentStarter + " " + line);
 		
 
-		writer.println(commentStarter + " " + branch.getLength() + " data points written for "
+		out.println(commentStarter + " " + branch.getLength() + " data points written for "
 				+ fields.length + " variables.");
 		
 
 		if (data == null) {
-			writer.println(commentStarter + " No simulation data available.");
+			out.println(commentStarter + " No simulation data available.");
 			return;
 		}
 		WarningSet warnings = data.getWarningSet();
 		
 		if (!warnings.isEmpty()) {
-			writer.println(commentStarter + " Simulation warnings:");
+			out.println(commentStarter + " Simulation warnings:");
 			for (Warning w : warnings) {
-				writer.println(commentStarter + "   " + w.toString());
+				out.println(commentStarter + "   " + w.toString());
+			}
+		}
+	}
+	
+	
+	/**
+	 * Lines collected into a block of characters that is written when it fills up.
+	 */
+	private static class Block {
+		private static final String NEWLINE = System.getProperty("line.separator");
+		
+		private final Writer writer;
+		private final StringBuilder sb = new StringBuilder(BLOCK_SIZE + 1024);
+		private final char[] chars = new char[BLOCK_SIZE + 1024];
+		
+		public Block(Writer writer) {
+			this.writer = writer;
+		}
+		
+		public void println(String line) throws IOException {
+			sb.append(line);
+			endLine();
+		}
+		
+		public void endLine() throws IOException {
+			sb.append(NEWLINE);
+			if (sb.length() >= BLOCK_SIZE) {
+				flush();
+			}
+		}
+		
+		public void flush() throws IOException {
+			int length = sb.length();
+			int offset = 0;
+			while (offset < length) {
+				int count = Math.min(length - offset, chars.length);
+				sb.getChars(offset, offset + count, chars, 0);
+				writer.write(chars, 0, count);
+				offset += count;
 			}
+			sb.setLength(0);
 		}
 	}
 	
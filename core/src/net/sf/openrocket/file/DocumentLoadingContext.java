@@ -8,6 +8,7 @@ public class DocumentLoadingContext {
 	private MotorFinder motorFinder;
 	private AttachmentFactory attachmentFactory = new FileSystemAttachmentFactory();
 	private OpenRocketDocument document;
+	private boolean flightDataDeferred = false;
 	
 	public int getFileVersion() {
 		return fileVersion;
@@ -40,5 +41,16 @@ public class DocumentLoadingContext {
 	public void setAttachmentFactory(AttachmentFactory attachmentFactory) {
 		this.attachmentFactory = attachmentFactory;
 	}
+		/**
+	 * Return whether stored flight data points should be decoded only when they are first
+	 * accessed, instead of while loading.
+	 */
+	public boolean isFlightDataDeferred() {
+		return flightDataDeferred;
+	}
+	
+	public void setFlightDataDeferred(boolean flightDataDeferred) {
+		this.flightDataDeferred = flightDataDeferred;
+	}
 	
 }
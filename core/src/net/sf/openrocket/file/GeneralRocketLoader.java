@@ -49,6 +49,7 @@ public class GeneralRocketLoader {
 	
 	private final MotorFinder motorFinder;
 	private AttachmentFactory attachmentFactory;
+	private boolean flightDataDeferred = false;
 	private final OpenRocketDocument doc = OpenRocketDocumentFactory.createEmptyRocket();
 	
 	public GeneralRocketLoader(File file) {
@@ -63,6 +64,16 @@ public class GeneralRocketLoader {
 		this.motorFinder = new DatabaseMotorFinder();
 	}
 	
+	/**
+	 * Set whether the data points of stored simulations are decoded only when the data
+	 * is first accessed, for example when a simulation is plotted.  This makes loading
+	 * documents with large amounts of flight data faster.  Format errors in deferred
+	 * points are logged instead of being reported as loading warnings.  Default is false.
+	 */
+	public void setFlightDataDeferred(boolean flightDataDeferred) {
+		this.flightDataDeferred = flightDataDeferred;
+	}
+	
 	/**
 	 * Loads a rocket from the File object used in the constructor
 	 */
@@ -237,6 +248,7 @@ public class GeneralRocketLoader {
 		context.setOpenRocketDocument(doc);
 		context.setMotorFinder(motorFinder);
 		context.setAttachmentFactory(attachmentFactory);
+		context.setFlightDataDeferred(flightDataDeferred);
 		loader.load(context, source);
 		warnings.addAll(loader.getWarnings());
 	}
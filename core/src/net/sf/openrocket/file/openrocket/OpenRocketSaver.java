@@ -5,7 +5,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
-import java.util.ArrayList;
+import java.nio.DoubleBuffer;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
@@ -324,8 +324,12 @@ public class OpenRocketSaver extends RocketSaver {
 		writeln("<name>" + TextUtil.escapeXML(simulation.getName()) + "</name>");
 		// TODO: MEDIUM: Other simulators/calculators
 		
-		writeln("<simulator>RK4Simulator</simulator>");
-		writeln("<calculator>BarrowmanCalculator</calculator>");
+		writeln("<simulator>" + cond.getIntegrationMethod().getSimulatorName() + "</simulator>");
+		if (cond.isTabulatedAerodynamics()) {
+			writeln("<calculator>TabulatedBarrowmanCalculator</calculator>");
+		} else {
+			writeln("<calculator>BarrowmanCalculator</calculator>");
+		}
 		
 		writeln("<conditions>");
 		indent++;
@@ -470,11 +474,11 @@ public class OpenRocketSaver extends RocketSaver {
 			return;
 		
 		// Retrieve the data from the branch
-		List<List<Double>> data = new ArrayList<List<Double>>(types.length);
+		DoubleBuffer[] data = new DoubleBuffer[types.length];
 		for (int i = 0; i < types.length; i++) {
-			data.add(branch.get(types[i]));
+			data[i] = branch.getColumn(types[i]);
 		}
-		List<Double> timeData = branch.get(FlightDataType.TYPE_TIME);
+		DoubleBuffer timeData = branch.getColumn(FlightDataType.TYPE_TIME);
 		
 		// Build the <databranch> tag
 		StringBuilder sb = new StringBuilder();
@@ -562,7 +566,7 @@ public class OpenRocketSaver extends RocketSaver {
 		if (types.length == 0)
 			return 0;
 		
-		List<Double> timeData = branch.get(FlightDataType.TYPE_TIME);
+		DoubleBuffer timeData = branch.getColumn(FlightDataType.TYPE_TIME);
 		if (timeData == null) {
 			// If time data not available, store all points
 			return branch.getLength();
@@ -591,14 +595,14 @@ public class OpenRocketSaver extends RocketSaver {
 	
 	
 	
-	private void writeDataPointString(List<List<Double>> data, int index, StringBuilder sb)
+	private void writeDataPointString(DoubleBuffer[] data, int index, StringBuilder sb)
 			throws IOException {
 		sb.setLength(0);
 		sb.append("<datapoint>");
-		for (int j = 0; j < data.size(); j++) {
+		for (int j = 0; j < data.length; j++) {
 			if (j > 0)
 				sb.append(",");
-			sb.append(TextUtil.doubleToString(data.get(j).get(index)));
+			sb.append(TextUtil.doubleToString(data[j].get(index)));
 		}
 		sb.append("</datapoint>");
 		writeln(sb.toString());
@@ -0,0 +1,136 @@
+package net.sf.openrocket.file.openrocket.importt;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+import net.sf.openrocket.aerodynamics.Warning;
+import net.sf.openrocket.aerodynamics.WarningSet;
+import net.sf.openrocket.file.simplesax.AbstractElementHandler;
+import net.sf.openrocket.file.simplesax.CharacterHandler;
+import net.sf.openrocket.file.simplesax.ElementHandler;
+
+/**
+ * Handler for a &lt;datapoint&gt; element.  The comma-separated values are parsed
+ * directly from the characters given by the parser into a row of doubles, without
+ * creating intermediate strings.  The same handler is reused for all points of a
+ * branch by calling {@link #reset()} before each point.
+ * <p>
+ * If the characters are captured into {@link DeferredDatapoints}, only the value of
+ * the time column is parsed, for computing the time step of the data.
+ */
+class DatapointHandler extends AbstractElementHandler implements CharacterHandler {
+
+	private final double[] row;
+	private final int timeColumn;
+	private final DeferredDatapoints capture;
+
+	private char[] token = new char[32];
+	private int tokenLength;
+	private int count;
+	private boolean formatError;
+
+
+	/**
+	 * Create a handler that parses all values of the points.
+	 *
+	 * @param columns	the number of values in a point.
+	 */
+	public DatapointHandler(int columns) {
+		this(columns, -1, null);
+	}
+
+	/**
+	 * Create a handler that captures the points for deferred decoding.
+	 *
+	 * @param columns		the number of values in a point.
+	 * @param timeColumn	the index of the time value, or -1 if not present.
+	 * @param capture		the deferred points to capture the characters into.
+	 */
+	public DatapointHandler(int columns, int timeColumn, DeferredDatapoints capture) {
+		this.row = new double[columns];
+		this.timeColumn = timeColumn;
+		this.capture = capture;
+	}
+
+
+	/**
+	 * Prepare for parsing the next point.
+	 */
+	public void reset() {
+		tokenLength = 0;
+		count = 0;
+		formatError = false;
+		Arrays.fill(row, Double.NaN);
+	}
+
+	/**
+	 * Parse the last value of the point.  This must be called once after the element has
+	 * been closed.
+	 *
+	 * @return	the number of values in the point.
+	 */
+	public int finish() {
+		endToken();
+		return count;
+	}
+
+	/**
+	 * Return whether any of the parsed values had a format error.
+	 */
+	public boolean hasFormatError() {
+		return formatError;
+	}
+
+	/**
+	 * Return the parsed values of the point.  The array is reused for the next point.
+	 */
+	public double[] getRow() {
+		return row;
+	}
+
+
+	@Override
+	public void characters(char[] chars, int start, int length) {
+		if (capture != null) {
+			capture.append(chars, start, length);
+		}
+		int end = start + length;
+		for (int i = start; i < end; i++) {
+			char c = chars[i];
+			if (c == ',') {
+				endToken();
+			} else {
+				if (tokenLength == token.length) {
+					token = Arrays.copyOf(token, token.length * 2);
+				}
+				token[tokenLength++] = c;
+			}
+		}
+	}
+
+	private void endToken() {
+		if (count < row.length && (capture == null || count == timeColumn)) {
+			try {
+				row[count] = DocumentConfig.charsToDouble(token, 0, tokenLength);
+			} catch (NumberFormatException e) {
+				formatError = true;
+			}
+		}
+		count++;
+		tokenLength = 0;
+	}
+
+
+	@Override
+	public ElementHandler openElement(String element, HashMap<String, String> attributes,
+			WarningSet warnings) {
+		warnings.add(Warning.fromString("Unknown element " + element + ", ignoring."));
+		return null;
+	}
+
+	@Override
+	public void closeElement(String element, HashMap<String, String> attributes,
+			String content, WarningSet warnings) {
+		// Warning from openElement is sufficient.
+	}
+}
@@ -0,0 +1,144 @@
+package net.sf.openrocket.file.openrocket.importt;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import net.sf.openrocket.simulation.FlightDataBranch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The &lt;datapoint&gt; contents of a flight data branch captured while loading, to be
+ * decoded when the data of the branch is first accessed.  The characters are stored
+ * as one byte each, the points separated by newlines, which is compact since the
+ * values consist of ASCII characters only.
+ * <p>
+ * Points with the wrong number of values are discarded while loading, with the same
+ * warnings as when decoding immediately.  Points with format errors are only detected
+ * when decoding and are then logged and ignored.
+ */
+class DeferredDatapoints implements FlightDataBranch.DeferredPoints {
+	private static final Logger log = LoggerFactory.getLogger(DeferredDatapoints.class);
+
+	private final String branchName;
+	private final int columns;
+
+	private byte[] data = new byte[1024];
+	private int size = 0;
+	private int pointStart = 0;
+	private int pointCount = 0;
+
+	private double previousTime = Double.NaN;
+	private double minimumTimeStep = Double.POSITIVE_INFINITY;
+
+
+	public DeferredDatapoints(String branchName, int columns) {
+		this.branchName = branchName;
+		this.columns = columns;
+	}
+
+
+	/**
+	 * Append characters of the current point.  Characters outside ASCII are stored
+	 * as '?', which cannot be parsed as part of a number in any case.
+	 */
+	public void append(char[] chars, int start, int length) {
+		ensureCapacity(size + length);
+		for (int i = 0; i < length; i++) {
+			char c = chars[start + i];
+			data[size++] = (c < 128) ? (byte) c : (byte) '?';
+		}
+	}
+
+	/**
+	 * End the current point.
+	 *
+	 * @param time	the time value of the point, or NaN if not available.
+	 */
+	public void endPoint(double time) {
+		ensureCapacity(size + 1);
+		data[size++] = '\n';
+		pointStart = size;
+		pointCount++;
+
+		if (time - previousTime < minimumTimeStep) {
+			minimumTimeStep = time - previousTime;
+		}
+		previousTime = time;
+	}
+
+	/**
+	 * Discard the characters of the current point.
+	 */
+	public void discardPoint() {
+		size = pointStart;
+	}
+
+	/**
+	 * Release the unused capacity after all points have been captured.
+	 */
+	public void trim() {
+		data = Arrays.copyOf(data, size);
+	}
+
+	/**
+	 * Return the number of points captured.
+	 */
+	public int getPointCount() {
+		return pointCount;
+	}
+
+	/**
+	 * Return the smallest time difference between consecutive points, or positive
+	 * infinity if not available.
+	 */
+	public double getMinimumTimeStep() {
+		return minimumTimeStep;
+	}
+
+
+	@Override
+	public void decode(Consumer<double[]> consumer) {
+		DatapointHandler handler = new DatapointHandler(columns);
+		char[] chars = new char[256];
+		int errors = 0;
+
+		int pos = 0;
+		while (pos < size) {
+			int end = pos;
+			while (data[end] != '\n') {
+				end++;
+			}
+			int length = end - pos;
+			if (length > chars.length) {
+				chars = new char[Math.max(length, chars.length * 2)];
+			}
+			for (int i = 0; i < length; i++) {
+				chars[i] = (char) data[pos + i];
+			}
+			pos = end + 1;
+
+			handler.reset();
+			handler.characters(chars, 0, length);
+			if (handler.finish() != columns || handler.hasFormatError()) {
+				errors++;
+				continue;
+			}
+			consumer.accept(handler.getRow());
+		}
+
+		if (errors > 0) {
+			log.warn("Data point format error in " + errors + " points of branch '" + branchName +
+					"', ignoring points.");
+		}
+		data = null;
+	}
+
+
+	private void ensureCapacity(int capacity) {
+		if (capacity > data.length) {
+			data = Arrays.copyOf(data, Math.max(capacity, data.length * 2));
+		}
+	}
+}
@@ -504,4 +504,105 @@ class DocumentConfig {
 			return Double.NEGATIVE_INFINITY;
 		return Double.parseDouble(s);
 	}
+	
+	
+	// Powers of ten that are exactly representable as doubles
+	private static final double[] EXACT_POWERS_OF_TEN = {
+			1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+			1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+	
+	/**
+	 * Convert a part of a character array to a double in the same way as
+	 * {@link #stringToDouble(String)}, surrounding whitespace being ignored.  Plain decimal
+	 * numbers with at most 15 significant digits and a small exponent, as written by
+	 * OpenRocket, are converted without creating a string; the result is then the
+	 * correctly rounded value, the same as returned by <code>Double.parseDouble</code>.
+	 * 
+	 * @param chars		the character array.
+	 * @param start		the start position of the number.
+	 * @param length	the number of characters.
+	 * @return			the numerical value.
+	 * @throws NumberFormatException	the the characters cannot be parsed.
+	 */
+	public static double charsToDouble(char[] chars, int start, int length) throws NumberFormatException {
+		int end = start + length;
+		while (start < end && chars[start] <= ' ')
+			start++;
+		while (end > start && chars[end - 1] <= ' ')
+			end--;
+		
+		int pos = start;
+		boolean negative = false;
+		if (pos < end && (chars[pos] == '-' || chars[pos] == '+')) {
+			negative = (chars[pos] == '-');
+			pos++;
+		}
+		
+		// Mantissa, leading zeros are not significant
+		long mantissa = 0;
+		int digits = 0;
+		int exponent = 0;
+		boolean any = false;
+		boolean point = false;
+		for (; pos < end; pos++) {
+			char c = chars[pos];
+			if (c >= '0' && c <= '9') {
+				any = true;
+				if (mantissa != 0 || c != '0') {
+					if (digits >= 15)
+						return slowCharsToDouble(chars, start, end);
+					mantissa = mantissa * 10 + (c - '0');
+					digits++;
+				}
+				if (point)
+					exponent--;
+			} else if (c == '.' && !point) {
+				point = true;
+			} else {
+				break;
+			}
+		}
+		if (!any)
+			return slowCharsToDouble(chars, start, end);
+		
+		// Exponent
+		if (pos < end && (chars[pos] == 'e' || chars[pos] == 'E')) {
+			pos++;
+			boolean negativeExp = false;
+			if (pos < end && (chars[pos] == '-' || chars[pos] == '+')) {
+				negativeExp = (chars[pos] == '-');
+				pos++;
+			}
+			if (pos == end)
+				return slowCharsToDouble(chars, start, end);
+			int exp = 0;
+			for (; pos < end; pos++) {
+				char c = chars[pos];
+				if (c < '0' || c > '9' || exp > 1000)
+					return slowCharsToDouble(chars, start, end);
+				exp = exp * 10 + (c - '0');
+			}
+			exponent += negativeExp ? -exp : exp;
+		}
+		if (pos != end)
+			return slowCharsToDouble(chars, start, end);
+		
+		// Both the mantissa and the power of ten are exact, so a single operation rounds correctly
+		double value;
+		if (mantissa == 0) {
+			value = 0;
+		} else if (exponent >= 0 && exponent < EXACT_POWERS_OF_TEN.length) {
+			value = mantissa * EXACT_POWERS_OF_TEN[exponent];
+		} else if (exponent < 0 && -exponent < EXACT_POWERS_OF_TEN.length) {
+			value = mantissa / EXACT_POWERS_OF_TEN[-exponent];
+		} else {
+			return slowCharsToDouble(chars, start, end);
+		}
+		return negative ? -value : value;
+	}
+	
+	private static double slowCharsToDouble(char[] chars, int start, int end) {
+		return stringToDouble(new String(chars, start, end - start));
+	}
 }
@@ -1,5 +1,6 @@
 package net.sf.openrocket.file.openrocket.importt;
 
+import java.util.Arrays;
 import java.util.HashMap;
 
 import net.sf.openrocket.aerodynamics.WarningSet;
@@ -22,6 +23,9 @@ class FlightDataBranchHandler extends AbstractElementHandler {
 	private final DocumentLoadingContext context;
 	private final FlightDataType[] types;
 	private final FlightDataBranch branch;
+	private final int timeColumn;
+	private final DatapointHandler datapointHandler;
+	private final DeferredDatapoints deferredPoints;
 	
 	private static final Logger log = LoggerFactory.getLogger(FlightDataBranchHandler.class);
 	private final SingleSimulationHandler simHandler;
@@ -40,6 +44,15 @@ class FlightDataBranchHandler extends AbstractElementHandler {
 		
 		// TODO: LOW: May throw an IllegalArgumentException
 		branch = new FlightDataBranch(name, types);
+		
+		timeColumn = Arrays.asList(types).indexOf(FlightDataType.TYPE_TIME);
+		if (context.isFlightDataDeferred()) {
+			deferredPoints = new DeferredDatapoints(name, types.length);
+			datapointHandler = new DatapointHandler(types.length, timeColumn, deferredPoints);
+		} else {
+			deferredPoints = null;
+			datapointHandler = new DatapointHandler(types.length);
+		}
 	}
 	
 	/**
@@ -93,16 +106,32 @@ class FlightDataBranchHandler extends AbstractElementHandler {
 	}
 	
 	public FlightDataBranch getBranch() {
+		if (deferredPoints != null && branch.isMutable()) {
+			deferredPoints.trim();
+			branch.setDeferredPoints(deferredPoints);
+		}
 		branch.immute();
 		return branch;
 	}
 	
+	/**
+	 * Return the number of data points read, without decoding deferred points.
+	 */
+	public int getPointCount() {
+		if (deferredPoints != null) {
+			return deferredPoints.getPointCount();
+		}
+		return branch.getLength();
+	}
+	
 	@Override
 	public ElementHandler openElement(String element, HashMap<String, String> attributes,
 			WarningSet warnings) {
 		
-		if (element.equals("datapoint"))
-			return PlainTextHandler.INSTANCE;
+		if (element.equals("datapoint")) {
+			datapointHandler.reset();
+			return datapointHandler;
+		}
 		if (element.equals("event"))
 			return PlainTextHandler.INSTANCE;
 		
@@ -144,28 +173,28 @@ class FlightDataBranchHandler extends AbstractElementHandler {
 		// element == "datapoint"
 		
 		
-		// Check line format
-		String[] split = content.split(",");
-		if (split.length != types.length) {
+		// Check line format, the values were parsed by the datapoint handler
+		if (datapointHandler.finish() != types.length) {
+			if (deferredPoints != null) {
+				deferredPoints.discardPoint();
+			}
 			warnings.add("Data point did not contain correct amount of values, ignoring point.");
 			return;
 		}
-		
-		// Parse the doubles
-		double[] values = new double[split.length];
-		for (int i = 0; i < values.length; i++) {
-			try {
-				values[i] = DocumentConfig.stringToDouble(split[i]);
-			} catch (NumberFormatException e) {
-				warnings.add("Data point format error, ignoring point.");
-				return;
+		if (datapointHandler.hasFormatError()) {
+			if (deferredPoints != null) {
+				deferredPoints.discardPoint();
 			}
+			warnings.add("Data point format error, ignoring point.");
+			return;
 		}
 		
 		// Add point to branch
-		branch.addPoint();
-		for (int i = 0; i < types.length; i++) {
-			branch.setValue(types[i], values[i]);
+		double[] values = datapointHandler.getRow();
+		if (deferredPoints != null) {
+			deferredPoints.endPoint(timeColumn >= 0 ? values[timeColumn] : Double.NaN);
+		} else {
+			branch.addPoint(values);
 		}
 	}
 }
\ No newline at end of file
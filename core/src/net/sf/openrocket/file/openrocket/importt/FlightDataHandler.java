@@ -78,9 +78,8 @@ class FlightDataHandler extends AbstractElementHandler {
 			String content, WarningSet warnings) {
 		
 		if (element.equals("databranch")) {
-			FlightDataBranch branch = dataHandler.getBranch();
-			if (branch.getLength() > 0) {
-				branches.add(branch);
+			if (dataHandler.getPointCount() > 0) {
+				branches.add(dataHandler.getBranch());
 			}
 		} else if (element.equals("warning")) {
 			warningSet.add(Warning.fromString(content));
@@ -92,7 +91,7 @@ class FlightDataHandler extends AbstractElementHandler {
 	public void endHandler(String element, HashMap<String, String> attributes,
 			String content, WarningSet warnings) {
 		
-		if (branches.size() > 0) {
+		if (branches.size() > 0 && !context.isFlightDataDeferred()) {
 			data = new FlightData(branches.toArray(new FlightDataBranch[0]));
 		} else {
 			double maxAltitude = Double.NaN;
@@ -145,6 +144,11 @@ class FlightDataHandler extends AbstractElementHandler {
 			
 			data = new FlightData(maxAltitude, maxVelocity, maxAcceleration, maxMach,
 					timeToApogee, flightTime, groundHitVelocity, launchRodVelocity, deploymentVelocity);
+			
+			// Deferred branches keep the stored values instead of recalculating them
+			for (FlightDataBranch branch : branches) {
+				data.addBranch(branch);
+			}
 		}
 		
 		data.getWarningSet().addAll(warningSet);
@@ -68,6 +68,14 @@ public class OpenRocketLoader extends AbstractRocketLoader {
 			FlightDataBranch branch = s.getSimulatedData().getBranch(0);
 			if (branch == null)
 				continue;
+			FlightDataBranch.DeferredPoints deferred = branch.getDeferredPoints();
+			if (deferred instanceof DeferredDatapoints) {
+				// Use the time step computed while loading instead of decoding the points
+				double step = ((DeferredDatapoints) deferred).getMinimumTimeStep();
+				if (step < timeSkip)
+					timeSkip = step;
+				continue;
+			}
 			List<Double> list = branch.get(FlightDataType.TYPE_TIME);
 			if (list == null)
 				continue;
@@ -15,6 +15,7 @@ import net.sf.openrocket.file.simplesax.ElementHandler;
 import net.sf.openrocket.file.simplesax.PlainTextHandler;
 import net.sf.openrocket.rocketcomponent.FlightConfigurationId;
 import net.sf.openrocket.simulation.FlightData;
+import net.sf.openrocket.simulation.IntegrationMethod;
 import net.sf.openrocket.simulation.SimulationOptions;
 import net.sf.openrocket.simulation.extension.SimulationExtension;
 import net.sf.openrocket.simulation.extension.SimulationExtensionProvider;
@@ -31,6 +32,8 @@ class SingleSimulationHandler extends AbstractElementHandler {
 	private final OpenRocketDocument doc;
 	
 	private String name;
+	private IntegrationMethod integrationMethod;
+	private boolean tabulatedAerodynamics = false;
 	
 	private SimulationConditionsHandler conditionHandler;
 	private ConfigHandler configHandler;
@@ -76,11 +79,14 @@ class SingleSimulationHandler extends AbstractElementHandler {
 		if (element.equals("name")) {
 			name = content;
 		} else if (element.equals("simulator")) {
-			if (!content.trim().equals("RK4Simulator")) {
+			integrationMethod = IntegrationMethod.fromSimulatorName(content.trim());
+			if (integrationMethod == null) {
 				warnings.add("Unknown simulator '" + content.trim() + "' specified, ignoring.");
 			}
 		} else if (element.equals("calculator")) {
-			if (!content.trim().equals("BarrowmanCalculator")) {
+			if (content.trim().equals("TabulatedBarrowmanCalculator")) {
+				tabulatedAerodynamics = true;
+			} else if (!content.trim().equals("BarrowmanCalculator")) {
 				warnings.add("Unknown calculator '" + content.trim() + "' specified, ignoring.");
 			}
 		} else if (element.equals("listener") && content.trim().length() > 0) {
@@ -126,6 +132,11 @@ class SingleSimulationHandler extends AbstractElementHandler {
 			options = new SimulationOptions();
 		}
 		
+		if (integrationMethod != null) {
+			options.setIntegrationMethod(integrationMethod);
+		}
+		options.setTabulatedAerodynamics(tabulatedAerodynamics);
+		
 		if (name == null)
 			name = "Simulation";
 		
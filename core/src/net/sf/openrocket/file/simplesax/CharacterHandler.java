@@ -0,0 +1,26 @@
+package net.sf.openrocket.file.simplesax;
+
+import org.xml.sax.SAXException;
+
+/**
+ * An element handler that receives the textual content of its element directly from
+ * the parser, as it is read.  The content is not collected into a string, so the
+ * <code>content</code> passed to {@link #endHandler} and to the
+ * {@link ElementHandler#closeElement} method of the parent handler is empty.
+ * <p>
+ * This is useful for elements with large amounts of text that can be processed as a
+ * stream, such as stored flight data.
+ */
+public interface CharacterHandler extends ElementHandler {
+	
+	/**
+	 * Receive a chunk of the textual content of the element.  The content of an element
+	 * may be split into any number of chunks.
+	 * 
+	 * @param chars		the character buffer, which may be reused after the call returns.
+	 * @param start		the start position in the buffer.
+	 * @param length	the number of characters.
+	 */
+	public void characters(char[] chars, int start, int length) throws SAXException;
+	
+}
@@ -21,6 +21,9 @@ class DelegatorHandler extends DefaultHandler {
 	private final Deque<StringBuilder> elementData = new ArrayDeque<StringBuilder>();
 	private final Deque<HashMap<String, String>> elementAttributes = new ArrayDeque<HashMap<String, String>>();
 	
+	// Placeholder for the content of elements whose handler receives the characters directly
+	private static final StringBuilder DIRECT_CONTENT = new StringBuilder(0);
+	
 	// Ignore all elements as long as ignore > 0
 	private int ignore = 0;
 	
@@ -44,15 +47,15 @@ class DelegatorHandler extends DefaultHandler {
 			return;
 		}
 		
-		// Add layer to data stacks
-		elementData.push(new StringBuilder());
-		elementAttributes.push(copyAttributes(attributes));
-		
 		// Call the handler
+		HashMap<String, String> attr = copyAttributes(attributes);
 		ElementHandler h = handlerStack.peek();
-		h = h.openElement(localName, elementAttributes.peek(), warnings);
+		h = h.openElement(localName, attr, warnings);
 		if (h != null) {
+			// Add layer to data stacks
 			handlerStack.push(h);
+			elementData.push((h instanceof CharacterHandler) ? DIRECT_CONTENT : new StringBuilder());
+			elementAttributes.push(attr);
 		} else {
 			// Start ignoring elements
 			ignore++;
@@ -61,7 +64,8 @@ class DelegatorHandler extends DefaultHandler {
 	
 	
 	/**
-	 * Stores encountered characters in the elementData stack.
+	 * Stores encountered characters in the elementData stack, or passes them to
+	 * the handler if it is a {@link CharacterHandler}.
 	 */
 	@Override
 	public void characters(char[] chars, int start, int length) throws SAXException {
@@ -70,7 +74,11 @@ class DelegatorHandler extends DefaultHandler {
 			return;
 		
 		StringBuilder sb = elementData.peek();
-		sb.append(chars, start, length);
+		if (sb == DIRECT_CONTENT) {
+			((CharacterHandler) handlerStack.peek()).characters(chars, start, length);
+		} else {
+			sb.append(chars, start, length);
+		}
 	}
 	
 	
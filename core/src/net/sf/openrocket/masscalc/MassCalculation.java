@@ -4,6 +4,7 @@ import java.util.ArrayList;
 
 import net.sf.openrocket.motor.Motor;
 import net.sf.openrocket.motor.MotorConfiguration;
+import net.sf.openrocket.rocketcomponent.CompiledConfiguration;
 import net.sf.openrocket.rocketcomponent.FlightConfiguration;
 import net.sf.openrocket.rocketcomponent.MotorMount;
 import net.sf.openrocket.rocketcomponent.RocketComponent;
@@ -173,24 +174,43 @@ public class MassCalculation {
 	// =========== Private Instance Functions ========================
 
 	private MassCalculation calculateMountData(){
-		if( ! config.isComponentActive(this.root)) {
+		final RigidBody cluster = calculateMountCluster( this.root );
+		if( null == cluster ){
 			return this;
 		}
 		
-		final MotorMount mount = (MotorMount)root;
+		final Coordinate clusterCM = transform.transform( cluster.cm );
+		addMass( clusterCM );
+		
+		RigidBody clusterMOI = new RigidBody( clusterCM, cluster.Ixx, cluster.Iyy, cluster.Izz );
+		addInertia( clusterMOI );
+		
+		return this;
+	}
+	
+	/**
+	 * Returns the mass data of the motor cluster of a mount, in the coordinates of the
+	 * mount's parent, or null if the mount is inactive or has no motor.
+	 */
+	private RigidBody calculateMountCluster( final RocketComponent mountComponent ){
+		if( ! config.isComponentActive(mountComponent)) {
+			return null;
+		}
+		
+		final MotorMount mount = (MotorMount)mountComponent;
 		MotorConfiguration motorConfig = mount.getMotorConfig( config.getId() );
 		final Motor motor = motorConfig.getMotor();
 		if( motorConfig.isEmpty() ){
-			return this;
+			return null;
 		}
 		
 		
-		final double mountXPosition = root.getPosition().x;
+		final double mountXPosition = mountComponent.getPosition().x;
 		
-		final int instanceCount = root.getInstanceCount();
+		final int instanceCount = mountComponent.getInstanceCount();
 
 		final double motorXPosition = motorConfig.getX();  // location of motor from mount
-		final Coordinate[] offsets = root.getInstanceOffsets();
+		final Coordinate[] offsets = mountComponent.getInstanceOffsets();
 		
 		double eachMass;
 		double eachCMx;  // CoM from beginning of motor
@@ -230,13 +250,7 @@ public class MassCalculation {
 			}
 		}
 		
-		final Coordinate clusterCM = transform.transform( clusterLocalCM  );
-		addMass( clusterCM );
-		
-		RigidBody clusterMOI = new RigidBody( clusterCM, clusterIr, clusterIt, clusterIt );
-		addInertia( clusterMOI );
-		
-		return this;
+		return new RigidBody( clusterLocalCM, clusterIr, clusterIt, clusterIt );
 	}
 	
 	/**
@@ -347,6 +361,9 @@ public class MassCalculation {
 	}
 
 	MassCalculation calculateMotors() {
+		if(( this.root == this.config.getRocket() ) && ( Transformation.IDENTITY == this.transform )){
+			return calculateCompiledMotors();
+		}
 	
 		final RocketComponent component = this.root;
 		final Transformation parentTransform = this.transform;
@@ -404,6 +421,35 @@ public class MassCalculation {
 		return this;
 	}
 	
+	/**
+	 * Calculates the motor data of the whole rocket from the motor mount placements of the
+	 * compiled configuration, instead of walking the component tree.  The cluster data of
+	 * each mount is calculated once and added at every instance of its parent.
+	 */
+	private MassCalculation calculateCompiledMotors() {
+		final CompiledConfiguration compiled = this.config.getCompiledConfiguration();
+		
+		RocketComponent lastMount = null;
+		RigidBody cluster = null;
+		for( int i = 0; i < compiled.getMotorMountCount(); ++i ){
+			final RocketComponent mount = compiled.getMotorMount(i);
+			if( mount != lastMount ){
+				cluster = calculateMountCluster( mount );
+				lastMount = mount;
+			}
+			if(( null == cluster ) || !( 0 < cluster.cm.weight )){
+				continue;
+			}
+			
+			final Coordinate offset = compiled.getMotorMountOffset(i);
+			final Coordinate clusterCM = cluster.cm.add( offset.x, offset.y, offset.z );
+			addMass( clusterCM );
+			addInertia( new RigidBody( clusterCM, cluster.Ixx, cluster.Iyy, cluster.Izz ));
+		}
+		
+		return this;
+	}
+	
 	/** 
 	 * MOI Calculation needs to be a two-step process:
 	 * (1) calculate overall Center-of-Mass (CM) first (down inline with data-gathering)
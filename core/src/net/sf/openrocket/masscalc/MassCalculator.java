@@ -1,10 +1,14 @@
 package net.sf.openrocket.masscalc;
 
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.Map;
 
 import net.sf.openrocket.motor.Motor;
+import net.sf.openrocket.rocketcomponent.AxialStage;
 import net.sf.openrocket.rocketcomponent.FlightConfiguration;
+import net.sf.openrocket.rocketcomponent.FlightConfigurationId;
+import net.sf.openrocket.rocketcomponent.Rocket;
 import net.sf.openrocket.rocketcomponent.RocketComponent;
 import net.sf.openrocket.simulation.SimulationStatus;
 import net.sf.openrocket.util.Coordinate;
@@ -19,10 +23,13 @@ public class MassCalculator implements Monitorable {
 	/*
 	 * Cached data.  All CG data is in absolute coordinates.  All moments of inertia
 	 * are relative to their respective CG.
+	 * 
+	 * Structure data is keyed on the flight configuration and its set of active stages,
+	 * and is valid as long as the configuration modID and rocket massModID are unchanged.
 	 */
-	//	private HashMap< Integer, MassData> stageMassCache = new HashMap<Integer, MassData >();
-	//	private MassData rocketSpentMassCache;
-	//	private MassData propellantMassCache;
+	private final HashMap<StructureKey, StructureEntry> structureCache = new HashMap<StructureKey, StructureEntry>();
+	private int cacheHits = 0;
+	private int cacheMisses = 0;
 
 	private int modId = 0;
 	
@@ -119,6 +126,58 @@ public class MassCalculator implements Monitorable {
 	}
 
 	
+	////////////////// Cached Accessors ///////////////////
+	
+	/**
+	 * Returns the mass data of the rocket's structure, as {@link #calculateStructure(FlightConfiguration)}.
+	 * The result is reused for as long as the configuration has the same active stages and
+	 * neither the configuration nor the rocket mass has been modified, so only the motor
+	 * contribution needs to be computed at each simulation time step.
+	 * 
+	 * @param config		the rocket configuration to calculate for
+	 * @return				the MassData struct of the rocket structure
+	 */
+	public synchronized RigidBody getStructure( final FlightConfiguration config ) {
+		final StructureKey key = new StructureKey( config );
+		final int configModID = config.getModID();
+		final Rocket rocket = config.getRocket();
+		final int massModID = rocket.getMassModID();
+		
+		StructureEntry entry = structureCache.get( key );
+		if(( null != entry ) && ( entry.rocket == rocket )
+				&& ( entry.configModID == configModID ) && ( entry.massModID == massModID )){
+			cacheHits++;
+			return entry.structure;
+		}
+		
+		cacheMisses++;
+		final RigidBody structure = calculateStructure( config );
+		structureCache.put( key, new StructureEntry( rocket, configModID, massModID, structure ));
+		return structure;
+	}
+	
+	/**
+	 * Discard all cached mass data.
+	 */
+	public synchronized void clearCache() {
+		structureCache.clear();
+		modId++;
+	}
+	
+	/**
+	 * @return the number of structure lookups answered from the cache
+	 */
+	public synchronized int getCacheHits() {
+		return cacheHits;
+	}
+	
+	/**
+	 * @return the number of structure lookups which required a full calculation
+	 */
+	public synchronized int getCacheMisses() {
+		return cacheMisses;
+	}
+	
 	/**
 	 * Compute an analysis of the per-component CG's of the provided configuration.
 	 * The returned map will contain an entry for each physical rocket component (not stages)
@@ -168,4 +227,50 @@ public class MassCalculator implements Monitorable {
 		return this.modId;
 	}
 	
+	
+	/*
+	 * Identifies a configuration together with the stages active in it.  Stage activation
+	 * does not change the configuration modID, so it is part of the key instead.
+	 */
+	private static final class StructureKey {
+		private final FlightConfigurationId fcid;
+		private final BitSet activeStages = new BitSet();
+		
+		public StructureKey( final FlightConfiguration config ) {
+			this.fcid = config.getFlightConfigurationID();
+			for( AxialStage stage : config.getActiveStages() ){
+				activeStages.set( stage.getStageNumber() );
+			}
+		}
+		
+		@Override
+		public boolean equals( Object obj ) {
+			if( this == obj )
+				return true;
+			if( !( obj instanceof StructureKey ))
+				return false;
+			StructureKey other = (StructureKey) obj;
+			return this.fcid.equals( other.fcid ) && this.activeStages.equals( other.activeStages );
+		}
+		
+		@Override
+		public int hashCode() {
+			return 31 * fcid.hashCode() + activeStages.hashCode();
+		}
+	}
+	
+	private static final class StructureEntry {
+		private final Rocket rocket;
+		private final int configModID;
+		private final int massModID;
+		private final RigidBody structure;
+		
+		public StructureEntry( final Rocket rocket, final int configModID, final int massModID, final RigidBody structure ) {
+			this.rocket = rocket;
+			this.configModID = configModID;
+			this.massModID = massModID;
+			this.structure = structure;
+		}
+	}
+	
 }
@@ -75,7 +75,11 @@ public class AtmosphericConditions implements Cloneable, Monitorable {
 	 * @return   the current density of air.
 	 */
 	public double getDensity() {
-		return getPressure() / (R*getTemperature());
+		return getDensity(getTemperature(), getPressure());
+	}
+	
+	static double getDensity(double temperature, double pressure) {
+		return pressure / (R*temperature);
 	}
 	
 	
@@ -90,7 +94,11 @@ public class AtmosphericConditions implements Cloneable, Monitorable {
 	 * @return   the current speed of sound.
 	 */
 	public double getMachSpeed() {
-		return 165.77 + 0.606 * getTemperature();
+		return getMachSpeed(getTemperature());
+	}
+	
+	static double getMachSpeed(double temperature) {
+		return 165.77 + 0.606 * temperature;
 	}
 	
 	
@@ -106,8 +114,31 @@ public class AtmosphericConditions implements Cloneable, Monitorable {
 	 * @return	the current kinematic viscosity.
 	 */
 	public double getKinematicViscosity() {
-		double v = 3.7291e-06 + 4.9944e-08 * getTemperature();
-		return v / getDensity();
+		return getKinematicViscosity(getTemperature(), getPressure());
+	}
+	
+	static double getKinematicViscosity(double temperature, double pressure) {
+		double v = 3.7291e-06 + 4.9944e-08 * temperature;
+		return v / getDensity(temperature, pressure);
+	}
+	
+	
+	/**
+	 * Write these conditions into a sample buffer in the layout of
+	 * {@link AtmosphericModel#sampleConditions(double, double[])}.
+	 * 
+	 * @param sample	the buffer to write to.
+	 */
+	public void getSample(double[] sample) {
+		sample(getTemperature(), getPressure(), sample);
+	}
+	
+	static void sample(double temperature, double pressure, double[] sample) {
+		sample[AtmosphericModel.TEMPERATURE] = temperature;
+		sample[AtmosphericModel.PRESSURE] = pressure;
+		sample[AtmosphericModel.DENSITY] = getDensity(temperature, pressure);
+		sample[AtmosphericModel.MACH_SPEED] = getMachSpeed(temperature);
+		sample[AtmosphericModel.KINEMATIC_VISCOSITY] = getKinematicViscosity(temperature, pressure);
 	}
 	
 	
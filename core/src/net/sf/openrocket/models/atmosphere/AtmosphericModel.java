@@ -4,6 +4,34 @@ import net.sf.openrocket.util.Monitorable;
 
 public interface AtmosphericModel extends Monitorable {
 
+	/** Index of the air temperature, in Kelvins, in a sample. */
+	public static final int TEMPERATURE = 0;
+	/** Index of the air pressure, in Pascals, in a sample. */
+	public static final int PRESSURE = 1;
+	/** Index of the air density in a sample. */
+	public static final int DENSITY = 2;
+	/** Index of the speed of sound in a sample. */
+	public static final int MACH_SPEED = 3;
+	/** Index of the kinematic viscosity in a sample. */
+	public static final int KINEMATIC_VISCOSITY = 4;
+	/** The length of a sample buffer. */
+	public static final int SAMPLE_LENGTH = 5;
+	
+	
 	public AtmosphericConditions getConditions(double altitude);
 	
+	/**
+	 * Write the conditions at the given altitude into a caller-owned buffer, indexed by
+	 * {@link #TEMPERATURE}, {@link #PRESSURE}, {@link #DENSITY}, {@link #MACH_SPEED} and
+	 * {@link #KINEMATIC_VISCOSITY}.  The values are those of {@link #getConditions(double)}.
+	 * The default implementation obtains them from that method; models should override
+	 * this to avoid creating a new object on every call.
+	 * 
+	 * @param altitude	the altitude
+	 * @param sample	the buffer to write to, at least {@link #SAMPLE_LENGTH} long
+	 */
+	public default void sampleConditions(double altitude, double[] sample) {
+		getConditions(altitude).getSample(sample);
+	}
+	
 }
@@ -10,13 +10,12 @@ public abstract class InterpolatingAtmosphericModel implements AtmosphericModel
 	/** Layer thickness of interpolated altitude. */
 	private static final double DELTA = 500;
 	
-	private AtmosphericConditions[] levels = null;
+	private Layers layers = null;
 	
 	
 	@Override
 	public AtmosphericConditions getConditions(double altitude) {
-		if (levels == null)
-			computeLayers();
+		final AtmosphericConditions[] levels = getLayers().levels;
 		
 		if (altitude <= 0)
 			return levels[0];
@@ -32,18 +31,68 @@ public abstract class InterpolatingAtmosphericModel implements AtmosphericModel
 		return c;
 	}
 	
+	@Override
+	public void sampleConditions(double altitude, double[] sample) {
+		final Layers l = getLayers();
+		final double[] temperature = l.temperature;
+		final double[] pressure = l.pressure;
+		final int last = temperature.length - 1;
+		
+		if (altitude <= 0) {
+			AtmosphericConditions.sample(temperature[0], pressure[0], sample);
+		} else if (altitude >= DELTA * last) {
+			AtmosphericConditions.sample(temperature[last], pressure[last], sample);
+		} else {
+			int n = (int) (altitude / DELTA);
+			double d = (altitude - n * DELTA) / DELTA;
+			AtmosphericConditions.sample(temperature[n] * (1 - d) + temperature[n + 1] * d,
+					pressure[n] * (1 - d) + pressure[n + 1] * d, sample);
+		}
+	}
 	
-	private void computeLayers() {
+	
+	private Layers getLayers() {
+		Layers l = layers;
+		if (l == null) {
+			l = computeLayers();
+			layers = l;
+		}
+		return l;
+	}
+	
+	private Layers computeLayers() {
 		double max = getMaxAltitude();
 		int n = (int) (max / DELTA) + 1;
-		levels = new AtmosphericConditions[n];
+		AtmosphericConditions[] levels = new AtmosphericConditions[n];
 		for (int i = 0; i < n; i++) {
 			levels[i] = getExactConditions(i * DELTA);
 		}
+		return new Layers(levels);
 	}
 	
 	
 	protected abstract double getMaxAltitude();
 	
 	protected abstract AtmosphericConditions getExactConditions(double altitude);
+	
+	
+	/**
+	 * The pre-computed layers, both as condition objects and as primitive arrays.
+	 * The fields are final so that a model computed on one thread can be sampled on others.
+	 */
+	private static final class Layers {
+		private final AtmosphericConditions[] levels;
+		private final double[] temperature;
+		private final double[] pressure;
+		
+		private Layers(AtmosphericConditions[] levels) {
+			this.levels = levels;
+			this.temperature = new double[levels.length];
+			this.pressure = new double[levels.length];
+			for (int i = 0; i < levels.length; i++) {
+				temperature[i] = levels[i].getTemperature();
+				pressure[i] = levels[i].getPressure();
+			}
+		}
+	}
 }
@@ -1,5 +1,6 @@
 package net.sf.openrocket.models.wind;
 
+import java.util.Arrays;
 import java.util.Random;
 
 import net.sf.openrocket.util.Coordinate;
@@ -32,6 +33,9 @@ public class PinkNoiseWindModel implements WindModel {
 	/** Time difference between random samples. */
 	private static final double DELTA_T = 0.05;
 	
+	/** Number of noise samples generated at a time, about 100 seconds of wind. */
+	private static final int NOISE_BLOCK = 2048;
+	
 	
 	private double average = 0;
 	private double direction = Math.PI / 2; // this is an East wind
@@ -40,8 +44,8 @@ public class PinkNoiseWindModel implements WindModel {
 	private final int seed;
 	
 	private PinkNoise randomSource = null;
-	private double time1;
-	private double value1, value2;
+	private double[] noise = null;
+	private int noiseCount = 0;
 	
 	
 	/**
@@ -52,6 +56,24 @@ public class PinkNoiseWindModel implements WindModel {
 		this.seed = seed ^ SEED_RANDOMIZATION;
 	}
 	
+	private PinkNoiseWindModel(PinkNoiseWindModel orig) {
+		this.seed = orig.seed;
+		this.average = orig.average;
+		this.direction = orig.direction;
+		this.standardDeviation = orig.standardDeviation;
+	}
+	
+	
+	/**
+	 * Return a new wind model with the same parameters and seed.  The copy produces the
+	 * same wind as this model, but samples it independently.
+	 * 
+	 * @return	a copy of this wind model.
+	 */
+	public PinkNoiseWindModel copy() {
+		return new PinkNoiseWindModel(this);
+	}
+	
 	
 	
 	/**
@@ -132,38 +154,56 @@ public class PinkNoiseWindModel implements WindModel {
 	
 	@Override
 	public Coordinate getWindVelocity(double time, double altitude) {
+		double speed = getWindSpeed(time);
+		return new Coordinate(speed * Math.sin(direction), speed * Math.cos(direction), 0);
+	}
+	
+	@Override
+	public void sampleWindVelocity(double time, double altitude, double[] velocity) {
+		double speed = getWindSpeed(time);
+		velocity[0] = speed * Math.sin(direction);
+		velocity[1] = speed * Math.cos(direction);
+		velocity[2] = 0;
+	}
+	
+	
+	/**
+	 * Return the wind speed at the given time.  The noise samples are kept in a table,
+	 * so the speed can be queried at any time in any order at constant cost.
+	 */
+	private double getWindSpeed(double time) {
 		if (time < 0) {
 			throw new IllegalArgumentException("Requesting wind speed at t=" + time);
 		}
 		
+		int n = (int) (time / DELTA_T);
+		if (n + 1 >= noiseCount) {
+			extendNoise(n + 1);
+		}
+		
+		double a = (time - n * DELTA_T) / DELTA_T;
+		return average + (noise[n] * (1 - a) + noise[n + 1] * a) * standardDeviation / STDDEV;
+	}
+	
+	
+	/**
+	 * Generate the noise table up to and including the given sample.  The table is
+	 * grown in blocks, so a flight of normal length needs only one.
+	 */
+	private void extendNoise(int index) {
 		if (randomSource == null) {
 			randomSource = new PinkNoise(ALPHA, POLES, new Random(seed));
-			time1 = 0;
-			value1 = randomSource.nextValue();
-			value2 = randomSource.nextValue();
+			noise = new double[NOISE_BLOCK];
+			noiseCount = 0;
 		}
 		
-		if (time < time1) {
-			reset();
-			return getWindVelocity(time, altitude);
+		int required = Math.max(index + 1, noiseCount + NOISE_BLOCK);
+		if (required > noise.length) {
+			noise = Arrays.copyOf(noise, Math.max(required, 2 * noise.length));
 		}
-		
-		while (time1 + DELTA_T < time) {
-			value1 = value2;
-			value2 = randomSource.nextValue();
-			time1 += DELTA_T;
+		while (noiseCount < required) {
+			noise[noiseCount++] = randomSource.nextValue();
 		}
-		
-		double a = (time - time1) / DELTA_T;
-		
-		double speed = average + (value1 * (1 - a) + value2 * a) * standardDeviation / STDDEV;
-		return new Coordinate(speed * Math.sin(direction), speed * Math.cos(direction), 0);
-		
-	}
-	
-	
-	private void reset() {
-		randomSource = null;
 	}
 	
 	
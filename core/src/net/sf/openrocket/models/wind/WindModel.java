@@ -7,4 +7,21 @@ public interface WindModel extends Monitorable {
 
 	public Coordinate getWindVelocity(double time, double altitude);
 	
+	/**
+	 * Write the x, y and z components of the wind velocity into the first three elements
+	 * of a caller-owned buffer.  The values are those of {@link #getWindVelocity(double, double)}.
+	 * The default implementation obtains them from that method; models should override
+	 * this to avoid creating a new coordinate on every call.
+	 * 
+	 * @param time		the simulation time
+	 * @param altitude	the altitude
+	 * @param velocity	the buffer to write to, at least three long
+	 */
+	public default void sampleWindVelocity(double time, double altitude, double[] velocity) {
+		Coordinate wind = getWindVelocity(time, altitude);
+		velocity[0] = wind.x;
+		velocity[1] = wind.y;
+		velocity[2] = wind.z;
+	}
+	
 }
@@ -1,5 +1,7 @@
 package net.sf.openrocket.motor;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.text.Collator;
 import java.util.Arrays;
@@ -21,6 +23,9 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	
 	public static final double MAX_THRUST = 10e6;
 	
+	/** Number of time points stepped forward before resorting to a binary search. */
+	private static final int SEARCH_STEPS = 4;
+	
 	//  Comparators:
 	private static final Collator COLLATOR = Collator.getInstance(Locale.US);
 	
@@ -56,6 +61,25 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	private double unitRotationalInertia;
 	private double unitLongitudinalInertia;
 	
+	/** Total impulse from the first time point up to each time point, computed on first use. */
+	private transient volatile double[] cumulativeImpulse;
+	
+	/** Source of the thrust curve while it has not been read, otherwise null. */
+	private transient volatile CurveSource curveSource;
+	private transient int curveSize;
+	
+	/**
+	 * Supplies the thrust curve of a motor whose curve is read on first access,
+	 * see {@link ThrustCurveMotorSnapshot}.
+	 */
+	interface CurveSource {
+		
+		/**
+		 * Fill the given arrays, which have the length of the thrust curve.
+		 */
+		void read(double[] time, double[] thrust, Coordinate[] cg);
+	}
+	
 	public static class Builder {
 		
 		ThrustCurveMotor motor = new ThrustCurveMotor();
@@ -226,6 +250,57 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 			return motor;
 		}
 		
+		/**
+		 * Set the source of a thrust curve that is read on first access.  The statistics
+		 * estimates must be set explicitly, as they cannot be computed without the curve.
+		 */
+		Builder setCurveSource(CurveSource source, int size) {
+			motor.curveSource = source;
+			motor.curveSize = size;
+			return this;
+		}
+		
+		/**
+		 * Build a motor whose thrust curve is read from its curve source.  The curve
+		 * is not validated, so it must originate from a motor built with {@link #build()}.
+		 */
+		ThrustCurveMotor buildLazy() {
+			if (motor.curveSource == null) {
+				throw new IllegalStateException("No curve source set");
+			}
+			motor.unitRotationalInertia = Inertia.filledCylinderRotational( motor.diameter / 2);
+			motor.unitLongitudinalInertia = Inertia.filledCylinderLongitudinal( motor.diameter / 2, motor.length);
+			return motor;
+		}
+		
+	}
+	
+	
+	/**
+	 * Read the thrust curve from the curve source, if it has not been read yet.
+	 */
+	private void loadCurve() {
+		if (curveSource == null) {
+			return;
+		}
+		synchronized (this) {
+			CurveSource source = curveSource;
+			if (source != null) {
+				double[] t = new double[curveSize];
+				double[] f = new double[curveSize];
+				Coordinate[] c = new Coordinate[curveSize];
+				source.read(t, f, c);
+				time = t;
+				thrust = f;
+				cg = c;
+				curveSource = null;
+			}
+		}
+	}
+	
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		loadCurve();
+		out.defaultWriteObject();
 	}
 	
 	
@@ -244,6 +319,7 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	 * @return	an array of time points where the thrust is sampled
 	 */
 	public double[] getTimePoints() {
+		loadCurve();
 		return time.clone();
 	}
 	
@@ -258,6 +334,7 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	 * @return a pseudo index to this motor's data. 
 	 */
 	protected double getPseudoIndex( final double motorTime ){
+		loadCurve();
 		if(( time.length == 0 )||( 0 > motorTime )){
 			return Double.NaN;
 		}
@@ -267,6 +344,7 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 		return ((double)lowerIndex)+fraction;
 	}
 	
+	// Thrust curves are short, so without a previous position a linear scan is as fast as a binary search
 	private int getIndex( final double motorTime ){
 		int lowerBoundIndex=0;
 		int upperBoundIndex=0;
@@ -278,6 +356,42 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 		return lowerBoundIndex; 
 	}
 	
+	/*
+	 * Find the last index whose time is at most the given time, or 0 if there is none.
+	 * The search starts from the given index:  a few points are stepped forward from it
+	 * before resorting to a binary search, so finding a time slightly after the previous
+	 * one takes constant time.  The time array must be non-empty and non-decreasing.
+	 */
+	private static int findIndex( final double[] time, final int fromIndex, final double motorTime ){
+		int low = fromIndex;
+		int high = time.length - 1;
+		if( !( time[low] <= motorTime )){
+			if( !( time[0] <= motorTime )){
+				return 0;
+			}
+			high = low - 1;
+			low = 0;
+		}else{
+			for( int step = 0; step < SEARCH_STEPS; step++ ){
+				if( low == high || time[low+1] > motorTime ){
+					return low;
+				}
+				low++;
+			}
+		}
+		
+		// time[low] <= motorTime, binary search for the last such index up to high
+		while( low < high ){
+			final int mid = (low + high + 1) >>> 1;
+			if( time[mid] <= motorTime ){
+				low = mid;
+			}else{
+				high = mid - 1;
+			}
+		}
+		return low;
+	}
+	
 	private double getIndexFraction( final double motorTime, final int index ){
 		final double SNAP_DISTANCE = 0.0001;
 		
@@ -308,44 +422,67 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	
 	@Override
 	public double getAverageThrust( final double startTime, final double endTime ) {
-		
-		int timeIndex = 0;
-		
-		while( timeIndex < time.length-2 && startTime > time[timeIndex+1] ) {
-			timeIndex++;
+		loadCurve();
+		if( time.length == 0 ){
+			return 0.0;
 		}
-		
-		if ( timeIndex == time.length ) {
+		final int startIndex = getIndex( startTime );
+		return getAverageThrust( startTime, startIndex, endTime, findIndex( time, startIndex, endTime ));
+	}
+	
+	/*
+	 * Compute the average thrust over an interval from the cumulative impulse, given the
+	 * indices of the start and end times.  The thrust is zero outside of the curve.
+	 */
+	private double getAverageThrust( final double startTime, final int startIndex,
+			final double endTime, final int endIndex ){
+		if( !( endTime > startTime )){
+			return interpolateThrust( startTime, startIndex );
+		}
+		if( startIndex == endIndex && startIndex < time.length - 1 && startTime >= time[0] ){
+			// within a single slice the thrust is linear
+			return (interpolateThrust( startTime, startIndex ) + interpolateThrust( endTime, endIndex )) / 2.0;
+		}
+		final double[] impulse = getCumulativeImpulse();
+		final double startImpulse = getImpulse( impulse, startTime, startIndex );
+		final double endImpulse = getImpulse( impulse, endTime, endIndex );
+		return (endImpulse - startImpulse) / (endTime - startTime);
+	}
+	
+	/*
+	 * Return the total impulse from the first time point up to the given time.
+	 */
+	private double getImpulse( final double[] impulse, final double motorTime, final int index ){
+		if( !( motorTime > time[0] )){
 			return 0.0;
 		}
-		
-		if ( endTime <= time[timeIndex+1] ) {
-			// we are completely within this time slice so the computation of the average is pretty easy:
-			double startThrust = MathUtil.map(startTime, time[timeIndex], time[timeIndex+1], thrust[timeIndex], thrust[timeIndex+1]);
-			double endThrust = MathUtil.map(endTime, time[timeIndex], time[timeIndex+1], thrust[timeIndex], thrust[timeIndex+1]);
-			return (startThrust + endThrust) / 2.0;
+		if( index == time.length - 1 ){
+			return impulse[index];
 		}
-
-		double impulse = 0.0;
-
-		// portion from startTime through time[timeIndex+1]
-		double startThrust = MathUtil.map(startTime, time[timeIndex], time[timeIndex+1], thrust[timeIndex], thrust[timeIndex+1]);
-		impulse = (time[timeIndex+1] - startTime) * (startThrust + thrust[timeIndex+1]) / 2.0;
-		
-		// Now add the whole steps;
-		timeIndex++;
-		while ( timeIndex < time.length -1 && endTime >= time[timeIndex+1] ) {
-			impulse += (time[timeIndex+1] - time[timeIndex]) * (thrust[timeIndex] + thrust[timeIndex+1]) / 2.0;
-			timeIndex++;
+		final double thrustAtTime = MathUtil.map( motorTime, time[index], time[index+1], thrust[index], thrust[index+1]);
+		return impulse[index] + (motorTime - time[index]) * (thrust[index] + thrustAtTime) / 2.0;
+	}
+	
+	/*
+	 * Return the linearly interpolated thrust at the given time, without snapping to the time points.
+	 */
+	private double interpolateThrust( final double motorTime, final int index ){
+		if(( index == time.length - 1 )||( motorTime < time[0] )){
+			return thrust[index];
 		}
-		
-		// Now add the bit after the last time index
-		if ( timeIndex < time.length -1 ) {
-			double endThrust = MathUtil.map( endTime,  time[timeIndex], time[timeIndex+1], thrust[timeIndex], thrust[timeIndex+1]);
-			impulse += (endTime - time[timeIndex]) * (thrust[timeIndex] + endThrust) / 2.0;
+		return MathUtil.map( motorTime, time[index], time[index+1], thrust[index], thrust[index+1]);
+	}
+	
+	private double[] getCumulativeImpulse(){
+		double[] impulse = cumulativeImpulse;
+		if( impulse == null ){
+			impulse = new double[time.length];
+			for( int i = 1; i < time.length; i++ ){
+				impulse[i] = impulse[i-1] + (time[i] - time[i-1]) * (thrust[i-1] + thrust[i]) / 2.0;
+			}
+			cumulativeImpulse = impulse;
 		}
-		
-		return impulse / (endTime - startTime);
+		return impulse;
 	}
 	
 	@Override
@@ -362,6 +499,69 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 		return this.interpolateCenterOfMassAtIndex( pseudoIndex).x;
 	}
 	
+	/**
+	 * Return a new cursor for evaluating the thrust curve of this motor at successive times.
+	 */
+	public Cursor newCursor() {
+		loadCurve();
+		return new Cursor();
+	}
+	
+	/**
+	 * Evaluates the thrust curve of a motor at successive times, as during a simulation.
+	 * The cursor remembers the position of the previous time in the curve, so evaluating
+	 * at non-decreasing times takes amortized constant time; other times are located by
+	 * binary search.  The average thrust over an interval is computed from the cumulative
+	 * impulse of the curve.
+	 * <p>
+	 * The results are equal to those of the corresponding methods of the motor.  A cursor
+	 * is not thread-safe, so each simulation must use its own.
+	 */
+	public final class Cursor {
+		private int index = 0;
+		
+		private Cursor() {
+		}
+		
+		public ThrustCurveMotor getMotor() {
+			return ThrustCurveMotor.this;
+		}
+		
+		public double getThrust( final double motorTime ){
+			return ThrustCurveMotor.interpolateAtIndex( thrust, getPseudoIndex( motorTime ));
+		}
+		
+		public double getCMx( final double motorTime ){
+			return interpolateCenterOfMassAtIndex( getPseudoIndex( motorTime )).x;
+		}
+		
+		public double getTotalMass( final double motorTime ){
+			return interpolateCenterOfMassAtIndex( getPseudoIndex( motorTime )).weight;
+		}
+		
+		public double getAverageThrust( final double startTime, final double endTime ){
+			if( time.length == 0 ){
+				return 0.0;
+			}
+			final int startIndex = getIndex( startTime );
+			return ThrustCurveMotor.this.getAverageThrust( startTime, startIndex, endTime, findIndex( time, startIndex, endTime ));
+		}
+		
+		private double getPseudoIndex( final double motorTime ){
+			if(( time.length == 0 )||( 0 > motorTime )){
+				return Double.NaN;
+			}
+			final int lowerIndex = getIndex( motorTime );
+			return ((double)lowerIndex) + getIndexFraction( motorTime, lowerIndex );
+		}
+		
+		private int getIndex( final double motorTime ){
+			final int i = findIndex( time, index, motorTime );
+			index = i;
+			return i;
+		}
+	}
+	
 	
 	
 	public String getCaseInfo() {
@@ -395,6 +595,7 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	 * @return	an array of thrust samples
 	 */
 	public double[] getThrustPoints() {
+		loadCurve();
 		return thrust.clone();
 	}
 	
@@ -407,6 +608,7 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	//	}
 	
 	public Coordinate[] getCGPoints(){
+		loadCurve();
 		return cg;
 	}
 	
@@ -488,26 +690,31 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	
 	@Override
 	public double getLaunchCGx() {
+		loadCurve();
 		return cg[0].x;//cgx[0];
 	}
 	
 	@Override
 	public double getBurnoutCGx() {
+		loadCurve();
 		return cg[cg.length - 1].x;// cgx[ cg.length - 1];
 	}
 	
 	@Override
 	public double getLaunchMass() {
+		loadCurve();
 		return cg[0].weight;//mass[0];
 	}
 	
 	@Override
 	public double getBurnoutMass() {
+		loadCurve();
 		return cg[cg.length-1].weight; //mass[mass.length - 1];
 	}	
 	
 	@Override
 	public double getBurnTime() {
+		loadCurve();
 		return time[time.length-1];
 	}
 	
@@ -568,6 +775,7 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	}
 	
 	protected Coordinate interpolateCenterOfMassAtIndex( final double pseudoIndex ){
+		loadCurve();
 		final double SNAP_TOLERANCE = 0.0001;
 		
 		final double upperFrac = pseudoIndex%1;
@@ -590,7 +798,7 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	}
 	
 	public int getDataSize() {
-		return this.time.length;
+		return getSampleSize();
 	}
 	
 	@Override
@@ -619,6 +827,7 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	}
 	
 	public double getCutOffTime() {
+		loadCurve();
 		return time[time.length - 1];
 	}
 	
@@ -756,6 +965,9 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	 * @return return the size of the data arrays
 	 */
 	public int getSampleSize(){
+		if (curveSource != null) {
+			return curveSize;
+		}
 		return time.length;
 	}
 	
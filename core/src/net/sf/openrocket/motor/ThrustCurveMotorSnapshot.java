@@ -0,0 +1,312 @@
+package net.sf.openrocket.motor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.sf.openrocket.util.Coordinate;
+
+/**
+ * Reads and writes the compact binary motor database snapshot.
+ * <p>
+ * The snapshot contains a string table, one header record per motor and a section
+ * with the thrust curves stored as packed doubles.  When reading, only the headers
+ * are decoded; the thrust curve of a motor is read from the (possibly memory-mapped)
+ * buffer the first time it is needed.
+ * <p>
+ * All values are big-endian.  The layout of version 1 is:
+ * <pre>
+ * int    magic, version
+ * int    string count, then for each string: int byte length, UTF-8 bytes
+ * int    motor count
+ * int    offset of the curve section from the start of the file
+ * motor headers:
+ *   int     digest, manufacturer, designation, description, case info,
+ *           propellant info (string table indices, -1 for null)
+ *   byte    motor type ordinal, byte available
+ *   double  diameter, length, initial mass, max thrust, burn time,
+ *           average thrust, total impulse
+ *   int     delay count, then the delays as doubles
+ *   int     sample count, int curve offset within the curve section
+ * curve section, for each motor:
+ *   double[n] time, thrust, cg x, cg y, cg z, cg weight
+ * </pre>
+ */
+public final class ThrustCurveMotorSnapshot {
+
+	/** File extension of motor database snapshots. */
+	public static final String EXTENSION = "bin";
+
+	private static final int MAGIC = 0x4F524D44; // "ORMD"
+	private static final int VERSION = 1;
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private ThrustCurveMotorSnapshot() {
+	}
+
+
+	/**
+	 * Write a list of motors as a snapshot.  The stream is not closed.
+	 *
+	 * @param motors	the motors to write.
+	 * @param out		the stream to write to.
+	 * @throws IOException	if an I/O error occurs.
+	 */
+	public static void write(List<ThrustCurveMotor> motors, OutputStream out) throws IOException {
+		List<String> strings = new ArrayList<String>();
+		Map<String, Integer> stringIndex = new HashMap<String, Integer>();
+
+		ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+		DataOutputStream headers = new DataOutputStream(headerBytes);
+		int curveOffset = 0;
+		for (ThrustCurveMotor m : motors) {
+			headers.writeInt(intern(m.getDigest(), strings, stringIndex));
+			headers.writeInt(intern(m.getManufacturer().getDisplayName(), strings, stringIndex));
+			headers.writeInt(intern(m.getDesignation(), strings, stringIndex));
+			headers.writeInt(intern(m.getDescription(), strings, stringIndex));
+			headers.writeInt(intern(m.getCaseInfo(), strings, stringIndex));
+			headers.writeInt(intern(m.getPropellantInfo(), strings, stringIndex));
+			headers.writeByte(m.getMotorType().ordinal());
+			headers.writeByte(m.isAvailable() ? 1 : 0);
+			headers.writeDouble(m.getDiameter());
+			headers.writeDouble(m.getLength());
+			headers.writeDouble(m.getInitialMass());
+			headers.writeDouble(m.getMaxThrustEstimate());
+			headers.writeDouble(m.getBurnTimeEstimate());
+			headers.writeDouble(m.getAverageThrustEstimate());
+			headers.writeDouble(m.getTotalImpulseEstimate());
+
+			double[] delays = m.getStandardDelays();
+			headers.writeInt(delays.length);
+			for (double d : delays) {
+				headers.writeDouble(d);
+			}
+
+			int n = m.getSampleSize();
+			headers.writeInt(n);
+			headers.writeInt(curveOffset);
+			curveOffset += 6 * 8 * n;
+		}
+		headers.flush();
+
+		ByteArrayOutputStream tableBytes = new ByteArrayOutputStream();
+		DataOutputStream table = new DataOutputStream(tableBytes);
+		table.writeInt(strings.size());
+		for (String s : strings) {
+			byte[] bytes = s.getBytes(UTF8);
+			table.writeInt(bytes.length);
+			table.write(bytes);
+		}
+		table.flush();
+
+		DataOutputStream data = new DataOutputStream(out);
+		data.writeInt(MAGIC);
+		data.writeInt(VERSION);
+		tableBytes.writeTo(data);
+		data.writeInt(motors.size());
+		data.writeInt(4 * 4 + tableBytes.size() + headerBytes.size());
+		headerBytes.writeTo(data);
+
+		for (ThrustCurveMotor m : motors) {
+			for (double t : m.getTimePoints()) {
+				data.writeDouble(t);
+			}
+			for (double f : m.getThrustPoints()) {
+				data.writeDouble(f);
+			}
+			Coordinate[] cg = m.getCGPoints();
+			for (Coordinate c : cg) {
+				data.writeDouble(c.x);
+			}
+			for (Coordinate c : cg) {
+				data.writeDouble(c.y);
+			}
+			for (Coordinate c : cg) {
+				data.writeDouble(c.z);
+			}
+			for (Coordinate c : cg) {
+				data.writeDouble(c.weight);
+			}
+		}
+		data.flush();
+	}
+
+	private static int intern(String s, List<String> strings, Map<String, Integer> index) {
+		if (s == null) {
+			return -1;
+		}
+		Integer i = index.get(s);
+		if (i == null) {
+			i = strings.size();
+			strings.add(s);
+			index.put(s, i);
+		}
+		return i;
+	}
+
+
+	/**
+	 * Read a snapshot from a file by memory-mapping it.
+	 *
+	 * @param file	the snapshot file.
+	 * @return		the motors in the snapshot.
+	 * @throws IOException	if an I/O error occurs or the file is not a valid snapshot.
+	 */
+	public static List<ThrustCurveMotor> read(File file) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = raf.getChannel();
+			return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		} finally {
+			// The mapping stays valid after the channel has been closed
+			raf.close();
+		}
+	}
+
+	/**
+	 * Read a snapshot from a stream.  The stream is read fully into memory and closed.
+	 *
+	 * @param in	the stream to read.
+	 * @return		the motors in the snapshot.
+	 * @throws IOException	if an I/O error occurs or the data is not a valid snapshot.
+	 */
+	public static List<ThrustCurveMotor> read(InputStream in) throws IOException {
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream(Math.max(in.available(), 8192));
+			byte[] buffer = new byte[65536];
+			int n;
+			while ((n = in.read(buffer)) >= 0) {
+				bytes.write(buffer, 0, n);
+			}
+			return read(ByteBuffer.wrap(bytes.toByteArray()));
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Read a snapshot from a buffer.  The thrust curves are read from the buffer when
+	 * they are first accessed, so its contents must not be changed afterwards.
+	 *
+	 * @param buffer	the buffer containing the snapshot, starting at position zero.
+	 * @return			the motors in the snapshot.
+	 * @throws IOException	if the data is not a valid snapshot.
+	 */
+	public static List<ThrustCurveMotor> read(ByteBuffer buffer) throws IOException {
+		ByteBuffer buf = buffer.asReadOnlyBuffer();
+		try {
+			if (buf.getInt() != MAGIC) {
+				throw new IOException("Not a motor database snapshot");
+			}
+			int version = buf.getInt();
+			if (version != VERSION) {
+				throw new IOException("Unsupported motor database snapshot version " + version);
+			}
+
+			String[] strings = new String[buf.getInt()];
+			for (int i = 0; i < strings.length; i++) {
+				byte[] bytes = new byte[buf.getInt()];
+				buf.get(bytes);
+				strings[i] = new String(bytes, UTF8);
+			}
+
+			Motor.Type[] types = Motor.Type.values();
+			int count = buf.getInt();
+			int curveBase = buf.getInt();
+			List<ThrustCurveMotor> motors = new ArrayList<ThrustCurveMotor>(count);
+			for (int i = 0; i < count; i++) {
+				ThrustCurveMotor.Builder builder = new ThrustCurveMotor.Builder();
+				builder.setDigest(string(strings, buf.getInt()));
+				builder.setManufacturer(Manufacturer.getManufacturer(string(strings, buf.getInt())));
+				builder.setDesignation(string(strings, buf.getInt()));
+				builder.setDescription(string(strings, buf.getInt()));
+				builder.setCaseInfo(string(strings, buf.getInt()));
+				builder.setPropellantInfo(string(strings, buf.getInt()));
+				int type = buf.get();
+				if (type < 0 || type >= types.length) {
+					throw new IOException("Invalid motor type " + type);
+				}
+				builder.setMotorType(types[type]);
+				builder.setAvailablity(buf.get() != 0);
+				builder.setDiameter(buf.getDouble());
+				builder.setLength(buf.getDouble());
+				builder.setInitialMass(buf.getDouble());
+				builder.setMaxThrustEstimate(buf.getDouble());
+				builder.setBurnTimeEstimate(buf.getDouble());
+				builder.setAverageThrustEstimate(buf.getDouble());
+				builder.setTotalThrustEstimate(buf.getDouble());
+
+				double[] delays = new double[buf.getInt()];
+				for (int j = 0; j < delays.length; j++) {
+					delays[j] = buf.getDouble();
+				}
+				builder.setStandardDelays(delays);
+
+				int samples = buf.getInt();
+				int offset = curveBase + buf.getInt();
+				if (samples < 2 || offset < curveBase || offset + 6L * 8 * samples > buf.limit()) {
+					throw new IOException("Invalid thrust curve of " + samples + " samples at " + offset);
+				}
+				builder.setCurveSource(new BufferCurveSource(buf, offset), samples);
+				motors.add(builder.buildLazy());
+			}
+			return motors;
+		} catch (BufferUnderflowException e) {
+			throw new IOException("Truncated motor database snapshot", e);
+		} catch (IndexOutOfBoundsException e) {
+			throw new IOException("Corrupt motor database snapshot", e);
+		}
+	}
+
+	private static String string(String[] strings, int index) {
+		if (index < 0) {
+			return null;
+		}
+		return strings[index];
+	}
+
+
+	/**
+	 * Reads a thrust curve from a shared buffer using absolute gets only.
+	 */
+	private static final class BufferCurveSource implements ThrustCurveMotor.CurveSource {
+
+		private final ByteBuffer buffer;
+		private final int offset;
+
+		public BufferCurveSource(ByteBuffer buffer, int offset) {
+			this.buffer = buffer;
+			this.offset = offset;
+		}
+
+		@Override
+		public void read(double[] time, double[] thrust, Coordinate[] cg) {
+			int n = time.length;
+			int pos = offset;
+			for (int i = 0; i < n; i++, pos += 8) {
+				time[i] = buffer.getDouble(pos);
+			}
+			for (int i = 0; i < n; i++, pos += 8) {
+				thrust[i] = buffer.getDouble(pos);
+			}
+			int stride = 8 * n;
+			for (int i = 0; i < n; i++, pos += 8) {
+				cg[i] = new Coordinate(buffer.getDouble(pos), buffer.getDouble(pos + stride),
+						buffer.getDouble(pos + 2 * stride), buffer.getDouble(pos + 3 * stride));
+			}
+		}
+	}
+}
@@ -0,0 +1,241 @@
+package net.sf.openrocket.optimization.general;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A store of function values that is kept in a file, so that evaluations can be reused
+ * across optimization runs and application sessions.
+ * <p>
+ * The values are stored by a key string, typically a hash of everything that affects the
+ * value.  At most a fixed number of entries is kept, the least recently used entries being
+ * discarded first.  New values are appended to the file as they are stored, so the values
+ * computed before a crash are available when the store is opened again.  The file is
+ * rewritten with only the retained entries when the store is closed or when the appended
+ * lines grow beyond twice the entry limit.
+ * <p>
+ * If the file cannot be written, the store continues to work in memory only.  This class
+ * is thread-safe.
+ */
+public class EvaluationStore implements Closeable {
+	private static final Logger log = LoggerFactory.getLogger(EvaluationStore.class);
+
+	private final File file;
+	private final int maxEntries;
+
+	private final Map<String, Double> entries;
+
+	private Writer writer = null;
+	private int lineCount = 0;
+	private boolean persistent = true;
+
+	private int hitCount = 0;
+	private int missCount = 0;
+
+
+	/**
+	 * Open a store, reading the entries stored earlier in the file if it exists.
+	 *
+	 * @param file			the file in which the values are stored.
+	 * @param maxEntries	the maximum number of entries to keep.
+	 */
+	public EvaluationStore(File file, final int maxEntries) {
+		if (maxEntries <= 0) {
+			throw new IllegalArgumentException("maxEntries=" + maxEntries);
+		}
+		this.file = file;
+		this.maxEntries = maxEntries;
+		this.entries = new LinkedHashMap<String, Double>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Double> eldest) {
+				return size() > maxEntries;
+			}
+		};
+		load();
+	}
+
+
+	/**
+	 * Return the stored value of a key, or <code>null</code> if it has not been stored.
+	 * The lookup is counted as a hit or a miss.
+	 */
+	public synchronized Double get(String key) {
+		Double value = entries.get(key);
+		if (value != null) {
+			hitCount++;
+		} else {
+			missCount++;
+		}
+		return value;
+	}
+
+	/**
+	 * Store the value of a key and append it to the file.
+	 */
+	public synchronized void put(String key, double value) {
+		if (key.indexOf(' ') >= 0 || key.indexOf('\n') >= 0) {
+			throw new IllegalArgumentException("Invalid key: " + key);
+		}
+		entries.put(key, value);
+		if (!persistent) {
+			return;
+		}
+		try {
+			if (lineCount >= 2 * maxEntries) {
+				compact();
+			} else {
+				if (writer == null) {
+					writer = openWriter();
+				}
+				writeEntry(writer, key, value);
+				writer.flush();
+				lineCount++;
+			}
+		} catch (IOException e) {
+			disablePersistence(e);
+		}
+	}
+
+
+	/**
+	 * Return the number of lookups that found a stored value.
+	 */
+	public synchronized int getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * Return the number of lookups that did not find a stored value.
+	 */
+	public synchronized int getMissCount() {
+		return missCount;
+	}
+
+	/**
+	 * Return the number of entries currently in the store.
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+
+	/**
+	 * Rewrite the file with the retained entries and close it.  Values may still be
+	 * looked up and stored after closing, but they are then kept in memory only.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (!persistent) {
+			return;
+		}
+		persistent = false;
+		try {
+			compact();
+		} finally {
+			closeWriter();
+		}
+	}
+
+
+
+	private void load() {
+		if (!file.isFile()) {
+			return;
+		}
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+				new FileInputStream(file), StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				lineCount++;
+				int split = line.indexOf(' ');
+				if (split <= 0) {
+					continue;
+				}
+				try {
+					double value = Double.parseDouble(line.substring(split + 1));
+					entries.put(line.substring(0, split), value);
+				} catch (NumberFormatException e) {
+					// A line cut short by a crash, skip it
+				}
+			}
+		} catch (IOException e) {
+			log.warn("Unable to read evaluation store " + file, e);
+		}
+		log.info("Loaded " + entries.size() + " stored evaluations from " + file);
+	}
+
+	/**
+	 * Write the retained entries to a temporary file, which then replaces the store file.
+	 */
+	private void compact() throws IOException {
+		closeWriter();
+
+		File parent = file.getAbsoluteFile().getParentFile();
+		if (parent != null && !parent.isDirectory()) {
+			parent.mkdirs();
+		}
+		File tmp = new File(file.getPath() + ".tmp");
+		try (Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(tmp), StandardCharsets.UTF_8))) {
+			// Written from the least recently used, so that the order survives reloading
+			for (Map.Entry<String, Double> e : entries.entrySet()) {
+				writeEntry(out, e.getKey(), e.getValue());
+			}
+		}
+		if (!tmp.renameTo(file)) {
+			file.delete();
+			if (!tmp.renameTo(file)) {
+				throw new IOException("Unable to replace " + file);
+			}
+		}
+		lineCount = entries.size();
+	}
+
+	private Writer openWriter() throws FileNotFoundException {
+		File parent = file.getAbsoluteFile().getParentFile();
+		if (parent != null && !parent.isDirectory()) {
+			parent.mkdirs();
+		}
+		return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8));
+	}
+
+	private void closeWriter() throws IOException {
+		if (writer != null) {
+			Writer w = writer;
+			writer = null;
+			w.close();
+		}
+	}
+
+	private static void writeEntry(Writer out, String key, double value) throws IOException {
+		out.write(key);
+		out.write(' ');
+		out.write(Double.toString(value));
+		out.write('\n');
+	}
+
+	private void disablePersistence(IOException e) {
+		log.warn("Unable to write evaluation store " + file + ", continuing without it", e);
+		persistent = false;
+		try {
+			closeWriter();
+		} catch (IOException ignore) {
+			// Already failed
+		}
+	}
+
+}
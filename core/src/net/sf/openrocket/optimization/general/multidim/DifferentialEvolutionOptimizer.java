@@ -0,0 +1,334 @@
+package net.sf.openrocket.optimization.general.multidim;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.sf.openrocket.optimization.general.FunctionCache;
+import net.sf.openrocket.optimization.general.FunctionOptimizer;
+import net.sf.openrocket.optimization.general.OptimizationController;
+import net.sf.openrocket.optimization.general.OptimizationException;
+import net.sf.openrocket.optimization.general.ParallelFunctionCache;
+import net.sf.openrocket.optimization.general.Point;
+import net.sf.openrocket.util.Statistics;
+
+/**
+ * A population based optimizer using the differential evolution algorithm by Storn and Price
+ * (the DE/rand/1/bin variant).
+ * <p>
+ * A whole generation of trial points is scheduled to the function cache at once, so the
+ * number of parallel evaluations is limited only by the population size and the threads of the
+ * cache.  The optimization is bounded to the unit hypercube that the optimization points are
+ * scaled to.  The step size reported to the controller is the largest extent of the
+ * population along any coordinate, which shrinks as the population converges.
+ * <p>
+ * The optimization can be aborted by interrupting the current thread.  When the optimization
+ * ends, the evaluations still in progress are aborted.  Simulation based functions stop these
+ * at their next time step.
+ * <p>
+ * A trial is always evaluated to the end.  A trial outside the simulation domain is
+ * rejected by the function before anything is simulated, and the goal value of a trial is
+ * not known before its simulation ends, so a trial cannot be abandoned earlier on account of
+ * its target.
+ */
+public class DifferentialEvolutionOptimizer implements FunctionOptimizer, Statistics {
+	private static final Logger log = LoggerFactory.getLogger(DifferentialEvolutionOptimizer.class);
+	
+	/** Default differential weight. */
+	public static final double DEFAULT_WEIGHT = 0.5;
+	
+	/** Default crossover probability. */
+	public static final double DEFAULT_CROSSOVER = 0.9;
+	
+	/** Smallest population with which the mutation can pick three distinct members. */
+	private static final int MIN_POPULATION = 4;
+	
+	
+	private final List<Point> population = new ArrayList<Point>();
+	private Point optimum = null;
+	
+	private ParallelFunctionCache functionExecutor;
+	
+	private int populationSize = 0;
+	private double weight = DEFAULT_WEIGHT;
+	private double crossover = DEFAULT_CROSSOVER;
+	private long seed = 0;
+	
+	private int generationCount = 0;
+	private int trialCount = 0;
+	private int trialAcceptance = 0;
+	
+	
+	public DifferentialEvolutionOptimizer() {
+		// No-op
+	}
+	
+	public DifferentialEvolutionOptimizer(ParallelFunctionCache functionCache) {
+		this.functionExecutor = functionCache;
+	}
+	
+	
+	
+	@Override
+	public void optimize(Point initial, OptimizationController control) throws OptimizationException {
+		final int dim = initial.dim();
+		final int size = getPopulationSize(dim);
+		final Random random = new Random(seed);
+		
+		log.info("Starting optimization at " + initial + " with population size " + size);
+		
+		// The initial population is the starting point and uniformly random points
+		population.clear();
+		population.add(initial);
+		while (population.size() < size) {
+			double[] p = new double[dim];
+			for (int j = 0; j < dim; j++) {
+				p[j] = random.nextDouble();
+			}
+			population.add(new Point(p));
+		}
+		
+		try {
+			
+			functionExecutor.compute(population);
+			functionExecutor.waitFor(population);
+			optimum = findOptimum();
+			
+			List<Point> trials = new ArrayList<Point>(size);
+			boolean continueOptimization = true;
+			while (continueOptimization) {
+				
+				generationCount++;
+				Point current = optimum;
+				double currentValue = functionExecutor.getValue(current);
+				
+				trials.clear();
+				for (int i = 0; i < size; i++) {
+					trials.add(createTrial(i, random));
+				}
+				functionExecutor.compute(trials);
+				
+				// Each trial replaces its target if it is not worse
+				for (int i = 0; i < size; i++) {
+					Point trial = trials.get(i);
+					functionExecutor.waitFor(trial);
+					trialCount++;
+					if (functionExecutor.getValue(trial) <= functionExecutor.getValue(population.get(i))) {
+						population.set(i, trial);
+						trialAcceptance++;
+					}
+				}
+				optimum = findOptimum();
+				
+				log.debug("Generation " + generationCount + " optimum " + optimum + " value " +
+						functionExecutor.getValue(optimum));
+				
+				continueOptimization = control.stepTaken(current, currentValue, optimum,
+						functionExecutor.getValue(optimum), getSpread());
+				
+				if (Thread.interrupted()) {
+					throw new InterruptedException();
+				}
+			}
+		
+		} catch (InterruptedException e) {
+			log.info("Optimization was interrupted with InterruptedException");
+		} finally {
+			functionExecutor.abortAll();
+		}
+		
+		if (optimum != null) {
+			log.info("Finishing optimization at point " + optimum + " value = " +
+					functionExecutor.getValue(optimum));
+		}
+		log.info("Optimization statistics: " + getStatistics());
+	}
+	
+	
+	/**
+	 * Create the trial point of a population member by mutation and binomial crossover.
+	 * Coordinates that fall outside the unit range are placed between the target and the bound.
+	 */
+	private Point createTrial(int target, Random random) {
+		final int size = population.size();
+		int a, b, c;
+		do {
+			a = random.nextInt(size);
+		} while (a == target);
+		do {
+			b = random.nextInt(size);
+		} while (b == target || b == a);
+		do {
+			c = random.nextInt(size);
+		} while (c == target || c == a || c == b);
+		
+		Point x = population.get(target);
+		Point pa = population.get(a);
+		Point pb = population.get(b);
+		Point pc = population.get(c);
+		
+		final int dim = x.dim();
+		final int forced = random.nextInt(dim);
+		double[] trial = new double[dim];
+		for (int j = 0; j < dim; j++) {
+			if (j == forced || random.nextDouble() < crossover) {
+				double v = pa.get(j) + weight * (pb.get(j) - pc.get(j));
+				if (v < 0) {
+					v = x.get(j) / 2;
+				} else if (v > 1) {
+					v = (x.get(j) + 1) / 2;
+				}
+				trial[j] = v;
+			} else {
+				trial[j] = x.get(j);
+			}
+		}
+		return new Point(trial);
+	}
+	
+	private Point findOptimum() {
+		Point best = population.get(0);
+		double bestValue = functionExecutor.getValue(best);
+		for (Point p : population) {
+			double value = functionExecutor.getValue(p);
+			if (value < bestValue) {
+				best = p;
+				bestValue = value;
+			}
+		}
+		return best;
+	}
+	
+	/**
+	 * Return the largest extent of the population along any coordinate.
+	 */
+	private double getSpread() {
+		double spread = 0;
+		for (int j = 0; j < optimum.dim(); j++) {
+			double min = Double.MAX_VALUE;
+			double max = -Double.MAX_VALUE;
+			for (Point p : population) {
+				min = Math.min(min, p.get(j));
+				max = Math.max(max, p.get(j));
+			}
+			spread = Math.max(spread, max - min);
+		}
+		return spread;
+	}
+	
+	
+	
+	private int getPopulationSize(int dim) {
+		if (populationSize > 0) {
+			return Math.max(populationSize, MIN_POPULATION);
+		}
+		return Math.max(10 * dim, MIN_POPULATION);
+	}
+	
+	/**
+	 * Return the population size, or zero if it is chosen from the number of dimensions.
+	 */
+	public int getPopulationSize() {
+		return populationSize;
+	}
+	
+	/**
+	 * Set the number of population members, which is also the number of function evaluations
+	 * scheduled at a time.  Zero uses ten times the number of dimensions.  At least four
+	 * members are always used.
+	 *
+	 * @param populationSize	the population size, or zero for the default.
+	 */
+	public void setPopulationSize(int populationSize) {
+		if (populationSize < 0) {
+			throw new IllegalArgumentException("populationSize=" + populationSize);
+		}
+		this.populationSize = populationSize;
+	}
+	
+	public double getWeight() {
+		return weight;
+	}
+	
+	/**
+	 * Set the differential weight by which the difference of two members is added to a third.
+	 *
+	 * @param weight	the weight, between 0 and 2.
+	 */
+	public void setWeight(double weight) {
+		if (!(weight > 0 && weight <= 2)) {
+			throw new IllegalArgumentException("weight=" + weight);
+		}
+		this.weight = weight;
+	}
+	
+	public double getCrossover() {
+		return crossover;
+	}
+	
+	/**
+	 * Set the probability with which each coordinate of a trial point is taken from the mutation.
+	 *
+	 * @param crossover		the crossover probability, between 0 and 1.
+	 */
+	public void setCrossover(double crossover) {
+		if (!(crossover >= 0 && crossover <= 1)) {
+			throw new IllegalArgumentException("crossover=" + crossover);
+		}
+		this.crossover = crossover;
+	}
+	
+	/**
+	 * Set the seed of the random numbers, so that an optimization can be repeated.
+	 *
+	 * @param seed	the random seed.
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+	
+	
+	@Override
+	public Point getOptimumPoint() {
+		if (optimum == null) {
+			throw new IllegalStateException("Optimization has not been called, population is empty");
+		}
+		return optimum;
+	}
+	
+	@Override
+	public double getOptimumValue() {
+		return functionExecutor.getValue(getOptimumPoint());
+	}
+	
+	@Override
+	public FunctionCache getFunctionCache() {
+		return functionExecutor;
+	}
+	
+	@Override
+	public void setFunctionCache(FunctionCache functionCache) {
+		if (!(functionCache instanceof ParallelFunctionCache)) {
+			throw new IllegalArgumentException("Function cache needs to be a ParallelFunctionCache: " + functionCache);
+		}
+		this.functionExecutor = (ParallelFunctionCache) functionCache;
+	}
+	
+	@Override
+	public String getStatistics() {
+		return "DifferentialEvolutionOptimizer[generationCount=" + generationCount +
+				", trialCount=" + trialCount +
+				", trialAcceptance=" + trialAcceptance + "]";
+	}
+	
+	@Override
+	public void resetStatistics() {
+		generationCount = 0;
+		trialCount = 0;
+		trialAcceptance = 0;
+	}
+
+}
@@ -1,20 +1,37 @@
 package net.sf.openrocket.optimization.rocketoptimization;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import net.sf.openrocket.document.OpenRocketDocument;
+import net.sf.openrocket.document.OpenRocketDocumentFactory;
 import net.sf.openrocket.document.Simulation;
+import net.sf.openrocket.document.StorageOptions;
+import net.sf.openrocket.file.openrocket.OpenRocketSaver;
+import net.sf.openrocket.optimization.general.EvaluationStore;
 import net.sf.openrocket.optimization.general.Function;
 import net.sf.openrocket.optimization.general.OptimizationException;
 import net.sf.openrocket.optimization.general.Point;
 import net.sf.openrocket.rocketcomponent.Rocket;
+import net.sf.openrocket.rocketcomponent.RocketComponent;
 import net.sf.openrocket.unit.UnitGroup;
 import net.sf.openrocket.unit.Value;
+import net.sf.openrocket.util.BugException;
 import net.sf.openrocket.util.Pair;
+import net.sf.openrocket.util.TextUtil;
 
 /**
  * A Function that optimizes a specific RocketOptimizationParameter to some goal
@@ -40,6 +57,23 @@ public class RocketOptimizationFunction implements Function {
 
 	private final List<RocketOptimizationListener> listeners = new ArrayList<RocketOptimizationListener>();
 	
+	/*
+	 * Copies of the base simulation that are not in use.  Every modifier sets its value
+	 * on each evaluation, so a copy is reused for the next point instead of copying the
+	 * whole rocket again.  The copies are discarded if the base rocket changes.
+	 */
+	private final Queue<Simulation> instances = new ConcurrentLinkedQueue<Simulation>();
+	private volatile int instanceModID = -1;
+	
+	/*
+	 * Store of parameter values computed earlier, possibly in other sessions.  The values
+	 * are keyed by a digest of the saved base simulation, which is recomputed when the
+	 * base rocket changes.
+	 */
+	private volatile EvaluationStore store = null;
+	private byte[] designDigest = null;
+	private int designModID = -1;
+	
 	
 	/**
 	 * Sole constructor.
@@ -67,25 +101,50 @@ public class RocketOptimizationFunction implements Function {
 	
 	@Override
 	public double evaluate(Point point) throws InterruptedException, OptimizationException {
-		
-		/*
-		 * parameterValue is the computed parameter value (e.g. altitude)
-		 * goalValue is the value that needs to be minimized
-		 */
-		double goalValue, parameterValue;
+		double goalValue;
 		
 		log.debug("Computing optimization function value at point " + point);
 		
-		// Create the new simulation based on the point
+		// Modify a copy of the simulation based on the point
 		double[] p = point.asArray();
 		if (p.length != modifiers.length) {
 			throw new IllegalArgumentException("Point has length " + p.length + " while function has " +
 					modifiers.length + " simulation modifiers");
 		}
 		
-		Simulation simulation = newSimulationInstance(baseSimulation);
-		for (int i = 0; i < modifiers.length; i++) {
-			modifiers[i].modify(simulation, p[i]);
+		Simulation simulation = getSimulationInstance();
+		boolean completed = false;
+		try {
+			goalValue = evaluate(simulation, point, p);
+			completed = true;
+		} finally {
+			// An interrupted simulation is not reused
+			if (completed) {
+				instances.offer(simulation);
+			}
+		}
+		return goalValue;
+	}
+	
+	
+	private double evaluate(Simulation simulation, Point point, double[] p)
+			throws InterruptedException, OptimizationException {
+		
+		/*
+		 * parameterValue is the computed parameter value (e.g. altitude)
+		 * goalValue is the value that needs to be minimized
+		 */
+		double goalValue, parameterValue;
+		
+		// Combine the events of the modifications into a single one
+		Rocket rocket = simulation.getRocket();
+		rocket.freeze();
+		try {
+			for (int i = 0; i < modifiers.length; i++) {
+				modifiers[i].modify(simulation, p[i]);
+			}
+		} finally {
+			rocket.thaw();
 		}
 		
 
@@ -107,8 +166,19 @@ public class RocketOptimizationFunction implements Function {
 		}
 		
 
-		// Compute the optimization value
-		parameterValue = parameter.computeValue(simulation);
+		// Compute the optimization value, unless it has been stored earlier
+		EvaluationStore evaluationStore = store;
+		String key = (evaluationStore != null) ? getEvaluationKey(simulation) : null;
+		Double storedValue = (key != null) ? evaluationStore.get(key) : null;
+		if (storedValue != null) {
+			parameterValue = storedValue;
+			log.trace("Using stored parameter value at point " + point);
+		} else {
+			parameterValue = parameter.computeValue(simulation);
+			if (key != null) {
+				evaluationStore.put(key, parameterValue);
+			}
+		}
 		goalValue = goal.getMinimizationParameter(parameterValue);
 		
 		if (Double.isNaN(goalValue)) {
@@ -130,6 +200,125 @@ public class RocketOptimizationFunction implements Function {
 
 
 
+	/**
+	 * Return the key by which the parameter value of a modified simulation is stored,
+	 * or <code>null</code> if the design could not be digested.  The key covers the saved form of the base
+	 * simulation, the optimized parameter and the values set by the modifiers.  The random
+	 * seed is not saved with the simulation and is not part of the key.
+	 */
+	private String getEvaluationKey(Simulation simulation) throws OptimizationException {
+		byte[] design = getDesignDigest();
+		if (design == null) {
+			return null;
+		}
+		
+		MessageDigest digest = newDigest();
+		digest.update(design);
+		update(digest, parameter.getClass().getName());
+		update(digest, parameter.getName());
+		ByteBuffer value = ByteBuffer.allocate(8);
+		for (SimulationModifier modifier : modifiers) {
+			update(digest, modifier.getClass().getName());
+			update(digest, modifier.getName());
+			Object related = modifier.getRelatedObject();
+			update(digest, (related instanceof RocketComponent) ? getTreePath((RocketComponent) related) : String.valueOf(related));
+			value.clear();
+			value.putDouble(modifier.getCurrentSIValue(simulation));
+			digest.update(value.array());
+		}
+		return TextUtil.hexString(digest.digest());
+	}
+	
+	/**
+	 * Return the digest of the base simulation as it would be saved, or <code>null</code>
+	 * if it could not be computed.
+	 */
+	private byte[] getDesignDigest() {
+		synchronized (baseSimulation) {
+			int modID = baseSimulation.getRocket().getModID();
+			if (designDigest != null && modID == designModID) {
+				return designDigest;
+			}
+			
+			Simulation copy = newSimulationInstance(baseSimulation);
+			OpenRocketDocument document = OpenRocketDocumentFactory.createDocumentFromRocket(copy.getRocket());
+			document.addSimulation(copy);
+			StorageOptions options = new StorageOptions();
+			options.setSimulationTimeSkip(StorageOptions.SIMULATION_DATA_NONE);
+			
+			MessageDigest digest = newDigest();
+			try (OutputStream out = new DigestOutputStream(new NullOutputStream(), digest)) {
+				new OpenRocketSaver().save(out, document, options);
+			} catch (IOException e) {
+				log.warn("Unable to compute design digest, not using stored evaluations", e);
+				return null;
+			}
+			designDigest = digest.digest();
+			designModID = modID;
+			return designDigest;
+		}
+	}
+	
+	/**
+	 * Return the location of a component in the component tree.  Unlike the component
+	 * ID, this is the same when the design is loaded again.
+	 */
+	private static String getTreePath(RocketComponent component) {
+		StringBuilder sb = new StringBuilder(component.getClass().getName());
+		while (component.getParent() != null) {
+			sb.append('/').append(component.getParent().getChildPosition(component));
+			component = component.getParent();
+		}
+		return sb.toString();
+	}
+	
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new BugException("SHA-256 not supported", e);
+		}
+	}
+	
+	private static void update(MessageDigest digest, String text) {
+		digest.update(text.getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+	}
+	
+	
+	/**
+	 * Set the store from which parameter values computed earlier are reused and into
+	 * which new values are stored.
+	 * 
+	 * @param store		the evaluation store, or <code>null</code> to always simulate.
+	 */
+	public void setEvaluationStore(EvaluationStore store) {
+		this.store = store;
+	}
+	
+	public EvaluationStore getEvaluationStore() {
+		return store;
+	}
+	
+	
+	/**
+	 * Return a copy of the base simulation that no other evaluation is using.
+	 */
+	private Simulation getSimulationInstance() {
+		int modID = baseSimulation.getRocket().getModID();
+		if (modID != instanceModID) {
+			instances.clear();
+			instanceModID = modID;
+		}
+		
+		Simulation simulation = instances.poll();
+		if (simulation == null) {
+			simulation = newSimulationInstance(baseSimulation);
+		}
+		return simulation;
+	}
+	
+	
 	/**
 	 * Returns a new deep copy of the simulation and rocket.  This methods performs
 	 * synchronization on the simulation for thread protection.
@@ -184,4 +373,15 @@ public class RocketOptimizationFunction implements Function {
 			l.evaluated(p, values, domainReference, parameterValue, goalValue);
 		}
 	}
+	
+	
+	private static class NullOutputStream extends OutputStream {
+		@Override
+		public void write(int b) {
+		}
+		
+		@Override
+		public void write(byte[] b, int off, int len) {
+		}
+	}
 }
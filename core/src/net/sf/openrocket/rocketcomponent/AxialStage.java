@@ -92,8 +92,8 @@ public class AxialStage extends ComponentAssembly implements FlightConfigurableC
 	}
 	
 	@Override
-	protected RocketComponent copyWithOriginalID() {
-		AxialStage copy = (AxialStage) super.copyWithOriginalID();
+	protected RocketComponent copyWithOriginalID(boolean copyChildren) {
+		AxialStage copy = (AxialStage) super.copyWithOriginalID(copyChildren);
 		copy.separations = new FlightConfigurableParameterSet<StageSeparationConfiguration>(separations);
 		return copy;
 	}
@@ -471,8 +471,8 @@ public class BodyTube extends SymmetricComponent implements MotorMount, Coaxial
 	}
 	
 	@Override
-	protected RocketComponent copyWithOriginalID() {
-		BodyTube copy = (BodyTube) super.copyWithOriginalID();
+	protected RocketComponent copyWithOriginalID(boolean copyChildren) {
+		BodyTube copy = (BodyTube) super.copyWithOriginalID(copyChildren);
 		
 		copy.motors = new MotorConfigurationSet( this.motors, copy );
 		return copy;
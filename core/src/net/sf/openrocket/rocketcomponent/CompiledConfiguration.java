@@ -0,0 +1,189 @@
+package net.sf.openrocket.rocketcomponent;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+
+import net.sf.openrocket.util.ArrayList;
+import net.sf.openrocket.util.Coordinate;
+import net.sf.openrocket.util.Transformation;
+
+/**
+ * An immutable snapshot of the component tree of a flight configuration, as seen
+ * with the stages active when it was built.
+ * <p>
+ * Walking the live component tree clones the child lists and rebuilds the instance
+ * transformations on every call.  The simulation and the aerodynamic and mass calculations
+ * do this many times per time step, so they iterate over this flattened form instead.
+ * A snapshot is obtained from {@link FlightConfiguration#getCompiledConfiguration()},
+ * which builds a new one when the rocket has been modified or the active stages changed.
+ */
+public final class CompiledConfiguration {
+
+	private final Rocket rocket;
+	private final int rocketModID;
+	private final RocketComponent firstStage;
+	private final int stageModID;
+
+	private final List<RocketComponent> activeComponents;
+	private final List<InstanceContext> instances;
+
+	private final RocketComponent[] motorMounts;
+	private final Coordinate[] motorMountOffsets;
+
+
+	CompiledConfiguration(final FlightConfiguration config, final int stageModID) {
+		this.rocket = config.getRocket();
+		this.rocketModID = rocket.getModID();
+		this.firstStage = (rocket.getChildCount() > 0) ? rocket.getChild(0) : null;
+		this.stageModID = stageModID;
+
+		this.activeComponents = Collections.unmodifiableList(Arrays.asList(buildActiveComponents(config)));
+
+		ArrayList<InstanceContext> contexts = new ArrayList<InstanceContext>();
+		addInstances(config, rocket, contexts, Transformation.IDENTITY);
+		this.instances = Collections.unmodifiableList(Arrays.asList(contexts.toArray(new InstanceContext[0])));
+
+		ArrayList<RocketComponent> mounts = new ArrayList<RocketComponent>();
+		ArrayList<Coordinate> offsets = new ArrayList<Coordinate>();
+		addMotorMounts(config, rocket, Coordinate.ZERO, mounts, offsets);
+		this.motorMounts = mounts.toArray(new RocketComponent[0]);
+		this.motorMountOffsets = offsets.toArray(new Coordinate[0]);
+	}
+
+
+	/**
+	 * Return whether this snapshot still describes the rocket of the configuration.
+	 * Undo restores earlier modification IDs, so the identity of the first stage is
+	 * checked as well.
+	 */
+	boolean isValid(final int currentStageModID) {
+		if (stageModID != currentStageModID || rocketModID != rocket.getModID()) {
+			return false;
+		}
+		RocketComponent stage = (rocket.getChildCount() > 0) ? rocket.getChild(0) : null;
+		return stage == firstStage;
+	}
+
+
+	public Rocket getRocket() {
+		return rocket;
+	}
+
+	/**
+	 * Return the components of the active stages, in the same order as
+	 * {@link FlightConfiguration#getActiveComponents()}.
+	 *
+	 * @return	an unmodifiable list of the active components
+	 */
+	public List<RocketComponent> getActiveComponents() {
+		return activeComponents;
+	}
+
+	/**
+	 * Return the instance contexts of all components, including those of inactive stages,
+	 * in depth-first order.  These are the contexts of {@link FlightConfiguration#getActiveInstances()}.
+	 *
+	 * @return	an unmodifiable list of the instance contexts
+	 */
+	public List<InstanceContext> getInstances() {
+		return instances;
+	}
+
+	/**
+	 * @return	the number of motor mount placements in the active stages
+	 */
+	public int getMotorMountCount() {
+		return motorMounts.length;
+	}
+
+	/**
+	 * Return the motor mount of a placement.  A mount has one placement for every
+	 * instance of its parent.
+	 *
+	 * @param index	the placement index
+	 * @return		the motor mount component
+	 */
+	public RocketComponent getMotorMount(final int index) {
+		return motorMounts[index];
+	}
+
+	/**
+	 * Return the location of the parent instance of a motor mount placement.  As in
+	 * the mass calculation, the instances are placed by their locations only, without
+	 * their axial rotation.
+	 *
+	 * @param index	the placement index
+	 * @return		the offset to add to coordinates relative to the parent of the mount
+	 */
+	public Coordinate getMotorMountOffset(final int index) {
+		return motorMountOffsets[index];
+	}
+
+
+	private static RocketComponent[] buildActiveComponents(final FlightConfiguration config) {
+		Queue<RocketComponent> toProcess = new ArrayDeque<RocketComponent>(config.getActiveStages());
+		ArrayList<RocketComponent> toReturn = new ArrayList<RocketComponent>();
+
+		while (!toProcess.isEmpty()) {
+			RocketComponent comp = toProcess.poll();
+
+			toReturn.add(comp);
+			for (RocketComponent child : comp.getChildren()) {
+				if (!(child instanceof AxialStage)) {
+					toProcess.offer(child);
+				}
+			}
+		}
+
+		return toReturn.toArray(new RocketComponent[0]);
+	}
+
+	private static void addInstances(final FlightConfiguration config, final RocketComponent component,
+			final List<InstanceContext> results, final Transformation parentTransform) {
+		final int instanceCount = component.getInstanceCount();
+		final Coordinate[] allOffsets = component.getInstanceOffsets();
+		final double[] allAngles = component.getInstanceAngles();
+		final boolean active = config.isComponentActive(component);
+		final List<RocketComponent> children = component.getChildren();
+
+		final Transformation compLocTransform = Transformation.getTranslationTransform( component.getPosition() );
+		final Transformation componentTransform = parentTransform.applyTransformation(compLocTransform);
+
+		for (int currentInstanceNumber = 0; currentInstanceNumber < instanceCount; currentInstanceNumber++) {
+			final Transformation offsetTransform = Transformation.getTranslationTransform( allOffsets[currentInstanceNumber] );
+			final Transformation angleTransform = Transformation.getAxialRotation( allAngles[currentInstanceNumber] );
+
+			final Transformation currentTransform = componentTransform.applyTransformation(offsetTransform)
+																	  .applyTransformation(angleTransform);
+
+			results.add(new InstanceContext(component, active, currentInstanceNumber, currentTransform));
+
+			for (RocketComponent child : children) {
+				addInstances(config, child, results, currentTransform);
+			}
+		}
+	}
+
+	private static void addMotorMounts(final FlightConfiguration config, final RocketComponent component,
+			final Coordinate parentOffset, final List<RocketComponent> mounts, final List<Coordinate> offsets) {
+		if (component.isMotorMount() && config.isComponentActive(component)) {
+			mounts.add(component);
+			offsets.add(parentOffset);
+		}
+
+		final List<RocketComponent> children = component.getChildren();
+		if (children.isEmpty()) {
+			return;
+		}
+		for (Coordinate location : component.getInstanceLocations()) {
+			final Coordinate currentOffset = parentOffset.add(location.x, location.y, location.z);
+			for (RocketComponent child : children) {
+				addMotorMounts(config, child, currentOffset, mounts, offsets);
+			}
+		}
+	}
+
+}
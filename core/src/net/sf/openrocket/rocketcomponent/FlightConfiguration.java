@@ -19,7 +19,6 @@ import net.sf.openrocket.util.BoundingBox;
 import net.sf.openrocket.util.Coordinate;
 import net.sf.openrocket.util.MathUtil;
 import net.sf.openrocket.util.Monitorable;
-import net.sf.openrocket.util.Transformation;
 
 
 /**
@@ -71,6 +70,9 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 	
 	private int modID = 0;
 	
+	private int stageModID = 0;
+	private CompiledConfiguration compiled = null;
+	
 	/**
 	 * Create a new configuration with the specified <code>Rocket</code>.
 	 * 
@@ -110,11 +112,13 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 		for (StageFlags cur : stages.values()) {
 			cur.active = _active;
 		}
+		stageModID++;
 	}
 
 	public void copyStages(FlightConfiguration other) {
 		for (StageFlags cur : other.stages.values())
 			stages.put(cur.stageNumber, new StageFlags(cur.stageNumber, cur.active));
+		stageModID++;
 	}
 	
 	/** 
@@ -146,6 +150,7 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 	private void _setStageActive(final int stageNumber, final boolean _active ) {
 		if ((0 <= stageNumber) && (stages.containsKey(stageNumber))) {
 			stages.get(stageNumber).active = _active;
+			stageModID++;
 			return;
 		}
 		log.error("error: attempt to retrieve via a bad stage number: " + stageNumber);
@@ -156,6 +161,7 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 		if ((0 <= stageNumber) && (stages.containsKey(stageNumber))) {
 			StageFlags flags = stages.get(stageNumber);
 			flags.active = !flags.active;
+			stageModID++;
 			return;
 		}
 		this.updateMotors();
@@ -236,21 +242,7 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 	// recomend migrating to either: `getAllComponents` or `getActiveInstances`
 	@Deprecated
 	public Collection<RocketComponent> getActiveComponents() {
-		Queue<RocketComponent> toProcess = new ArrayDeque<RocketComponent>(this.getActiveStages());
-		ArrayList<RocketComponent> toReturn = new ArrayList<>();
-		
-		while (!toProcess.isEmpty()) {
-			RocketComponent comp = toProcess.poll();
-			
-			toReturn.add(comp);
-			for (RocketComponent child : comp.getChildren()) {
-				if (!(child instanceof AxialStage)) {
-					toProcess.offer(child);
-				}
-			}
-		}
-		
-		return toReturn;
+		return getCompiledConfiguration().getActiveComponents();
 	}
 
 	/*
@@ -260,40 +252,31 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 	 */
 	public InstanceMap getActiveInstances() {
 		InstanceMap contexts = new InstanceMap();
-		getContextListAt( this.rocket, contexts, Transformation.IDENTITY);
+		for (InstanceContext context : getCompiledConfiguration().getInstances()) {
+			contexts.add(context);
+		}
 		return contexts;
 	}
 
-	private InstanceMap getContextListAt(final RocketComponent component, final InstanceMap results, final Transformation parentTransform ){
-		final int instanceCount = component.getInstanceCount();
-		final Coordinate[] allOffsets = component.getInstanceOffsets();
-		final double[] allAngles = component.getInstanceAngles();
-		final boolean active = this.isComponentActive(component);
-		
-		final Transformation compLocTransform = Transformation.getTranslationTransform( component.getPosition() );
-		final Transformation componentTransform = parentTransform.applyTransformation(compLocTransform);
-
-		// generate the Instance's Context:
-		for(int currentInstanceNumber=0; currentInstanceNumber < instanceCount; currentInstanceNumber++) {
-			
-			final Coordinate instanceOffset = allOffsets[currentInstanceNumber];
-			final Transformation offsetTransform = Transformation.getTranslationTransform( instanceOffset );
-			
-			final double instanceAngle = allAngles[currentInstanceNumber];
-			final Transformation angleTransform = Transformation.getAxialRotation(instanceAngle);
-			
-			final Transformation currentTransform = componentTransform.applyTransformation(offsetTransform)
-																  	  .applyTransformation(angleTransform);
-			
-			// constructs entry in-place 
-			results.emplace(component, active, currentInstanceNumber, currentTransform);
-			
-			for(RocketComponent child : component.getChildren()) {
-				getContextListAt(child, results, currentTransform);
-			}
+	/**
+	 * Return the compiled form of this configuration:  the active components and the
+	 * instance transformations flattened into arrays.  The snapshot is cached and rebuilt
+	 * when the rocket is modified or the active stages change, so it should be fetched
+	 * again rather than kept across such changes.
+	 * <p>
+	 * While the events of the rocket are disabled its modification ID is not updated,
+	 * so a new snapshot is built on every call.
+	 * 
+	 * @return	the compiled configuration
+	 */
+	public CompiledConfiguration getCompiledConfiguration() {
+		if (!rocket.isEventsEnabled()) {
+			return new CompiledConfiguration(this, stageModID);
 		}
-
-		return results;
+		if (compiled == null || !compiled.isValid(stageModID)) {
+			compiled = new CompiledConfiguration(this, stageModID);
+		}
+		return compiled;
 	}
 	
 	public List<AxialStage> getActiveStages() {
@@ -384,6 +367,7 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 			StageFlags flagsToAdd = new StageFlags( curStage.getStageNumber(), true);
 			this.stages.put(curStage.getStageNumber(), flagsToAdd);
 		}
+		stageModID++;
 	}
 	
 	public boolean isNameOverridden(){
@@ -485,6 +469,10 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 	public void update(){
 		updateStages();
 		updateMotors();
+		
+		// components update their positions while the change event is dispatched,
+		// after the rocket's modification ID has already been bumped
+		compiled = null;
 	}
 	
 	///////////////  Helper methods  ///////////////
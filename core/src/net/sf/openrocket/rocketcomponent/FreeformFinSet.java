@@ -257,8 +257,8 @@ public class FreeformFinSet extends FinSet {
 	}
 	
 	@Override
-	protected RocketComponent copyWithOriginalID() {
-		RocketComponent c = super.copyWithOriginalID();
+	protected RocketComponent copyWithOriginalID(boolean copyChildren) {
+		RocketComponent c = super.copyWithOriginalID(copyChildren);
 		
 		((FreeformFinSet) c).points = new ArrayList<>(this.points);
 		
@@ -349,8 +349,8 @@ public class InnerTube extends ThicknessRingComponent implements AxialPositionab
 	}
 	
 	@Override
-	protected RocketComponent copyWithOriginalID() {
-		InnerTube copy = (InnerTube) super.copyWithOriginalID();
+	protected RocketComponent copyWithOriginalID(boolean copyChildren) {
+		InnerTube copy = (InnerTube) super.copyWithOriginalID(copyChildren);
 		if( copy == this ){
 			new IllegalArgumentException(" copyWithOriginalID should return a different instance! ");
 		}
@@ -38,6 +38,15 @@ public class InstanceMap extends HashMap<RocketComponent, ArrayList<InstanceCont
 		get(key).add(context);
 	}
 
+	void add(final InstanceContext context) {
+		ArrayList<InstanceContext> contexts = get(context.component);
+		if (contexts == null) {
+			contexts = new ArrayList<InstanceContext>();
+			put(context.component, contexts);
+		}
+		contexts.add(context);
+	}
+
 	public List<InstanceContext> getInstanceContexts(final RocketComponent key) {
 		return get(key);
 	}
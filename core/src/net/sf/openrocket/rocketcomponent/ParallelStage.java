@@ -90,8 +90,8 @@ public class ParallelStage extends AxialStage implements FlightConfigurableCompo
 	}
 	
 	@Override
-	protected RocketComponent copyWithOriginalID() {
-		ParallelStage copy = (ParallelStage) (super.copyWithOriginalID());
+	protected RocketComponent copyWithOriginalID(boolean copyChildren) {
+		ParallelStage copy = (ParallelStage) (super.copyWithOriginalID(copyChildren));
 		return copy;
 	}
 
@@ -115,8 +115,8 @@ public abstract class RecoveryDevice extends MassObject implements FlightConfigu
 	}
 	
 	@Override
-	protected RocketComponent copyWithOriginalID() {
-		RecoveryDevice copy = (RecoveryDevice) super.copyWithOriginalID();
+	protected RocketComponent copyWithOriginalID(boolean copyChildren) {
+		RecoveryDevice copy = (RecoveryDevice) super.copyWithOriginalID(copyChildren);
 		copy.deploymentConfigurations = new FlightConfigurableParameterSet<DeploymentConfiguration>(deploymentConfigurations);
 		return copy;
 	}
@@ -6,6 +6,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -47,6 +48,16 @@ public class Rocket extends ComponentAssembly {
 	 */
 	private List<ComponentChangeEvent> freezeList = null;
 	
+	/**
+	 * The components notified of each type of change event, in tree order.  The arrays are
+	 * built from the interests of the components when first needed, and dropped when the
+	 * component tree changes.
+	 */
+	private Map<Integer, RocketComponent[]> subscribers = new HashMap<Integer, RocketComponent[]>();
+	
+	private int firedEventCount = 0;
+	private int deliveredEventCount = 0;
+	
 	
 	private int modID;
 	private int massModID;
@@ -326,17 +337,43 @@ public class Rocket extends ComponentAssembly {
 	 */
 	@Override
 	public Rocket copyWithOriginalID() {
-		Rocket copy = (Rocket) super.copyWithOriginalID();
+		return (Rocket) copyWithOriginalID(true);
+	}
+	
+	@Override
+	protected RocketComponent copyWithOriginalID(boolean copyChildren) {
+		Rocket copy = (Rocket) super.copyWithOriginalID(copyChildren);
 		
 		// Rocket copy is cloned, so non-trivial members must be cloned as well:
 		copy.stageMap = new HashMap<Integer, AxialStage>();
+		Iterator<RocketComponent> iterator = copy.iterator(false);
+		while (iterator.hasNext()) {
+			RocketComponent component = iterator.next();
+			if (component instanceof AxialStage) {
+				copy.stageMap.put(component.getStageNumber(), (AxialStage) component);
+			}
+		}
 		copy.configSet = new FlightConfigurableParameterSet<FlightConfiguration>( this.configSet );
 		copy.selectedConfiguration = copy.configSet.get( this.getSelectedConfiguration().getId());
 		copy.listenerList = new ArrayList<EventListener>();
+		copy.subscribers = new HashMap<Integer, RocketComponent[]>();
+		copy.firedEventCount = 0;
+		copy.deliveredEventCount = 0;
 		
 		return copy;
 	}
 	
+	/*
+	 * Restore the modification ID's of a rocket reconstructed by RocketSnapshot.
+	 */
+	void setModIDs(int modID, int massModID, int aeroModID, int treeModID, int functionalModID) {
+		this.modID = modID;
+		this.massModID = massModID;
+		this.aeroModID = aeroModID;
+		this.treeModID = treeModID;
+		this.functionalModID = functionalModID;
+	}
+	
 	public int getFlightConfigurationCount() {
 		checkState();
 		return this.configSet.size();
@@ -427,13 +464,40 @@ public class Rocket extends ComponentAssembly {
 	
 	@Override
 	protected void fireComponentChangeEvent(ComponentChangeEvent cce) {
+		fireComponentChangeEvent(cce, false);
+	}
+	
+	/**
+	 * Fire an event, or store it in the freeze list if frozen.
+	 * 
+	 * @param cce			the event.
+	 * @param combined		whether the event is the combination of events fired during a freeze,
+	 * 						which have already been counted as fired.
+	 */
+	private void fireComponentChangeEvent(ComponentChangeEvent cce, boolean combined) {
 		if( ! this.eventsEnabled ){
+			// the tree may be changed without events
+			subscribers.clear();
 			return;
 		}
 		
 		mutex.lock("fireComponentChangeEvent");
 		try {
 			checkState();
+			if (!combined) {
+				firedEventCount++;
+			}
+			if (cce.isTreeChange() || cce.isUndoChange()) {
+				subscribers.clear();
+			}
+			
+			// Flight configuration edits change the parameters of the components and then
+			// fire an event from the rocket, so treat such events as changing every component
+			if (cce.getSource() == this && !cce.isUndoChange()) {
+				for (RocketComponent c : this) {
+					c.markChanged();
+				}
+			}
 			
 			{ // vvvv DEVEL vvvv
 				//System.err.println("fireEvent@rocket.");
@@ -459,15 +523,17 @@ public class Rocket extends ComponentAssembly {
 				return;
 			}
 		
-			// Notify all components first
-			Iterator<RocketComponent> iterator = this.iterator(true);
-			while (iterator.hasNext()) {
-				iterator.next().componentChanged(cce);
+			// Notify the components interested in this type of change first
+			for (RocketComponent component : getSubscribers(cce.getType())) {
+				component.componentChanged(cce);
 			}
 			
-			updateConfigurations();
+			if (isConfigurationChange(cce)) {
+				updateConfigurations();
+			}
 
 			notifyAllListeners(cce);
+			deliveredEventCount++;
 			
 		} finally {
 			mutex.unlock("fireComponentChangeEvent");
@@ -489,6 +555,58 @@ public class Rocket extends ComponentAssembly {
 		}
 	}
 	
+	/*
+	 * Return the components interested in events of the given type, in tree order.
+	 */
+	private RocketComponent[] getSubscribers(int type) {
+		RocketComponent[] list = subscribers.get(type);
+		if (list == null) {
+			List<RocketComponent> interested = new ArrayList<RocketComponent>();
+			Iterator<RocketComponent> iterator = this.iterator(true);
+			while (iterator.hasNext()) {
+				RocketComponent component = iterator.next();
+				if ((component.getComponentChangeInterest() & type) != 0) {
+					interested.add(component);
+				}
+			}
+			list = interested.toArray(new RocketComponent[interested.size()]);
+			subscribers.put(type, list);
+		}
+		return list;
+	}
+	
+	/*
+	 * Return whether the stages or motors of the flight configurations may have changed.
+	 * Flight configuration edits are made through the rocket, and fire their events
+	 * with the rocket as the source.
+	 */
+	private boolean isConfigurationChange(ComponentChangeEvent cce) {
+		return cce.isTreeChange() || cce.isUndoChange() || cce.isMotorChange() || cce.isEventChange() ||
+				cce.getSource() == this || cce.getSource() instanceof AxialStage;
+	}
+	
+	@Override
+	protected int getComponentChangeInterest() {
+		// The flight configurations are updated after the components have been notified
+		return ComponentChangeEvent.TREE_CHANGE | ComponentChangeEvent.UNDO_CHANGE;
+	}
+	
+	/**
+	 * Return the number of events fired by the components of this rocket while events were enabled.
+	 */
+	public int getFiredEventCount() {
+		return firedEventCount;
+	}
+	
+	/**
+	 * Return the number of events delivered to the components and listeners of this rocket.
+	 * This is smaller than the number of events fired, since the events fired while the rocket
+	 * is frozen are delivered as a single combined event.
+	 */
+	public int getDeliveredEventCount() {
+		return deliveredEventCount;
+	}
+	
 	private void updateConfigurations(){
 		this.selectedConfiguration.update();
 		for( FlightConfiguration config : configSet ){
@@ -557,7 +675,7 @@ public class Rocket extends ComponentAssembly {
 			return;
 		}
 		if (freezeList.size() == 0) {
-			log.warn("Thawing rocket with no changes made");
+			log.debug("Thawing rocket with no changes made");
 			freezeList = null;
 			return;
 		}
@@ -572,7 +690,7 @@ public class Rocket extends ComponentAssembly {
 		}
 		freezeList = null;
 		
-		fireComponentChangeEvent(new ComponentChangeEvent((RocketComponent) c, type));
+		fireComponentChangeEvent(new ComponentChangeEvent((RocketComponent) c, type), true);
 	}
 	
 	
@@ -802,6 +920,13 @@ public class Rocket extends ComponentAssembly {
 		this.update();
 	}
 	
+	/**
+	 * Return whether component change events are currently fired (and the modification IDs updated).
+	 */
+	public boolean isEventsEnabled() {
+		return this.eventsEnabled;
+	}
+	
 	/** 
 	 * STUB.  would enable the monitoring, relay and production of events in this rocket instance.
 	 */
@@ -121,6 +121,9 @@ public abstract class RocketComponent implements ChangeSource, Cloneable, Iterab
 	// The realistic appearance of this component
 	private Appearance appearance = null;
 	
+	// Modification ID of the component's own state, changed whenever it fires a change event
+	private int componentModID = UniqueID.next();
+	
 	
 	/**
 	 * Used to invalidate the component after calling {@link #copyFrom(RocketComponent)}.
@@ -290,6 +293,23 @@ public abstract class RocketComponent implements ChangeSource, Cloneable, Iterab
 		checkState();
 		update();
 	}
+
+	/**
+	 * Return the types of events for which {@link #componentChanged(ComponentChangeEvent)}
+	 * is called, as a bit mask of the ComponentChangeEvent types.  Events of other types are
+	 * only delivered to the listeners of the rocket.
+	 * <p>
+	 * By default components are notified of mass, aerodynamic, tree and undo changes, since
+	 * the positions and cached dimensions of components depend on the dimensions of the other
+	 * components.  Subclasses that cache data depending on other types of changes must
+	 * override this method.
+	 *
+	 * @return	the bit mask of the event types this component is interested in
+	 */
+	protected int getComponentChangeInterest() {
+		return ComponentChangeEvent.AEROMASS_CHANGE | ComponentChangeEvent.TREE_CHANGE |
+				ComponentChangeEvent.UNDO_CHANGE;
+	}
 	
 	
 	
@@ -365,16 +385,30 @@ public abstract class RocketComponent implements ChangeSource, Cloneable, Iterab
 	 * undo/redo mechanism.  This method should not be used for other purposes,
 	 * such as copy/paste.  This method does not fire any events.
 	 * <p>
-	 * This method must be overridden by any component that refers to mutable objects,
-	 * or if some fields should not be copied.  This should be performed by
-	 * <code>RocketComponent c = super.copyWithOriginalID();</code> and then cloning/modifying
-	 * the appropriate fields.
+	 * Subclasses must not override this method, but {@link #copyWithOriginalID(boolean)}.
 	 * <p>
 	 * This is not performed as serializing/deserializing for performance reasons.
 	 *
 	 * @return A deep copy of the structure.
 	 */
 	protected RocketComponent copyWithOriginalID() {
+		return copyWithOriginalID(true);
+	}
+	
+	/**
+	 * Make a copy of this component, and optionally its children, while maintaining the
+	 * component ID's.  A copy without children is used by {@link RocketSnapshot} to store
+	 * only the components that have changed.  This method does not fire any events.
+	 * <p>
+	 * This method must be overridden by any component that refers to mutable objects,
+	 * or if some fields should not be copied.  This should be performed by
+	 * <code>RocketComponent c = super.copyWithOriginalID(copyChildren);</code> and then
+	 * cloning/modifying the appropriate fields.
+	 *
+	 * @param copyChildren	whether to copy the children, or to return a copy without children.
+	 * @return A copy of the component.
+	 */
+	protected RocketComponent copyWithOriginalID(boolean copyChildren) {
 		mutex.lock("copyWithOriginalID");
 		try {
 			checkState();
@@ -385,19 +419,22 @@ public abstract class RocketComponent implements ChangeSource, Cloneable, Iterab
 				throw new BugException("CloneNotSupportedException encountered, report a bug!", e);
 			}
 			
-			// Reset the mutex
+			// Reset the mutex and invalidator, which must not be shared with the copy
 			clone.mutex = SafetyMutex.newInstance();
+			clone.invalidator = new Invalidator(clone);
 			
 			// Reset all parent/child information
 			clone.parent = null;
 			clone.children = new ArrayList<RocketComponent>();
 			
 			// Add copied children to the structure without firing events.
-			for (RocketComponent child : this.children) {
-				RocketComponent childCopy = child.copyWithOriginalID();
-				// Don't use addChild(...) method since it fires events
-				clone.children.add(childCopy);
-				childCopy.parent = clone;
+			if (copyChildren) {
+				for (RocketComponent child : this.children) {
+					RocketComponent childCopy = child.copyWithOriginalID();
+					// Don't use addChild(...) method since it fires events
+					clone.children.add(childCopy);
+					childCopy.parent = clone;
+				}
 			}
 			
 			this.checkComponentStructure();
@@ -1758,6 +1795,9 @@ public abstract class RocketComponent implements ChangeSource, Cloneable, Iterab
 	 */
 	protected void fireComponentChangeEvent(ComponentChangeEvent e) {
 		checkState();
+		if (!e.isUndoChange()) {
+			markChanged();
+		}
 		if (parent == null) {
 			/* Ignore if root invalid. */
 			return;
@@ -1777,6 +1817,23 @@ public abstract class RocketComponent implements ChangeSource, Cloneable, Iterab
 		fireComponentChangeEvent(new ComponentChangeEvent(this, type));
 	}
 	
+	/*
+	 * Change the modification ID of the state of this component.
+	 */
+	void markChanged() {
+		componentModID = UniqueID.next();
+	}
+	
+	/**
+	 * Return the modification ID of the state of this component alone.  It changes
+	 * whenever this component fires a change event, but not when its children do.
+	 * An event fired by the rocket itself changes it for all components.  Copies made
+	 * with the original ID's have the same modification ID.
+	 */
+	final int getComponentModID() {
+		return componentModID;
+	}
+	
 	
 	/**
 	 * Checks whether this component has been invalidated and should no longer be used.
@@ -2015,6 +2072,7 @@ public abstract class RocketComponent implements ChangeSource, Cloneable, Iterab
 		this.name = src.name;
 		this.comment = src.comment;
 		this.id = src.id;
+		this.componentModID = src.componentModID;
 		
 		// Add source components to invalidation tree
 		for (RocketComponent c : src) {
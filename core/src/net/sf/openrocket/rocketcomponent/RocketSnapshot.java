@@ -0,0 +1,170 @@
+package net.sf.openrocket.rocketcomponent;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An immutable snapshot of the state of a rocket, used by the undo/redo mechanism.
+ * <p>
+ * A snapshot stores a copy of each component without its children, together with the
+ * tree structure.  When a snapshot is taken after a previous one, the copies and subtrees
+ * of components that have not changed since are shared with the previous snapshot, so
+ * only the rocket itself and the components that have fired change events in between
+ * are copied.  Every snapshot is nevertheless complete, and a rocket can be reconstructed
+ * from it directly without replaying changes.
+ * <p>
+ * The copies held by a snapshot are never modified or handed out.
+ */
+public final class RocketSnapshot {
+
+	private final Node root;
+	private final int modID;
+	private final int massModID;
+	private final int aeroModID;
+	private final int treeModID;
+	private final int functionalModID;
+
+
+	private RocketSnapshot(Node root, Rocket rocket) {
+		this.root = root;
+		this.modID = rocket.getModID();
+		this.massModID = rocket.getMassModID();
+		this.aeroModID = rocket.getAerodynamicModID();
+		this.treeModID = rocket.getTreeModID();
+		this.functionalModID = rocket.getFunctionalModID();
+	}
+
+
+	/**
+	 * Take a snapshot of the current state of a rocket.  This method does not fire any events.
+	 *
+	 * @param rocket	the rocket.
+	 * @param previous	a previous snapshot of the same rocket to share unchanged components
+	 * 					with, or <code>null</code> to copy all components.
+	 * @return			the snapshot.
+	 */
+	public static RocketSnapshot take(Rocket rocket, RocketSnapshot previous) {
+		Map<String, Node> previousNodes = new HashMap<String, Node>();
+		if (previous != null) {
+			previous.root.collect(previousNodes);
+		}
+		return new RocketSnapshot(snapshot(rocket, previousNodes), rocket);
+	}
+
+
+	/**
+	 * Return the modification ID of the rocket at the time the snapshot was taken.
+	 */
+	public int getModID() {
+		return modID;
+	}
+
+	/**
+	 * Return the number of components in this snapshot.
+	 */
+	public int getComponentCount() {
+		return root.count();
+	}
+
+	/**
+	 * Return the number of component copies in this snapshot that are not shared with
+	 * the given other snapshot.
+	 */
+	public int getUnsharedComponentCount(RocketSnapshot other) {
+		Map<String, Node> otherNodes = new HashMap<String, Node>();
+		other.root.collect(otherNodes);
+		return root.countUnshared(otherNodes);
+	}
+
+
+	/**
+	 * Reconstruct the rocket of this snapshot.  The returned rocket is a new copy with the
+	 * original component ID's and modification ID's, suitable for {@link Rocket#loadFrom(Rocket)}.
+	 */
+	public Rocket toRocket() {
+		Rocket rocket = (Rocket) root.reconstruct();
+		rocket.setModIDs(modID, massModID, aeroModID, treeModID, functionalModID);
+		rocket.checkComponentStructure();
+		return rocket;
+	}
+
+
+	private static Node snapshot(RocketComponent component, Map<String, Node> previousNodes) {
+		Node[] children = new Node[component.children.size()];
+		for (int i = 0; i < children.length; i++) {
+			children[i] = snapshot(component.children.get(i), previousNodes);
+		}
+
+		// The rocket is always copied, since its flight configurations change without events
+		Node previous = previousNodes.get(component.getID());
+		if (previous != null && component.parent != null &&
+				previous.componentModID == component.getComponentModID() &&
+				previous.copy.getClass() == component.getClass()) {
+			if (previous.hasChildren(children)) {
+				return previous;
+			}
+			return new Node(previous.copy, previous.componentModID, children);
+		}
+		return new Node(component.copyWithOriginalID(false), component.getComponentModID(), children);
+	}
+
+
+	private static final class Node {
+		private final RocketComponent copy;
+		private final int componentModID;
+		private final Node[] children;
+
+		Node(RocketComponent copy, int componentModID, Node[] children) {
+			this.copy = copy;
+			this.componentModID = componentModID;
+			this.children = children;
+		}
+
+		boolean hasChildren(Node[] nodes) {
+			if (nodes.length != children.length) {
+				return false;
+			}
+			for (int i = 0; i < nodes.length; i++) {
+				if (nodes[i] != children[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		void collect(Map<String, Node> nodes) {
+			nodes.put(copy.getID(), this);
+			for (Node child : children) {
+				child.collect(nodes);
+			}
+		}
+
+		int count() {
+			int count = 1;
+			for (Node child : children) {
+				count += child.count();
+			}
+			return count;
+		}
+
+		int countUnshared(Map<String, Node> otherNodes) {
+			Node other = otherNodes.get(copy.getID());
+			int count = (other != null && other.copy == copy) ? 0 : 1;
+			for (Node child : children) {
+				count += child.countUnshared(otherNodes);
+			}
+			return count;
+		}
+
+		RocketComponent reconstruct() {
+			RocketComponent component = copy.copyWithOriginalID(false);
+			for (Node child : children) {
+				RocketComponent childCopy = child.reconstruct();
+				// Don't use addChild(...) method since it fires events
+				component.children.add(childCopy);
+				childCopy.parent = component;
+			}
+			return component;
+		}
+	}
+}
@@ -5,6 +5,7 @@ import java.util.Collection;
 import net.sf.openrocket.masscalc.MassCalculator;
 import net.sf.openrocket.masscalc.RigidBody;
 import net.sf.openrocket.models.atmosphere.AtmosphericConditions;
+import net.sf.openrocket.models.atmosphere.AtmosphericModel;
 import net.sf.openrocket.simulation.exception.SimulationException;
 import net.sf.openrocket.simulation.listeners.SimulationListenerHelper;
 import net.sf.openrocket.util.BugException;
@@ -44,6 +45,31 @@ public abstract class AbstractSimulationStepper implements SimulationStepper {
 	
 	
 	
+	/**
+	 * Compute the atmospheric conditions into a sample buffer, in the layout of
+	 * {@link AtmosphericModel#sampleConditions(double, double[])}.  Without listeners
+	 * the model is sampled directly, otherwise the listeners are called as in
+	 * {@link #modelAtmosphericConditions(SimulationStatus)}.
+	 * 
+	 * @param status	the simulation status
+	 * @param sample	the buffer to write to
+	 * @throws SimulationException	if a listener throws SimulationException
+	 */
+	protected void modelAtmosphericConditions(SimulationStatus status, double[] sample) throws SimulationException {
+		if (!status.getSimulationConditions().getSimulationListenerList().isEmpty()) {
+			modelAtmosphericConditions(status).getSample(sample);
+			return;
+		}
+		
+		double altitude = status.getRocketPosition().z + status.getSimulationConditions().getLaunchSite().getAltitude();
+		status.getSimulationConditions().getAtmosphericModel().sampleConditions(altitude, sample);
+		
+		checkNaN(sample[AtmosphericModel.PRESSURE]);
+		checkNaN(sample[AtmosphericModel.TEMPERATURE]);
+	}
+	
+	
+	
 	/**
 	 * Compute the wind to use, allowing listeners to override.
 	 * 
@@ -74,6 +100,34 @@ public abstract class AbstractSimulationStepper implements SimulationStepper {
 	
 	
 	
+	/**
+	 * Compute the wind velocity into the first three elements of a buffer.  Without
+	 * listeners the model is sampled directly, otherwise the listeners are called as in
+	 * {@link #modelWindVelocity(SimulationStatus)}.
+	 * 
+	 * @param status	the simulation status
+	 * @param velocity	the buffer to write to
+	 * @throws SimulationException	if a listener throws SimulationException
+	 */
+	protected void modelWindVelocity(SimulationStatus status, double[] velocity) throws SimulationException {
+		if (!status.getSimulationConditions().getSimulationListenerList().isEmpty()) {
+			Coordinate wind = modelWindVelocity(status);
+			velocity[0] = wind.x;
+			velocity[1] = wind.y;
+			velocity[2] = wind.z;
+			return;
+		}
+		
+		double altitude = status.getRocketPosition().z + status.getSimulationConditions().getLaunchSite().getAltitude();
+		status.getSimulationConditions().getWindModel().sampleWindVelocity(status.getSimulationTime(), altitude, velocity);
+		
+		checkNaN(velocity[0]);
+		checkNaN(velocity[1]);
+		checkNaN(velocity[2]);
+	}
+	
+	
+	
 	/**
 	 * Compute the gravity to use, allowing listeners to override.
 	 * 
@@ -119,7 +173,12 @@ public abstract class AbstractSimulationStepper implements SimulationStepper {
 			return structureMass;
 		}
 		
-		structureMass = MassCalculator.calculateStructure( status.getConfiguration() );  
+		MassCalculator massCalculator = status.getSimulationConditions().getMassCalculator();
+		if (massCalculator != null) {
+			structureMass = massCalculator.getStructure( status.getConfiguration() );
+		} else {
+			structureMass = MassCalculator.calculateStructure( status.getConfiguration() );
+		}
 						
 		// Call post-listener
 		structureMass = SimulationListenerHelper.firePostMassCalculation(status, structureMass);
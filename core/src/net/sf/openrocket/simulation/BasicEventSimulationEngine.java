@@ -1,13 +1,23 @@
 package net.sf.openrocket.simulation;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import net.sf.openrocket.aerodynamics.Warning;
 import net.sf.openrocket.l10n.Translator;
+import net.sf.openrocket.masscalc.MassCalculator;
+import net.sf.openrocket.models.gravity.WGSGravityModel;
+import net.sf.openrocket.models.wind.PinkNoiseWindModel;
 import net.sf.openrocket.motor.MotorConfiguration;
 import net.sf.openrocket.motor.MotorConfigurationId;
 import net.sf.openrocket.rocketcomponent.AxialStage;
@@ -19,6 +29,7 @@ import net.sf.openrocket.rocketcomponent.RecoveryDevice;
 import net.sf.openrocket.rocketcomponent.RocketComponent;
 import net.sf.openrocket.rocketcomponent.StageSeparationConfiguration;
 import net.sf.openrocket.simulation.exception.MotorIgnitionException;
+import net.sf.openrocket.simulation.exception.SimulationCancelledException;
 import net.sf.openrocket.simulation.exception.SimulationException;
 import net.sf.openrocket.simulation.exception.SimulationLaunchException;
 import net.sf.openrocket.simulation.listeners.SimulationListenerHelper;
@@ -35,7 +46,7 @@ public class BasicEventSimulationEngine implements SimulationEngine {
 	private static final Logger log = LoggerFactory.getLogger(BasicEventSimulationEngine.class);
 	
 	// TODO: MEDIUM: Allow selecting steppers
-	private SimulationStepper flightStepper  = new RK4SimulationStepper();
+	private SimulationStepper flightStepper;
 	private SimulationStepper landingStepper = new BasicLandingStepper();
 	private SimulationStepper tumbleStepper  = new BasicTumbleStepper();
 	private SimulationStepper groundStepper  = new GroundStepper();
@@ -57,12 +68,18 @@ public class BasicEventSimulationEngine implements SimulationEngine {
 	// this is just a list of simulation branches to 
 	Deque<SimulationStatus> toSimulate = new ArrayDeque<SimulationStatus>();
 	
+	// when branches are simulated concurrently, separated branches are submitted here instead
+	private ExecutorService branchExecutor = null;
+	private final List<Future<Branch>> separatedBranches = new ArrayList<Future<Branch>>();
+	
 	@Override
 	public FlightData simulate(SimulationConditions simulationConditions) throws SimulationException {
 		
 		// Set up flight data
 		FlightData flightData = new FlightData();
 		
+		flightStepper = simulationConditions.getIntegrationMethod().createStepper();
+		
 		// Set up rocket configuration
 		this.fcid = simulationConditions.getFlightConfigurationID();
 		FlightConfiguration simulationConfig = simulationConditions.getRocket().getFlightConfiguration( this.fcid).clone();
@@ -80,22 +97,27 @@ public class BasicEventSimulationEngine implements SimulationEngine {
 		toSimulate.push(currentStatus);
 		
 		SimulationListenerHelper.fireStartSimulation(currentStatus);
-		do{
-			if( null == toSimulate.peek()){
-				break;
-			}
-			currentStatus = toSimulate.pop();
-			log.info(">>Starting simulation of branch: "+currentStatus.getFlightData().getBranchName());
-			
-			FlightDataBranch dataBranch = simulateLoop();
-			flightData.addBranch(dataBranch);
-			flightData.getWarningSet().addAll(currentStatus.getWarnings());
-			
-			log.info(String.format("<<Finished simulating branch: %s    curTime:%s    finTime:%s", 
-							dataBranch.getBranchName(),
-							currentStatus.getSimulationTime(),
-							dataBranch.getLast(FlightDataType.TYPE_TIME)));
-		}while( ! toSimulate.isEmpty());
+		final int branchThreads = simulationConditions.getBranchThreads();
+		if (branchThreads > 1 && canSimulateConcurrently(simulationConditions)) {
+			simulateConcurrently(flightData, branchThreads);
+		} else {
+			do{
+				if( null == toSimulate.peek()){
+					break;
+				}
+				currentStatus = toSimulate.pop();
+				log.info(">>Starting simulation of branch: "+currentStatus.getFlightData().getBranchName());
+				
+				FlightDataBranch dataBranch = simulateLoop();
+				flightData.addBranch(dataBranch);
+				flightData.getWarningSet().addAll(currentStatus.getWarnings());
+				
+				log.info(String.format("<<Finished simulating branch: %s    curTime:%s    finTime:%s", 
+								dataBranch.getBranchName(),
+								currentStatus.getSimulationTime(),
+								dataBranch.getLast(FlightDataType.TYPE_TIME)));
+			}while( ! toSimulate.isEmpty());
+		}
 		
 		SimulationListenerHelper.fireEndSimulation(currentStatus, null);
 		
@@ -106,6 +128,131 @@ public class BasicEventSimulationEngine implements SimulationEngine {
 		return flightData;
 	}
 	
+	/**
+	 * Simulate the branches on a pool of threads.  A separated branch is submitted as soon
+	 * as it separates, and the branches are added to the flight data in the same order as
+	 * they would be simulated one after another.
+	 */
+	private void simulateConcurrently(FlightData flightData, int threads) throws SimulationException {
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			Deque<Future<Branch>> pending = new ArrayDeque<Future<Branch>>();
+			pending.push(executor.submit(new Branch(this.fcid, toSimulate.pop(), executor)));
+			
+			while (!pending.isEmpty()) {
+				Branch branch = getBranch(pending.pop());
+				
+				currentStatus = branch.status;
+				flightData.addBranch(branch.data);
+				flightData.getWarningSet().addAll(branch.status.getWarnings());
+				
+				// the last separated branch is simulated first
+				for (Future<Branch> separated : branch.separated) {
+					pending.push(separated);
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+	
+	private static Branch getBranch(Future<Branch> future) throws SimulationException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			throw new SimulationCancelledException("Simulation was interrupted", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof SimulationException) {
+				throw (SimulationException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new SimulationException(cause);
+		}
+	}
+	
+	/**
+	 * Return whether the models of the conditions can be given to every branch separately.
+	 * Models that are not known to be copyable are shared, and listeners are not expected
+	 * to be called from several threads, so the branches are then simulated one after another.
+	 */
+	private static boolean canSimulateConcurrently(SimulationConditions conditions) {
+		return conditions.getSimulationListenerList().isEmpty() &&
+				conditions.getWindModel() instanceof PinkNoiseWindModel &&
+				conditions.getGravityModel() instanceof WGSGravityModel;
+	}
+	
+	/**
+	 * Give a separated branch its own motor states, calculators and models, so that its
+	 * flight does not depend on whether it is simulated before, after or alongside the
+	 * branch it separated from.  The atmospheric model only caches its layers on first
+	 * use, which has happened by the time a branch separates.
+	 * <p>
+	 * A branch simulated on another thread also gets its own copy of the rocket, as the
+	 * components compute their geometry lazily and are not safe for concurrent use.
+	 */
+	private static void isolateBranch(SimulationStatus status, boolean copyRocket) {
+		if (copyRocket) {
+			status.copyRocket();
+		} else {
+			status.copyMotorStates();
+		}
+		
+		SimulationConditions conditions = status.getSimulationConditions();
+		conditions.setAerodynamicCalculator(conditions.getAerodynamicCalculator().newInstance());
+		conditions.setMassCalculator(new MassCalculator());
+		if (conditions.getWindModel() instanceof PinkNoiseWindModel) {
+			conditions.setWindModel(((PinkNoiseWindModel) conditions.getWindModel()).copy());
+		}
+		if (conditions.getGravityModel() instanceof WGSGravityModel) {
+			conditions.setGravityModel(new WGSGravityModel());
+		}
+	}
+	
+	private void addBranch(SimulationStatus status) {
+		isolateBranch(status, branchExecutor != null);
+		if (branchExecutor == null) {
+			toSimulate.push(status);
+		} else {
+			separatedBranches.add(branchExecutor.submit(new Branch(this.fcid, status, branchExecutor)));
+		}
+	}
+	
+	
+	/**
+	 * A simulation branch run on its own engine, with its own steppers.
+	 */
+	private static class Branch implements Callable<Branch> {
+		private final BasicEventSimulationEngine engine = new BasicEventSimulationEngine();
+		private final SimulationStatus initialStatus;
+		
+		private SimulationStatus status;
+		private FlightDataBranch data;
+		private List<Future<Branch>> separated;
+		
+		public Branch(FlightConfigurationId fcid, SimulationStatus initialStatus, ExecutorService executor) {
+			this.initialStatus = initialStatus;
+			engine.fcid = fcid;
+			engine.branchExecutor = executor;
+			engine.flightStepper = initialStatus.getSimulationConditions().getIntegrationMethod().createStepper();
+		}
+		
+		@Override
+		public Branch call() {
+			engine.currentStatus = initialStatus;
+			log.info(">>Starting simulation of branch: " + initialStatus.getFlightData().getBranchName());
+			data = engine.simulateLoop();
+			status = engine.currentStatus;
+			separated = engine.separatedBranches;
+			log.info(String.format("<<Finished simulating branch: %s    curTime:%s    finTime:%s",
+					data.getBranchName(), status.getSimulationTime(), data.getLast(FlightDataType.TYPE_TIME)));
+			return this;
+		}
+	}
+	
 	private FlightDataBranch simulateLoop() {
 		
 		// Initialize the simulation.  We'll use the flight stepper unless we're already on the ground
@@ -436,7 +583,7 @@ public class BasicEventSimulationEngine implements SimulationEngine {
 				boosterStatus.setFlightData(new FlightDataBranch(boosterStage.getName(), FlightDataType.TYPE_TIME));
 				// Mark the booster status as only having the booster.
 				boosterStatus.getConfiguration().setOnlyStage(stageNumber);
-				toSimulate.push(boosterStatus);
+				addBranch(boosterStatus);
 				log.info(String.format("==>> @ %g; from Branch: %s ---- Branching: %s ---- \n",
 						currentStatus.getSimulationTime(), 
 						currentStatus.getFlightData().getBranchName(), boosterStatus.getFlightData().getBranchName()));
@@ -1,6 +1,6 @@
 package net.sf.openrocket.simulation;
 
-import net.sf.openrocket.models.atmosphere.AtmosphericConditions;
+import net.sf.openrocket.models.atmosphere.AtmosphericModel;
 import net.sf.openrocket.rocketcomponent.RecoveryDevice;
 import net.sf.openrocket.simulation.exception.SimulationException;
 import net.sf.openrocket.util.Coordinate;
@@ -12,6 +12,10 @@ public class BasicLandingStepper extends AbstractSimulationStepper {
 	
 	private static final double RECOVERY_TIME_STEP = 0.5;
 	
+	// scratch buffers for the sampled atmosphere and wind
+	private final double[] atmosphere = new double[AtmosphericModel.SAMPLE_LENGTH];
+	private final double[] wind = new double[3];
+	
 	@Override
 	public SimulationStatus initialize(SimulationStatus status) {
 		return status;
@@ -23,20 +27,20 @@ public class BasicLandingStepper extends AbstractSimulationStepper {
 		double refArea = status.getConfiguration().getReferenceArea();
 		
 		// Get the atmospheric conditions
-		AtmosphericConditions atmosphere = modelAtmosphericConditions(status);
+		modelAtmosphericConditions(status, atmosphere);
 		
 		//// Local wind speed and direction
-		Coordinate windSpeed = modelWindVelocity(status);
-		Coordinate airSpeed = status.getRocketVelocity().add(windSpeed);
+		modelWindVelocity(status, wind);
+		Coordinate airSpeed = status.getRocketVelocity().add(wind[0], wind[1], wind[2]);
 		
 		// Get total CD
-		double mach = airSpeed.length() / atmosphere.getMachSpeed();
+		double mach = airSpeed.length() / atmosphere[AtmosphericModel.MACH_SPEED];
 		for (RecoveryDevice c : status.getDeployedRecoveryDevices()) {
 			totalCD += c.getCD(mach) * c.getArea() / refArea;
 		}
 		
 		// Compute drag force
-		double dynP = (0.5 * atmosphere.getDensity() * airSpeed.length2());
+		double dynP = (0.5 * atmosphere[AtmosphericModel.DENSITY] * airSpeed.length2());
 		double dragForce = totalCD * dynP * refArea;
 		double mass = calculateStructureMass(status).getMass();
 		
@@ -101,7 +105,7 @@ public class BasicLandingStepper extends AbstractSimulationStepper {
 			
 			double Re = airSpeed.length() *
 					status.getConfiguration().getLength() /
-					atmosphere.getKinematicViscosity();
+					atmosphere[AtmosphericModel.KINEMATIC_VISCOSITY];
 			data.setValue(FlightDataType.TYPE_REYNOLDS_NUMBER, Re);
 		}
 		
@@ -127,10 +131,10 @@ public class BasicLandingStepper extends AbstractSimulationStepper {
 		data.setValue(FlightDataType.TYPE_THRUST_FORCE, 0);
 		data.setValue(FlightDataType.TYPE_DRAG_FORCE, dragForce);
 		
-		data.setValue(FlightDataType.TYPE_WIND_VELOCITY, windSpeed.length());
-		data.setValue(FlightDataType.TYPE_AIR_TEMPERATURE, atmosphere.getTemperature());
-		data.setValue(FlightDataType.TYPE_AIR_PRESSURE, atmosphere.getPressure());
-		data.setValue(FlightDataType.TYPE_SPEED_OF_SOUND, atmosphere.getMachSpeed());
+		data.setValue(FlightDataType.TYPE_WIND_VELOCITY, MathUtil.safeSqrt(wind[0] * wind[0] + wind[1] * wind[1] + wind[2] * wind[2]));
+		data.setValue(FlightDataType.TYPE_AIR_TEMPERATURE, atmosphere[AtmosphericModel.TEMPERATURE]);
+		data.setValue(FlightDataType.TYPE_AIR_PRESSURE, atmosphere[AtmosphericModel.PRESSURE]);
+		data.setValue(FlightDataType.TYPE_SPEED_OF_SOUND, atmosphere[AtmosphericModel.MACH_SPEED]);
 		
 		data.setValue(FlightDataType.TYPE_TIME_STEP, timeStep);
 		data.setValue(FlightDataType.TYPE_COMPUTATION_TIME,
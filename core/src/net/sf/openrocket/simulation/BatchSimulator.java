@@ -0,0 +1,178 @@
+package net.sf.openrocket.simulation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.sf.openrocket.document.Simulation;
+import net.sf.openrocket.simulation.listeners.SimulationListener;
+import net.sf.openrocket.util.BugException;
+
+/**
+ * Runs a batch of document simulations in parallel without any user interface.
+ * <p>
+ * Every simulation is run with {@link Simulation#simulate(SimulationListener...)} on a
+ * fixed pool of worker threads, in the same way as the simulations of a document are
+ * run from the GUI.  A failing simulation does not affect the others; its exception
+ * is stored in its result.
+ */
+public class BatchSimulator {
+
+	private static final Logger log = LoggerFactory.getLogger(BatchSimulator.class);
+
+	/**
+	 * Receives notifications of finished simulations.  Notifications are made from the
+	 * worker threads.
+	 */
+	public interface ProgressListener {
+
+		/**
+		 * Called after a simulation has completed or failed.
+		 *
+		 * @param result	the result of the simulation.
+		 * @param finished	the number of simulations finished so far.
+		 * @param total		the total number of simulations.
+		 */
+		public void simulationFinished(Result result, int finished, int total);
+	}
+
+
+	/**
+	 * The outcome of a single simulation of a batch.
+	 */
+	public static class Result {
+		private final Simulation simulation;
+		private final long time;
+		private final Exception exception;
+
+		private Result(Simulation simulation, long time, Exception exception) {
+			this.simulation = simulation;
+			this.time = time;
+			this.exception = exception;
+		}
+
+		public Simulation getSimulation() {
+			return simulation;
+		}
+
+		/**
+		 * Return the flight data of the simulation, or <code>null</code> if it failed.
+		 */
+		public FlightData getFlightData() {
+			return (exception == null) ? simulation.getSimulatedData() : null;
+		}
+
+		/**
+		 * Return the wall time used by the simulation, in nanoseconds.
+		 */
+		public long getTime() {
+			return time;
+		}
+
+		/**
+		 * Return the exception thrown by the simulation, or <code>null</code> if it
+		 * completed successfully.
+		 */
+		public Exception getException() {
+			return exception;
+		}
+
+		public boolean isSuccessful() {
+			return exception == null;
+		}
+	}
+
+
+	private int threads = Runtime.getRuntime().availableProcessors();
+
+
+	public int getThreads() {
+		return threads;
+	}
+
+	public void setThreads(int threads) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("threads=" + threads);
+		}
+		this.threads = threads;
+	}
+
+
+	/**
+	 * Run the given simulations, blocking until all of them have finished.
+	 *
+	 * @param simulations	the simulations to run.
+	 * @param listener		the progress listener, or null.
+	 * @return				the results, in the order of the simulations.
+	 * @throws InterruptedException	if the calling thread is interrupted while waiting.
+	 */
+	public List<Result> run(List<Simulation> simulations, final ProgressListener listener)
+			throws InterruptedException {
+		final int total = simulations.size();
+		final AtomicInteger finished = new AtomicInteger();
+
+		long t0 = System.currentTimeMillis();
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, Math.max(total, 1)),
+				new ThreadFactory() {
+					private final AtomicInteger count = new AtomicInteger();
+
+					@Override
+					public Thread newThread(Runnable r) {
+						Thread t = new Thread(r, "BatchSimulator-" + count.incrementAndGet());
+						t.setDaemon(true);
+						return t;
+					}
+				});
+
+		List<Result> results = new ArrayList<Result>(total);
+		try {
+			List<Future<Result>> futures = new ArrayList<Future<Result>>(total);
+			for (final Simulation simulation : simulations) {
+				futures.add(executor.submit(new Callable<Result>() {
+					@Override
+					public Result call() {
+						Result result = simulate(simulation);
+						if (listener != null) {
+							listener.simulationFinished(result, finished.incrementAndGet(), total);
+						}
+						return result;
+					}
+				}));
+			}
+			for (Future<Result> future : futures) {
+				results.add(future.get());
+			}
+		} catch (ExecutionException e) {
+			throw new BugException("Batch worker failed", e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+
+		log.info("Batch of " + total + " simulations finished in " + (System.currentTimeMillis() - t0) +
+				" ms using " + threads + " threads");
+		return Collections.unmodifiableList(results);
+	}
+
+
+	private static Result simulate(Simulation simulation) {
+		long t0 = System.nanoTime();
+		Exception exception = null;
+		try {
+			simulation.simulate();
+		} catch (Exception e) {
+			log.warn("Simulation " + simulation.getName() + " failed: " + e, e);
+			exception = e;
+		}
+		return new Result(simulation, System.nanoTime() - t0, exception);
+	}
+}
@@ -0,0 +1,355 @@
+package net.sf.openrocket.simulation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.sf.openrocket.l10n.Translator;
+import net.sf.openrocket.simulation.exception.SimulationCalculationException;
+import net.sf.openrocket.simulation.exception.SimulationException;
+import net.sf.openrocket.startup.Application;
+import net.sf.openrocket.util.Coordinate;
+import net.sf.openrocket.util.MathUtil;
+import net.sf.openrocket.util.Quaternion;
+import net.sf.openrocket.util.WorldCoordinate;
+
+/**
+ * A flight stepper using the embedded Dormand-Prince 5(4) Runge-Kutta method with
+ * local error control.
+ * <p>
+ * The step length is adapted to the difference between the fifth and fourth order
+ * solutions, so that long steps are taken during coasting flight while the RK4 stepper
+ * would take a step of the user-specified length.  While the motors are thrusting or
+ * the rocket is on the launch rod the user-specified time step is still the upper limit,
+ * and the steps are shortened when approaching apogee so that apogee is sampled as
+ * densely as by the RK4 stepper.
+ * <p>
+ * The last stage of an accepted step is evaluated at the start of the next step
+ * (first same as last).  It is reused as the first stage of the next step unless the
+ * thrust, the rocket configuration or the state of the rocket has been modified between
+ * the steps, so an accepted step usually costs six force evaluations.
+ */
+public class DormandPrinceSimulationStepper extends RK4SimulationStepper {
+
+	private static final Logger log = LoggerFactory.getLogger(DormandPrinceSimulationStepper.class);
+	private static final Translator trans = Application.getTranslator();
+
+	/*
+	 * Dormand-Prince 5(4) coefficients.  The weights of the fifth order solution
+	 * are the coefficients of the last stage.
+	 */
+	private static final double[] C = { 0, 1.0 / 5, 3.0 / 10, 4.0 / 5, 8.0 / 9, 1, 1 };
+	private static final double[][] A = {
+			{},
+			{ 1.0 / 5 },
+			{ 3.0 / 40, 9.0 / 40 },
+			{ 44.0 / 45, -56.0 / 15, 32.0 / 9 },
+			{ 19372.0 / 6561, -25360.0 / 2187, 64448.0 / 6561, -212.0 / 729 },
+			{ 9017.0 / 3168, -355.0 / 33, 46732.0 / 5247, 49.0 / 176, -5103.0 / 18656 },
+			{ 35.0 / 384, 0, 500.0 / 1113, 125.0 / 192, -2187.0 / 6784, 11.0 / 84 }
+	};
+	/** Difference between the weights of the fifth and fourth order solutions */
+	private static final double[] E = {
+			71.0 / 57600, 0, -71.0 / 16695, 71.0 / 1920, -17253.0 / 339200, 22.0 / 525, -1.0 / 40
+	};
+
+	/**
+	 * The allowed local error relative to the magnitude of the position, velocity
+	 * and rotation velocity.
+	 */
+	public static final double RELATIVE_TOLERANCE = 1e-5;
+
+	/**
+	 * The allowed absolute local error of the position (m), velocity (m/s) and
+	 * rotation velocity (rad/s).
+	 */
+	public static final double ABSOLUTE_TOLERANCE = 1e-3;
+
+	/** Maximum step length as a multiple of the user-specified time step */
+	private static final double MAX_TIME_STEP_FACTOR = 20;
+
+	private static final double SAFETY = 0.9;
+	private static final double MIN_SCALE = 0.2;
+	private static final double MAX_SCALE = 5;
+
+
+	private double nextTimeStep;
+
+	/*
+	 * Derivatives and data stores of the stages, reused between steps.  After an accepted
+	 * step the last stage is swapped to be the first one.
+	 */
+	private final RK4Parameters[] k = new RK4Parameters[7];
+	private DataStore store = new DataStore();
+	private DataStore stageStore = new DataStore();
+	private DataStore resultStore = new DataStore();
+
+	// The state of the previous step, whose last stage is reusable if the status has not been modified
+	private RK4SimulationStatus fsalStatus;
+	private double fsalTime;
+	private Coordinate fsalPosition;
+	private Coordinate fsalVelocity;
+	private Quaternion fsalOrientation;
+	private Coordinate fsalRotationVelocity;
+	private boolean fsalLaunchRodCleared;
+	private int fsalConfigurationModID;
+	private double fsalThrust;
+
+
+	public DormandPrinceSimulationStepper() {
+		for (int i = 0; i < k.length; i++) {
+			k[i] = new RK4Parameters();
+		}
+	}
+
+
+	@Override
+	public RK4SimulationStatus initialize(SimulationStatus original) {
+		nextTimeStep = Double.NaN;
+		fsalStatus = null;
+		return super.initialize(original);
+	}
+
+
+	@Override
+	public void step(SimulationStatus simulationStatus, double maxTimeStep) throws SimulationException {
+
+		RK4SimulationStatus status = (RK4SimulationStatus) simulationStatus;
+		SimulationConditions conditions = status.getSimulationConditions();
+		double userTimeStep = MathUtil.max(conditions.getTimeStep(), MIN_TIME_STEP);
+		double minTimeStep = conditions.getTimeStep() / 20;
+
+		/*
+		 * Select the initial time step length.  It is the proposal of the previous step,
+		 * limited by maxTimeStep, the launch rod limits and, if the motors are thrusting,
+		 * the user-specified time step.
+		 */
+		double timestep = Double.isNaN(nextTimeStep) ? userTimeStep : nextTimeStep;
+		timestep = MathUtil.min(timestep, maxTimeStep, MAX_TIME_STEP_FACTOR * userTimeStep);
+		if (!status.isLaunchRodCleared()) {
+			timestep = MathUtil.min(timestep, userTimeStep / 5);
+			double v = status.getRocketVelocity().length();
+			if (v > 0) {
+				timestep = MathUtil.min(timestep, conditions.getLaunchRodLength() / v / 10);
+			}
+		}
+		timestep = MathUtil.max(timestep, minTimeStep);
+
+		double thrust = calculateThrust(status, timestep);
+		if (thrust != 0 && timestep > userTimeStep) {
+			timestep = MathUtil.max(userTimeStep, minTimeStep);
+			thrust = calculateThrust(status, timestep);
+		}
+
+		//// First stage, reused from the previous step if possible
+
+		if (!isFsalValid(status, thrust)) {
+			computeFirstStage(status, thrust);
+		}
+
+		/*
+		 * Limit the step by the maximum pitch step angle and so that apogee is not
+		 * overshot by more than the user-specified time step.
+		 */
+		double limit = conditions.getMaximumAngleStep() / store.lateralPitchRate;
+		if (status.getRocketVelocity().z > 0 && k[0].a.z < 0) {
+			limit = MathUtil.min(limit, MathUtil.max(status.getRocketVelocity().z / -k[0].a.z, userTimeStep));
+		}
+		if (limit < timestep) {
+			timestep = MathUtil.max(limit, minTimeStep);
+			double t = calculateThrust(status, timestep);
+			if (t != thrust) {
+				thrust = t;
+				computeFirstStage(status, thrust);
+			}
+		}
+
+
+		//// Remaining stages, repeated with a shorter step until the error is acceptable
+
+		RK4SimulationStatus result;
+		double error;
+		while (true) {
+			checkNaN(timestep);
+			stageStore.reset();
+			stageStore.thrustForce = thrust;
+			for (int i = 1; i < 6; i++) {
+				computeParameters(stageStatus(status, k, i, timestep), stageStore, k[i]);
+			}
+			result = stageStatus(status, k, 6, timestep);
+			resultStore.reset();
+			resultStore.thrustForce = thrust;
+			computeParameters(result, resultStore, k[6]);
+
+			error = estimateError(status, result, k, timestep);
+			if (error <= 1 || timestep <= minTimeStep) {
+				break;
+			}
+
+			timestep = MathUtil.max(timestep * MathUtil.max(SAFETY * Math.pow(error, -0.2), MIN_SCALE), minTimeStep);
+			log.trace("Rejected step, error=" + error + ", retrying with time step " + timestep);
+			double t = calculateThrust(status, timestep);
+			if (t != thrust) {
+				thrust = t;
+				computeFirstStage(status, thrust);
+			}
+		}
+
+
+		// Store data of the start of the step
+		store.timestep = timestep;
+		store.thrustForce = thrust;
+		storeData(status, store);
+
+
+		//// Advance to the fifth order solution, which is the state of the last stage
+
+		status.setRocketPosition(result.getRocketPosition());
+		status.setRocketVelocity(result.getRocketVelocity());
+		status.setRocketOrientationQuaternion(result.getRocketOrientationQuaternion());
+		status.setRocketRotationVelocity(result.getRocketRotationVelocity());
+		status.setMaxZVelocity(result.getMaxZVelocity());
+		status.setStartWarningTime(result.getStartWarningTime());
+
+		WorldCoordinate w = conditions.getLaunchSite();
+		w = conditions.getGeodeticComputation().addCoordinate(w, status.getRocketPosition());
+		status.setRocketWorldPosition(w);
+
+		if (!(0 <= timestep)) {
+			// Also catches NaN
+			throw new IllegalArgumentException("Stepping backwards in time, timestep=" + timestep);
+		}
+		status.setSimulationTime(status.getSimulationTime() + timestep);
+		status.setPreviousTimeStep(timestep);
+
+		if (error > 0) {
+			nextTimeStep = timestep * MathUtil.clamp(SAFETY * Math.pow(error, -0.2), MIN_SCALE, MAX_SCALE);
+		} else {
+			nextTimeStep = timestep * MAX_SCALE;
+		}
+		log.trace("Accepted time step " + timestep + ", error=" + error + ", next time step " + nextTimeStep);
+
+		fsalStatus = status;
+		fsalTime = status.getSimulationTime();
+		fsalPosition = status.getRocketPosition();
+		fsalVelocity = status.getRocketVelocity();
+		fsalOrientation = status.getRocketOrientationQuaternion();
+		fsalRotationVelocity = status.getRocketRotationVelocity();
+		fsalLaunchRodCleared = status.isLaunchRodCleared();
+		fsalConfigurationModID = status.getConfiguration().getModID();
+		fsalThrust = thrust;
+
+		// The last stage is the first stage of the next step
+		RK4Parameters last = k[6];
+		k[6] = k[0];
+		k[0] = last;
+		DataStore lastStore = resultStore;
+		resultStore = store;
+		store = lastStore;
+
+		// Verify that values don't run out of range
+		if (status.getRocketVelocity().length2() > 1e18 ||
+				status.getRocketPosition().length2() > 1e18 ||
+				status.getRocketRotationVelocity().length2() > 1e18) {
+			throw new SimulationCalculationException(trans.get("error.valuesTooLarge"));
+		}
+	}
+
+
+	private double calculateThrust(RK4SimulationStatus status, double timestep) throws SimulationException {
+		return calculateAverageThrust(status, timestep, status.getPreviousAcceleration(),
+				status.getPreviousAtmosphericConditions(), false);
+	}
+
+
+	/**
+	 * Compute the first stage of the step at the current status.
+	 */
+	private void computeFirstStage(RK4SimulationStatus status, double thrust) throws SimulationException {
+		store.reset();
+		store.thrustForce = thrust;
+		computeParameters(status, store, k[0]);
+	}
+
+
+	/**
+	 * Return whether the last stage of the previous step can be used as the first stage
+	 * of this step.
+	 */
+	private boolean isFsalValid(RK4SimulationStatus status, double thrust) {
+		return fsalStatus == status &&
+				fsalTime == status.getSimulationTime() &&
+				fsalPosition == status.getRocketPosition() &&
+				fsalVelocity == status.getRocketVelocity() &&
+				fsalOrientation == status.getRocketOrientationQuaternion() &&
+				fsalRotationVelocity == status.getRocketRotationVelocity() &&
+				fsalLaunchRodCleared == status.isLaunchRodCleared() &&
+				fsalConfigurationModID == status.getConfiguration().getModID() &&
+				fsalThrust == thrust;
+	}
+
+
+	/**
+	 * Return the status at stage <code>n</code>, computed from the stages before it.  The
+	 * returned object is the intermediate status of <code>status</code>, which is reused
+	 * by subsequent calls.
+	 */
+	private static RK4SimulationStatus stageStatus(RK4SimulationStatus status, RK4Parameters[] k, int n,
+			double timestep) {
+		Coordinate dP = Coordinate.NUL;
+		Coordinate dV = Coordinate.NUL;
+		Coordinate dO = Coordinate.NUL;
+		Coordinate dR = Coordinate.NUL;
+		for (int j = 0; j < n; j++) {
+			double a = A[n][j] * timestep;
+			if (a == 0) {
+				continue;
+			}
+			dP = dP.add(k[j].v.multiply(a));
+			dV = dV.add(k[j].a.multiply(a));
+			dO = dO.add(k[j].rv.multiply(a));
+			dR = dR.add(k[j].ra.multiply(a));
+		}
+
+		RK4SimulationStatus s = status.getStageStatus();
+		s.setSimulationTime(status.getSimulationTime() + C[n] * timestep);
+		s.setRocketPosition(status.getRocketPosition().add(dP));
+		s.setRocketVelocity(status.getRocketVelocity().add(dV));
+		s.setRocketOrientationQuaternion(status.getRocketOrientationQuaternion().multiplyLeft(Quaternion.rotation(dO)).normalizeIfNecessary());
+		s.setRocketRotationVelocity(status.getRocketRotationVelocity().add(dR));
+		return s;
+	}
+
+
+	/**
+	 * Return the local error estimate of the step scaled by the tolerances.  Values
+	 * larger than one mean the step should be rejected.
+	 */
+	private static double estimateError(RK4SimulationStatus status, RK4SimulationStatus result,
+			RK4Parameters[] k, double timestep) {
+		Coordinate eP = Coordinate.NUL;
+		Coordinate eV = Coordinate.NUL;
+		Coordinate eR = Coordinate.NUL;
+		for (int j = 0; j < k.length; j++) {
+			double e = E[j] * timestep;
+			if (e == 0) {
+				continue;
+			}
+			eP = eP.add(k[j].v.multiply(e));
+			eV = eV.add(k[j].a.multiply(e));
+			eR = eR.add(k[j].ra.multiply(e));
+		}
+
+		double error = 0;
+		error = MathUtil.max(error, scaledError(eP, status.getRocketPosition(), result.getRocketPosition()));
+		error = MathUtil.max(error, scaledError(eV, status.getRocketVelocity(), result.getRocketVelocity()));
+		error = MathUtil.max(error, scaledError(eR, status.getRocketRotationVelocity(), result.getRocketRotationVelocity()));
+		return error;
+	}
+
+	private static double scaledError(Coordinate error, Coordinate y0, Coordinate y1) {
+		double ex = Math.abs(error.x) / (ABSOLUTE_TOLERANCE + RELATIVE_TOLERANCE * MathUtil.max(Math.abs(y0.x), Math.abs(y1.x)));
+		double ey = Math.abs(error.y) / (ABSOLUTE_TOLERANCE + RELATIVE_TOLERANCE * MathUtil.max(Math.abs(y0.y), Math.abs(y1.y)));
+		double ez = Math.abs(error.z) / (ABSOLUTE_TOLERANCE + RELATIVE_TOLERANCE * MathUtil.max(Math.abs(y0.z), Math.abs(y1.z)));
+		return MathUtil.max(ex, ey, ez);
+	}
+}
@@ -183,13 +183,18 @@ public class FlightData {
 
 	/**
 	 * Calculate the max. altitude/velocity/acceleration, time to apogee, flight time
-	 * and ground hit velocity.
+	 * and ground hit velocity.  The values are not calculated for a first branch whose
+	 * points are deferred.
 	 */
 	private void calculateInterestingValues() {
 		if (branches.isEmpty())
 			return;
 		
 		FlightDataBranch branch = branches.get(0);
+		if (branch.getDeferredPoints() != null) {
+			// Keep the values given for stored data instead of decoding the points
+			return;
+		}
 		maxAltitude = branch.getMaximum(FlightDataType.TYPE_ALTITUDE);
 		maxVelocity = branch.getMaximum(FlightDataType.TYPE_VELOCITY_TOTAL);
 		maxMachNumber = branch.getMaximum(FlightDataType.TYPE_MACH_NUMBER);
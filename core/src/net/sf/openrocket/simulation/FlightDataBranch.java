@@ -1,10 +1,11 @@
 package net.sf.openrocket.simulation;
 
+import java.nio.DoubleBuffer;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import net.sf.openrocket.util.ArrayList;
 import net.sf.openrocket.util.Monitorable;
@@ -21,20 +22,37 @@ import net.sf.openrocket.util.Mutable;
  * not defined in the constructor can be added using {@link #setValue(FlightDataType, double)}, they
  * will be created and all previous values will be set to NaN.
  * <p>
+ * Values are stored unboxed in one growable <code>double</code> column per variable type.
+ * Readers that do not need a copy of the data should use {@link #getColumn(FlightDataType)}.
+ * <p>
+ * The data points of a branch may also be given as {@link DeferredPoints}, which are decoded
+ * only when the data is first accessed.  The name, types and events of the branch are
+ * available without decoding the points.
+ * <p>
  * After populating a FlightDataBranch object it can be made immutable by calling {@link #immute()}.
  * 
  * @author Sampo Niskanen <sampo.niskanen@iki.fi>
  */
 public class FlightDataBranch implements Monitorable {
 	
+	/** Initial number of data points allocated for each variable type. */
+	private static final int INITIAL_CAPACITY = 64;
+	
 	/** The name of this flight data branch. */
 	private final String branchName;
 	
-	private final Map<FlightDataType, ArrayList<Double>> values =
-			new LinkedHashMap<FlightDataType, ArrayList<Double>>();
+	/** The column index of each variable type, in insertion order. */
+	private final Map<FlightDataType, Integer> columns = new LinkedHashMap<FlightDataType, Integer>();
 	
-	private final Map<FlightDataType, Double> maxValues = new HashMap<FlightDataType, Double>();
-	private final Map<FlightDataType, Double> minValues = new HashMap<FlightDataType, Double>();
+	/** The data of each column; only the first <code>length</code> values are in use. */
+	private double[][] values = new double[8][];
+	private double[] minValues = new double[8];
+	private double[] maxValues = new double[8];
+	
+	/** Number of data points in the branch. */
+	private int length = 0;
+	/** Number of data points allocated for each column. */
+	private int capacity = INITIAL_CAPACITY;
 	
 	/**
 	 * time for the rocket to reach apogee if the flight had been no recovery deployment
@@ -51,6 +69,25 @@ public class FlightDataBranch implements Monitorable {
 	
 	private int modID = 0;
 	
+	/** Data points that have not been decoded yet, or <code>null</code>. */
+	private volatile DeferredPoints deferredPoints = null;
+	
+	
+	/**
+	 * A source of data points that are decoded only when the data of the branch is first
+	 * accessed, used to avoid decoding stored data that is never looked at.
+	 */
+	public interface DeferredPoints {
+		
+		/**
+		 * Decode the data points, passing the values of each point to the consumer
+		 * in the order of the column indices.  The array may be reused between points.
+		 * 
+		 * @param consumer	the consumer of the points.
+		 */
+		public void decode(Consumer<double[]> consumer);
+	}
+	
 	/**
 	 * Sole constructor.  Defines the name of the FlightDataBranch and at least one variable type.
 	 * 
@@ -65,14 +102,12 @@ public class FlightDataBranch implements Monitorable {
 		this.branchName = name;
 		
 		for (FlightDataType t : types) {
-			if (values.containsKey(t)) {
+			if (columns.containsKey(t)) {
 				throw new IllegalArgumentException("Value type " + t + " specified multiple " +
 						"times in constructor.");
 			}
 			
-			values.put(t, new ArrayList<Double>());
-			minValues.put(t, Double.NaN);
-			maxValues.put(t, Double.NaN);
+			addColumn(t, Double.NaN);
 		}
 	}
 	
@@ -94,14 +129,68 @@ public class FlightDataBranch implements Monitorable {
 	 */
 	public void addPoint() {
 		mutable.check();
-		
-		for (FlightDataType t : values.keySet()) {
-			values.get(t).add(Double.NaN);
+		decodeDeferredPoints();
+		newPoint();
+	}
+	
+	/*
+	 * Append a point with NaN values without checking mutability.
+	 */
+	private void newPoint() {
+		if (length == capacity) {
+			capacity *= 2;
+			for (int i = 0; i < columns.size(); i++) {
+				values[i] = Arrays.copyOf(values[i], capacity);
+			}
 		}
+		for (int i = 0; i < columns.size(); i++) {
+			values[i][length] = Double.NaN;
+		}
+		length++;
 		modID++;
 	}
 	
 	
+	/**
+	 * Adds a new point into the data branch with the values of all variable types, given
+	 * in the order of their column indices ({@link #getColumnIndex(FlightDataType)}).
+	 * For a branch created with the types of the constructor only, this is the order
+	 * in which the types were given.
+	 * 
+	 * @param row	the values of the new point.
+	 * @throws IllegalArgumentException	if the number of values is not the number of types.
+	 * @throws IllegalStateException	if this object has been made immutable.
+	 */
+	public void addPoint(double[] row) {
+		if (row.length != columns.size()) {
+			throw new IllegalArgumentException("Expected " + columns.size() + " values, got " + row.length);
+		}
+		mutable.check();
+		decodeDeferredPoints();
+		appendPoint(row);
+	}
+	
+	/*
+	 * Append a point with the values of all columns without checking mutability.
+	 */
+	private void appendPoint(double[] row) {
+		newPoint();
+		for (int column = 0; column < row.length; column++) {
+			double value = row[column];
+			values[column][length - 1] = value;
+			
+			double min = minValues[column];
+			double max = maxValues[column];
+			if (Double.isNaN(min) || (value < min)) {
+				minValues[column] = value;
+			}
+			if (Double.isNaN(max) || (value > max)) {
+				maxValues[column] = value;
+			}
+		}
+	}
+	
+	
 	/**
 	 * Set the value for a specific data type at the latest point.  New variable types can be
 	 * added to the FlightDataBranch transparently.
@@ -112,36 +201,51 @@ public class FlightDataBranch implements Monitorable {
 	 */
 	public void setValue(FlightDataType type, double value) {
 		mutable.check();
+		decodeDeferredPoints();
 		
-		ArrayList<Double> list = values.get(type);
-		
-		if (list == null) {
-			list = new ArrayList<Double>();
-			int n = getLength();
-			for (int i = 0; i < n; i++) {
-				list.add(Double.NaN);
-			}
-			values.put(type, list);
-			minValues.put(type, value);
-			maxValues.put(type, value);
+		Integer index = columns.get(type);
+		int column;
+		if (index == null) {
+			column = addColumn(type, value);
+		} else {
+			column = index;
 		}
 		
-		if (list.size() > 0) {
-			list.set(list.size() - 1, value);
+		if (length > 0) {
+			values[column][length - 1] = value;
 		}
 		
-		double min = minValues.get(type);
-		double max = maxValues.get(type);
+		double min = minValues[column];
+		double max = maxValues[column];
 		
 		if (Double.isNaN(min) || (value < min)) {
-			minValues.put(type, value);
+			minValues[column] = value;
 		}
 		if (Double.isNaN(max) || (value > max)) {
-			maxValues.put(type, value);
+			maxValues[column] = value;
 		}
 		modID++;
 	}
 	
+	/*
+	 * Add a new column filled with NaN for all existing points, returning its index.
+	 */
+	private int addColumn(FlightDataType type, double initialExtreme) {
+		int column = columns.size();
+		if (column == values.length) {
+			values = Arrays.copyOf(values, column * 2);
+			minValues = Arrays.copyOf(minValues, column * 2);
+			maxValues = Arrays.copyOf(maxValues, column * 2);
+		}
+		double[] data = new double[capacity];
+		Arrays.fill(data, 0, length, Double.NaN);
+		values[column] = data;
+		minValues[column] = initialExtreme;
+		maxValues[column] = initialExtreme;
+		columns.put(type, column);
+		return column;
+	}
+	
 	
 	/**
 	 * Return the branch name.
@@ -155,7 +259,7 @@ public class FlightDataBranch implements Monitorable {
 	 * natural order.
 	 */
 	public FlightDataType[] getTypes() {
-		FlightDataType[] array = values.keySet().toArray(new FlightDataType[0]);
+		FlightDataType[] array = columns.keySet().toArray(new FlightDataType[0]);
 		Arrays.sort(array);
 		return array;
 	}
@@ -164,10 +268,25 @@ public class FlightDataBranch implements Monitorable {
 	 * Return the number of data points in this branch.
 	 */
 	public int getLength() {
-		for (FlightDataType t : values.keySet()) {
-			return values.get(t).size();
+		decodeDeferredPoints();
+		if (columns.isEmpty()) {
+			return 0;
 		}
-		return 0;
+		return length;
+	}
+	
+	/**
+	 * Return the column index of the specified variable type.  The index of a type
+	 * does not change once the type has been added to the branch.
+	 * 
+	 * @param type	the variable type.
+	 * @return		the column index, or -1 if the type hasn't been added to this branch.
+	 */
+	public int getColumnIndex(FlightDataType type) {
+		Integer index = columns.get(type);
+		if (index == null)
+			return -1;
+		return index;
 	}
 	
 	/**
@@ -178,10 +297,53 @@ public class FlightDataBranch implements Monitorable {
 	 * 				the variable type hasn't been added to this branch.
 	 */
 	public List<Double> get(FlightDataType type) {
-		ArrayList<Double> list = values.get(type);
-		if (list == null)
+		decodeDeferredPoints();
+		Integer index = columns.get(type);
+		if (index == null)
 			return null;
-		return list.clone();
+		double[] data = values[index];
+		ArrayList<Double> list = new ArrayList<Double>(length);
+		for (int i = 0; i < length; i++) {
+			list.add(data[i]);
+		}
+		return list;
+	}
+	
+	/**
+	 * Return a read-only view of the values of the specified variable type, without
+	 * copying them.  The view covers the points present at the time of the call; points
+	 * added later are not guaranteed to be visible through it.
+	 * 
+	 * @param type	the variable type.
+	 * @return		a buffer of the variable values, or <code>null</code> if
+	 * 				the variable type hasn't been added to this branch.
+	 */
+	public DoubleBuffer getColumn(FlightDataType type) {
+		decodeDeferredPoints();
+		Integer index = columns.get(type);
+		if (index == null)
+			return null;
+		return DoubleBuffer.wrap(values[index], 0, length).asReadOnlyBuffer();
+	}
+	
+	/**
+	 * Return the value of the specified type at the given point, or NaN if the type
+	 * is unavailable.
+	 * 
+	 * @param type	the variable type.
+	 * @param point	the index of the data point.
+	 * @return		the value at that point, or NaN.
+	 * @throws IndexOutOfBoundsException	if the point does not exist.
+	 */
+	public double getValue(FlightDataType type, int point) {
+		decodeDeferredPoints();
+		if (point < 0 || point >= length) {
+			throw new IndexOutOfBoundsException("point=" + point + " length=" + length);
+		}
+		Integer index = columns.get(type);
+		if (index == null)
+			return Double.NaN;
+		return values[index][point];
 	}
 	
 	/**
@@ -192,10 +354,11 @@ public class FlightDataBranch implements Monitorable {
 	 * @return		the last value in this branch, or NaN.
 	 */
 	public double getLast(FlightDataType type) {
-		ArrayList<Double> list = values.get(type);
-		if (list == null || list.isEmpty())
+		decodeDeferredPoints();
+		Integer index = columns.get(type);
+		if (index == null || length == 0)
 			return Double.NaN;
-		return list.get(list.size() - 1);
+		return values[index][length - 1];
 	}
 	
 	/**
@@ -206,10 +369,11 @@ public class FlightDataBranch implements Monitorable {
 	 * @return		the minimum value in this branch, or NaN.
 	 */
 	public double getMinimum(FlightDataType type) {
-		Double v = minValues.get(type);
-		if (v == null)
+		decodeDeferredPoints();
+		Integer index = columns.get(type);
+		if (index == null)
 			return Double.NaN;
-		return v;
+		return minValues[index];
 	}
 	
 	/**
@@ -220,10 +384,11 @@ public class FlightDataBranch implements Monitorable {
 	 * @return		the maximum value in this branch, or NaN.
 	 */
 	public double getMaximum(FlightDataType type) {
-		Double v = maxValues.get(type);
-		if (v == null)
+		decodeDeferredPoints();
+		Integer index = columns.get(type);
+		if (index == null)
 			return Double.NaN;
-		return v;
+		return maxValues[index];
 	}
 	
 	
@@ -322,6 +487,57 @@ public class FlightDataBranch implements Monitorable {
 		return retval;
 	}
 	
+	/**
+	 * Set the data points of this branch to be decoded when the data is first accessed.
+	 * The branch must not contain any points yet.
+	 * 
+	 * @param points	the source of the data points.
+	 * @throws IllegalStateException	if this branch has been made immutable or already
+	 * 									contains data points.
+	 */
+	public void setDeferredPoints(DeferredPoints points) {
+		mutable.check();
+		if (length > 0 || deferredPoints != null) {
+			throw new IllegalStateException("Branch already contains data points");
+		}
+		deferredPoints = points;
+		modID++;
+	}
+	
+	/**
+	 * Return the data points of this branch that have not been decoded yet, or
+	 * <code>null</code> if all points are available.
+	 */
+	public DeferredPoints getDeferredPoints() {
+		return deferredPoints;
+	}
+	
+	/*
+	 * Decode the deferred points, if any.  This may happen after the branch has been
+	 * made immutable, since the points are logically part of the branch already.
+	 */
+	private void decodeDeferredPoints() {
+		if (deferredPoints == null) {
+			return;
+		}
+		synchronized (this) {
+			DeferredPoints points = deferredPoints;
+			if (points == null) {
+				return;
+			}
+			try {
+				points.decode(new Consumer<double[]>() {
+					@Override
+					public void accept(double[] row) {
+						appendPoint(row);
+					}
+				});
+			} finally {
+				deferredPoints = null;
+			}
+		}
+	}
+	
 	/**
 	 * Make this FlightDataBranch immutable.  Any calls to the set methods that would
 	 * modify this object will after this call throw an <code>IllegalStateException</code>.
@@ -0,0 +1,60 @@
+package net.sf.openrocket.simulation;
+
+/**
+ * The numerical integration method used for the powered and coasting flight phases.
+ */
+public enum IntegrationMethod {
+
+	/**
+	 * Classical fourth order Runge-Kutta with heuristically selected time steps.
+	 */
+	RK4("RK4Simulator") {
+		@Override
+		public SimulationStepper createStepper() {
+			return new RK4SimulationStepper();
+		}
+	},
+
+	/**
+	 * Dormand-Prince 5(4) Runge-Kutta with local error control.
+	 */
+	DORMAND_PRINCE("DormandPrinceSimulator") {
+		@Override
+		public SimulationStepper createStepper() {
+			return new DormandPrinceSimulationStepper();
+		}
+	};
+
+
+	private final String simulatorName;
+
+	private IntegrationMethod(String simulatorName) {
+		this.simulatorName = simulatorName;
+	}
+
+	/**
+	 * Return the name by which this method is stored in the simulator element of
+	 * an OpenRocket document.
+	 */
+	public String getSimulatorName() {
+		return simulatorName;
+	}
+
+	/**
+	 * Return a new flight stepper using this integration method.
+	 */
+	public abstract SimulationStepper createStepper();
+
+
+	/**
+	 * Return the integration method with the given simulator name, or null if none matches.
+	 */
+	public static IntegrationMethod fromSimulatorName(String name) {
+		for (IntegrationMethod m : values()) {
+			if (m.simulatorName.equals(name)) {
+				return m;
+			}
+		}
+		return null;
+	}
+}
@@ -4,6 +4,7 @@ import net.sf.openrocket.motor.IgnitionEvent;
 import net.sf.openrocket.motor.Motor;
 import net.sf.openrocket.motor.MotorConfiguration;
 import net.sf.openrocket.motor.MotorConfigurationId;
+import net.sf.openrocket.motor.ThrustCurveMotor;
 import net.sf.openrocket.rocketcomponent.MotorMount;
 import net.sf.openrocket.rocketcomponent.RocketComponent;
 
@@ -15,6 +16,9 @@ public class MotorClusterState {
 	final protected int motorCount;
 	final protected double thrustDuration; 
 	
+	// evaluates the thrust curve at successive times, or null if the motor has no thrust curve
+	final private ThrustCurveMotor.Cursor cursor;
+	
 	// for state:
 	protected double ignitionTime = Double.NaN;
 	protected double cutoffTime = Double.NaN;
@@ -27,9 +31,46 @@ public class MotorClusterState {
 		this.motor = this.config.getMotor();
 		this.motorCount = this.config.getMotorCount();
 		this.thrustDuration = this.motor.getBurnTimeEstimate();
+		this.cursor = newCursor(this.motor);
 		
 		this.reset();
 	}
+	
+	private MotorClusterState(final MotorClusterState orig, final MotorConfiguration _config) {
+		this.config = _config;
+		this.motor = orig.motor;
+		this.motorCount = orig.motorCount;
+		this.thrustDuration = orig.thrustDuration;
+		this.cursor = newCursor(orig.motor);
+		
+		this.ignitionTime = orig.ignitionTime;
+		this.cutoffTime = orig.cutoffTime;
+		this.ejectionTime = orig.ejectionTime;
+		this.currentState = orig.currentState;
+	}
+	
+	private static ThrustCurveMotor.Cursor newCursor(final Motor motor) {
+		if (motor instanceof ThrustCurveMotor) {
+			return ((ThrustCurveMotor) motor).newCursor();
+		}
+		return null;
+	}
+	
+	/**
+	 * Return a copy of this state that changes independently of this one.
+	 */
+	public MotorClusterState copy() {
+		return new MotorClusterState(this, this.config);
+	}
+	
+	/**
+	 * Return a copy of this state for the same motor configuration of a copy of the rocket.
+	 * 
+	 * @param _config	the motor configuration of the copied motor mount.
+	 */
+	public MotorClusterState copy(final MotorConfiguration _config) {
+		return new MotorClusterState(this, _config);
+	}
 
 	public double getIgnitionTime() {
 		return ignitionTime;
@@ -131,6 +172,9 @@ public class MotorClusterState {
 			double motorEndTime = this.getMotorTime( endSimulationTime);
 			
 			int instanceCount = this.config.getMount().getLocations().length;
+			if (cursor != null) {
+				return instanceCount * cursor.getAverageThrust( motorStartTime, motorEndTime );
+			}
 			return instanceCount * motor.getAverageThrust( motorStartTime, motorEndTime );
 		}else{
 			return 0.00;
@@ -147,6 +191,9 @@ public class MotorClusterState {
 	public double getThrust( final double simulationTime){
 		if( this.currentState.isThrusting() ){
 			double motorTime = this.getMotorTime( simulationTime);
+			if (cursor != null) {
+				return this.motorCount * cursor.getThrust( motorTime );
+			}
 			return this.motorCount * motor.getThrust( motorTime );
 
 		}else{
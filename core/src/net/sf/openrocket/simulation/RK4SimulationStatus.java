@@ -14,6 +14,13 @@ public class RK4SimulationStatus extends SimulationStatus implements Cloneable {
 	private double maxZVelocity = 0;
 	private double startWarningTime = -1;
 	
+	/*
+	 * Scratch space of RK4SimulationStepper, reused between steps.  It is not
+	 * copied by clone() or the copy constructor.
+	 */
+	private RK4SimulationStepper.DataStore stepDataStore;
+	private RK4SimulationStatus stageStatus;
+	
 	public RK4SimulationStatus(FlightConfiguration configuration,
 			SimulationConditions simulationConditions ) {
 		super(configuration, simulationConditions);
@@ -80,9 +87,53 @@ public class RK4SimulationStatus extends SimulationStatus implements Cloneable {
 		this.startWarningTime = startWarningTime;
 	}
 	
+	/**
+	 * Return the data store used for the step computation, reset to its initial values.
+	 */
+	RK4SimulationStepper.DataStore getStepDataStore() {
+		if (stepDataStore == null) {
+			stepDataStore = new RK4SimulationStepper.DataStore();
+		} else {
+			stepDataStore.reset();
+		}
+		return stepDataStore;
+	}
+	
+	
+	/**
+	 * Return the intermediate status used for the step computation, with the same state
+	 * as this status.  The returned object is reused by subsequent calls.
+	 */
+	RK4SimulationStatus getStageStatus() {
+		if (stageStatus == null) {
+			stageStatus = clone();
+		} else {
+			stageStatus.copyStateFrom(this);
+		}
+		return stageStatus;
+	}
+	
+	
+	@Override
+	void copyStateFrom(SimulationStatus orig) {
+		super.copyStateFrom(orig);
+		if (orig instanceof RK4SimulationStatus) {
+			RK4SimulationStatus other = (RK4SimulationStatus) orig;
+			this.launchRodDirection = other.launchRodDirection;
+			this.previousAcceleration = other.previousAcceleration;
+			this.previousAtmosphericConditions = other.previousAtmosphericConditions;
+			this.maxZVelocity = other.maxZVelocity;
+			this.startWarningTime = other.startWarningTime;
+		}
+	}
+	
+	
 	@Override
 	public RK4SimulationStatus clone() {
-		return (RK4SimulationStatus) super.clone();
+		RK4SimulationStatus clone = (RK4SimulationStatus) super.clone();
+		clone.stepDataStore = null;
+		clone.stageStatus = null;
+		return clone;
 	}
 	
 }
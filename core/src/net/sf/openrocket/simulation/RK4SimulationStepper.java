@@ -19,7 +19,6 @@ import net.sf.openrocket.startup.Application;
 import net.sf.openrocket.util.Coordinate;
 import net.sf.openrocket.util.GeodeticComputationStrategy;
 import net.sf.openrocket.util.MathUtil;
-import net.sf.openrocket.util.Quaternion;
 import net.sf.openrocket.util.Rotation2D;
 import net.sf.openrocket.util.WorldCoordinate;
 
@@ -58,11 +57,20 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 	private static final double MAX_ROLL_RATE_CHANGE = 2 * Math.PI / 180;
 	private static final double MAX_PITCH_CHANGE = 4 * Math.PI / 180;
 	
-	private static final double MIN_TIME_STEP = 0.001;
+	protected static final double MIN_TIME_STEP = 0.001;
 	
 	
 	private Random random;
 	
+	// derivatives of the four stages, reused between steps
+	private final RK4Parameters k1 = new RK4Parameters();
+	private final RK4Parameters k2 = new RK4Parameters();
+	private final RK4Parameters k3 = new RK4Parameters();
+	private final RK4Parameters k4 = new RK4Parameters();
+	
+	// scratch buffer for the sampled wind velocity
+	private final double[] wind = new double[3];
+	
 	
 	
 	
@@ -93,12 +101,14 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 	public void step(SimulationStatus simulationStatus, double maxTimeStep) throws SimulationException {
 		
 		RK4SimulationStatus status = (RK4SimulationStatus) simulationStatus;
-		DataStore store = new DataStore();
+		DataStore store = status.getStepDataStore();
 		
 		////////  Perform RK4 integration:  ////////
 		
+		/*
+		 * The intermediate states are computed in a single reused status object.
+		 */
 		RK4SimulationStatus status2;
-		RK4Parameters k1, k2, k3, k4;
 		
 		/*
 		 * Start with previous time step which is used to compute the initial thrust estimate.
@@ -121,7 +131,7 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 
 		//// First position, k1 = f(t, y)
 		
-		k1 = computeParameters(status, store);
+		computeParameters(status, store, k1);
 		
 		/*
 		 * Select the actual time step to use.  It is the minimum of the following:
@@ -151,7 +161,7 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 		dt[5] = Math.abs(MAX_PITCH_CHANGE / store.lateralPitchAcceleration);
 		if (!status.isLaunchRodCleared()) {
 			dt[0] /= 5.0;
-			dt[6] = status.getSimulationConditions().getLaunchRodLength() / k1.v.length() / 10;
+			dt[6] = status.getSimulationConditions().getLaunchRodLength() / status.getRocketVelocity().length() / 10;
 		}
 		dt[7] = 1.5 * status.getPreviousTimeStep();
 		
@@ -166,10 +176,12 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 
 		double minTimeStep = status.getSimulationConditions().getTimeStep() / 20;
 		if (store.timestep < minTimeStep) {
-			log.trace("Too small time step " + store.timestep + " (limiting factor " + limitingValue + "), using " +
-					minTimeStep + " instead.");
+			if (log.isTraceEnabled()) {
+				log.trace("Too small time step " + store.timestep + " (limiting factor " + limitingValue + "), using " +
+						minTimeStep + " instead.");
+			}
 			store.timestep = minTimeStep;
-		} else {
+		} else if (log.isTraceEnabled()) {
 			log.trace("Selected time step " + store.timestep + " (limiting factor " + limitingValue + ")");
 		}
 		checkNaN(store.timestep);
@@ -182,7 +194,9 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 		double thrustEstimate = store.thrustForce;
 		store.thrustForce = calculateAverageThrust(status, store.timestep, store.longitudinalAcceleration,
 				store.atmosphericConditions, true);
-		log.trace("Thrust = " + store.thrustForce);
+		if (log.isTraceEnabled()) {
+			log.trace("Thrust = " + store.thrustForce);
+		}
 		double thrustDiff = Math.abs(store.thrustForce - thrustEstimate);
 		// Log if difference over 1%, recompute if over 10%
 		if (thrustDiff > 0.01 * thrustEstimate) {
@@ -193,8 +207,8 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 						" correct=" + store.thrustForce +
 						" timestep=" + store.timestep +
 						", recomputing k1 parameters");
-				k1 = computeParameters(status, store);
-			} else {
+				computeParameters(status, store, k1);
+			} else if (log.isTraceEnabled()) {
 				log.trace("Thrust estimate differs from correct value by " +
 						(Math.rint(1000 * (thrustDiff + 0.000001) / thrustEstimate) / 10.0) + "%," +
 						" estimate=" + thrustEstimate +
@@ -211,52 +225,44 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 
 		//// Second position, k2 = f(t + h/2, y + k1*h/2)
 		
-		status2 = status.clone();
-		status2.setSimulationTime(status.getSimulationTime() + store.timestep / 2);
-		status2.setRocketPosition(status.getRocketPosition().add(k1.v.multiply(store.timestep / 2)));
-		status2.setRocketVelocity(status.getRocketVelocity().add(k1.a.multiply(store.timestep / 2)));
-		status2.setRocketOrientationQuaternion(status.getRocketOrientationQuaternion().multiplyLeft(Quaternion.rotation(k1.rv.multiply(store.timestep / 2))));
-		status2.setRocketRotationVelocity(status.getRocketRotationVelocity().add(k1.ra.multiply(store.timestep / 2)));
-		
-		k2 = computeParameters(status2, store);
+		status2 = stageStatus(status, k1, store.timestep / 2);
+		computeParameters(status2, store, k2);
 		
 
 		//// Third position, k3 = f(t + h/2, y + k2*h/2)
 		
-		status2 = status.clone();
-		status2.setSimulationTime(status.getSimulationTime() + store.timestep / 2);
-		status2.setRocketPosition(status.getRocketPosition().add(k2.v.multiply(store.timestep / 2)));
-		status2.setRocketVelocity(status.getRocketVelocity().add(k2.a.multiply(store.timestep / 2)));
-		status2.setRocketOrientationQuaternion(status2.getRocketOrientationQuaternion().multiplyLeft(Quaternion.rotation(k2.rv.multiply(store.timestep / 2))));
-		status2.setRocketRotationVelocity(status.getRocketRotationVelocity().add(k2.ra.multiply(store.timestep / 2)));
-		
-		k3 = computeParameters(status2, store);
+		status2 = stageStatus(status, k2, store.timestep / 2);
+		computeParameters(status2, store, k3);
 		
 
 		//// Fourth position, k4 = f(t + h, y + k3*h)
 		
-		status2 = status.clone();
-		status2.setSimulationTime(status.getSimulationTime() + store.timestep);
-		status2.setRocketPosition(status.getRocketPosition().add(k3.v.multiply(store.timestep)));
-		status2.setRocketVelocity(status.getRocketVelocity().add(k3.a.multiply(store.timestep)));
-		status2.setRocketOrientationQuaternion(status2.getRocketOrientationQuaternion().multiplyLeft(Quaternion.rotation(k3.rv.multiply(store.timestep))));
-		status2.setRocketRotationVelocity(status.getRocketRotationVelocity().add(k3.ra.multiply(store.timestep)));
-		
-		k4 = computeParameters(status2, store);
+		status2 = stageStatus(status, k3, store.timestep);
+		computeParameters(status2, store, k4);
 		
 
 		//// Sum all together,  y(n+1) = y(n) + h*(k1 + 2*k2 + 2*k3 + k4)/6
-		Coordinate deltaV, deltaP, deltaR, deltaO;
-		deltaV = k2.a.add(k3.a).multiply(2).add(k1.a).add(k4.a).multiply(store.timestep / 6);
-		deltaP = k2.v.add(k3.v).multiply(2).add(k1.v).add(k4.v).multiply(store.timestep / 6);
-		deltaR = k2.ra.add(k3.ra).multiply(2).add(k1.ra).add(k4.ra).multiply(store.timestep / 6);
-		deltaO = k2.rv.add(k3.rv).multiply(2).add(k1.rv).add(k4.rv).multiply(store.timestep / 6);
-		
-
-		status.setRocketVelocity(status.getRocketVelocity().add(deltaV));
-		status.setRocketPosition(status.getRocketPosition().add(deltaP));
-		status.setRocketRotationVelocity(status.getRocketRotationVelocity().add(deltaR));
-		status.setRocketOrientationQuaternion(status.getRocketOrientationQuaternion().multiplyLeft(Quaternion.rotation(deltaO)).normalizeIfNecessary());
+		double h6 = store.timestep / 6;
+		Coordinate p = status.getRocketPosition();
+		Coordinate v = status.getRocketVelocity();
+		Coordinate r = status.getRocketRotationVelocity();
+		
+		status.setRocketVelocity(new Coordinate(
+				v.x + h6 * weightedSum(k1.a.x, k2.a.x, k3.a.x, k4.a.x),
+				v.y + h6 * weightedSum(k1.a.y, k2.a.y, k3.a.y, k4.a.y),
+				v.z + h6 * weightedSum(k1.a.z, k2.a.z, k3.a.z, k4.a.z)));
+		status.setRocketPosition(new Coordinate(
+				p.x + h6 * weightedSum(k1.v.x, k2.v.x, k3.v.x, k4.v.x),
+				p.y + h6 * weightedSum(k1.v.y, k2.v.y, k3.v.y, k4.v.y),
+				p.z + h6 * weightedSum(k1.v.z, k2.v.z, k3.v.z, k4.v.z)));
+		status.setRocketRotationVelocity(new Coordinate(
+				r.x + h6 * weightedSum(k1.ra.x, k2.ra.x, k3.ra.x, k4.ra.x),
+				r.y + h6 * weightedSum(k1.ra.y, k2.ra.y, k3.ra.y, k4.ra.y),
+				r.z + h6 * weightedSum(k1.ra.z, k2.ra.z, k3.ra.z, k4.ra.z)));
+		status.setRocketOrientationQuaternion(status.getRocketOrientationQuaternion().multiplyLeftRotation(
+				h6 * weightedSum(k1.rv.x, k2.rv.x, k3.rv.x, k4.rv.x),
+				h6 * weightedSum(k1.rv.y, k2.rv.y, k3.rv.y, k4.rv.y),
+				h6 * weightedSum(k1.rv.z, k2.rv.z, k3.rv.z, k4.rv.z)).normalizeIfNecessary());
 		
 		WorldCoordinate w = status.getSimulationConditions().getLaunchSite();
 		w = status.getSimulationConditions().getGeodeticComputation().addCoordinate(w, status.getRocketPosition());
@@ -279,16 +285,41 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 	}
 	
 	
+	/**
+	 * Return the intermediate status y + k*h.
+	 */
+	private static RK4SimulationStatus stageStatus(RK4SimulationStatus status, RK4Parameters k, double h) {
+		Coordinate p = status.getRocketPosition();
+		Coordinate v = status.getRocketVelocity();
+		Coordinate r = status.getRocketRotationVelocity();
+		
+		RK4SimulationStatus s = status.getStageStatus();
+		s.setSimulationTime(status.getSimulationTime() + h);
+		s.setRocketPosition(new Coordinate(p.x + k.v.x * h, p.y + k.v.y * h, p.z + k.v.z * h));
+		s.setRocketVelocity(new Coordinate(v.x + k.a.x * h, v.y + k.a.y * h, v.z + k.a.z * h));
+		s.setRocketOrientationQuaternion(status.getRocketOrientationQuaternion().multiplyLeftRotation(
+				k.rv.x * h, k.rv.y * h, k.rv.z * h));
+		s.setRocketRotationVelocity(new Coordinate(r.x + k.ra.x * h, r.y + k.ra.y * h, r.z + k.ra.z * h));
+		return s;
+	}
+	
+	
+	/**
+	 * Return k1 + 2*k2 + 2*k3 + k4.
+	 */
+	private static double weightedSum(double k1, double k2, double k3, double k4) {
+		return 2 * (k2 + k3) + k1 + k4;
+	}
+	
+	
 
 
 
-	private RK4Parameters computeParameters(RK4SimulationStatus status, DataStore dataStore)
+	/**
+	 * Compute the derivatives of the state at the given status into <code>params</code>.
+	 */
+	protected void computeParameters(RK4SimulationStatus status, DataStore dataStore, RK4Parameters params)
 			throws SimulationException {
-		RK4Parameters params = new RK4Parameters();
-		
-		//		if (dataStore == null) {
-		//			dataStore = new DataStore();
-		//		}
 		
 		calculateAcceleration(status, dataStore);
 		params.a = dataStore.linearAcceleration;
@@ -300,8 +331,6 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 		checkNaN(params.ra);
 		checkNaN(params.v);
 		checkNaN(params.rv);
-		
-		return params;
 	}
 	
 	
@@ -489,9 +518,9 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 		
 
 		//// Local wind speed and direction
-		Coordinate windVelocity = modelWindVelocity(status);
-		store.windSpeed = windVelocity.length();
-		Coordinate airSpeed = status.getRocketVelocity().add(windVelocity);
+		modelWindVelocity(status, wind);
+		store.windSpeed = MathUtil.safeSqrt(wind[0] * wind[0] + wind[1] * wind[1] + wind[2] * wind[2]);
+		Coordinate airSpeed = status.getRocketVelocity().add(wind[0], wind[1], wind[2]);
 		airSpeed = status.getRocketOrientationQuaternion().invRotate(airSpeed);
 		
 
@@ -547,7 +576,7 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 	
 	
 
-	private void storeData(RK4SimulationStatus status, DataStore store) {
+	protected void storeData(RK4SimulationStatus status, DataStore store) {
 		
 		FlightDataBranch data = status.getFlightData();
 		boolean extra = status.getSimulationConditions().isCalculateExtras();
@@ -694,7 +723,7 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 	
 
 
-	private static class RK4Parameters {
+	protected static class RK4Parameters {
 		/** Linear acceleration */
 		public Coordinate a;
 		/** Linear velocity */
@@ -705,7 +734,7 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 		public Coordinate rv;
 	}
 	
-	private static class DataStore {
+	protected static class DataStore {
 		public double timestep = Double.NaN;
 		
 		public AccelerationData accelerationData;
@@ -738,6 +767,31 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 		
 		public Rotation2D thetaRotation;
 		
+		/**
+		 * Reset all values to their initial state.
+		 */
+		public void reset() {
+			timestep = Double.NaN;
+			accelerationData = null;
+			atmosphericConditions = null;
+			flightConditions = null;
+			longitudinalAcceleration = Double.NaN;
+			rocketMass = null;
+			motorMass = null;
+			coriolisAcceleration = null;
+			linearAcceleration = null;
+			angularAcceleration = null;
+			forces = null;
+			windSpeed = Double.NaN;
+			gravity = Double.NaN;
+			thrustForce = Double.NaN;
+			dragForce = Double.NaN;
+			lateralPitchRate = Double.NaN;
+			rollAcceleration = Double.NaN;
+			lateralPitchAcceleration = Double.NaN;
+			thetaRotation = null;
+		}
+		
 	}
 	
 }
@@ -58,10 +58,14 @@ public class SimulationConditions implements Monitorable, Cloneable {
 	
 	private double timeStep = RK4SimulationStepper.RECOMMENDED_TIME_STEP;
 	private double maximumAngleStep = RK4SimulationStepper.RECOMMENDED_ANGLE_STEP;
+	private IntegrationMethod integrationMethod = IntegrationMethod.RK4;
 	
 	/* Whether to calculate additional data or only primary simulation figures */
 	private boolean calculateExtras = true;
 	
+	/* Number of threads on which separated branches may be simulated concurrently */
+	private int branchThreads = 1;
+	
 	
 	private List<SimulationListener> simulationListeners = new ArrayList<SimulationListener>();
 	
@@ -257,6 +261,22 @@ public class SimulationConditions implements Monitorable, Cloneable {
 	}
 	
 	
+	public IntegrationMethod getIntegrationMethod() {
+		return integrationMethod;
+	}
+	
+	
+	public void setIntegrationMethod(IntegrationMethod integrationMethod) {
+		if (this.integrationMethod == integrationMethod)
+			return;
+		if (integrationMethod == null) {
+			throw new IllegalArgumentException("integration method cannot be null");
+		}
+		this.integrationMethod = integrationMethod;
+		this.modID++;
+	}
+	
+	
 	public boolean isCalculateExtras() {
 		return calculateExtras;
 	}
@@ -268,6 +288,26 @@ public class SimulationConditions implements Monitorable, Cloneable {
 	}
 	
 	
+	public int getBranchThreads() {
+		return branchThreads;
+	}
+	
+	/**
+	 * Set the number of threads on which the branches of a flight, such as separated
+	 * boosters, are simulated.  With one thread the branches are simulated one after
+	 * another.  The flight data is the same in either case.  Simulations with listeners
+	 * or with custom wind or gravity models are always simulated on one thread.
+	 * 
+	 * @param branchThreads	the number of threads, at least one.
+	 */
+	public void setBranchThreads(int branchThreads) {
+		if (branchThreads < 1) {
+			throw new IllegalArgumentException("branchThreads=" + branchThreads);
+		}
+		this.branchThreads = branchThreads;
+	}
+	
+	
 	
 	public int getRandomSeed() {
 		return randomSeed;
@@ -10,6 +10,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import net.sf.openrocket.aerodynamics.BarrowmanCalculator;
+import net.sf.openrocket.aerodynamics.TabulatedBarrowmanCalculator;
 import net.sf.openrocket.masscalc.MassCalculator;
 import net.sf.openrocket.models.atmosphere.AtmosphericModel;
 import net.sf.openrocket.models.atmosphere.ExtendedISAModel;
@@ -77,6 +78,8 @@ public class SimulationOptions implements ChangeSource, Cloneable {
 	
 	private double timeStep = preferences.getDouble(Preferences.SIMULATION_TIME_STEP, RK4SimulationStepper.RECOMMENDED_TIME_STEP);
 	private double maximumAngle = RK4SimulationStepper.RECOMMENDED_ANGLE_STEP;
+	private IntegrationMethod integrationMethod = IntegrationMethod.RK4;
+	private boolean tabulatedAerodynamics = false;
 	
 	private int randomSeed = new Random().nextInt();
 	
@@ -337,6 +340,39 @@ public class SimulationOptions implements ChangeSource, Cloneable {
 	
 	
 	
+	public IntegrationMethod getIntegrationMethod() {
+		return integrationMethod;
+	}
+	
+	public void setIntegrationMethod(IntegrationMethod integrationMethod) {
+		if (this.integrationMethod == integrationMethod)
+			return;
+		if (integrationMethod == null) {
+			throw new IllegalArgumentException("integration method cannot be null");
+		}
+		this.integrationMethod = integrationMethod;
+		fireChangeEvent();
+	}
+	
+	
+	
+	/**
+	 * Return whether the aerodynamic coefficients are interpolated from precomputed
+	 * tables, see {@link TabulatedBarrowmanCalculator}.
+	 */
+	public boolean isTabulatedAerodynamics() {
+		return tabulatedAerodynamics;
+	}
+	
+	public void setTabulatedAerodynamics(boolean tabulatedAerodynamics) {
+		if (this.tabulatedAerodynamics == tabulatedAerodynamics)
+			return;
+		this.tabulatedAerodynamics = tabulatedAerodynamics;
+		fireChangeEvent();
+	}
+	
+	
+	
 	public boolean getCalculateExtras() {
 		return calculateExtras;
 	}
@@ -403,6 +439,8 @@ public class SimulationOptions implements ChangeSource, Cloneable {
 		this.launchTemperature = src.launchTemperature;
 		this.maximumAngle = src.maximumAngle;
 		this.timeStep = src.timeStep;
+		this.integrationMethod = src.integrationMethod;
+		this.tabulatedAerodynamics = src.tabulatedAerodynamics;
 		this.windAverage = src.windAverage;
 		this.windTurbulence = src.windTurbulence;
 		this.windDirection = src.windDirection;
@@ -457,6 +495,14 @@ public class SimulationOptions implements ChangeSource, Cloneable {
 			isChanged = true;
 			this.timeStep = src.timeStep;
 		}
+		if (this.integrationMethod != src.integrationMethod) {
+			isChanged = true;
+			this.integrationMethod = src.integrationMethod;
+		}
+		if (this.tabulatedAerodynamics != src.tabulatedAerodynamics) {
+			isChanged = true;
+			this.tabulatedAerodynamics = src.tabulatedAerodynamics;
+		}
 		if (this.windAverage != src.windAverage) {
 			isChanged = true;
 			this.windAverage = src.windAverage;
@@ -502,6 +548,8 @@ public class SimulationOptions implements ChangeSource, Cloneable {
 				MathUtil.equals(this.launchTemperature, o.launchTemperature) &&
 				MathUtil.equals(this.maximumAngle, o.maximumAngle) &&
 				MathUtil.equals(this.timeStep, o.timeStep) &&
+				this.integrationMethod == o.integrationMethod &&
+				this.tabulatedAerodynamics == o.tabulatedAerodynamics &&
 				MathUtil.equals(this.windAverage, o.windAverage) &&
 				MathUtil.equals(this.windTurbulence, o.windTurbulence) &&
 				MathUtil.equals(this.windDirection, o.windDirection) &&
@@ -564,13 +612,19 @@ public class SimulationOptions implements ChangeSource, Cloneable {
 		
 		conditions.setGravityModel(gravityModel);
 		
-		conditions.setAerodynamicCalculator(new BarrowmanCalculator());
+		if (isTabulatedAerodynamics()) {
+			conditions.setAerodynamicCalculator(new TabulatedBarrowmanCalculator());
+		} else {
+			conditions.setAerodynamicCalculator(new BarrowmanCalculator());
+		}
 		conditions.setMassCalculator(new MassCalculator());
 		
 		conditions.setTimeStep(getTimeStep());
 		conditions.setMaximumAngleStep(getMaximumStepAngle());
+		conditions.setIntegrationMethod(getIntegrationMethod());
 		
 		conditions.setCalculateExtras(getCalculateExtras());
+		conditions.setBranchThreads(Math.max(preferences.getInt(Preferences.SIMULATION_BRANCH_THREADS, 1), 1));
 		
 		return conditions;
 	}
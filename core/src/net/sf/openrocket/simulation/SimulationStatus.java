@@ -3,6 +3,7 @@ package net.sf.openrocket.simulation;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -14,7 +15,9 @@ import net.sf.openrocket.motor.MotorConfiguration;
 import net.sf.openrocket.motor.MotorConfigurationId;
 import net.sf.openrocket.rocketcomponent.FlightConfiguration;
 import net.sf.openrocket.rocketcomponent.LaunchLug;
+import net.sf.openrocket.rocketcomponent.MotorMount;
 import net.sf.openrocket.rocketcomponent.RecoveryDevice;
+import net.sf.openrocket.rocketcomponent.Rocket;
 import net.sf.openrocket.rocketcomponent.RocketComponent;
 import net.sf.openrocket.util.BugException;
 import net.sf.openrocket.util.Coordinate;
@@ -502,6 +505,44 @@ public class SimulationStatus implements Monitorable {
 		}
 	}
 	
+	/**
+	 * Copy the state of the provided object into this object, so that it is equal to
+	 * a new copy returned by {@link #clone()}.  This allows reusing an intermediate
+	 * copy during step computation instead of cloning for each intermediate state.
+	 * <p>
+	 * This object must have been created by cloning <code>orig</code>, since the
+	 * event queue and extra data are shared and cannot be reassigned.
+	 *
+	 * @param orig	the object from which to copy
+	 */
+	void copyStateFrom(SimulationStatus orig) {
+		this.simulationConditions = orig.simulationConditions;
+		this.configuration = orig.configuration;
+		this.flightData = orig.flightData;
+		this.time = orig.time;
+		this.previousTimeStep = orig.previousTimeStep;
+		this.position = orig.position;
+		this.worldPosition = orig.worldPosition;
+		this.velocity = orig.velocity;
+		this.orientation = orig.orientation;
+		this.rotationVelocity = orig.rotationVelocity;
+		this.effectiveLaunchRodLength = orig.effectiveLaunchRodLength;
+		this.motorStateList = orig.motorStateList;
+		this.simulationStartWallTime = orig.simulationStartWallTime;
+		this.motorIgnited = orig.motorIgnited;
+		this.liftoff = orig.liftoff;
+		this.launchRodCleared = orig.launchRodCleared;
+		this.apogeeReached = orig.apogeeReached;
+		this.tumbling = orig.tumbling;
+		this.landed = orig.landed;
+		this.deployedRecoveryDevices = orig.deployedRecoveryDevices;
+		this.warnings = orig.warnings;
+		this.maxAlt = orig.maxAlt;
+		this.maxAltTime = orig.maxAltTime;
+		this.modID = orig.modID;
+		this.modIDadd = orig.modIDadd;
+	}
+
 	@Override
 	public int getModID() {
 		return (modID + modIDadd + simulationConditions.getModID() + configuration.getModID() +
@@ -532,6 +573,78 @@ public class SimulationStatus implements Monitorable {
 		return buf.toString();
 	}
 	
+	/**
+	 * Replace the motor states by copies, so that a separated branch does not change
+	 * the motors of the branch it separated from.  Queued events that refer to a motor
+	 * state are replaced by events referring to its copy.
+	 */
+	void copyMotorStates() {
+		copyMotorStates(null);
+	}
+	
+	/**
+	 * Move the status onto a copy of its rocket, so that a branch simulated on another thread
+	 * does not fill the lazily computed caches of the components while the branch it separated
+	 * from reads them.  The configuration, the motor states, the deployed recovery devices and
+	 * the sources of the queued events are replaced by their counterparts in the copy.  The
+	 * simulation conditions keep referring to the original rocket.
+	 */
+	void copyRocket() {
+		Rocket copy = configuration.getRocket().copyWithOriginalID();
+		Map<String, RocketComponent> components = new HashMap<String, RocketComponent>();
+		for (RocketComponent component : copy) {
+			components.put(component.getID(), component);
+		}
+		
+		FlightConfiguration copiedConfiguration = new FlightConfiguration(copy, configuration.getFlightConfigurationID());
+		copiedConfiguration.copyStages(configuration);
+		copiedConfiguration.update();
+		setConfiguration(copiedConfiguration);
+		
+		MonitorableSet<RecoveryDevice> devices = new MonitorableSet<RecoveryDevice>();
+		for (RecoveryDevice device : deployedRecoveryDevices) {
+			devices.add((RecoveryDevice) components.get(device.getID()));
+		}
+		deployedRecoveryDevices = devices;
+		
+		copyMotorStates(components);
+	}
+	
+	/*
+	 * Copy the motor states, binding them to the motor configurations of the copied components
+	 * if these are given.
+	 */
+	private void copyMotorStates(Map<String, RocketComponent> components) {
+		Map<MotorClusterState, MotorClusterState> copies = new IdentityHashMap<MotorClusterState, MotorClusterState>();
+		for (int i = 0; i < motorStateList.size(); i++) {
+			MotorClusterState state = motorStateList.get(i);
+			MotorClusterState copy;
+			if (components == null) {
+				copy = state.copy();
+			} else {
+				MotorMount mount = (MotorMount) components.get(((RocketComponent) state.getMount()).getID());
+				copy = state.copy(mount.getMotorConfig(state.getConfig().getFCID()));
+			}
+			copies.put(state, copy);
+			motorStateList.set(i, copy);
+		}
+		
+		List<FlightEvent> events = new ArrayList<FlightEvent>(eventQueue);
+		eventQueue.clear();
+		for (FlightEvent event : events) {
+			RocketComponent source = event.getSource();
+			if (components != null && source != null) {
+				source = components.get(source.getID());
+			}
+			MotorClusterState copy = copies.get(event.getData());
+			if (copy != null || source != event.getSource()) {
+				event = new FlightEvent(event.getType(), event.getTime(), source, (copy != null) ? copy : event.getData());
+			}
+			eventQueue.add(event);
+		}
+		modID++;
+	}
+	
 	private void populateMotors(){
 		motorStateList.clear();
 		for( MotorConfiguration motorConfig : this.configuration.getAllMotors() ) {
@@ -0,0 +1,127 @@
+package net.sf.openrocket.simulation.customexpression;
+
+import net.sf.openrocket.logging.Markers;
+import net.sf.openrocket.simulation.FlightDataBranch;
+import net.sf.openrocket.simulation.FlightDataType;
+import net.sf.openrocket.simulation.SimulationStatus;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.congrace.exp4j.Calculable;
+import de.congrace.exp4j.Variable;
+
+/**
+ * A custom expression which has been parsed once for repeated evaluation during a
+ * simulation.  Only the flight data types referenced by the expression are bound, to
+ * variables which are created once and updated in place before each evaluation.  Index
+ * and range expressions within the expression are compiled as well.
+ * <p>
+ * Instances hold the variable state of the underlying calculable and must not be
+ * shared between simultaneously running simulations.
+ */
+public class CompiledExpression {
+	
+	private static final Logger log = LoggerFactory.getLogger(CompiledExpression.class);
+	
+	/**
+	 * An index or range expression within a compiled expression.
+	 */
+	static abstract class SubExpression {
+		
+		/**
+		 * Evaluate the sub-expression and set its value to the variable of the same name in
+		 * the calculable of the enclosing expression.
+		 */
+		abstract void setVariable(Calculable calc, SimulationStatus status);
+		
+	}
+	
+	
+	private final CustomExpression expression;
+	private final Calculable calc;
+	private final SubExpression[] subExpressions;
+	
+	private final FlightDataType[] types;
+	private final Variable[] values;
+	
+	private final FlightDataType resultType;
+	
+	CompiledExpression(CustomExpression expression, FlightDataType resultType, Calculable calc,
+			FlightDataType[] types, SubExpression[] subExpressions) {
+		this.expression = expression;
+		this.calc = calc;
+		this.subExpressions = subExpressions;
+		this.types = types;
+		this.values = new Variable[types.length];
+		for (int i = 0; i < types.length; i++) {
+			values[i] = new Variable(types[i].getSymbol(), Double.NaN);
+			if (calc != null) {
+				calc.setVariable(values[i]);
+			}
+		}
+		this.resultType = resultType;
+	}
+	
+	/**
+	 * Return the custom expression this was compiled from.
+	 */
+	public CustomExpression getExpression() {
+		return expression;
+	}
+	
+	/**
+	 * Return the flight data type the result of this expression is stored as.
+	 */
+	public FlightDataType getType() {
+		return resultType;
+	}
+	
+	/**
+	 * Return the flight data types referenced by this expression.
+	 */
+	public FlightDataType[] getReferencedTypes() {
+		return types.clone();
+	}
+	
+	/**
+	 * Evaluate the expression using the last values of the referenced variables in the
+	 * simulation status.  Returns NaN on any error, as well as for infinite results.
+	 * 
+	 * @param status	the current simulation status.
+	 * @return			the value of the expression.
+	 */
+	public double evaluate(SimulationStatus status) {
+		double result = calculate(status);
+		if (result == Double.NEGATIVE_INFINITY || result == Double.POSITIVE_INFINITY)
+			result = Double.NaN;
+		return result;
+	}
+	
+	/*
+	 * Evaluate the expression, returning infinite results as they are.
+	 */
+	double calculate(SimulationStatus status) {
+		if (calc == null) {
+			return Double.NaN;
+		}
+		
+		// Evaluate any sub expressions and set associated variables in the calculable
+		for (SubExpression sub : subExpressions) {
+			sub.setVariable(calc, status);
+		}
+		
+		FlightDataBranch data = status.getFlightData();
+		for (int i = 0; i < types.length; i++) {
+			values[i].setDoubleValue(data.getLast(types[i]));
+		}
+		
+		try {
+			return calc.calculate().getDoubleValue();
+		} catch (java.util.EmptyStackException e) {
+			log.info(Markers.USER_MARKER, "Unable to calculate expression " + expression.getExpressionString() + " due to empty stack exception");
+			return Double.NaN;
+		}
+	}
+	
+}
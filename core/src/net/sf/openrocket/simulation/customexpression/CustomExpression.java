@@ -1,6 +1,7 @@
 package net.sf.openrocket.simulation.customexpression;
 
 import java.util.List;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -404,6 +405,65 @@ public class CustomExpression implements Cloneable {
 		return calc;
 	}
 	
+	/*
+	 * Builds the expression once and binds the flight data types it references, for
+	 * repeated evaluation during a single simulation. If the expression cannot be built
+	 * the compiled expression always evaluates to NaN.
+	 */
+	public CompiledExpression compile() {
+		return compile(getType());
+	}
+	
+	/*
+	 * Builds the expression once, storing its result as the given flight data type.
+	 */
+	protected CompiledExpression compile(FlightDataType resultType) {
+		CompiledExpression.SubExpression[] subs = new CompiledExpression.SubExpression[subExpressions.size()];
+		for (int i = 0; i < subs.length; i++) {
+			subs[i] = subExpressions.get(i).compileSubExpression();
+		}
+		return compile(builder, resultType, subs);
+	}
+	
+	/*
+	 * Builds a specified expression once and binds the flight data types it references.
+	 */
+	protected CompiledExpression compile(ExpressionBuilder b, FlightDataType resultType,
+			CompiledExpression.SubExpression... subs) {
+		Calculable calc = buildExpression(b);
+		if (calc == null) {
+			return new CompiledExpression(this, resultType, null, new FlightDataType[0], subs);
+		}
+		
+		// Bind only the variables which actually appear in the expression
+		Set<FlightDataType> available = doc.getFlightDataTypes();
+		List<FlightDataType> types = new ArrayList<FlightDataType>();
+		for (String symb : calc.getReferencedVariableNames()) {
+			for (FlightDataType type : available) {
+				if (type.getSymbol().equals(symb)) {
+					types.add(type);
+					break;
+				}
+			}
+		}
+		
+		return new CompiledExpression(this, resultType, calc, types.toArray(new FlightDataType[0]), subs);
+	}
+	
+	/*
+	 * Builds this expression once for repeated evaluation as an index or range expression
+	 * within a compiled expression.  By default the expression is evaluated as a whole
+	 * each time.
+	 */
+	CompiledExpression.SubExpression compileSubExpression() {
+		return new CompiledExpression.SubExpression() {
+			@Override
+			void setVariable(Calculable calc, SimulationStatus status) {
+				calc.setVariable(evaluate(status));
+			}
+		};
+	}
+	
 	/*
 	 * Evaluate the expression using the last variable values from the simulation status.
 	 * Returns NaN on any error.
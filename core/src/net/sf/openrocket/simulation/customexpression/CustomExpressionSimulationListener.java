@@ -1,5 +1,6 @@
 package net.sf.openrocket.simulation.customexpression;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import net.sf.openrocket.simulation.FlightDataBranch;
@@ -15,25 +16,51 @@ public class CustomExpressionSimulationListener extends AbstractSimulationListen
 	private static final Logger log = LoggerFactory.getLogger(CustomExpressionSimulationListener.class);
 	private final List<CustomExpression> expressions;
 	
+	// Expressions compiled for the currently running simulation
+	private List<CompiledExpression> compiled = null;
+	
 	public CustomExpressionSimulationListener(List<CustomExpression> expressions) {
 		super();
 		this.expressions = expressions;
 	}
 	
+	@Override
+	public void startSimulation(SimulationStatus status) throws SimulationException {
+		compiled = compile();
+	}
+	
 	@Override
 	public void postStep(SimulationStatus status) throws SimulationException {
 		if (expressions == null || expressions.size() == 0) {
 			return;
 		}
+		if (compiled == null) {
+			compiled = compile();
+		}
 		// Calculate values for custom expressions
 		FlightDataBranch data = status.getFlightData();
-		for (CustomExpression expression : expressions) {
-			double value = expression.evaluateDouble(status);
+		for (CompiledExpression expression : compiled) {
+			double value = expression.evaluate(status);
 			//log.debug("Setting value of custom expression "+expression.toString()+" = "+value);
 			data.setValue(expression.getType(), value);
 		}
 	}
 	
+	/*
+	 * Parses each expression once for the duration of the simulation.
+	 */
+	private List<CompiledExpression> compile() {
+		List<CompiledExpression> list = new ArrayList<CompiledExpression>();
+		if (expressions == null) {
+			return list;
+		}
+		for (CustomExpression expression : expressions) {
+			list.add(expression.compile());
+		}
+		log.debug("Compiled " + list.size() + " custom expressions");
+		return list;
+	}
+	
 	@Override
 	public boolean isSystemListener() {
 		return true;
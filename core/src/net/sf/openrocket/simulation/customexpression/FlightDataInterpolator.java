@@ -0,0 +1,45 @@
+package net.sf.openrocket.simulation.customexpression;
+
+import net.sf.openrocket.simulation.FlightDataBranch;
+import net.sf.openrocket.simulation.FlightDataType;
+import net.sf.openrocket.util.LinearInterpolator;
+
+/*
+ * Interpolates the values of a flight data type as a function of time for the index and
+ * range expressions of a compiled expression.  The points are added to the interpolator
+ * as the simulation adds them to the flight data, instead of building a new interpolator
+ * from the whole flight data at every step.  The interpolator is rebuilt if the flight
+ * data branch changes.
+ */
+class FlightDataInterpolator {
+
+	private final FlightDataType type;
+
+	private LinearInterpolator interpolator = null;
+	private FlightDataBranch branch = null;
+	private int count = 0;
+
+	FlightDataInterpolator(FlightDataType type) {
+		this.type = type;
+	}
+
+	/*
+	 * Returns the interpolator of the flight data type in the given flight data, containing
+	 * all points added so far.  The last point is added again at the next update, since its
+	 * values may still change during the step that added it.
+	 */
+	LinearInterpolator update(FlightDataBranch data) {
+		int length = data.getLength();
+		if (interpolator == null || branch != data || length < count) {
+			interpolator = new LinearInterpolator();
+			branch = data;
+			count = 0;
+		}
+		for (int i = count; i < length; i++) {
+			interpolator.addPoint(data.getValue(FlightDataType.TYPE_TIME, i), data.getValue(type, i));
+		}
+		count = Math.max(length - 1, 0);
+		return interpolator;
+	}
+
+}
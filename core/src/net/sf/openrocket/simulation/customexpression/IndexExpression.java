@@ -61,4 +61,20 @@ public class IndexExpression extends CustomExpression {
 			return new Variable("Unknown");
 		}
 	}
+	
+	@Override
+	CompiledExpression.SubExpression compileSubExpression() {
+		final CompiledExpression index = compile(null);
+		final FlightDataInterpolator interp = new FlightDataInterpolator(FlightDataType.getType(null, getSymbol(), null));
+		final Variable value = new Variable(hash(), Double.NaN);
+		
+		return new CompiledExpression.SubExpression() {
+			@Override
+			void setVariable(Calculable calc, SimulationStatus status) {
+				double tvalue = index.calculate(status);
+				value.setDoubleValue(Double.isNaN(tvalue) ? Double.NaN : interp.update(status.getFlightData()).getValue(tvalue));
+				calc.setVariable(value);
+			}
+		};
+	}
 }
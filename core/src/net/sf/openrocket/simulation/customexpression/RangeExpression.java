@@ -15,6 +15,7 @@ import de.congrace.exp4j.Variable;
 import net.sf.openrocket.document.OpenRocketDocument;
 import net.sf.openrocket.logging.Markers;
 import net.sf.openrocket.simulation.customexpression.CustomExpression;
+import net.sf.openrocket.simulation.FlightDataBranch;
 import net.sf.openrocket.simulation.FlightDataType;
 import net.sf.openrocket.simulation.SimulationStatus;
 import net.sf.openrocket.util.ArrayUtils;
@@ -117,4 +118,41 @@ public class RangeExpression extends CustomExpression {
 		
 		return result;
 	}
+	
+	@Override
+	CompiledExpression.SubExpression compileSubExpression() {
+		final CompiledExpression startCalc = compile(startBuilder, null);
+		final CompiledExpression endCalc = compile(endBuilder, null);
+		final FlightDataInterpolator interp = new FlightDataInterpolator(FlightDataType.getType(null, getSymbol(), null));
+		final Variable unknown = new Variable(hash());
+		
+		return new CompiledExpression.SubExpression() {
+			@Override
+			void setVariable(Calculable calc, SimulationStatus status) {
+				FlightDataBranch data = status.getFlightData();
+				double startTime = startCalc.calculate(status);
+				double endTime = endCalc.calculate(status);
+				if (Double.isNaN(startTime) || Double.isNaN(endTime)) {
+					calc.setVariable(unknown);
+					return;
+				}
+				startTime = MathUtil.clamp(startTime, 0, Double.MAX_VALUE);
+				endTime = MathUtil.clamp(endTime, 0, data.getLast(FlightDataType.TYPE_TIME));
+				
+				// The range array is built anew, as its length changes from step to step
+				double step = status.getSimulationConditions().getSimulation().getOptions().getTimeStep();
+				double[] t = ArrayUtils.range(startTime, endTime, step);
+				if (t.length == 0) {
+					calc.setVariable(unknown);
+					return;
+				}
+				LinearInterpolator values = interp.update(data);
+				double[] y = new double[t.length];
+				for (int i = 0; i < t.length; i++) {
+					y[i] = values.getValue(t[i]);
+				}
+				calc.setVariable(new Variable(hash(), y, startTime, step));
+			}
+		};
+	}
 }
@@ -0,0 +1,96 @@
+package net.sf.openrocket.simulation.extension.impl;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineManager;
+import javax.script.ScriptException;
+
+/**
+ * The script engines and compiled scripts used by the scripting extension.
+ * <p>
+ * Script engines are not generally thread-safe, so each thread has its own engine of each
+ * language, created when the thread first runs a script of the language.  A script listener
+ * is bound to the engine of the thread that creates it and fails if it is called from
+ * another thread; a clone of the listener evaluates the script again on the engine of the
+ * thread that clones it.  Scripts are compiled once per engine
+ * and kept by the hash of the language and script, the least recently used ones being
+ * discarded first.
+ */
+final class ScriptEngineCache {
+
+	/** The maximum number of compiled scripts kept per thread. */
+	private static final int MAX_SCRIPTS = 16;
+
+	private static final ThreadLocal<ScriptEngineCache> CACHE = new ThreadLocal<ScriptEngineCache>() {
+		@Override
+		protected ScriptEngineCache initialValue() {
+			return new ScriptEngineCache();
+		}
+	};
+
+	private final ScriptEngineManager manager = new ScriptEngineManager();
+	private final Map<String, ScriptEngine> engines = new HashMap<String, ScriptEngine>();
+	private final Map<String, CompiledScript> scripts = new LinkedHashMap<String, CompiledScript>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, CompiledScript> eldest) {
+			return size() > MAX_SCRIPTS;
+		}
+	};
+
+
+	private ScriptEngineCache() {
+	}
+
+	/**
+	 * Return the cache of the current thread.
+	 */
+	static ScriptEngineCache get() {
+		return CACHE.get();
+	}
+
+
+	/**
+	 * Return the engine of a language for the current thread.
+	 *
+	 * @param language	the name of the scripting language.
+	 * @return			the script engine, or <code>null</code> if the language is not supported.
+	 */
+	ScriptEngine getEngine(String language) {
+		ScriptEngine engine = engines.get(language);
+		if (engine == null && !engines.containsKey(language)) {
+			engine = manager.getEngineByName(language);
+			engines.put(language, engine);
+		}
+		return engine;
+	}
+
+	/**
+	 * Return a script compiled by the engine of a language for the current thread.
+	 *
+	 * @param language	the name of the scripting language.
+	 * @param script	the script.
+	 * @return			the compiled script, or <code>null</code> if the engine of the language
+	 * 					does not support compiling scripts.
+	 * @throws ScriptException	if the script could not be compiled.
+	 */
+	CompiledScript getCompiledScript(String language, String script) throws ScriptException {
+		ScriptEngine engine = getEngine(language);
+		if (!(engine instanceof Compilable)) {
+			return null;
+		}
+
+		String hash = ScriptingUtil.hash(language, script);
+		CompiledScript compiled = scripts.get(hash);
+		if (compiled == null) {
+			compiled = ((Compilable) engine).compile(script);
+			scripts.put(hash, compiled);
+		}
+		return compiled;
+	}
+
+}
@@ -3,7 +3,11 @@ package net.sf.openrocket.simulation.extension.impl;
 import java.util.HashSet;
 import java.util.Set;
 
+import javax.script.Bindings;
+import javax.script.CompiledScript;
 import javax.script.Invocable;
+import javax.script.ScriptContext;
+import javax.script.ScriptEngine;
 import javax.script.ScriptException;
 
 import org.slf4j.Logger;
@@ -37,12 +41,88 @@ public class ScriptingSimulationListener implements SimulationListener, Simulati
 	 * so that unimplemented script methods are not called unnecessarily.
 	 */
 	
-	private Invocable invocable;
+	/** The names of the script functions called by this listener. */
+	private static final String[] FUNCTIONS = {
+			"startSimulation", "endSimulation", "preStep", "postStep",
+			"addFlightEvent", "handleFlightEvent", "motorIgnition", "recoveryDeviceDeployment",
+			"preAccelerationCalculation", "preAerodynamicCalculation", "preAtmosphericModel",
+			"preFlightConditions", "preGravityModel", "preMassCalculation", "preSimpleThrustCalculation",
+			"preWindModel", "postAccelerationCalculation", "postAerodynamicCalculation",
+			"postAtmosphericModel", "postFlightConditions", "postGravityModel", "postMassCalculation",
+			"postSimpleThrustCalculation", "postWindModel"
+	};
+	
+	private final Invocable invocable;
+	private final ScriptEngine engine;
+	private final Bindings bindings;
+	private final String language;
+	private final String script;
+	private final Thread thread;
 	private Set<String> missing = new HashSet<String>();
 	
 	
 	public ScriptingSimulationListener(Invocable invocable) {
 		this.invocable = invocable;
+		this.engine = null;
+		this.bindings = null;
+		this.language = null;
+		this.script = null;
+		this.thread = null;
+	}
+	
+	/**
+	 * Create a listener calling the functions of a script.  The script is evaluated in new
+	 * bindings by the engine of the current thread, see {@link ScriptEngineCache}, so the
+	 * listener may only be called from the thread that creates it.  A clone of the listener
+	 * evaluates the script again in the thread that clones it.
+	 * <p>
+	 * Scripting languages such as JavaScript store the functions of a script in its
+	 * bindings, in which case the functions the script does not define are never called.
+	 * Otherwise the missing functions are found when they are first called.
+	 * 
+	 * @param language	the name of the scripting language.
+	 * @param script	the script.
+	 * @throws SimulationException	if the language is not supported or the script is invalid.
+	 */
+	public ScriptingSimulationListener(String language, String script) throws SimulationException {
+		ScriptEngineCache cache = ScriptEngineCache.get();
+		ScriptEngine engine = cache.getEngine(language);
+		if (engine == null) {
+			throw new SimulationException("Your JRE does not support the scripting language '" + language + "'");
+		}
+		
+		if (!(engine instanceof Invocable)) {
+			throw new SimulationException("The scripting language '" + language + "' does not implement the Invocable interface");
+		}
+		
+		Bindings bindings = engine.createBindings();
+		try {
+			CompiledScript compiled = cache.getCompiledScript(language, script);
+			if (compiled != null) {
+				compiled.eval(bindings);
+			} else {
+				engine.eval(script, bindings);
+			}
+		} catch (ScriptException e) {
+			throw new SimulationException("Invalid script: " + e.getMessage());
+		}
+		
+		this.invocable = (Invocable) engine;
+		this.engine = engine;
+		this.bindings = bindings;
+		this.language = language;
+		this.script = script;
+		this.thread = Thread.currentThread();
+		
+		Set<String> undefined = new HashSet<String>();
+		for (String function : FUNCTIONS) {
+			if (bindings.get(function) == null) {
+				undefined.add(function);
+			}
+		}
+		if (undefined.size() < FUNCTIONS.length) {
+			missing = undefined;
+		}
 	}
 	
 	
@@ -54,6 +134,14 @@ public class ScriptingSimulationListener implements SimulationListener, Simulati
 	
 	@Override
 	public SimulationListener clone() {
+		if (script != null) {
+			// The engine and bindings belong to the thread that created this listener
+			try {
+				return new ScriptingSimulationListener(language, script);
+			} catch (SimulationException e) {
+				throw new BugException("Script failed when evaluated again", e);
+			}
+		}
 		try {
 			ScriptingSimulationListener clone = (ScriptingSimulationListener) super.clone();
 			clone.missing = new HashSet<String>(missing);
@@ -203,6 +291,13 @@ public class ScriptingSimulationListener implements SimulationListener, Simulati
 	private <T> T invoke(Class<T> retType, T def, String method, Object... args) throws SimulationException {
 		try {
 			if (!missing.contains(method)) {
+				if (thread != null && thread != Thread.currentThread()) {
+					throw new BugException("Script listener created in thread " + thread.getName() +
+							" called from thread " + Thread.currentThread().getName());
+				}
+				if (bindings != null && engine.getBindings(ScriptContext.ENGINE_SCOPE) != bindings) {
+					engine.setBindings(bindings, ScriptContext.ENGINE_SCOPE);
+				}
 				Object o = invocable.invokeFunction(method, args);
 				if (o == null) {
 					// Use default/null if function returns nothing
@@ -0,0 +1,59 @@
+package net.sf.openrocket.simulation.montecarlo;
+
+import net.sf.openrocket.aerodynamics.AerodynamicForces;
+import net.sf.openrocket.simulation.SimulationStatus;
+import net.sf.openrocket.simulation.exception.SimulationCancelledException;
+import net.sf.openrocket.simulation.exception.SimulationException;
+import net.sf.openrocket.simulation.listeners.AbstractSimulationListener;
+
+/**
+ * Applies the thrust and drag dispersion of a single Monte-Carlo run, and aborts
+ * the run when the engine has been cancelled.
+ */
+class DispersionListener extends AbstractSimulationListener {
+
+	private final MonteCarloEngine engine;
+	private final double thrustScale;
+	private final double dragScale;
+
+	public DispersionListener(MonteCarloEngine engine, double thrustScale, double dragScale) {
+		this.engine = engine;
+		this.thrustScale = thrustScale;
+		this.dragScale = dragScale;
+	}
+
+	@Override
+	public boolean preStep(SimulationStatus status) throws SimulationException {
+		if (engine.isCancelled()) {
+			throw new SimulationCancelledException("Monte-Carlo simulation cancelled");
+		}
+		return true;
+	}
+
+	@Override
+	public double postSimpleThrustCalculation(SimulationStatus status, double thrust) throws SimulationException {
+		if (thrustScale == 1) {
+			return Double.NaN;
+		}
+		return thrust * thrustScale;
+	}
+
+	@Override
+	public AerodynamicForces postAerodynamicCalculation(SimulationStatus status, AerodynamicForces forces)
+			throws SimulationException {
+		if (dragScale == 1) {
+			return null;
+		}
+		forces.setCD(forces.getCD() * dragScale);
+		forces.setCaxial(forces.getCaxial() * dragScale);
+		return forces;
+	}
+
+	/**
+	 * The dispersion is a deliberate part of the simulation, not a user modification.
+	 */
+	@Override
+	public boolean isSystemListener() {
+		return true;
+	}
+}
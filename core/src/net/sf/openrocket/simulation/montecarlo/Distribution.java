@@ -0,0 +1,77 @@
+package net.sf.openrocket.simulation.montecarlo;
+
+import java.util.Random;
+
+/**
+ * A probability distribution of a dispersed simulation parameter.
+ *
+ * @see MonteCarloEngine
+ */
+public abstract class Distribution {
+
+	/**
+	 * Draw a value from this distribution.
+	 *
+	 * @param random	the random source to use.
+	 * @return			the sampled value.
+	 */
+	public abstract double sample(Random random);
+
+
+	/**
+	 * Return a distribution that always yields the given value.
+	 */
+	public static Distribution constant(final double value) {
+		return new Distribution() {
+			@Override
+			public double sample(Random random) {
+				return value;
+			}
+
+			@Override
+			public String toString() {
+				return "constant(" + value + ")";
+			}
+		};
+	}
+
+	/**
+	 * Return a normal distribution with the given mean and standard deviation.
+	 */
+	public static Distribution normal(final double mean, final double deviation) {
+		if (deviation < 0) {
+			throw new IllegalArgumentException("Negative standard deviation " + deviation);
+		}
+		return new Distribution() {
+			@Override
+			public double sample(Random random) {
+				return mean + deviation * random.nextGaussian();
+			}
+
+			@Override
+			public String toString() {
+				return "normal(" + mean + ", " + deviation + ")";
+			}
+		};
+	}
+
+	/**
+	 * Return a uniform distribution over [min, max).
+	 */
+	public static Distribution uniform(final double min, final double max) {
+		if (max < min) {
+			throw new IllegalArgumentException("Invalid range [" + min + ", " + max + ")");
+		}
+		return new Distribution() {
+			@Override
+			public double sample(Random random) {
+				return min + (max - min) * random.nextDouble();
+			}
+
+			@Override
+			public String toString() {
+				return "uniform(" + min + ", " + max + ")";
+			}
+		};
+	}
+}
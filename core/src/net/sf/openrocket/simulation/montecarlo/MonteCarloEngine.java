@@ -0,0 +1,364 @@
+package net.sf.openrocket.simulation.montecarlo;
+
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.sf.openrocket.aerodynamics.AerodynamicCalculator;
+import net.sf.openrocket.document.Simulation;
+import net.sf.openrocket.masscalc.MassCalculator;
+import net.sf.openrocket.models.wind.PinkNoiseWindModel;
+import net.sf.openrocket.rocketcomponent.Rocket;
+import net.sf.openrocket.simulation.BasicEventSimulationEngine;
+import net.sf.openrocket.simulation.FlightData;
+import net.sf.openrocket.simulation.FlightDataBranch;
+import net.sf.openrocket.simulation.FlightDataType;
+import net.sf.openrocket.simulation.SimulationConditions;
+import net.sf.openrocket.simulation.SimulationOptions;
+import net.sf.openrocket.simulation.exception.SimulationCancelledException;
+import net.sf.openrocket.simulation.extension.SimulationExtension;
+import net.sf.openrocket.util.MathUtil;
+
+/**
+ * Runs a batch of dispersed flights of a single simulation in parallel.
+ * <p>
+ * Each run starts from a clone of the template conditions.  The wind speed and direction,
+ * launch rod angle and direction, motor thrust scale and drag coefficient scale of a run
+ * are drawn from the configured distributions; parameters without a distribution keep
+ * their template value.  The parameters of run <i>i</i> only depend on the base seed and
+ * <i>i</i>, so results are reproducible regardless of the number of threads.
+ * <p>
+ * Runs are executed on a work-stealing pool.  Every worker thread simulates its own copy
+ * of the rocket with its own aerodynamic and mass calculators, since these are not
+ * thread-safe.  The simulation extensions are initialized for every run in the thread
+ * that simulates it, as {@link Simulation#simulate} does, so that the listeners they add
+ * are never shared between threads.  Only a summary of each run is kept, see
+ * {@link MonteCarloResults}.
+ */
+public class MonteCarloEngine {
+
+	private static final Logger log = LoggerFactory.getLogger(MonteCarloEngine.class);
+
+	private static final long SEED_INCREMENT = 0x9E3779B97F4A7C15L;
+
+	/**
+	 * Receives notifications of finished runs.  Notifications are made from the
+	 * worker threads.
+	 */
+	public interface ProgressListener {
+
+		/**
+		 * Called after a run has completed or failed.
+		 *
+		 * @param finished	the number of runs finished so far.
+		 * @param total		the total number of runs.
+		 */
+		public void runFinished(int finished, int total);
+	}
+
+
+	private final SimulationConditions template;
+	private final double turbulenceIntensity;
+
+	private Distribution windSpeed = null;
+	private Distribution windDirection = null;
+	private Distribution launchRodAngle = null;
+	private Distribution launchRodDirection = null;
+	private Distribution thrustScale = null;
+	private Distribution dragScale = null;
+
+	private long seed = 0;
+	private int threads = Runtime.getRuntime().availableProcessors();
+
+	private volatile boolean cancelled = false;
+	private final AtomicInteger finished = new AtomicInteger();
+
+
+	/**
+	 * Create an engine for the given simulation conditions.  The conditions must
+	 * belong to a simulation and use a pink noise wind model, as those created by
+	 * {@link SimulationOptions#toSimulationConditions()} do.  The extensions of the
+	 * simulation must not have been initialized with the conditions, the engine
+	 * initializes them for every run.
+	 *
+	 * @param template	the conditions from which every run starts.
+	 */
+	public MonteCarloEngine(SimulationConditions template) {
+		if (template.getSimulation() == null) {
+			throw new IllegalArgumentException("Simulation conditions are not bound to a simulation");
+		}
+		if (!(template.getWindModel() instanceof PinkNoiseWindModel)) {
+			throw new IllegalArgumentException("Unsupported wind model " + template.getWindModel());
+		}
+		this.template = template;
+		this.turbulenceIntensity = ((PinkNoiseWindModel) template.getWindModel()).getTurbulenceIntensity();
+	}
+
+
+	public void setWindSpeed(Distribution windSpeed) {
+		this.windSpeed = windSpeed;
+	}
+
+	public void setWindDirection(Distribution windDirection) {
+		this.windDirection = windDirection;
+	}
+
+	public void setLaunchRodAngle(Distribution launchRodAngle) {
+		this.launchRodAngle = launchRodAngle;
+	}
+
+	public void setLaunchRodDirection(Distribution launchRodDirection) {
+		this.launchRodDirection = launchRodDirection;
+	}
+
+	/**
+	 * Set the distribution of the factor by which the motor thrust is scaled.
+	 */
+	public void setThrustScale(Distribution thrustScale) {
+		this.thrustScale = thrustScale;
+	}
+
+	/**
+	 * Set the distribution of the factor by which the drag coefficient is scaled
+	 * during powered and coasting flight.
+	 */
+	public void setDragScale(Distribution dragScale) {
+		this.dragScale = dragScale;
+	}
+
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	public void setThreads(int threads) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("threads=" + threads);
+		}
+		this.threads = threads;
+	}
+
+
+	/**
+	 * Cancel the batch in progress, or the next batch if none is in progress.  Runs
+	 * that have not finished are aborted and remain incomplete in the results.
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+
+	/**
+	 * Return whether the batch in progress, or the next batch, has been cancelled.
+	 */
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	/**
+	 * Return the number of runs of the current batch that have finished.
+	 */
+	public int getFinishedCount() {
+		return finished.get();
+	}
+
+
+	/**
+	 * Run a batch of flights, blocking until all of them have finished or the
+	 * batch has been cancelled.
+	 *
+	 * @param runs		the number of flights.
+	 * @param listener	the progress listener, or null.
+	 * @return			the summaries of the flights.
+	 */
+	public MonteCarloResults run(int runs, ProgressListener listener) {
+		finished.set(0);
+
+		long[] seeds = new long[runs];
+		for (int i = 0; i < runs; i++) {
+			seeds[i] = getRunSeed(seed, i);
+		}
+		MonteCarloResults results = new MonteCarloResults(runs, seeds);
+
+		long t0 = System.currentTimeMillis();
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		try {
+			pool.invoke(new RunRange(results, new ConcurrentLinkedQueue<Worker>(), listener, 0, runs));
+		} finally {
+			pool.shutdown();
+		}
+		// A cancel applies to one batch only
+		boolean wasCancelled = cancelled;
+		cancelled = false;
+		if (wasCancelled) {
+			results.setCancelled();
+		}
+		log.info("Monte-Carlo simulation of " + runs + " runs finished in " + (System.currentTimeMillis() - t0)
+				+ " ms, completed=" + results.getCompletedCount() + " cancelled=" + wasCancelled);
+		return results;
+	}
+
+
+	/**
+	 * Return the seed of the given run for the given base seed.
+	 */
+	static long getRunSeed(long seed, int run) {
+		// SplitMix64 finalizer
+		long z = seed + (run + 1) * SEED_INCREMENT;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+
+	private void simulate(MonteCarloResults results, Worker worker, int run) {
+		Random random = new Random(results.getSeed(run));
+		PinkNoiseWindModel templateWind = (PinkNoiseWindModel) template.getWindModel();
+
+		double ws = Math.max(sample(windSpeed, random, templateWind.getAverage()), 0);
+		double wd = sample(windDirection, random, templateWind.getDirection());
+		double ra = MathUtil.clamp(sample(launchRodAngle, random, template.getLaunchRodAngle()),
+				-SimulationOptions.MAX_LAUNCH_ROD_ANGLE, SimulationOptions.MAX_LAUNCH_ROD_ANGLE);
+		double rd = sample(launchRodDirection, random, template.getLaunchRodDirection());
+		double ts = Math.max(sample(thrustScale, random, 1), 0);
+		double ds = Math.max(sample(dragScale, random, 1), 0);
+		int simulationSeed = random.nextInt();
+
+		results.windSpeed[run] = ws;
+		results.windDirection[run] = wd;
+		results.launchRodAngle[run] = ra;
+		results.launchRodDirection[run] = rd;
+		results.thrustScale[run] = ts;
+		results.dragScale[run] = ds;
+
+		SimulationConditions conditions = template.clone();
+		conditions.setSimulation(worker.simulation);
+		conditions.setAerodynamicCalculator(worker.aerodynamicCalculator);
+		conditions.setMassCalculator(worker.massCalculator);
+		conditions.setCalculateExtras(false);
+		conditions.setBranchThreads(1);
+		conditions.setRandomSeed(simulationSeed);
+
+		PinkNoiseWindModel wind = new PinkNoiseWindModel(simulationSeed);
+		wind.setAverage(ws);
+		wind.setTurbulenceIntensity(turbulenceIntensity);
+		wind.setDirection(wd);
+		conditions.setWindModel(wind);
+		conditions.setLaunchRodAngle(ra);
+		conditions.setLaunchRodDirection(rd);
+		conditions.getSimulationListenerList().add(new DispersionListener(this, ts, ds));
+
+		FlightData data;
+		try {
+			for (SimulationExtension extension : worker.simulation.getSimulationExtensions()) {
+				extension.initialize(conditions);
+			}
+			data = new BasicEventSimulationEngine().simulate(conditions);
+		} catch (SimulationCancelledException e) {
+			return;
+		} catch (Exception e) {
+			log.warn("Monte-Carlo run " + run + " failed: " + e);
+			results.setError(run, e);
+			return;
+		}
+
+		results.apogee[run] = data.getMaxAltitude();
+		results.maxVelocity[run] = data.getMaxVelocity();
+		results.flightTime[run] = data.getFlightTime();
+		FlightDataBranch branch = data.getBranch(0);
+		results.landingX[run] = branch.getLast(FlightDataType.TYPE_POSITION_X);
+		results.landingY[run] = branch.getLast(FlightDataType.TYPE_POSITION_Y);
+		results.setCompleted(run);
+	}
+
+	private static double sample(Distribution distribution, Random random, double defaultValue) {
+		if (distribution == null) {
+			return defaultValue;
+		}
+		return distribution.sample(random);
+	}
+
+
+	/**
+	 * Create the simulation state of a worker thread.  Copying is serialized, as the
+	 * template rocket may not be read concurrently with itself being copied.
+	 */
+	private synchronized Worker createWorker() {
+		Simulation original = template.getSimulation();
+		Rocket rocket = original.getRocket().copyWithOriginalID();
+		Simulation simulation = original.duplicateSimulation(rocket);
+		simulation.setFlightConfigurationId(template.getFlightConfigurationID());
+		return new Worker(simulation, template.getAerodynamicCalculator().newInstance(), new MassCalculator());
+	}
+
+
+	/**
+	 * The simulation state used by one thread at a time.
+	 */
+	private static final class Worker {
+		private final Simulation simulation;
+		private final AerodynamicCalculator aerodynamicCalculator;
+		private final MassCalculator massCalculator;
+
+		public Worker(Simulation simulation, AerodynamicCalculator aerodynamicCalculator, MassCalculator massCalculator) {
+			this.simulation = simulation;
+			this.aerodynamicCalculator = aerodynamicCalculator;
+			this.massCalculator = massCalculator;
+		}
+	}
+
+
+	/**
+	 * Simulates a range of runs, splitting it in halves so that idle threads can steal work.
+	 */
+	private final class RunRange extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final MonteCarloResults results;
+		private final Queue<Worker> workers;
+		private final ProgressListener listener;
+		private final int start;
+		private final int end;
+
+		public RunRange(MonteCarloResults results, Queue<Worker> workers, ProgressListener listener,
+				int start, int end) {
+			this.results = results;
+			this.workers = workers;
+			this.listener = listener;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected void compute() {
+			if (end - start > 1) {
+				int mid = (start + end) >>> 1;
+				invokeAll(new RunRange(results, workers, listener, start, mid),
+						new RunRange(results, workers, listener, mid, end));
+				return;
+			}
+			if (start >= end || cancelled) {
+				return;
+			}
+
+			Worker worker = workers.poll();
+			if (worker == null) {
+				worker = createWorker();
+			}
+			try {
+				simulate(results, worker, start);
+			} finally {
+				workers.offer(worker);
+			}
+
+			int count = finished.incrementAndGet();
+			if (listener != null) {
+				listener.runFinished(count, results.getRunCount());
+			}
+		}
+	}
+}
@@ -0,0 +1,176 @@
+package net.sf.openrocket.simulation.montecarlo;
+
+import java.util.Arrays;
+
+/**
+ * The per-run summaries of a Monte-Carlo simulation.  Each run is identified by its
+ * index; the values of runs that did not complete are NaN.
+ * <p>
+ * The summaries are stored in primitive arrays, one element per run, so that large
+ * batches do not keep the flight data of every run.  The array getters return copies.
+ */
+public class MonteCarloResults {
+
+	private final int runs;
+	private final long[] seeds;
+
+	// Sampled parameters
+	final double[] windSpeed;
+	final double[] windDirection;
+	final double[] launchRodAngle;
+	final double[] launchRodDirection;
+	final double[] thrustScale;
+	final double[] dragScale;
+
+	// Flight summaries
+	final double[] apogee;
+	final double[] maxVelocity;
+	final double[] flightTime;
+	final double[] landingX;
+	final double[] landingY;
+
+	private final boolean[] completed;
+	private final Exception[] errors;
+	private volatile boolean cancelled = false;
+
+	MonteCarloResults(int runs, long[] seeds) {
+		this.runs = runs;
+		this.seeds = seeds;
+		windSpeed = nan(runs);
+		windDirection = nan(runs);
+		launchRodAngle = nan(runs);
+		launchRodDirection = nan(runs);
+		thrustScale = nan(runs);
+		dragScale = nan(runs);
+		apogee = nan(runs);
+		maxVelocity = nan(runs);
+		flightTime = nan(runs);
+		landingX = nan(runs);
+		landingY = nan(runs);
+		completed = new boolean[runs];
+		errors = new Exception[runs];
+	}
+
+	private static double[] nan(int n) {
+		double[] array = new double[n];
+		Arrays.fill(array, Double.NaN);
+		return array;
+	}
+
+	void setCompleted(int run) {
+		completed[run] = true;
+	}
+
+	void setError(int run, Exception error) {
+		errors[run] = error;
+	}
+
+	void setCancelled() {
+		cancelled = true;
+	}
+
+
+	/**
+	 * Return the number of runs requested.
+	 */
+	public int getRunCount() {
+		return runs;
+	}
+
+	/**
+	 * Return the number of runs that completed successfully.
+	 */
+	public int getCompletedCount() {
+		int count = 0;
+		for (boolean b : completed) {
+			if (b) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Return whether the simulation was cancelled before all runs completed.
+	 */
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	/**
+	 * Return whether the given run completed successfully.
+	 */
+	public boolean isCompleted(int run) {
+		return completed[run];
+	}
+
+	/**
+	 * Return the exception that aborted the given run, or null if it did not fail.
+	 */
+	public Exception getError(int run) {
+		return errors[run];
+	}
+
+	/**
+	 * Return the seed from which the parameters of the given run were drawn.
+	 */
+	public long getSeed(int run) {
+		return seeds[run];
+	}
+
+
+	/** Return the sampled average wind speed of each run (m/s). */
+	public double[] getWindSpeeds() {
+		return windSpeed.clone();
+	}
+
+	/** Return the sampled wind direction of each run (rad). */
+	public double[] getWindDirections() {
+		return windDirection.clone();
+	}
+
+	/** Return the sampled launch rod angle of each run (rad). */
+	public double[] getLaunchRodAngles() {
+		return launchRodAngle.clone();
+	}
+
+	/** Return the sampled launch rod direction of each run (rad). */
+	public double[] getLaunchRodDirections() {
+		return launchRodDirection.clone();
+	}
+
+	/** Return the sampled thrust scale factor of each run. */
+	public double[] getThrustScales() {
+		return thrustScale.clone();
+	}
+
+	/** Return the sampled drag coefficient scale factor of each run. */
+	public double[] getDragScales() {
+		return dragScale.clone();
+	}
+
+	/** Return the apogee altitude of each run (m). */
+	public double[] getApogees() {
+		return apogee.clone();
+	}
+
+	/** Return the maximum velocity of each run (m/s). */
+	public double[] getMaxVelocities() {
+		return maxVelocity.clone();
+	}
+
+	/** Return the flight time of each run (s). */
+	public double[] getFlightTimes() {
+		return flightTime.clone();
+	}
+
+	/** Return the landing position east of the launch site of each run (m). */
+	public double[] getLandingX() {
+		return landingX.clone();
+	}
+
+	/** Return the landing position north of the launch site of each run (m). */
+	public double[] getLandingY() {
+		return landingY.clone();
+	}
+}
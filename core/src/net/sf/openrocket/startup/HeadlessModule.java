@@ -0,0 +1,85 @@
+package net.sf.openrocket.startup;
+
+import net.sf.openrocket.database.ComponentPresetDao;
+import net.sf.openrocket.database.ComponentPresetDatabaseLoader;
+import net.sf.openrocket.database.MotorDatabaseLoader;
+import net.sf.openrocket.database.motor.MotorDatabase;
+import net.sf.openrocket.database.motor.ThrustCurveMotorSetDatabase;
+import net.sf.openrocket.formatting.RocketDescriptor;
+import net.sf.openrocket.formatting.RocketDescriptorImpl;
+import net.sf.openrocket.l10n.ResourceBundleTranslator;
+import net.sf.openrocket.l10n.Translator;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Provider;
+import com.google.inject.Scopes;
+
+/**
+ * HeadlessModule is the Guice Module for running OpenRocket without a user interface.
+ * The preferences are held in memory only and the component preset and motor databases
+ * are provided without any progress dialog, blocking until they have been loaded.
+ * <p>
+ * As with the GUI module, the loading must be started after the injector has been
+ * registered in the Application object:
+ *
+ * <code>
+ * HeadlessModule module = new HeadlessModule();
+ * Application.setInjector(Guice.createInjector(module, new PluginModule()));
+ * module.startLoader();
+ * </code>
+ */
+public class HeadlessModule extends AbstractModule {
+
+	private final ComponentPresetDatabaseLoader presetLoader = new ComponentPresetDatabaseLoader();
+	private final MotorDatabaseLoader motorLoader = new MotorDatabaseLoader();
+
+
+	public HeadlessModule() {
+	}
+
+	@Override
+	protected void configure() {
+
+		bind(Preferences.class).to(MemoryPreferences.class).in(Scopes.SINGLETON);
+		bind(Translator.class).toInstance(new ResourceBundleTranslator("l10n.messages"));
+		bind(RocketDescriptor.class).to(RocketDescriptorImpl.class).in(Scopes.SINGLETON);
+
+		Provider<ComponentPresetDao> componentDatabaseProvider = new Provider<ComponentPresetDao>() {
+			@Override
+			public ComponentPresetDao get() {
+				return presetLoader.getDatabase();
+			}
+		};
+		bind(ComponentPresetDao.class).toProvider(componentDatabaseProvider).in(Scopes.SINGLETON);
+
+		Provider<ThrustCurveMotorSetDatabase> motorDatabaseProvider = new Provider<ThrustCurveMotorSetDatabase>() {
+			@Override
+			public ThrustCurveMotorSetDatabase get() {
+				return motorLoader.getDatabase();
+			}
+		};
+		bind(ThrustCurveMotorSetDatabase.class).toProvider(motorDatabaseProvider).in(Scopes.SINGLETON);
+		bind(MotorDatabase.class).toProvider(motorDatabaseProvider).in(Scopes.SINGLETON);
+
+	}
+
+	/**
+	 * startLoader must be called after the Injector created with this module is registered
+	 * in the Application object.  The user-defined thrust curves set in the preferences
+	 * before this call are loaded as well.
+	 */
+	public void startLoader() {
+		presetLoader.startLoading();
+		motorLoader.startLoading();
+	}
+
+	/**
+	 * Block until both databases have been loaded.  The loading must have been started
+	 * with {@link #startLoader()}.
+	 */
+	public void blockUntilLoaded() {
+		presetLoader.blockUntilLoaded();
+		motorLoader.blockUntilLoaded();
+	}
+
+}
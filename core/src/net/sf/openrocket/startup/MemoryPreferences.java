@@ -0,0 +1,232 @@
+package net.sf.openrocket.startup;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.prefs.AbstractPreferences;
+import java.util.prefs.BackingStoreException;
+
+import net.sf.openrocket.material.Material;
+import net.sf.openrocket.preset.ComponentPreset;
+
+/**
+ * Preferences that are held in memory only and are never read from or written to
+ * the user's preference store.  Every value not set explicitly has its default value.
+ * <p>
+ * This is used when running OpenRocket without a user interface, where the results
+ * should not depend on the preferences of the user running it.  No user-defined
+ * thrust curves are loaded unless set with {@link #setUserThrustCurveFiles(java.util.List)}
+ * and no user-defined component presets are loaded.
+ */
+public class MemoryPreferences extends Preferences {
+
+	private final java.util.prefs.Preferences root = new MemoryNode(null, "");
+
+	public MemoryPreferences() {
+		putString(USER_THRUST_CURVES_KEY, "");
+	}
+
+
+	@Override
+	public String getString(String key, String defaultValue) {
+		return root.get(key, defaultValue);
+	}
+
+	@Override
+	public void putString(String key, String value) {
+		if (value == null) {
+			root.remove(key);
+		} else {
+			root.put(key, value);
+		}
+	}
+
+	@Override
+	public String getString(String directory, String key, String defaultValue) {
+		return root.node(directory).get(key, defaultValue);
+	}
+
+	@Override
+	public void putString(String directory, String key, String value) {
+		java.util.prefs.Preferences p = root.node(directory);
+		if (value == null) {
+			p.remove(key);
+		} else {
+			p.put(key, value);
+		}
+	}
+
+	@Override
+	public boolean getBoolean(String key, boolean defaultValue) {
+		return root.getBoolean(key, defaultValue);
+	}
+
+	@Override
+	public void putBoolean(String key, boolean value) {
+		root.putBoolean(key, value);
+	}
+
+	@Override
+	public int getInt(String key, int defaultValue) {
+		return root.getInt(key, defaultValue);
+	}
+
+	@Override
+	public void putInt(String key, int value) {
+		root.putInt(key, value);
+	}
+
+	@Override
+	public double getDouble(String key, double defaultValue) {
+		return root.getDouble(key, defaultValue);
+	}
+
+	@Override
+	public void putDouble(String key, double value) {
+		root.putDouble(key, value);
+	}
+
+	@Override
+	public java.util.prefs.Preferences getNode(String nodeName) {
+		return root.node(nodeName);
+	}
+
+
+	/**
+	 * Return <code>null</code>, as no user-defined component presets are loaded.
+	 */
+	@Override
+	public File getDefaultUserComponentDirectory() {
+		return null;
+	}
+
+
+	@Override
+	public synchronized void addUserMaterial(Material m) {
+		if (getUserMaterials().contains(m)) {
+			return;
+		}
+		java.util.prefs.Preferences prefs = root.node("userMaterials");
+		for (int i = 0;; i++) {
+			String key = "material" + i;
+			if (prefs.get(key, null) == null) {
+				prefs.put(key, m.toStorableString());
+				return;
+			}
+		}
+	}
+
+	@Override
+	public synchronized Set<Material> getUserMaterials() {
+		Set<Material> materials = new HashSet<Material>();
+		for (String value : userMaterialValues().values()) {
+			materials.add(Material.fromStorableString(value, true));
+		}
+		return materials;
+	}
+
+	@Override
+	public synchronized void removeUserMaterial(Material m) {
+		java.util.prefs.Preferences prefs = root.node("userMaterials");
+		for (Map.Entry<String, String> e : userMaterialValues().entrySet()) {
+			if (Material.fromStorableString(e.getValue(), true).equals(m)) {
+				prefs.remove(e.getKey());
+			}
+		}
+	}
+
+	private Map<String, String> userMaterialValues() {
+		java.util.prefs.Preferences prefs = root.node("userMaterials");
+		Map<String, String> values = new HashMap<String, String>();
+		try {
+			for (String key : prefs.keys()) {
+				values.put(key, prefs.get(key, null));
+			}
+		} catch (BackingStoreException e) {
+			// Never thrown by the memory node
+		}
+		return values;
+	}
+
+	@Override
+	public void setComponentFavorite(ComponentPreset preset, ComponentPreset.Type type, boolean favorite) {
+		java.util.prefs.Preferences prefs = root.node("favoritePresets").node(type.name());
+		if (favorite) {
+			prefs.putBoolean(preset.preferenceKey(), true);
+		} else {
+			prefs.remove(preset.preferenceKey());
+		}
+	}
+
+	@Override
+	public Set<String> getComponentFavorites(ComponentPreset.Type type) {
+		Set<String> favorites = new HashSet<String>();
+		try {
+			for (String key : root.node("favoritePresets").node(type.name()).keys()) {
+				favorites.add(key);
+			}
+		} catch (BackingStoreException e) {
+			// Never thrown by the memory node
+		}
+		return favorites;
+	}
+
+
+	/**
+	 * A preference node stored in memory.  The locking and the cache of child nodes,
+	 * which is the only record of them, are taken care of by AbstractPreferences.
+	 */
+	private static class MemoryNode extends AbstractPreferences {
+
+		private final Map<String, String> values = new HashMap<String, String>();
+
+		public MemoryNode(MemoryNode parent, String name) {
+			super(parent, name);
+		}
+
+		@Override
+		protected void putSpi(String key, String value) {
+			values.put(key, value);
+		}
+
+		@Override
+		protected String getSpi(String key) {
+			return values.get(key);
+		}
+
+		@Override
+		protected void removeSpi(String key) {
+			values.remove(key);
+		}
+
+		@Override
+		protected void removeNodeSpi() {
+			values.clear();
+		}
+
+		@Override
+		protected String[] keysSpi() {
+			return values.keySet().toArray(new String[0]);
+		}
+
+		@Override
+		protected String[] childrenNamesSpi() {
+			return new String[0];
+		}
+
+		@Override
+		protected AbstractPreferences childSpi(String name) {
+			return new MemoryNode(this, name);
+		}
+
+		@Override
+		protected void syncSpi() {
+		}
+
+		@Override
+		protected void flushSpi() {
+		}
+	}
+}
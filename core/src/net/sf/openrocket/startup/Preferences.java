@@ -1,5 +1,6 @@
 package net.sf.openrocket.startup;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.EventListener;
 import java.util.EventObject;
@@ -8,6 +9,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import net.sf.openrocket.arch.SystemInfo;
 import net.sf.openrocket.database.Databases;
 import net.sf.openrocket.material.Material;
 import net.sf.openrocket.models.atmosphere.AtmosphericModel;
@@ -90,11 +92,17 @@ public abstract class Preferences implements ChangeSource {
 	public static final String LAUNCH_PRESSURE = "LaunchPressure";
 	public static final String LAUNCH_USE_ISA = "LaunchUseISA";
 	public static final String SIMULATION_TIME_STEP = "SimulationTimeStep";
+	public static final String SIMULATION_BRANCH_THREADS = "SimulationBranchThreads";
 	public static final String GEODETIC_COMPUTATION = "GeodeticComputationStrategy";
+	public static final String OPTIMIZATION_POPULATION = "OptimizationPopulation";
+	public static final String OPTIMIZATION_STORE_SIZE = "OptimizationStoreSize";
+	public static final String DEFER_FLIGHT_DATA = "DeferFlightData";
 	
 	
 	private static final AtmosphericModel ISA_ATMOSPHERIC_MODEL = new ExtendedISAModel();
 	
+	private static final String SPLIT_CHARACTER = "|";
+	
 	/*
 	 * ******************************************************************************************
 	 *
@@ -421,6 +429,89 @@ public abstract class Preferences implements ChangeSource {
 		fireChangeEvent();
 	}
 	
+	/**
+	 * Return the directory from which user-defined component presets are loaded, or
+	 * <code>null</code> if there is none.  The directory "Components" in the user
+	 * application directory is created if it does not exist.
+	 */
+	public File getDefaultUserComponentDirectory() {
+		
+		File compdir = new File(SystemInfo.getUserApplicationDirectory(), "Components");
+		
+		if (!compdir.isDirectory()) {
+			compdir.mkdirs();
+		}
+		
+		if (!compdir.isDirectory()) {
+			return null;
+		}
+		if (!compdir.canRead()) {
+			return null;
+		}
+		return compdir;
+	}
+	
+	/**
+	 * Return a list of files/directories to be loaded as custom thrust curves.
+	 * <p>
+	 * If this property has not been set, the directory "ThrustCurves" in the user
+	 * application directory will be used.  The directory will be created if it does not
+	 * exist.
+	 * 
+	 * @return	a list of files to load as thrust curves.
+	 */
+	public List<File> getUserThrustCurveFiles() {
+		List<File> list = new ArrayList<File>();
+		
+		String files = getString(USER_THRUST_CURVES_KEY, null);
+		if (files == null) {
+			// Default to application directory
+			File tcdir = getDefaultUserThrustCurveFile();
+			if (!tcdir.isDirectory()) {
+				tcdir.mkdirs();
+			}
+			list.add(tcdir);
+		} else {
+			for (String file : files.split("\\" + SPLIT_CHARACTER)) {
+				file = file.trim();
+				if (file.length() > 0) {
+					list.add(new File(file));
+				}
+			}
+		}
+		
+		return list;
+	}
+	
+	public File getDefaultUserThrustCurveFile() {
+		File appdir = SystemInfo.getUserApplicationDirectory();
+		File tcdir = new File(appdir, "ThrustCurves");
+		return tcdir;
+	}
+	
+	
+	/**
+	 * Set the list of files/directories to be loaded as custom thrust curves.
+	 * 
+	 * @param files		the files to load, or <code>null</code> to reset to default value.
+	 */
+	public void setUserThrustCurveFiles(List<File> files) {
+		if (files == null) {
+			putString(USER_THRUST_CURVES_KEY, null);
+			return;
+		}
+		
+		String str = "";
+		
+		for (File file : files) {
+			if (str.length() > 0) {
+				str += SPLIT_CHARACTER;
+			}
+			str += file.getAbsolutePath();
+		}
+		putString(USER_THRUST_CURVES_KEY, str);
+	}
+	
 	
 	public final float getRocketInfoFontSize() {
 		return (float) (11.0 + 3 * Application.getPreferences().getChoice(Preferences.ROCKET_INFO_FONT_SIZE, 2, 0));
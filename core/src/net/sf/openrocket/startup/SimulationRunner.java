@@ -0,0 +1,444 @@
+package net.sf.openrocket.startup;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.slf4j.LoggerFactory;
+
+import net.sf.openrocket.aerodynamics.Warning;
+import net.sf.openrocket.document.OpenRocketDocument;
+import net.sf.openrocket.document.Simulation;
+import net.sf.openrocket.file.BinaryExport;
+import net.sf.openrocket.file.CSVExport;
+import net.sf.openrocket.file.GeneralRocketLoader;
+import net.sf.openrocket.file.RocketLoadException;
+import net.sf.openrocket.plugin.PluginModule;
+import net.sf.openrocket.simulation.BatchSimulator;
+import net.sf.openrocket.simulation.FlightData;
+import net.sf.openrocket.simulation.FlightDataBranch;
+import net.sf.openrocket.simulation.FlightDataType;
+import net.sf.openrocket.unit.Unit;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.ConsoleAppender;
+
+import com.google.inject.Guice;
+
+/**
+ * Command-line application that runs the simulations of OpenRocket design files without
+ * a display.  The application is set up with {@link HeadlessModule}, so it needs neither
+ * the Swing module nor the user's preferences.
+ * <p>
+ * The simulations of all given files are run in parallel.  The flight data of every
+ * simulation is written in SI units as a CSV file named after the design and simulation,
+ * one file per flight branch, or with --binary in the format of {@link BinaryExport}.
+ * Simulations whose file names would be equal get a numbered suffix.  A summary of the
+ * results, including the file name of every simulation, and the timing of the run is
+ * written to standard output and as summary.csv to the output directory.  Log messages
+ * are written to standard error.
+ * <p>
+ * Scripting extensions are disabled when loading a design, as they are in the GUI for
+ * scripts that the user has not trusted.
+ * <p>
+ * The exit status is 0 if all simulations succeeded, 1 if any file could not be loaded
+ * or any simulation failed and 2 for invalid arguments.
+ */
+public class SimulationRunner {
+
+	private static final String USAGE =
+			"Usage: SimulationRunner [options] file.ork ...\n" +
+			"\n" +
+			"Options:\n" +
+			"  -t, --threads N        number of simulations run in parallel (default: number of processors)\n" +
+			"  -b, --branch-threads N number of threads for the separated branches of a flight (default: 1)\n" +
+			"  -s, --simulation NAME  run only the simulations with this name (may be repeated)\n" +
+			"  -o, --output DIR       directory for the result files (default: current directory)\n" +
+			"  -m, --motors PATH      file or directory of additional thrust curves (may be repeated)\n" +
+			"      --no-csv           write only the summary, not the flight data\n" +
+			"      --binary           write the flight data in the binary column format instead of CSV\n" +
+			"  -v, --verbose          log informational messages\n" +
+			"  -h, --help             print this help\n";
+
+	private static final String FIELD_SEPARATOR = ",";
+	private static final String COMMENT = "#";
+
+	private int threads = Runtime.getRuntime().availableProcessors();
+	private int branchThreads = 1;
+	private final List<String> simulationNames = new ArrayList<String>();
+	private File outputDirectory = new File(".");
+	private final List<File> motorFiles = new ArrayList<File>();
+	private boolean writeFlightData = true;
+	private boolean binary = false;
+	private boolean verbose = false;
+	private final List<File> files = new ArrayList<File>();
+
+	private final PrintStream out;
+
+	private SimulationRunner(PrintStream out) {
+		this.out = out;
+	}
+
+
+	public static void main(String[] args) {
+		SimulationRunner runner = new SimulationRunner(System.out);
+		try {
+			runner.parseArguments(args);
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			System.err.println();
+			System.err.print(USAGE);
+			System.exit(2);
+		}
+		System.exit(runner.run());
+	}
+
+
+	private void parseArguments(String[] args) {
+		if (args.length == 0) {
+			throw new IllegalArgumentException("No design files given");
+		}
+		for (int i = 0; i < args.length; i++) {
+			String arg = args[i];
+			if (arg.equals("-h") || arg.equals("--help")) {
+				System.out.print(USAGE);
+				System.exit(0);
+			} else if (arg.equals("-t") || arg.equals("--threads")) {
+				try {
+					threads = Integer.parseInt(value(args, ++i, arg));
+				} catch (NumberFormatException e) {
+					throw new IllegalArgumentException("Invalid number of threads: " + args[i]);
+				}
+				if (threads < 1) {
+					throw new IllegalArgumentException("Invalid number of threads: " + threads);
+				}
+			} else if (arg.equals("-b") || arg.equals("--branch-threads")) {
+				try {
+					branchThreads = Integer.parseInt(value(args, ++i, arg));
+				} catch (NumberFormatException e) {
+					throw new IllegalArgumentException("Invalid number of branch threads: " + args[i]);
+				}
+				if (branchThreads < 1) {
+					throw new IllegalArgumentException("Invalid number of branch threads: " + branchThreads);
+				}
+			} else if (arg.equals("-s") || arg.equals("--simulation")) {
+				simulationNames.add(value(args, ++i, arg));
+			} else if (arg.equals("-o") || arg.equals("--output")) {
+				outputDirectory = new File(value(args, ++i, arg));
+			} else if (arg.equals("-m") || arg.equals("--motors")) {
+				motorFiles.add(new File(value(args, ++i, arg)));
+			} else if (arg.equals("--no-csv")) {
+				writeFlightData = false;
+			} else if (arg.equals("--binary")) {
+				binary = true;
+			} else if (arg.equals("-v") || arg.equals("--verbose")) {
+				verbose = true;
+			} else if (arg.startsWith("-")) {
+				throw new IllegalArgumentException("Unknown option " + arg);
+			} else {
+				files.add(new File(arg));
+			}
+		}
+		if (files.isEmpty()) {
+			throw new IllegalArgumentException("No design files given");
+		}
+	}
+
+	private static String value(String[] args, int index, String option) {
+		if (index >= args.length) {
+			throw new IllegalArgumentException("Missing value for " + option);
+		}
+		return args[index];
+	}
+
+
+	/**
+	 * Run the simulations and write the results.
+	 *
+	 * @return	the exit status.
+	 */
+	private int run() {
+		setupLogging(verbose ? Level.INFO : Level.WARN);
+
+		long t0 = System.nanoTime();
+		HeadlessModule module = new HeadlessModule();
+		Application.setInjector(Guice.createInjector(module, new PluginModule()));
+		Application.getPreferences().setUserThrustCurveFiles(motorFiles);
+		Application.getPreferences().putInt(Preferences.SIMULATION_BRANCH_THREADS, branchThreads);
+		module.startLoader();
+		module.blockUntilLoaded();
+		long startupTime = System.nanoTime() - t0;
+
+		// Load the designs and select the simulations
+		boolean failed = false;
+		t0 = System.nanoTime();
+		List<Simulation> simulations = new ArrayList<Simulation>();
+		List<String> designNames = new ArrayList<String>();
+		for (File file : files) {
+			OpenRocketDocument document;
+			try {
+				GeneralRocketLoader loader = new GeneralRocketLoader(file);
+				document = loader.load();
+				for (Warning w : loader.getWarnings()) {
+					System.err.println(file + ": " + w);
+				}
+			} catch (RocketLoadException e) {
+				System.err.println(file + ": " + e.getMessage());
+				failed = true;
+				continue;
+			}
+			for (Simulation simulation : document.getSimulations()) {
+				if (simulationNames.isEmpty() || simulationNames.contains(simulation.getName())) {
+					simulations.add(simulation);
+					designNames.add(baseName(file));
+				}
+			}
+		}
+		long loadTime = System.nanoTime() - t0;
+
+		// Run the simulations
+		BatchSimulator simulator = new BatchSimulator();
+		simulator.setThreads(threads);
+		List<BatchSimulator.Result> results;
+		t0 = System.nanoTime();
+		try {
+			results = simulator.run(simulations, null);
+		} catch (InterruptedException e) {
+			System.err.println("Interrupted");
+			return 1;
+		}
+		long runTime = System.nanoTime() - t0;
+
+		// Write the results
+		t0 = System.nanoTime();
+		if (!outputDirectory.isDirectory() && !outputDirectory.mkdirs()) {
+			System.err.println("Cannot create directory " + outputDirectory);
+			return 1;
+		}
+		List<String> fileNames = new ArrayList<String>();
+		Set<String> usedNames = new HashSet<String>();
+		for (int i = 0; i < results.size(); i++) {
+			BatchSimulator.Result result = results.get(i);
+			if (writeFlightData && result.isSuccessful()) {
+				fileNames.add(uniqueName(usedNames, designNames.get(i) + "-" + result.getSimulation().getName(),
+						result.getFlightData().getBranchCount()));
+			} else {
+				fileNames.add(null);
+			}
+		}
+		try {
+			for (int i = 0; i < results.size(); i++) {
+				if (fileNames.get(i) != null) {
+					writeFlightData(fileNames.get(i), results.get(i));
+				}
+			}
+			writeSummary(designNames, fileNames, results);
+		} catch (IOException e) {
+			System.err.println("Error writing results: " + e.getMessage());
+			return 1;
+		}
+		long writeTime = System.nanoTime() - t0;
+
+		for (BatchSimulator.Result result : results) {
+			failed |= !result.isSuccessful();
+		}
+		printTiming(results, startupTime, loadTime, runTime, writeTime);
+		return failed ? 1 : 0;
+	}
+
+
+	/**
+	 * Return a file name for the flight data of a simulation that none of the files of
+	 * the previous simulations use, ignoring case, and reserve the names of its branch files.
+	 */
+	private static String uniqueName(Set<String> usedNames, String name, int branches) {
+		String base = sanitize(name);
+		String unique = base;
+		for (int n = 2; !reserve(usedNames, unique, branches); n++) {
+			unique = base + "_" + n;
+		}
+		return unique;
+	}
+
+	private static boolean reserve(Set<String> usedNames, String name, int branches) {
+		List<String> branchNames = new ArrayList<String>();
+		for (int b = 0; b < branches; b++) {
+			String branchName = branchFileName(name, b).toLowerCase(Locale.ENGLISH);
+			if (usedNames.contains(branchName)) {
+				return false;
+			}
+			branchNames.add(branchName);
+		}
+		usedNames.addAll(branchNames);
+		return true;
+	}
+
+	private static String branchFileName(String name, int branch) {
+		return (branch > 0) ? name + "-" + (branch + 1) : name;
+	}
+
+
+	private void writeFlightData(String fileName, BatchSimulator.Result result) throws IOException {
+		Simulation simulation = result.getSimulation();
+		FlightData data = result.getFlightData();
+		for (int b = 0; b < data.getBranchCount(); b++) {
+			FlightDataBranch branch = data.getBranch(b);
+			FlightDataType[] types = branch.getTypes();
+			Unit[] units = new Unit[types.length];
+			for (int i = 0; i < types.length; i++) {
+				units[i] = types[i].getUnitGroup().getSIUnit();
+			}
+
+			String name = branchFileName(fileName, b);
+			if (binary) {
+				File file = new File(outputDirectory, name + ".bin");
+				BinaryExport.exportBinary(new FileOutputStream(file), branch, types, units);
+			} else {
+				File file = new File(outputDirectory, name + ".csv");
+				CSVExport.exportCSV(new FileOutputStream(file), simulation, branch, types, units,
+						FIELD_SEPARATOR, COMMENT, true, true, true);
+			}
+		}
+	}
+
+
+	private void writeSummary(List<String> designNames, List<String> fileNames, List<BatchSimulator.Result> results)
+			throws IOException {
+		PrintStream summary = new PrintStream(new BufferedOutputStream(
+				new FileOutputStream(new File(outputDirectory, "summary.csv"))), false, "UTF-8");
+		try {
+			summary.println("design,simulation,file,status,max altitude (m),max velocity (m/s)," +
+					"max acceleration (m/s2),time to apogee (s),flight time (s),ground hit velocity (m/s)," +
+					"wall time (ms),error");
+			out.println(String.format(Locale.US, "%-40s %-8s %10s %10s %10s %10s",
+					"Simulation", "Status", "Apogee", "Vmax", "Time", "Wall ms"));
+
+			for (int i = 0; i < results.size(); i++) {
+				BatchSimulator.Result result = results.get(i);
+				String name = designNames.get(i) + " / " + result.getSimulation().getName();
+				double ms = result.getTime() / 1e6;
+				String status = result.isSuccessful() ? "OK" : "FAILED";
+
+				StringBuilder sb = new StringBuilder();
+				sb.append(csv(designNames.get(i))).append(FIELD_SEPARATOR);
+				sb.append(csv(result.getSimulation().getName())).append(FIELD_SEPARATOR);
+				if (fileNames.get(i) != null) {
+					sb.append(csv(fileNames.get(i)));
+				}
+				sb.append(FIELD_SEPARATOR);
+				sb.append(status);
+				FlightData data = result.getFlightData();
+				double[] values = (data == null) ? new double[6] : new double[] {
+						data.getMaxAltitude(), data.getMaxVelocity(), data.getMaxAcceleration(),
+						data.getTimeToApogee(), data.getFlightTime(), data.getGroundHitVelocity() };
+				for (double value : values) {
+					sb.append(FIELD_SEPARATOR);
+					if (data != null) {
+						sb.append(String.format(Locale.US, "%.6g", value));
+					}
+				}
+				sb.append(FIELD_SEPARATOR).append(String.format(Locale.US, "%.1f", ms));
+				sb.append(FIELD_SEPARATOR);
+				if (!result.isSuccessful()) {
+					sb.append(csv(String.valueOf(result.getException().getMessage())));
+				}
+				summary.println(sb);
+
+				if (data != null) {
+					out.println(String.format(Locale.US, "%-40s %-8s %10.1f %10.1f %10.1f %10.1f",
+							truncate(name, 40), status, data.getMaxAltitude(), data.getMaxVelocity(),
+							data.getFlightTime(), ms));
+				} else {
+					out.println(String.format(Locale.US, "%-40s %-8s %10s %10s %10s %10.1f   %s",
+							truncate(name, 40), status, "", "", "", ms, result.getException().getMessage()));
+				}
+			}
+		} finally {
+			summary.close();
+		}
+	}
+
+
+	private void printTiming(List<BatchSimulator.Result> results, long startupTime, long loadTime, long runTime,
+			long writeTime) {
+		long sum = 0;
+		long min = Long.MAX_VALUE;
+		long max = 0;
+		for (BatchSimulator.Result result : results) {
+			sum += result.getTime();
+			min = Math.min(min, result.getTime());
+			max = Math.max(max, result.getTime());
+		}
+		int n = results.size();
+
+		out.println();
+		out.println(String.format(Locale.US, "Startup:      %10.1f ms", startupTime / 1e6));
+		out.println(String.format(Locale.US, "Loading:      %10.1f ms (%d files)", loadTime / 1e6, files.size()));
+		out.println(String.format(Locale.US, "Simulation:   %10.1f ms (%d simulations, %d threads)",
+				runTime / 1e6, n, threads));
+		out.println(String.format(Locale.US, "Writing:      %10.1f ms", writeTime / 1e6));
+		if (n > 0) {
+			out.println(String.format(Locale.US, "Per simulation: min %.1f ms, mean %.1f ms, max %.1f ms",
+					min / 1e6, sum / 1e6 / n, max / 1e6));
+			out.println(String.format(Locale.US, "Throughput:   %10.2f simulations/s, parallel speedup %.2f",
+					n / (runTime / 1e9), (double) sum / runTime));
+		}
+	}
+
+
+	private static String baseName(File file) {
+		String name = file.getName();
+		int dot = name.lastIndexOf('.');
+		return (dot > 0) ? name.substring(0, dot) : name;
+	}
+
+	private static String sanitize(String name) {
+		return name.replaceAll("[^\\w.\\-]+", "_");
+	}
+
+	private static String csv(String value) {
+		if (value.contains(FIELD_SEPARATOR) || value.contains("\"") || value.contains("\n")) {
+			return "\"" + value.replace("\"", "\"\"") + "\"";
+		}
+		return value;
+	}
+
+	private static String truncate(String s, int length) {
+		return (s.length() > length) ? s.substring(0, length) : s;
+	}
+
+
+	/**
+	 * Write log messages of the given level and above to standard error, keeping
+	 * standard output for the results.
+	 */
+	private static void setupLogging(Level level) {
+		Logger logger = (Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME);
+		LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+		logger.detachAndStopAllAppenders();
+		logger.setLevel(level);
+
+		ConsoleAppender<ILoggingEvent> appender = new ConsoleAppender<ILoggingEvent>();
+		appender.setName("console");
+		appender.setContext(context);
+		appender.setTarget("System.err");
+		PatternLayoutEncoder layout = new PatternLayoutEncoder();
+		layout.setContext(context);
+		layout.setPattern("%-8relative %-5level [%thread] %logger{2} - %message%n");
+		layout.start();
+		appender.setEncoder(layout);
+		appender.start();
+		logger.addAppender(appender);
+	}
+}
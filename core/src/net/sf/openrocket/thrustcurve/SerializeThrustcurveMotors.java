@@ -1,10 +1,14 @@
 package net.sf.openrocket.thrustcurve;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.ObjectOutputStream;
+import java.io.ObjectInputStream;
+import java.io.OutputStream;
 import java.net.MalformedURLException;
 import java.util.ArrayList;
 import java.util.List;
@@ -17,6 +21,7 @@ import net.sf.openrocket.file.motor.GeneralMotorLoader;
 import net.sf.openrocket.gui.util.SimpleFileFilter;
 import net.sf.openrocket.motor.Motor;
 import net.sf.openrocket.motor.ThrustCurveMotor;
+import net.sf.openrocket.motor.ThrustCurveMotorSnapshot;
 import net.sf.openrocket.util.Pair;
 
 public class SerializeThrustcurveMotors {
@@ -49,33 +54,46 @@ public class SerializeThrustcurveMotors {
 	public static void main(String[] args) throws Exception {
 		
 		if (args.length != 2) {
-			System.out.println("Usage:  java " + SerializeThrustcurveMotors.class.getCanonicalName() + " <input-dir> <output-file>");
+			System.out.println("Usage:  java " + SerializeThrustcurveMotors.class.getCanonicalName() + " <input-dir | serialized-file.ser> <output-file>");
 			System.exit(1);
 		}
 		
 		String inputDir = args[0];
 		String outputFile = args[1];
 		
-		final List<Motor> allMotors = new ArrayList<Motor>();
+		final List<ThrustCurveMotor> allMotors = new ArrayList<ThrustCurveMotor>();
 		
-		loadFromLocalMotorFiles(allMotors, inputDir);
-		
-		loadFromThrustCurve(allMotors);
+		if (inputDir.endsWith(".ser")) {
+			// Convert a Java-serialized database to a snapshot
+			loadFromSerializedFile(allMotors, inputDir);
+		} else {
+			loadFromLocalMotorFiles(allMotors, inputDir);
+			
+			loadFromThrustCurve(allMotors);
+		}
 		
 		File outFile = new File(outputFile);
 		
-		FileOutputStream ofs = new FileOutputStream(outFile);
-		final ObjectOutputStream oos = new ObjectOutputStream(ofs);
+		OutputStream ofs = new BufferedOutputStream(new FileOutputStream(outFile));
 		
-		oos.writeObject(allMotors);
+		ThrustCurveMotorSnapshot.write(allMotors, ofs);
 		
-		oos.flush();
 		ofs.flush();
 		ofs.close();
 		
 	}
 	
-	public static void loadFromThrustCurve(List<Motor> allMotors) throws SAXException, MalformedURLException, IOException {
+	@SuppressWarnings("unchecked")
+	private static void loadFromSerializedFile(List<ThrustCurveMotor> allMotors, String file) throws IOException, ClassNotFoundException {
+		ObjectInputStream ois = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)));
+		try {
+			allMotors.addAll((List<ThrustCurveMotor>) ois.readObject());
+		} finally {
+			ois.close();
+		}
+	}
+	
+	public static void loadFromThrustCurve(List<ThrustCurveMotor> allMotors) throws SAXException, MalformedURLException, IOException {
 		
 		SearchRequest searchRequest = new SearchRequest();
 		for (String m : manufacturers) {
@@ -179,7 +197,7 @@ public class SerializeThrustcurveMotors {
 		return b;
 	}
 	
-	private static void loadFromLocalMotorFiles(List<Motor> allMotors, String inputDir) throws IOException {
+	private static void loadFromLocalMotorFiles(List<ThrustCurveMotor> allMotors, String inputDir) throws IOException {
 		GeneralMotorLoader loader = new GeneralMotorLoader();
 		FileIterator iterator = DirectoryIterator.findDirectory(inputDir, new SimpleFileFilter("", false, loader.getSupportedExtensions()));
 		if (iterator == null) {
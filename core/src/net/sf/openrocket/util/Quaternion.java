@@ -171,8 +171,37 @@ public class Quaternion {
 		
 		return new Quaternion(newW, newX, newY, newZ);
 	}
-	
-	
+
+	/**
+	 * Multiply this quaternion from the left side by the rotation quaternion corresponding
+	 * to the rotation vector (rx, ry, rz).  This is equivalent to
+	 * <code>multiplyLeft(Quaternion.rotation(new Coordinate(rx, ry, rz)))</code>
+	 * but creates only the resulting quaternion.  If the rotation is negligible this
+	 * quaternion is returned.
+	 *
+	 * @param rx	the x component of the rotation vector
+	 * @param ry	the y component of the rotation vector
+	 * @param rz	the z component of the rotation vector
+	 * @return		the rotated quaternion.
+	 */
+	public Quaternion multiplyLeftRotation(double rx, double ry, double rz) {
+		double length = MathUtil.safeSqrt(rx * rx + ry * ry + rz * rz);
+		if (length < 0.000001) {
+			return this;
+		}
+		double sin = Math.sin(length / 2);
+		double a = Math.cos(length / 2);
+		double b = sin * rx / length;
+		double c = sin * ry / length;
+		double d = sin * rz / length;
+
+		return new Quaternion(
+				a * this.w - b * this.x - c * this.y - d * this.z,
+				a * this.x + b * this.w + c * this.z - d * this.y,
+				a * this.y + c * this.w + d * this.x - b * this.z,
+				a * this.z + d * this.w + b * this.y - c * this.x);
+	}
+
 
 
 
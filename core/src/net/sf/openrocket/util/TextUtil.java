@@ -50,46 +50,70 @@ public class TextUtil {
 	 * @return		a representation with suitable precision.
 	 */
 	public static final String doubleToString(double d) {
+		StringBuilder sb = new StringBuilder(12);
+		appendDouble(sb, d);
+		return sb.toString();
+	}
+	
+	/**
+	 * Append the representation of {@link #doubleToString(double)} to a string builder.
+	 * No intermediate strings are created, so this is suitable for writing large amounts
+	 * of values.
+	 * 
+	 * @param sb	the string builder to append to.
+	 * @param d		the value to present.
+	 */
+	public static final void appendDouble(StringBuilder sb, double d) {
 		
 		// Check for special cases
-		if (MathUtil.equals(d, 0))
-			return "0";
+		if (MathUtil.equals(d, 0)) {
+			sb.append('0');
+			return;
+		}
 		
-		if (Double.isNaN(d))
-			return "NaN";
+		if (Double.isNaN(d)) {
+			sb.append("NaN");
+			return;
+		}
 		
 		if (Double.isInfinite(d)) {
 			if (d < 0)
-				return "-Inf";
+				sb.append("-Inf");
 			else
-				return "Inf";
+				sb.append("Inf");
+			return;
 		}
 		
 		
-		final String sign = (d < 0) ? "-" : "";
+		if (d < 0) {
+			sb.append('-');
+		}
 		double abs = Math.abs(d);
 		
 		// Small and large values always in exponential notation
 		if (abs < 0.001 || abs >= 100000000) {
-			return sign + exponentialFormat(abs);
+			exponentialFormat(sb, abs);
+			return;
 		}
 		
 		// Check whether decimal or exponential notation is shorter
 		
-		String exp = exponentialFormat(abs);
-		String dec = decimalFormat(abs);
+		int start = sb.length();
+		exponentialFormat(sb, abs);
+		int middle = sb.length();
+		decimalFormat(sb, abs);
 		
-		if (dec.length() <= exp.length())
-			return sign + dec;
+		if (sb.length() - middle <= middle - start)
+			sb.delete(start, middle);
 		else
-			return sign + exp;
+			sb.setLength(middle);
 	}
 	
 	
 	/*
 	 * value must be positive and not zero!
 	 */
-	private static String exponentialFormat(double value) {
+	private static void exponentialFormat(StringBuilder sb, double value) {
 		int exp;
 		
 		exp = 0;
@@ -102,16 +126,19 @@ public class TextUtil {
 			exp++;
 		}
 		
-		return shortDecimal(value, 4) + "e" + exp;
+		shortDecimal(sb, value, 4);
+		sb.append('e').append(exp);
 	}
 	
 	
 	/*
 	 * value must be positive and not zero!
 	 */
-	private static String decimalFormat(double value) {
-		if (value >= 10000)
-			return "" + (int) (value + 0.5);
+	private static void decimalFormat(StringBuilder sb, double value) {
+		if (value >= 10000) {
+			sb.append((int) (value + 0.5));
+			return;
+		}
 		
 		int decimals = 1;
 		double v = value;
@@ -120,7 +147,7 @@ public class TextUtil {
 			decimals++;
 		}
 		
-		return shortDecimal(value, decimals);
+		shortDecimal(sb, value, decimals);
 	}
 	
 	
@@ -129,7 +156,7 @@ public class TextUtil {
 	/*
 	 * value must be positive!
 	 */
-	private static String shortDecimal(double value, int decimals) {
+	private static void shortDecimal(StringBuilder sb, double value, int decimals) {
 		
 		// Calculate rounding and limit values (rounding slightly smaller)
 		int rounding = 1;
@@ -146,13 +173,11 @@ public class TextUtil {
 		int whole = (int) value;
 		value -= whole;
 		
-		
+		sb.append(whole);
 		if (value < limit)
-			return "" + whole;
+			return;
 		limit *= 10;
 		
-		StringBuilder sb = new StringBuilder();
-		sb.append("" + whole);
 		sb.append('.');
 		
 		
@@ -164,12 +189,10 @@ public class TextUtil {
 			sb.append((char) ('0' + whole));
 			
 			if (value < limit)
-				return sb.toString();
+				return;
 			limit *= 10;
 			
 		}
-		
-		return sb.toString();
 	}
 	
 	/**
@@ -1,11 +1,29 @@
 package net.sf.openrocket.utils;
 
+import java.util.Arrays;
+
 import net.sf.openrocket.motor.Motor;
+import net.sf.openrocket.motor.ThrustCurveMotor;
 import net.sf.openrocket.util.BugException;
 import net.sf.openrocket.util.MathUtil;
 
 public class MotorCorrelation {
 	
+	/** The thrust curves are sampled at this interval ... */
+	private static final double SAMPLE_STEP = 0.01;
+	/** ... up to this time. */
+	private static final double SAMPLE_END = 1000;
+	
+	/** The number of samples taken of each curve. */
+	private static final int SAMPLE_COUNT;
+	static {
+		int count = 0;
+		for (double t = 0; t < SAMPLE_END; t += SAMPLE_STEP) {
+			count++;
+		}
+		SAMPLE_COUNT = count;
+	}
+	
 	/**
 	 * Return a measure of motor similarity.  The measure is a value between 0.0 and 1.0.
 	 * The larger the value, the more similar the motor thrust curves are, for value 1.0 they
@@ -19,9 +37,15 @@ public class MotorCorrelation {
 	 * @return			the similarity of the two motors
 	 */
 	public static double similarity(Motor motor1, Motor motor2) {
+		return similarity(new ThrustSamples(motor1), new ThrustSamples(motor2));
+	}
+	
+	static double similarity(ThrustSamples samples1, ThrustSamples samples2) {
+		Motor motor1 = samples1.motor;
+		Motor motor2 = samples2.motor;
 		double d;
 		
-		d = crossCorrelation(motor1, motor2);
+		d = crossCorrelation(samples1, samples2);
 		d = Math.min(d, diff(motor1.getAverageThrustEstimate(), motor2.getAverageThrustEstimate()));
 		d = Math.min(d, 2 * diff(motor1.getBurnTimeEstimate(), motor2.getBurnTimeEstimate()));
 		d = Math.min(d, diff(motor1.getTotalImpulseEstimate(), motor2.getTotalImpulseEstimate()));
@@ -30,7 +54,7 @@ public class MotorCorrelation {
 	}
 	
 	
-	private static double diff(double a, double b) {
+	static double diff(double a, double b) {
 		double min = Math.min(a, b);
 		double max = Math.max(a, b);
 		
@@ -49,26 +73,31 @@ public class MotorCorrelation {
 	 * @param motor2	the second motor.
 	 * @return			the scaled cross-correlation of the two thrust curves.
 	 */
-	public static double crossCorrelation(Motor motor1, Motor motor2) {		
-		double t;
-		double auto1 = 0;
-		double auto2 = 0;
+	public static double crossCorrelation(Motor motor1, Motor motor2) {
+		return crossCorrelation(new ThrustSamples(motor1), new ThrustSamples(motor2));
+	}
+	
+	static double crossCorrelation(ThrustSamples samples1, ThrustSamples samples2) {
+		ThrustSamples shorter = samples1;
+		ThrustSamples longer = samples2;
+		if (shorter.thrust.length > longer.thrust.length) {
+			shorter = samples2;
+			longer = samples1;
+		}
+		
 		double cross = 0;
-		for (t = 0; t < 1000; t += 0.01) {
-			
-			double thrust1 = motor1.getThrust( t); 
-			double thrust2 = motor2.getThrust( t);
-			
-			if ( thrust1 < 0 || thrust2 < 0) {
-				throw new BugException("Negative thrust, t1=" + thrust1 + " t2=" + thrust2);
+		int i;
+		for (i = 0; i < shorter.thrust.length; i++) {
+			cross += shorter.thrust[i] * longer.thrust[i];
+		}
+		if (shorter.tail != 0) {
+			for (; i < longer.thrust.length; i++) {
+				cross += shorter.tail * longer.thrust[i];
 			}
-			
-			auto1 += thrust1 * thrust1;
-			auto2 += thrust2 * thrust2;
-			cross += thrust1 * thrust2;
+			cross = addRepeated(cross, shorter.tail * longer.tail, SAMPLE_COUNT - i);
 		}
 		
-		double auto = Math.max(auto1, auto2);
+		double auto = Math.max(samples1.auto, samples2.auto);
 		
 		if (MathUtil.equals(auto, 0)) {
 			return 1.0;
@@ -77,4 +106,68 @@ public class MotorCorrelation {
 		return cross / auto;
 	}
 	
+	/*
+	 * Add the value to the sum the given number of times, in the same way as sampling
+	 * the constant value would.
+	 */
+	private static double addRepeated(double sum, double value, int count) {
+		if (value != 0) {
+			for (int i = 0; i < count; i++) {
+				sum += value;
+			}
+		}
+		return sum;
+	}
+	
+	
+	/**
+	 * The thrust curve of a motor sampled at the points used for the cross-correlation.
+	 * The thrust of a thrust curve motor is constant after the last point of its curve, so
+	 * only the samples before it are stored, and the sampling is the same for all pairs of
+	 * motors the samples are correlated with.
+	 */
+	static final class ThrustSamples {
+		final Motor motor;
+		/** The samples before the end of the thrust curve. */
+		final double[] thrust;
+		/** The thrust of the remaining samples. */
+		final double tail;
+		/** The sum of the squares of all the samples. */
+		final double auto;
+		
+		ThrustSamples(Motor motor) {
+			this.motor = motor;
+			
+			double end = SAMPLE_END;
+			ThrustCurveMotor.Cursor cursor = null;
+			if (motor instanceof ThrustCurveMotor) {
+				end = ((ThrustCurveMotor) motor).getBurnTime();
+				cursor = ((ThrustCurveMotor) motor).newCursor();
+			}
+			
+			double[] samples = new double[64];
+			double sum = 0;
+			double last = 0;
+			int count = 0;
+			for (double t = 0; t < SAMPLE_END; t += SAMPLE_STEP) {
+				last = (cursor != null) ? cursor.getThrust(t) : motor.getThrust(t);
+				if (last < 0) {
+					throw new BugException("Negative thrust " + last + " at t=" + t + " for motor " + motor);
+				}
+				if (t >= end) {
+					break;
+				}
+				if (count == samples.length) {
+					samples = Arrays.copyOf(samples, count * 2);
+				}
+				samples[count++] = last;
+				sum += last * last;
+			}
+			
+			this.thrust = Arrays.copyOf(samples, count);
+			this.tail = (count < SAMPLE_COUNT) ? last : 0;
+			this.auto = addRepeated(sum, tail * tail, SAMPLE_COUNT - count);
+		}
+	}
+	
 }
\ No newline at end of file
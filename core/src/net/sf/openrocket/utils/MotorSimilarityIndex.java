@@ -0,0 +1,140 @@
+package net.sf.openrocket.utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import net.sf.openrocket.motor.Motor;
+import net.sf.openrocket.utils.MotorCorrelation.ThrustSamples;
+
+/**
+ * An index for finding the similar motors of a motor database, for example duplicate thrust
+ * curves of the same motor.  The similarity is that of {@link MotorCorrelation#similarity(Motor, Motor)}.
+ * <p>
+ * The thrust curve of each motor is sampled once when the index is created, instead of for
+ * every pair of motors compared.  Only motors of the same diameter, rounded to millimeters,
+ * are compared, and since the similarity of two motors is at most the ratio of their total
+ * impulses, each motor is only compared with the motors whose total impulse is close enough
+ * to reach the similarity threshold.
+ */
+public class MotorSimilarityIndex {
+
+	private final List<List<ThrustSamples>> groups = new ArrayList<List<ThrustSamples>>();
+	private final int motorCount;
+	private int comparisons = 0;
+
+
+	/**
+	 * Create an index of the given motors.
+	 *
+	 * @param motors	the motors to index.
+	 */
+	public MotorSimilarityIndex(Collection<? extends Motor> motors) {
+		Map<Long, List<ThrustSamples>> diameterGroups = new TreeMap<Long, List<ThrustSamples>>();
+		for (Motor m : motors) {
+			Long diameter = Math.round(m.getDiameter() * 1000);
+			List<ThrustSamples> group = diameterGroups.get(diameter);
+			if (group == null) {
+				group = new ArrayList<ThrustSamples>();
+				diameterGroups.put(diameter, group);
+			}
+			group.add(new ThrustSamples(m));
+		}
+
+		for (List<ThrustSamples> group : diameterGroups.values()) {
+			Collections.sort(group, new Comparator<ThrustSamples>() {
+				@Override
+				public int compare(ThrustSamples o1, ThrustSamples o2) {
+					return Double.compare(o1.motor.getTotalImpulseEstimate(), o2.motor.getTotalImpulseEstimate());
+				}
+			});
+			groups.add(group);
+		}
+		this.motorCount = motors.size();
+	}
+
+
+	/**
+	 * Return the number of motors in this index.
+	 */
+	public int getMotorCount() {
+		return motorCount;
+	}
+
+	/**
+	 * Return the number of motor pairs whose similarity was computed by the last call
+	 * to {@link #findSimilarMotors(double)}.
+	 */
+	public int getComparisonCount() {
+		return comparisons;
+	}
+
+
+	/**
+	 * Find the clusters of similar motors.  Two motors are in the same cluster if they have
+	 * the same diameter and their similarity is at least the threshold, or if they are both
+	 * in the same cluster as some third motor.
+	 *
+	 * @param threshold		the minimum similarity of motors in the same cluster, larger than zero.
+	 * @return				the clusters of two or more motors, ordered by diameter, with the
+	 * 						motors of each cluster ordered by total impulse.
+	 */
+	public List<List<Motor>> findSimilarMotors(double threshold) {
+		List<List<Motor>> clusters = new ArrayList<List<Motor>>();
+		comparisons = 0;
+
+		for (List<ThrustSamples> group : groups) {
+			int[] parent = new int[group.size()];
+			for (int i = 0; i < parent.length; i++) {
+				parent[i] = i;
+			}
+
+			for (int i = 0; i < group.size(); i++) {
+				ThrustSamples samples = group.get(i);
+				double impulse = samples.motor.getTotalImpulseEstimate();
+				for (int j = i + 1; j < group.size(); j++) {
+					ThrustSamples other = group.get(j);
+					if (MotorCorrelation.diff(impulse, other.motor.getTotalImpulseEstimate()) < threshold) {
+						// The impulses of the remaining motors differ even more
+						break;
+					}
+					comparisons++;
+					if (MotorCorrelation.similarity(samples, other) >= threshold) {
+						parent[find(parent, j)] = find(parent, i);
+					}
+				}
+			}
+
+			Map<Integer, List<Motor>> roots = new LinkedHashMap<Integer, List<Motor>>();
+			for (int i = 0; i < parent.length; i++) {
+				int root = find(parent, i);
+				List<Motor> cluster = roots.get(root);
+				if (cluster == null) {
+					cluster = new ArrayList<Motor>();
+					roots.put(root, cluster);
+				}
+				cluster.add(group.get(i).motor);
+			}
+			for (List<Motor> cluster : roots.values()) {
+				if (cluster.size() > 1) {
+					clusters.add(cluster);
+				}
+			}
+		}
+
+		return clusters;
+	}
+
+	private static int find(int[] parent, int i) {
+		while (parent[i] != i) {
+			parent[i] = parent[parent[i]];
+			i = parent[i];
+		}
+		return i;
+	}
+}
@@ -2,6 +2,8 @@ package net.sf.openrocket.aerodynamics;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.BeforeClass;
@@ -12,6 +14,7 @@ import com.google.inject.Injector;
 import com.google.inject.Module;
 
 import net.sf.openrocket.ServicesForTesting;
+import net.sf.openrocket.aerodynamics.barrowman.RocketComponentCalc;
 import net.sf.openrocket.plugin.PluginModule;
 import net.sf.openrocket.rocketcomponent.AxialStage;
 import net.sf.openrocket.rocketcomponent.BodyTube;
@@ -183,6 +186,37 @@ public class BarrowmanCalculatorTest {
 //		assertEquals(" Falcon Heavy Worst CP x value is incorrect:", expWorstCP.x, calcWorstCP.x, EPSILON);
 	}
 	
+	@Test
+	public void testSharedComponentCalcs() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		BodyTube body = (BodyTube) rocket.getChild(0).getChild(1);
+		TrapezoidFinSet fins = (TrapezoidFinSet) body.getChild(0);
+		
+		// Copies of the same design share the calculators
+		Rocket copy = rocket.copyWithOriginalID();
+		RocketComponentCalc finCalc = BarrowmanCalculator.getComponentCalc(rocket, fins);
+		assertSame(finCalc, BarrowmanCalculator.getComponentCalc(rocket, fins));
+		assertSame(finCalc, BarrowmanCalculator.getComponentCalc(copy, copy.getChild(0).getChild(1).getChild(0)));
+		
+		FlightConditions conditions = new FlightConditions(rocket.getSelectedConfiguration());
+		Coordinate cp = new BarrowmanCalculator().getCP(rocket.getSelectedConfiguration(), conditions, new WarningSet());
+		
+		// Changing the body the fins are attached to changes the fin calculator of the rocket only
+		body.setOuterRadius(2 * body.getOuterRadius());
+		assertNotSame(finCalc, BarrowmanCalculator.getComponentCalc(rocket, fins));
+		assertSame(finCalc, BarrowmanCalculator.getComponentCalc(copy, copy.getChild(0).getChild(1).getChild(0)));
+		
+		copy.update();
+		FlightConfiguration copyConfig = new FlightConfiguration(copy, null);
+		Coordinate copyCP = new BarrowmanCalculator().getCP(copyConfig, new FlightConditions(copyConfig), new WarningSet());
+		assertEquals(cp.x, copyCP.x, EPSILON);
+		assertEquals(cp.weight, copyCP.weight, EPSILON);
+		
+		Coordinate changedCP = new BarrowmanCalculator().getCP(rocket.getSelectedConfiguration(),
+				new FlightConditions(rocket.getSelectedConfiguration()), new WarningSet());
+		assertTrue("CNa did not change with the body radius", Math.abs(cp.weight - changedCP.weight) > EPSILON);
+	}
+	
 	@Test
 	public void testContinuousRocket() {
 		Rocket rocket = TestRockets.makeEstesAlphaIII();
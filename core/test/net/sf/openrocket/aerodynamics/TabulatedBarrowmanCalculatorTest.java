@@ -0,0 +1,116 @@
+package net.sf.openrocket.aerodynamics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import net.sf.openrocket.rocketcomponent.FinSet;
+import net.sf.openrocket.rocketcomponent.FlightConfiguration;
+import net.sf.openrocket.rocketcomponent.Rocket;
+import net.sf.openrocket.rocketcomponent.RocketComponent;
+import net.sf.openrocket.rocketcomponent.TrapezoidFinSet;
+import net.sf.openrocket.util.BaseTestCase.BaseTestCase;
+import net.sf.openrocket.util.TestRockets;
+
+public class TabulatedBarrowmanCalculatorTest extends BaseTestCase {
+
+	private static final double[] MACH = { 0.063, 0.137, 0.42, 0.87, 1.03, 1.77 };
+	private static final double[] AOA = { 0, 0.3, 2.1, 9.7, 16, 25, 70, 150 };
+
+	private static FlightConditions conditions(FlightConfiguration config, double mach, double aoaDeg, double theta) {
+		FlightConditions conditions = new FlightConditions(config);
+		conditions.setMach(mach);
+		conditions.setAOA(Math.toRadians(aoaDeg));
+		conditions.setTheta(theta);
+		return conditions;
+	}
+
+	private static void assertClose(String message, double expected, double actual) {
+		assertEquals(message, expected, actual, 0.005 * Math.abs(expected) + 0.002);
+	}
+
+	private static FinSet getFins(Rocket rocket) {
+		for (RocketComponent c : rocket) {
+			if (c instanceof FinSet) {
+				return (FinSet) c;
+			}
+		}
+		throw new IllegalStateException("No fins");
+	}
+
+	@Test
+	public void testMatchesBarrowman() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		FlightConfiguration config = rocket.getSelectedConfiguration();
+		BarrowmanCalculator direct = new BarrowmanCalculator();
+		TabulatedBarrowmanCalculator tabulated = new TabulatedBarrowmanCalculator();
+
+		for (double mach : MACH) {
+			for (double aoa : AOA) {
+				String msg = "mach=" + mach + " aoa=" + aoa + ": ";
+				AerodynamicForces expected = direct.getAerodynamicForces(config, conditions(config, mach, aoa, 0.4), null);
+				AerodynamicForces actual = tabulated.getAerodynamicForces(config, conditions(config, mach, aoa, 0.4), null);
+
+				assertClose(msg + "CD", expected.getCD(), actual.getCD());
+				assertClose(msg + "friction CD", expected.getFrictionCD(), actual.getFrictionCD());
+				assertClose(msg + "Caxial", expected.getCaxial(), actual.getCaxial());
+				assertClose(msg + "CN", expected.getCN(), actual.getCN());
+				assertClose(msg + "Cm", expected.getCm(), actual.getCm());
+				assertClose(msg + "CNa", expected.getCNa(), actual.getCNa());
+				assertClose(msg + "CP", expected.getCP().x, actual.getCP().x);
+			}
+		}
+		assertTrue(tabulated.getComputedNodeCount() > 0);
+	}
+
+	@Test
+	public void testTablesVoidedOnChange() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		FlightConfiguration config = rocket.getSelectedConfiguration();
+		TabulatedBarrowmanCalculator tabulated = new TabulatedBarrowmanCalculator();
+
+		double before = tabulated.getAerodynamicForces(config, conditions(config, 0.3, 4, 0), null).getCN();
+		TrapezoidFinSet fins = (TrapezoidFinSet) getFins(rocket);
+		fins.setHeight(fins.getHeight() * 1.5);
+		double after = tabulated.getAerodynamicForces(config, conditions(config, 0.3, 4, 0), null).getCN();
+		double expected = new BarrowmanCalculator().getAerodynamicForces(config, conditions(config, 0.3, 4, 0), null).getCN();
+
+		assertTrue("before=" + before + " after=" + after, after > before);
+		assertClose("CN", expected, after);
+	}
+
+	@Test
+	public void testAsymmetricCalculatedDirectly() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		getFins(rocket).setFinCount(2);
+		FlightConfiguration config = rocket.getSelectedConfiguration();
+
+		for (double theta : new double[] { 0, 0.5, 1.3 }) {
+			AerodynamicForces expected = new BarrowmanCalculator().getAerodynamicForces(config,
+					conditions(config, 0.25, 3.3, theta), null);
+			AerodynamicForces actual = new TabulatedBarrowmanCalculator().getAerodynamicForces(config,
+					conditions(config, 0.25, 3.3, theta), null);
+			assertEquals(expected.getCN(), actual.getCN(), 1e-10);
+			assertEquals(expected.getCm(), actual.getCm(), 1e-10);
+		}
+	}
+
+	@Test
+	public void testRollingCalculatedDirectly() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		getFins(rocket).setCantAngle(Math.toRadians(2));
+		FlightConfiguration config = rocket.getSelectedConfiguration();
+
+		FlightConditions still = conditions(config, 0.2, 1.5, 0);
+		assertClose("Croll", new BarrowmanCalculator().getAerodynamicForces(config, still, null).getCroll(),
+				new TabulatedBarrowmanCalculator().getAerodynamicForces(config, still, null).getCroll());
+
+		FlightConditions rolling = conditions(config, 0.2, 1.5, 0);
+		rolling.setRollRate(20);
+		AerodynamicForces expected = new BarrowmanCalculator().getAerodynamicForces(config, rolling, null);
+		AerodynamicForces actual = new TabulatedBarrowmanCalculator().getAerodynamicForces(config, rolling, null);
+		assertTrue(expected.getCrollDamp() != 0);
+		assertEquals(expected.getCroll(), actual.getCroll(), 1e-10);
+	}
+}
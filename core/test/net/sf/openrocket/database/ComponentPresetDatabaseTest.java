@@ -0,0 +1,122 @@
+package net.sf.openrocket.database;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import net.sf.openrocket.motor.Manufacturer;
+import net.sf.openrocket.preset.ComponentPreset;
+import net.sf.openrocket.preset.ComponentPresetFactory;
+import net.sf.openrocket.preset.TypedKey;
+import net.sf.openrocket.preset.TypedPropertyMap;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class ComponentPresetDatabaseTest {
+
+	private ComponentPresetDatabase db;
+
+	@Before
+	public void setup() throws Exception {
+		db = new ComponentPresetDatabase();
+		db.add(create(ComponentPreset.Type.BODY_TUBE, "Estes", "BT-20", 0.0248, 0.0183, 0.4572));
+		db.add(create(ComponentPreset.Type.BODY_TUBE, "Estes", "BT-50", 0.0249, 0.0245, 0.4572));
+		db.add(create(ComponentPreset.Type.TUBE_COUPLER, "Estes", "JT-50C", 0.0245, 0.0240, 0.0254));
+		db.add(create(ComponentPreset.Type.BODY_TUBE, "Apogee", "BT-20", 0.0248, 0.0242, 0.3048));
+		db.add(create(ComponentPreset.Type.BODY_TUBE, "Estes", "BT-80", 0.0660, 0.0650, 0.4572));
+		db.add(create(ComponentPreset.Type.LAUNCH_LUG, "Estes", "LL-2A", 0.0050, 0.0040, 0.0508));
+	}
+
+	@Test
+	public void testListForType() throws Exception {
+		assertEquals(scan(ComponentPreset.Type.BODY_TUBE), db.listForType(ComponentPreset.Type.BODY_TUBE));
+		assertEquals(4, db.listForType(ComponentPreset.Type.BODY_TUBE).size());
+		assertEquals(0, db.listForType(ComponentPreset.Type.NOSE_CONE).size());
+
+		List<ComponentPreset> tubes = scan(ComponentPreset.Type.BODY_TUBE, ComponentPreset.Type.TUBE_COUPLER);
+		assertEquals(tubes, db.listForTypes(ComponentPreset.Type.TUBE_COUPLER, ComponentPreset.Type.BODY_TUBE));
+		assertEquals(tubes, db.listForTypes(Arrays.asList(ComponentPreset.Type.BODY_TUBE, ComponentPreset.Type.TUBE_COUPLER,
+				ComponentPreset.Type.BODY_TUBE)));
+		assertEquals(0, db.listForTypes().size());
+
+		// The indices follow modifications of the database
+		db.add(create(ComponentPreset.Type.BODY_TUBE, "Estes", "BT-5", 0.0137, 0.0132, 0.4572));
+		assertEquals(scan(ComponentPreset.Type.BODY_TUBE), db.listForType(ComponentPreset.Type.BODY_TUBE));
+		assertEquals(5, db.listForType(ComponentPreset.Type.BODY_TUBE).size());
+	}
+
+	@Test
+	public void testFind() {
+		List<ComponentPreset> found = db.find("Estes", "BT-20");
+		assertEquals(1, found.size());
+		assertEquals("Estes", found.get(0).getManufacturer().getSimpleName());
+		assertEquals("BT-20", found.get(0).getPartNo());
+
+		assertEquals("Apogee", db.find("Apogee", "BT-20").get(0).getManufacturer().getSimpleName());
+		assertEquals(0, db.find("Estes", "BT-60").size());
+		assertEquals(0, db.find("Foo", "BT-20").size());
+		assertEquals(0, db.find(null, null).size());
+	}
+
+	@Test
+	public void testDimensionRange() {
+		List<ComponentPreset> fitting = db.listForType(ComponentPreset.Type.BODY_TUBE, ComponentPreset.INNER_DIAMETER, 0.0240, 0.0245);
+		assertEquals(Arrays.asList(db.find("Apogee", "BT-20").get(0), db.find("Estes", "BT-50").get(0)), fitting);
+
+		for (double min = 0; min < 0.07; min += 0.0011) {
+			for (double max = min; max < 0.08; max += 0.0037) {
+				assertEquals(scan(ComponentPreset.Type.BODY_TUBE, ComponentPreset.OUTER_DIAMETER, min, max),
+						db.listForType(ComponentPreset.Type.BODY_TUBE, ComponentPreset.OUTER_DIAMETER, min, max));
+			}
+		}
+
+		// Bounds are inclusive
+		assertEquals(2, db.listForType(ComponentPreset.Type.BODY_TUBE, ComponentPreset.OUTER_DIAMETER, 0.0248, 0.0248).size());
+		assertEquals(3, db.listForType(ComponentPreset.Type.BODY_TUBE, ComponentPreset.LENGTH, 0.4572, 1).size());
+		assertEquals(0, db.listForType(ComponentPreset.Type.BODY_TUBE, ComponentPreset.LENGTH, 1, 0).size());
+		assertEquals(1, db.listForType(ComponentPreset.Type.LAUNCH_LUG, ComponentPreset.LENGTH, 0, 1).size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnindexedDimension() {
+		db.listForType(ComponentPreset.Type.BODY_TUBE, ComponentPreset.THICKNESS, 0, 1);
+	}
+
+
+	private List<ComponentPreset> scan(ComponentPreset.Type... types) {
+		List<ComponentPreset> result = new ArrayList<ComponentPreset>();
+		for (ComponentPreset preset : db.listAll()) {
+			if (Arrays.asList(types).contains(preset.getType())) {
+				result.add(preset);
+			}
+		}
+		return result;
+	}
+
+	private List<ComponentPreset> scan(ComponentPreset.Type type, TypedKey<Double> dimension, double min, double max) {
+		List<ComponentPreset> result = new ArrayList<ComponentPreset>();
+		for (ComponentPreset preset : scan(type)) {
+			double value = preset.get(dimension);
+			if (min <= value && value <= max) {
+				result.add(preset);
+			}
+		}
+		return result;
+	}
+
+	private static ComponentPreset create(ComponentPreset.Type type, String manufacturer, String partNo,
+			double outerDiameter, double innerDiameter, double length) throws Exception {
+		TypedPropertyMap presetspec = new TypedPropertyMap();
+		presetspec.put(ComponentPreset.TYPE, type);
+		presetspec.put(ComponentPreset.MANUFACTURER, Manufacturer.getManufacturer(manufacturer));
+		presetspec.put(ComponentPreset.PARTNO, partNo);
+		presetspec.put(ComponentPreset.OUTER_DIAMETER, outerDiameter);
+		presetspec.put(ComponentPreset.INNER_DIAMETER, innerDiameter);
+		presetspec.put(ComponentPreset.LENGTH, length);
+		return ComponentPresetFactory.create(presetspec);
+	}
+
+}
@@ -0,0 +1,100 @@
+package net.sf.openrocket.database.motor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.List;
+
+import net.sf.openrocket.motor.Manufacturer;
+import net.sf.openrocket.motor.Motor;
+import net.sf.openrocket.motor.ThrustCurveMotor;
+import net.sf.openrocket.util.Coordinate;
+
+import org.junit.Test;
+
+public class ThrustCurveMotorSetDatabaseTest {
+
+	private static ThrustCurveMotor motor(String manufacturer, String designation, Motor.Type type,
+			double diameter, double length, String digest) {
+		return new ThrustCurveMotor.Builder()
+				.setManufacturer(Manufacturer.getManufacturer(manufacturer))
+				.setDesignation(designation)
+				.setDescription("Desc")
+				.setMotorType(type)
+				.setStandardDelays(new double[] {})
+				.setDiameter(diameter)
+				.setLength(length)
+				.setTimePoints(new double[] { 0, 1, 2 })
+				.setThrustPoints(new double[] { 0, 1, 0 })
+				.setCGPoints(new Coordinate[] { Coordinate.NUL, Coordinate.NUL, Coordinate.NUL })
+				.setDigest(digest)
+				.build();
+	}
+
+	private static final ThrustCurveMotor a8 = motor("Estes", "A8", Motor.Type.SINGLE, 0.018, 0.070, "digestA8");
+	private static final ThrustCurveMotor b4 = motor("Estes", "B4", Motor.Type.SINGLE, 0.018, 0.070, "digestB4");
+	private static final ThrustCurveMotor f12 = motor("AeroTech", "F12J", Motor.Type.RELOAD, 0.024, 0.101, "digestF12");
+	private static final ThrustCurveMotor g40 = motor("AeroTech", "G40W", Motor.Type.SINGLE, 0.029, 0.124, "digestG40");
+
+	private ThrustCurveMotorSetDatabase createDatabase() {
+		ThrustCurveMotorSetDatabase db = new ThrustCurveMotorSetDatabase();
+		db.addMotor(a8);
+		db.addMotor(b4);
+		db.addMotor(f12);
+		db.addMotor(g40);
+		return db;
+	}
+
+	@Test
+	public void testFindByDigest() {
+		ThrustCurveMotorSetDatabase db = createDatabase();
+		assertSame(f12, db.findMotor("digestF12"));
+		assertSame(a8, db.findMotor("digestA8"));
+		assertNull(db.findMotor("missing"));
+		assertNull(db.findMotor(null));
+	}
+
+	@Test
+	public void testIndexUpdatedOnAdd() {
+		ThrustCurveMotorSetDatabase db = createDatabase();
+		assertNull(db.findMotor("digestH128"));
+
+		ThrustCurveMotor h128 = motor("AeroTech", "H128W", Motor.Type.RELOAD, 0.029, 0.194, "digestH128");
+		db.addMotor(h128);
+		assertSame(h128, db.findMotor("digestH128"));
+		assertEquals(Arrays.asList(h128), db.findMotors(null, null, "h128w", Double.NaN, Double.NaN));
+	}
+
+	@Test
+	public void testFindMotors() {
+		ThrustCurveMotorSetDatabase db = createDatabase();
+
+		assertEquals(Arrays.asList(f12), db.findMotors(null, null, "f12j", Double.NaN, Double.NaN));
+		assertEquals(Arrays.asList(f12), db.findMotors(Motor.Type.RELOAD, "AeroTech", "F12J", 0.024, 0.101));
+		assertEquals(0, db.findMotors(Motor.Type.SINGLE, null, "F12J", Double.NaN, Double.NaN).size());
+		assertEquals(0, db.findMotors(null, "Estes", "F12J", Double.NaN, Double.NaN).size());
+		assertEquals(0, db.findMotors(null, "NoSuchManufacturer", null, Double.NaN, Double.NaN).size());
+
+		List<ThrustCurveMotor> estes = db.findMotors(null, "Estes", null, Double.NaN, Double.NaN);
+		assertEquals(2, estes.size());
+
+		List<ThrustCurveMotor> small = db.findMotors(null, null, null, 0.0185, Double.NaN);
+		assertEquals(2, small.size());
+		assertEquals(estes, small);
+
+		assertEquals(Arrays.asList(g40), db.findMotors(null, null, null, Double.NaN, 0.128));
+		assertEquals(4, db.findMotors(null, null, null, Double.NaN, Double.NaN).size());
+	}
+
+	@Test
+	public void testFindMotorsBySize() {
+		ThrustCurveMotorSetDatabase db = createDatabase();
+
+		assertEquals(2, db.findMotorsBySize(0.020, Double.NaN, Double.NaN, Double.NaN).size());
+		assertEquals(Arrays.asList(f12), db.findMotorsBySize(0.020, 0.025, Double.NaN, Double.NaN));
+		assertEquals(Arrays.asList(g40), db.findMotorsBySize(Double.NaN, Double.NaN, 0.110, 0.130));
+		assertEquals(4, db.findMotorsBySize(Double.NaN, Double.NaN, Double.NaN, Double.NaN).size());
+	}
+}
@@ -0,0 +1,75 @@
+package net.sf.openrocket.file;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import net.sf.openrocket.simulation.FlightDataBranch;
+import net.sf.openrocket.simulation.FlightDataType;
+import net.sf.openrocket.simulation.FlightEvent;
+import net.sf.openrocket.unit.Unit;
+import net.sf.openrocket.unit.UnitGroup;
+import net.sf.openrocket.util.BaseTestCase.BaseTestCase;
+
+public class BinaryExportTest extends BaseTestCase {
+	
+	@Test
+	public void testColumnsAndHeader() throws IOException {
+		FlightDataBranch branch = new FlightDataBranch("Sustainer", FlightDataType.TYPE_TIME, FlightDataType.TYPE_ALTITUDE);
+		for (int i = 0; i < 10000; i++) {
+			branch.addPoint();
+			branch.setValue(FlightDataType.TYPE_TIME, i * 0.001);
+			branch.setValue(FlightDataType.TYPE_ALTITUDE, i * 0.5);
+		}
+		branch.addEvent(new FlightEvent(FlightEvent.Type.LAUNCH, 0));
+		branch.addEvent(new FlightEvent(FlightEvent.Type.BURNOUT, 1.5));
+		
+		Unit feet = UnitGroup.UNITS_DISTANCE.getUnit("ft");
+		FlightDataType[] fields = { FlightDataType.TYPE_TIME, FlightDataType.TYPE_ALTITUDE, FlightDataType.TYPE_VELOCITY_Z };
+		Unit[] units = { UnitGroup.UNITS_FLIGHT_TIME.getSIUnit(), feet, UnitGroup.UNITS_VELOCITY.getSIUnit() };
+		
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		BinaryExport.exportBinary(out, branch, fields, units);
+		ByteBuffer in = ByteBuffer.wrap(out.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+		
+		assertEquals("ORFD", new String(new byte[] { in.get(), in.get(), in.get(), in.get() }, StandardCharsets.US_ASCII));
+		assertEquals(BinaryExport.FORMAT_VERSION, in.getInt());
+		assertEquals("Sustainer", getString(in));
+		assertEquals(3, in.getInt());
+		assertEquals(10000, in.getInt());
+		assertEquals(2, in.getInt());
+		for (int i = 0; i < fields.length; i++) {
+			assertEquals(fields[i].getName(), getString(in));
+			assertEquals(units[i].getUnit(), getString(in));
+		}
+		assertEquals("LAUNCH", getString(in));
+		assertEquals(0, in.getDouble(), 0);
+		assertEquals("BURNOUT", getString(in));
+		assertEquals(1.5, in.getDouble(), 0);
+		
+		for (int i = 0; i < 10000; i++) {
+			assertEquals(i * 0.001, in.getDouble(), 0);
+		}
+		for (int i = 0; i < 10000; i++) {
+			assertEquals(feet.toUnit(i * 0.5), in.getDouble(), 0);
+		}
+		for (int i = 0; i < 10000; i++) {
+			assertTrue(Double.isNaN(in.getDouble()));
+		}
+		assertEquals(0, in.remaining());
+	}
+	
+	private static String getString(ByteBuffer in) {
+		byte[] bytes = new byte[in.getInt()];
+		in.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+	
+}
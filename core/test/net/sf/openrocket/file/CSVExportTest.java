@@ -0,0 +1,53 @@
+package net.sf.openrocket.file;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.Test;
+
+import net.sf.openrocket.simulation.FlightDataBranch;
+import net.sf.openrocket.simulation.FlightDataType;
+import net.sf.openrocket.simulation.FlightEvent;
+import net.sf.openrocket.unit.Unit;
+import net.sf.openrocket.unit.UnitGroup;
+import net.sf.openrocket.util.TextUtil;
+import net.sf.openrocket.util.BaseTestCase.BaseTestCase;
+
+public class CSVExportTest extends BaseTestCase {
+	
+	@Test
+	public void testLinesAndEvents() throws IOException {
+		FlightDataBranch branch = new FlightDataBranch("Sustainer", FlightDataType.TYPE_TIME, FlightDataType.TYPE_ALTITUDE);
+		int n = 20000;
+		for (int i = 0; i < n; i++) {
+			branch.addPoint();
+			branch.setValue(FlightDataType.TYPE_TIME, i * 0.001);
+			branch.setValue(FlightDataType.TYPE_ALTITUDE, i * 0.37);
+		}
+		branch.addEvent(new FlightEvent(FlightEvent.Type.BURNOUT, 1.5));
+		
+		Unit feet = UnitGroup.UNITS_DISTANCE.getUnit("ft");
+		FlightDataType[] fields = { FlightDataType.TYPE_TIME, FlightDataType.TYPE_ALTITUDE };
+		Unit[] units = { UnitGroup.UNITS_FLIGHT_TIME.getSIUnit(), feet };
+		
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		CSVExport.exportCSV(out, null, branch, fields, units, ",", "#", false, true, true);
+		BufferedReader in = new BufferedReader(new StringReader(out.toString()));
+		
+		assertEquals("# " + FlightDataType.TYPE_TIME.getName() + " (s)," + FlightDataType.TYPE_ALTITUDE.getName() + " (ft)",
+				in.readLine());
+		for (int i = 0; i < n; i++) {
+			if (i == 1500) {
+				assertEquals("# Event BURNOUT occurred at t=1.5 seconds", in.readLine());
+			}
+			assertEquals(TextUtil.doubleToString(i * 0.001) + "," + TextUtil.doubleToString(feet.toUnit(i * 0.37)),
+					in.readLine());
+		}
+		assertEquals(null, in.readLine());
+	}
+	
+}
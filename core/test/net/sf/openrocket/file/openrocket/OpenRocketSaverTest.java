@@ -2,6 +2,7 @@ package net.sf.openrocket.file.openrocket;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.fail;
 
 import java.io.File;
@@ -12,6 +13,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Collections;
 
 import net.sf.openrocket.ServicesForTesting;
 import net.sf.openrocket.database.ComponentPresetDao;
@@ -19,6 +21,7 @@ import net.sf.openrocket.database.ComponentPresetDatabase;
 import net.sf.openrocket.database.motor.MotorDatabase;
 import net.sf.openrocket.database.motor.ThrustCurveMotorSetDatabase;
 import net.sf.openrocket.document.OpenRocketDocument;
+import net.sf.openrocket.document.Simulation;
 import net.sf.openrocket.document.StorageOptions;
 import net.sf.openrocket.file.GeneralRocketLoader;
 import net.sf.openrocket.file.RocketLoadException;
@@ -29,6 +32,12 @@ import net.sf.openrocket.motor.Manufacturer;
 import net.sf.openrocket.motor.Motor;
 import net.sf.openrocket.motor.ThrustCurveMotor;
 import net.sf.openrocket.plugin.PluginModule;
+import net.sf.openrocket.simulation.FlightData;
+import net.sf.openrocket.simulation.FlightDataBranch;
+import net.sf.openrocket.simulation.FlightDataType;
+import net.sf.openrocket.simulation.FlightEvent;
+import net.sf.openrocket.simulation.SimulationOptions;
+import net.sf.openrocket.simulation.extension.SimulationExtension;
 import net.sf.openrocket.simulation.extension.impl.ScriptingExtension;
 import net.sf.openrocket.simulation.extension.impl.ScriptingUtil;
 import net.sf.openrocket.startup.Application;
@@ -189,6 +198,72 @@ public class OpenRocketSaverTest {
 	}
 	
 	
+	@Test
+	public void testDeferredFlightData() {
+		OpenRocketDocument rocketDoc = TestRockets.makeTestRocket_v104_withSimulationData();
+		FlightDataType[] types = { FlightDataType.TYPE_TIME, FlightDataType.TYPE_ALTITUDE,
+				FlightDataType.TYPE_VELOCITY_TOTAL, FlightDataType.TYPE_ACCELERATION_TOTAL };
+		FlightDataBranch sustainer = new FlightDataBranch("Sustainer", types);
+		FlightDataBranch booster = new FlightDataBranch("Booster", types);
+		for (int i = 0; i < 500; i++) {
+			double t = i * 0.01;
+			sustainer.addPoint();
+			sustainer.setValue(FlightDataType.TYPE_TIME, t);
+			sustainer.setValue(FlightDataType.TYPE_ALTITUDE, 100 * t - 9.81 / 2 * t * t);
+			sustainer.setValue(FlightDataType.TYPE_VELOCITY_TOTAL, Math.abs(100 - 9.81 * t));
+			sustainer.setValue(FlightDataType.TYPE_ACCELERATION_TOTAL, (i == 0) ? Double.NaN : -9.81);
+			booster.addPoint(new double[] { t, 10 * t, 10, 0 });
+		}
+		sustainer.addEvent(new FlightEvent(FlightEvent.Type.LAUNCHROD, 0.2));
+		sustainer.addEvent(new FlightEvent(FlightEvent.Type.APOGEE, 4.5));
+		FlightData data = new FlightData(sustainer, booster);
+		data.immute();
+		rocketDoc.addSimulation(new Simulation(rocketDoc.getRocket(), Simulation.Status.LOADED, "Deferred",
+				new SimulationOptions(), Collections.<SimulationExtension> emptyList(), data));
+		
+		StorageOptions options = new StorageOptions();
+		options.setSimulationTimeSkip(StorageOptions.SIMULATION_DATA_ALL);
+		File file = saveRocket(rocketDoc, options);
+		
+		OpenRocketDocument eager = loadRocket(file.getPath());
+		GeneralRocketLoader loader = new GeneralRocketLoader(file);
+		loader.setFlightDataDeferred(true);
+		OpenRocketDocument deferred = null;
+		try {
+			deferred = loader.load();
+		} catch (RocketLoadException e) {
+			fail("RocketLoadException while loading file " + file + " : " + e.getMessage());
+		}
+		
+		assertEquals(eager.getDefaultStorageOptions().getSimulationTimeSkip(),
+				deferred.getDefaultStorageOptions().getSimulationTimeSkip(), 0);
+		
+		FlightData eagerData = eager.getSimulations().get(2).getSimulatedData();
+		FlightData deferredData = deferred.getSimulations().get(2).getSimulatedData();
+		assertEquals(2, deferredData.getBranchCount());
+		assertEquals(eagerData.getMaxAltitude(), deferredData.getMaxAltitude(), 0.001);
+		assertEquals(eagerData.getTimeToApogee(), deferredData.getTimeToApogee(), 0.001);
+		for (int b = 0; b < 2; b++) {
+			FlightDataBranch eagerBranch = eagerData.getBranch(b);
+			FlightDataBranch deferredBranch = deferredData.getBranch(b);
+			assertNotNull(deferredBranch.getDeferredPoints());
+			assertEquals(eagerBranch.getBranchName(), deferredBranch.getBranchName());
+			assertEquals(eagerBranch.getEvents().size(), deferredBranch.getEvents().size());
+			for (int i = 0; i < eagerBranch.getEvents().size(); i++) {
+				assertEquals(eagerBranch.getEvents().get(i).getType(), deferredBranch.getEvents().get(i).getType());
+				assertEquals(eagerBranch.getEvents().get(i).getTime(), deferredBranch.getEvents().get(i).getTime(), 0);
+			}
+			
+			assertEquals(500, deferredBranch.getLength());
+			assertNull(deferredBranch.getDeferredPoints());
+			for (FlightDataType type : types) {
+				assertEquals(eagerBranch.get(type), deferredBranch.get(type));
+				assertEquals(eagerBranch.getMaximum(type), deferredBranch.getMaximum(type), 0);
+			}
+		}
+	}
+	
+	
 	////////////////////////////////
 	// Tests for File Version 1.7 // 
 	////////////////////////////////
@@ -1,6 +1,11 @@
 package net.sf.openrocket.file.openrocket.importt;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.Locale;
+import java.util.Random;
+
 import net.sf.openrocket.file.openrocket.OpenRocketSaver;
 import net.sf.openrocket.util.BaseTestCase.BaseTestCase;
 
@@ -13,4 +18,36 @@ public class DocumentConfigTest extends BaseTestCase {
 		assertEquals(OpenRocketSaver.FILE_VERSION_DIVISOR, DocumentConfig.FILE_VERSION_DIVISOR);
 	}
 	
+	@Test
+	public void testCharsToDouble() {
+		String[] values = { "0", "-0", "1", "-1.5", " 12.25 ", "0.001", ".5", "5.", "+3", "1e3", "1.5E-7",
+				"-2.75e+10", "123456789012345", "1234567890123456789", "0.1234567890123456789",
+				"1e-300", "1e300", "4.9e-324", "NaN", "Inf", "-Inf", "Infinity", "0x1p3" };
+		for (String s : values) {
+			assertCharsToDouble(s);
+		}
+		
+		Random rnd = new Random(0);
+		for (int i = 0; i < 10000; i++) {
+			double d = rnd.nextGaussian() * Math.pow(10, rnd.nextInt(20) - 10);
+			assertCharsToDouble(Double.toString(d));
+			assertCharsToDouble(String.format(Locale.ROOT, "%.4f", d));
+		}
+		
+		for (String s : new String[] { "", "-", ".", "1e", "1,5", "1.2.3", "abc" }) {
+			try {
+				DocumentConfig.charsToDouble(s.toCharArray(), 0, s.length());
+				fail("No exception for '" + s + "'");
+			} catch (NumberFormatException expected) {
+			}
+		}
+	}
+	
+	private void assertCharsToDouble(String s) {
+		char[] chars = ("x" + s + "y").toCharArray();
+		double expected = DocumentConfig.stringToDouble(s.trim());
+		double actual = DocumentConfig.charsToDouble(chars, 1, s.length());
+		assertEquals(s, Double.doubleToLongBits(expected), Double.doubleToLongBits(actual));
+	}
+	
 }
@@ -1,15 +1,22 @@
 package net.sf.openrocket.masscalc;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
 
+import net.sf.openrocket.rocketcomponent.AxialStage;
+import net.sf.openrocket.rocketcomponent.FlightConfiguration;
 import net.sf.openrocket.rocketcomponent.Rocket;
 import net.sf.openrocket.util.TestRockets;
 import net.sf.openrocket.util.BaseTestCase.BaseTestCase;
 
 public class MassCacheTest extends BaseTestCase {
 	
+	// tolerance for compared double test results
+	private static final double EPSILON = 0.000001;
+	
 	
 	@Test
 	public void testCMCache() {
@@ -20,6 +27,43 @@ public class MassCacheTest extends BaseTestCase {
 		// .... soooo we have this waste of space. -DMW
 		assertTrue( true );
 	}
+	
+	@Test
+	public void testStructureCache() {
+		Rocket rocket = TestRockets.makeFalcon9Heavy();
+		rocket.setName("TestRocket."+Thread.currentThread().getStackTrace()[1].getMethodName());
+		
+		FlightConfiguration config = rocket.getSelectedConfiguration();
+		config.setAllStages();
+		MassCalculator mc = new MassCalculator();
+		
+		final RigidBody expected = MassCalculator.calculateStructure( config );
+		assertEquals( expected.getMass(), mc.getStructure( config ).getMass(), EPSILON );
+		assertEquals( expected.getMass(), mc.getStructure( config ).getMass(), EPSILON );
+		assertEquals( 1, mc.getCacheMisses() );
+		assertEquals( 1, mc.getCacheHits() );
+		
+		// stage activation is part of the key
+		AxialStage payloadStage = (AxialStage) rocket.getChild(0);
+		config.setOnlyStage( payloadStage.getStageNumber() );
+		final RigidBody payload = mc.getStructure( config );
+		assertEquals( MassCalculator.calculateStructure( config ).getMass(), payload.getMass(), EPSILON );
+		assertTrue( payload.getMass() < expected.getMass() );
+		assertEquals( 2, mc.getCacheMisses() );
+		
+		config.setAllStages();
+		assertEquals( expected.getMass(), mc.getStructure( config ).getMass(), EPSILON );
+		assertEquals( 2, mc.getCacheHits() );
+		
+		// mass changes invalidate the cached data
+		payloadStage.setOverrideSubcomponents(true);
+		payloadStage.setMassOverridden(true);
+		payloadStage.setOverrideMass(1.0);
+		final RigidBody modified = mc.getStructure( config );
+		assertEquals( 3, mc.getCacheMisses() );
+		assertEquals( MassCalculator.calculateStructure( config ).getMass(), modified.getMass(), EPSILON );
+		assertNotEquals( expected.getMass(), modified.getMass(), EPSILON );
+	}
 //		
 //		FlightConfiguration config = rocket.getEmptyConfiguration();
 //		MassCalculator mc = new MassCalculator();
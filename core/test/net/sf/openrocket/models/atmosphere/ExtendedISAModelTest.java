@@ -0,0 +1,35 @@
+package net.sf.openrocket.models.atmosphere;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+
+public class ExtendedISAModelTest {
+	
+	private static final double EPSILON = 1e-9;
+	
+	private ExtendedISAModel model = new ExtendedISAModel();
+	
+	@Test
+	public void testStandardConditions() {
+		AtmosphericConditions c = model.getConditions(0);
+		assertEquals(ExtendedISAModel.STANDARD_TEMPERATURE, c.getTemperature(), 0.01);
+		assertEquals(ExtendedISAModel.STANDARD_PRESSURE, c.getPressure(), 1);
+	}
+	
+	@Test
+	public void testSampleMatchesConditions() {
+		double[] sample = new double[AtmosphericModel.SAMPLE_LENGTH];
+		for (double altitude = -100; altitude < 100000; altitude += 123.4) {
+			AtmosphericConditions c = model.getConditions(altitude);
+			model.sampleConditions(altitude, sample);
+			assertEquals(c.getTemperature(), sample[AtmosphericModel.TEMPERATURE], EPSILON);
+			assertEquals(c.getPressure(), sample[AtmosphericModel.PRESSURE], EPSILON * c.getPressure());
+			assertEquals(c.getDensity(), sample[AtmosphericModel.DENSITY], EPSILON * c.getDensity());
+			assertEquals(c.getMachSpeed(), sample[AtmosphericModel.MACH_SPEED], EPSILON);
+			assertEquals(c.getKinematicViscosity(), sample[AtmosphericModel.KINEMATIC_VISCOSITY],
+					EPSILON * c.getKinematicViscosity());
+		}
+	}
+}
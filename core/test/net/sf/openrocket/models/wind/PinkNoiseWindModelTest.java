@@ -0,0 +1,85 @@
+package net.sf.openrocket.models.wind;
+
+import static org.junit.Assert.assertEquals;
+import net.sf.openrocket.util.Coordinate;
+
+import org.junit.Test;
+
+
+public class PinkNoiseWindModelTest {
+	
+	private static final double EPSILON = 1e-12;
+	
+	private PinkNoiseWindModel createModel() {
+		PinkNoiseWindModel model = new PinkNoiseWindModel(1234);
+		model.setAverage(5);
+		model.setStandardDeviation(1);
+		model.setDirection(0.3);
+		return model;
+	}
+	
+	@Test
+	public void testRandomAccessMatchesSequential() {
+		PinkNoiseWindModel sequential = createModel();
+		Coordinate[] expected = new Coordinate[4000];
+		for (int i = 0; i < expected.length; i++) {
+			expected[i] = sequential.getWindVelocity(i * 0.037, 100);
+		}
+		
+		PinkNoiseWindModel random = createModel();
+		for (int i = expected.length - 1; i >= 0; i -= 7) {
+			assertEquals(expected[i], random.getWindVelocity(i * 0.037, 100));
+		}
+	}
+	
+	@Test
+	public void testMatchesPreviousGenerator() {
+		// Wind velocities generated by the previous implementation, which stepped the
+		// noise generator forward and replayed it from t=0 for earlier times
+		double[][] expected = {
+				{ 0, 1.219528682054697, 3.9424046926078677 },
+				{ 0.02, 1.2212654465596053, 3.9480191801019777 },
+				{ 0.5, 1.475836790804518, 4.770979129238806 },
+				{ 1.234, 1.2368502364432556, 3.998400568973531 },
+				{ 7.77, 1.141390629563262, 3.6898056112197537 },
+				{ 20.0, 1.2838548587812693, 4.150353734492711 },
+				{ 63.31, 1.32371353860224, 4.279206010523315 },
+				{ 150.0, 2.0443595687643374, 6.608858713921444 },
+				{ 3.3, 1.8122238271214233, 5.858426968738443 },
+				{ 0.1, 1.355727796150376, 4.3826994019009415 },
+		};
+		
+		PinkNoiseWindModel model = createModel();
+		for (double[] e : expected) {
+			Coordinate wind = model.getWindVelocity(e[0], 100);
+			assertEquals(e[1], wind.x, 1e-9);
+			assertEquals(e[2], wind.y, 1e-9);
+			assertEquals(0, wind.z, 0);
+		}
+	}
+	
+	@Test
+	public void testSampleMatchesVelocity() {
+		PinkNoiseWindModel model = createModel();
+		double[] velocity = new double[3];
+		for (double t = 0; t < 20; t += 0.13) {
+			Coordinate wind = model.getWindVelocity(t, 0);
+			model.sampleWindVelocity(t, 0, velocity);
+			assertEquals(wind.x, velocity[0], EPSILON);
+			assertEquals(wind.y, velocity[1], EPSILON);
+			assertEquals(wind.z, velocity[2], EPSILON);
+		}
+	}
+	
+	@Test
+	public void testCopyReplaysWind() {
+		PinkNoiseWindModel model = createModel();
+		Coordinate late = model.getWindVelocity(150, 0);
+		assertEquals(late, model.copy().getWindVelocity(150, 0));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativeTime() {
+		createModel().getWindVelocity(-1, 0);
+	}
+}
@@ -0,0 +1,106 @@
+package net.sf.openrocket.motor;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import net.sf.openrocket.util.Coordinate;
+
+public class ThrustCurveMotorSnapshotTest {
+
+	private final ThrustCurveMotor motorX6 = new ThrustCurveMotor.Builder()
+			.setManufacturer(Manufacturer.getManufacturer("foo"))
+			.setDesignation("X6")
+			.setDescription("Description of X6")
+			.setMotorType(Motor.Type.RELOAD)
+			.setStandardDelays(new double[] { 0, 2, Motor.PLUGGED_DELAY })
+			.setDiameter(0.05)
+			.setLength(0.10)
+			.setTimePoints(new double[] { 0, 1, 3, 4 })
+			.setThrustPoints(new double[] { 0, 2, 3, 0 })
+			.setCGPoints(new Coordinate[] {
+					new Coordinate(0.02, 0, 0, 0.05),
+					new Coordinate(0.02, 0, 0, 0.05),
+					new Coordinate(0.02, 0, 0, 0.05),
+					new Coordinate(0.03, 0, 0, 0.03) })
+			.setDigest("digestA")
+			.build();
+
+	private final ThrustCurveMotor motorA8 = new ThrustCurveMotor.Builder()
+			.setManufacturer(Manufacturer.getManufacturer("Estes"))
+			.setDesignation("A8")
+			.setDescription("Description of A8")
+			.setMotorType(Motor.Type.SINGLE)
+			.setStandardDelays(new double[] { 3, 5 })
+			.setDiameter(0.018)
+			.setLength(0.07)
+			.setTimePoints(new double[] { 0, 0.2, 0.7 })
+			.setThrustPoints(new double[] { 0, 9.7, 0 })
+			.setCGPoints(new Coordinate[] {
+					new Coordinate(0.035, 0, 0, 0.016),
+					new Coordinate(0.035, 0, 0, 0.015),
+					new Coordinate(0.035, 0, 0, 0.013) })
+			.setCaseInfo("SU 18x70")
+			.setAvailablity(false)
+			.build();
+
+	private List<ThrustCurveMotor> roundTrip(ThrustCurveMotor... motors) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ThrustCurveMotorSnapshot.write(Arrays.asList(motors), out);
+		return ThrustCurveMotorSnapshot.read(new ByteArrayInputStream(out.toByteArray()));
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		List<ThrustCurveMotor> motors = roundTrip(motorX6, motorA8);
+		assertEquals(2, motors.size());
+
+		ThrustCurveMotor a8 = motors.get(1);
+		assertSame(motorA8.getManufacturer(), a8.getManufacturer());
+		assertEquals("A8", a8.getDesignation());
+		assertEquals("SU 18x70", a8.getCaseInfo());
+		assertNull(a8.getPropellantInfo());
+		assertNull(a8.getDigest());
+		assertEquals(Motor.Type.SINGLE, a8.getMotorType());
+		assertEquals(false, a8.isAvailable());
+		assertArrayEquals(new double[] { 3, 5 }, a8.getStandardDelays(), 0);
+		assertEquals(motorA8.getUnitIxx(), a8.getUnitIxx(), 0);
+
+		// Statistics are available before the curve has been read
+		ThrustCurveMotor x6 = motors.get(0);
+		assertEquals(4, x6.getSampleSize());
+		assertEquals(motorX6.getTotalImpulseEstimate(), x6.getTotalImpulseEstimate(), 0);
+		assertEquals(motorX6.getAverageThrustEstimate(), x6.getAverageThrustEstimate(), 0);
+		assertEquals(motorX6.getBurnTimeEstimate(), x6.getBurnTimeEstimate(), 0);
+		assertEquals(motorX6.getMaxThrustEstimate(), x6.getMaxThrustEstimate(), 0);
+
+		assertEquals(motorX6.getThrust(2.5), x6.getThrust(2.5), 0);
+		assertArrayEquals(motorX6.getTimePoints(), x6.getTimePoints(), 0);
+		assertArrayEquals(motorX6.getThrustPoints(), x6.getThrustPoints(), 0);
+		assertArrayEquals(motorX6.getCGPoints(), x6.getCGPoints());
+		assertEquals(0.03, x6.getBurnoutMass(), 0);
+	}
+
+	@Test(expected = IOException.class)
+	public void testInvalidMagic() throws IOException {
+		ThrustCurveMotorSnapshot.read(ByteBuffer.wrap(new byte[] { 1, 2, 3, 4, 0, 0, 0, 1 }));
+	}
+
+	@Test(expected = IOException.class)
+	public void testTruncated() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ThrustCurveMotorSnapshot.write(Arrays.asList(motorX6), out);
+		byte[] bytes = Arrays.copyOf(out.toByteArray(), out.size() - 8);
+		ThrustCurveMotorSnapshot.read(ByteBuffer.wrap(bytes));
+	}
+}
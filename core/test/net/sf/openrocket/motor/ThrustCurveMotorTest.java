@@ -177,6 +177,39 @@ public class ThrustCurveMotorTest {
 		}
 	}
 	
+	@Test
+	public void testAverageThrust(){
+		// within a single slice
+		assertEquals( 1.5, motorX6.getAverageThrust( 0.5, 1.0 ), 0.00001 );
+		// across several slices: (1 + 5) / 3
+		assertEquals( 2.0, motorX6.getAverageThrust( 0.0, 3.0 ), 0.00001 );
+		// past burnout the thrust is zero: (5 + 1.5) / 4
+		assertEquals( 1.625, motorX6.getAverageThrust( 1.0, 5.0 ), 0.00001 );
+		// the whole burn
+		assertEquals( motorEstesA8_3.getTotalImpulseEstimate() / 0.73,
+				motorEstesA8_3.getAverageThrust( 0.0, 0.73 ), 0.00001 );
+	}
+	
+	@Test
+	public void testCursorMatchesMotor(){
+		final ThrustCurveMotor mtr = motorEstesA8_3;
+		final ThrustCurveMotor.Cursor cursor = mtr.newCursor();
+		
+		// forward in small steps, then jumping back and forth
+		final double step = 0.0013;
+		for( double t = 0; t < 0.8; t += step ){
+			assertEquals( mtr.getThrust( t ), cursor.getThrust( t ), 0 );
+			assertEquals( mtr.getCMx( t ), cursor.getCMx( t ), 0 );
+			assertEquals( mtr.getTotalMass( t ), cursor.getTotalMass( t ), 0 );
+			assertEquals( mtr.getAverageThrust( t, t + step ), cursor.getAverageThrust( t, t + step ), 0 );
+		}
+		for( double t : new double[] { 0.5, 0.041, 0.7, 0.0, 0.73, 0.206, 2.0 } ){
+			assertEquals( mtr.getThrust( t ), cursor.getThrust( t ), 0 );
+			assertEquals( mtr.getAverageThrust( t, t + 0.1 ), cursor.getAverageThrust( t, t + 0.1 ), 0 );
+		}
+		assertTrue( Double.isNaN( cursor.getThrust( -1 )));
+	}
+	
 	@Test
 	public void testThrustRetrieval(){
 		// attempt to retrieve an integer index: 
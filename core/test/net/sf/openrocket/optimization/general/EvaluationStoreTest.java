@@ -0,0 +1,107 @@
+package net.sf.openrocket.optimization.general;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class EvaluationStoreTest {
+
+	private File file;
+
+	@Before
+	public void setUp() throws IOException {
+		file = File.createTempFile("evaluations", ".txt");
+		file.delete();
+	}
+
+	@After
+	public void tearDown() {
+		file.delete();
+		new File(file.getPath() + ".tmp").delete();
+	}
+
+	@Test
+	public void testValuesSurviveReopening() throws IOException {
+		EvaluationStore store = new EvaluationStore(file, 10);
+		store.put("a", 1.5);
+		store.put("b", -2.25);
+		store.close();
+
+		store = new EvaluationStore(file, 10);
+		assertEquals(1.5, store.get("a"), 0);
+		assertEquals(-2.25, store.get("b"), 0);
+		assertNull(store.get("c"));
+		assertEquals(2, store.getHitCount());
+		assertEquals(1, store.getMissCount());
+	}
+
+	@Test
+	public void testValuesSurviveWithoutClosing() throws IOException {
+		EvaluationStore store = new EvaluationStore(file, 10);
+		store.put("a", 1.5);
+		store.put("b", 3);
+
+		// Simulate a crash in the middle of writing a line
+		try (OutputStream out = new FileOutputStream(file, true)) {
+			out.write("c 1.2".getBytes(StandardCharsets.UTF_8));
+		}
+		try (OutputStream out = new FileOutputStream(file, true)) {
+			out.write("e".getBytes(StandardCharsets.UTF_8));
+		}
+
+		store = new EvaluationStore(file, 10);
+		assertEquals(1.5, store.get("a"), 0);
+		assertEquals(3, store.get("b"), 0);
+		assertNull(store.get("c"));
+	}
+
+	@Test
+	public void testLeastRecentlyUsedEvicted() throws IOException {
+		EvaluationStore store = new EvaluationStore(file, 3);
+		store.put("a", 1);
+		store.put("b", 2);
+		store.put("c", 3);
+		store.get("a");
+		store.put("d", 4);
+		assertEquals(3, store.size());
+		assertNull(store.get("b"));
+		store.close();
+
+		store = new EvaluationStore(file, 3);
+		assertEquals(3, store.size());
+		assertNull(store.get("b"));
+		assertEquals(1, store.get("a"), 0);
+		assertEquals(3, store.get("c"), 0);
+		assertEquals(4, store.get("d"), 0);
+	}
+
+	@Test
+	public void testFileIsCompacted() throws IOException {
+		EvaluationStore store = new EvaluationStore(file, 5);
+		for (int i = 0; i < 100; i++) {
+			store.put("k" + i, i);
+		}
+		assertEquals(5, store.size());
+
+		// The appended lines never grow far beyond twice the size
+		store = new EvaluationStore(file, 1000);
+		assertTrue(store.size() >= 5 && store.size() <= 10);
+		assertEquals(99, store.get("k99"), 0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidKey() {
+		new EvaluationStore(file, 10).put("a b", 1);
+	}
+
+}
@@ -0,0 +1,88 @@
+package net.sf.openrocket.optimization.general.multidim;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import net.sf.openrocket.optimization.general.Function;
+import net.sf.openrocket.optimization.general.OptimizationController;
+import net.sf.openrocket.optimization.general.OptimizationException;
+import net.sf.openrocket.optimization.general.ParallelExecutorCache;
+import net.sf.openrocket.optimization.general.Point;
+
+public class DifferentialEvolutionOptimizerTest {
+	
+	private static final double STEP_SIZE_LIMIT = 0.0001;
+	
+	@Test
+	public void testFindsMinimum() throws OptimizationException {
+		ParallelExecutorCache cache = new ParallelExecutorCache(4);
+		cache.setFunction(new Function() {
+			@Override
+			public double evaluate(Point point) {
+				double x = point.get(0) - 0.3;
+				double y = point.get(1) - 0.7;
+				double z = point.get(2) - 0.5;
+				return x * x + 2 * y * y + 3 * z * z;
+			}
+		});
+		
+		DifferentialEvolutionOptimizer optimizer = new DifferentialEvolutionOptimizer(cache);
+		optimizer.setSeed(1);
+		optimizer.optimize(new Point(0.9, 0.1, 0.1), new OptimizationController() {
+			@Override
+			public boolean stepTaken(Point oldPoint, double oldValue, Point newPoint, double newValue, double stepSize) {
+				assertTrue(newValue <= oldValue);
+				return stepSize > STEP_SIZE_LIMIT;
+			}
+		});
+		cache.getExecutor().shutdownNow();
+		
+		Point optimum = optimizer.getOptimumPoint();
+		assertEquals(0.3, optimum.get(0), 0.001);
+		assertEquals(0.7, optimum.get(1), 0.001);
+		assertEquals(0.5, optimum.get(2), 0.001);
+		assertEquals(0, optimizer.getOptimumValue(), 1e-5);
+	}
+	
+	@Test
+	public void testPopulationIsEvaluatedInParallel() throws OptimizationException {
+		final AtomicInteger running = new AtomicInteger();
+		final AtomicInteger maxRunning = new AtomicInteger();
+		
+		ParallelExecutorCache cache = new ParallelExecutorCache(4);
+		cache.setFunction(new Function() {
+			@Override
+			public double evaluate(Point point) throws InterruptedException {
+				int n = running.incrementAndGet();
+				maxRunning.accumulateAndGet(n, Math::max);
+				try {
+					Thread.sleep(20);
+				} finally {
+					running.decrementAndGet();
+				}
+				return point.length2();
+			}
+		});
+		
+		DifferentialEvolutionOptimizer optimizer = new DifferentialEvolutionOptimizer(cache);
+		optimizer.setPopulationSize(8);
+		optimizer.optimize(new Point(0.5, 0.5), new OptimizationController() {
+			@Override
+			public boolean stepTaken(Point oldPoint, double oldValue, Point newPoint, double newValue, double stepSize) {
+				return false;
+			}
+		});
+		cache.getExecutor().shutdownNow();
+		
+		assertEquals(4, maxRunning.get());
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testRequiresParallelCache() {
+		new DifferentialEvolutionOptimizer().setFunctionCache(null);
+	}
+}
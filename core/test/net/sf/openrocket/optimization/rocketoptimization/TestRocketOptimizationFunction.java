@@ -4,6 +4,9 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.io.File;
+import java.io.IOException;
+
 import org.jmock.Expectations;
 import org.jmock.Mockery;
 import org.jmock.auto.Mock;
@@ -13,8 +16,10 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 
 import net.sf.openrocket.document.Simulation;
+import net.sf.openrocket.optimization.general.EvaluationStore;
 import net.sf.openrocket.optimization.general.OptimizationException;
 import net.sf.openrocket.optimization.general.Point;
+import net.sf.openrocket.rocketcomponent.AxialStage;
 import net.sf.openrocket.rocketcomponent.Rocket;
 import net.sf.openrocket.unit.Unit;
 import net.sf.openrocket.unit.UnitGroup;
@@ -222,6 +227,108 @@ public class TestRocketOptimizationFunction extends BaseTestCase {
 	}
 	
 	
+	@Test
+	public void testSimulationInstanceReuse() throws InterruptedException, OptimizationException {
+		final Rocket rocket = new Rocket();
+		rocket.enableEvents();
+		final Simulation simulation = new Simulation(rocket);
+		final int[] copies = { 0 };
+		
+		// @formatter:off
+		context.checking(new Expectations() {
+			{
+				allowing(modifier1).modify(with(any(Simulation.class)), with(any(double.class)));
+				allowing(modifier2).modify(with(any(Simulation.class)), with(any(double.class)));
+				allowing(domain).getDistanceToDomain(with(any(Simulation.class)));
+				will(returnValue(new Pair<Double, Value>(-1.0, null)));
+				allowing(parameter).computeValue(with(any(Simulation.class)));
+				will(returnValue(1.0));
+				allowing(parameter).getUnitGroup();
+				will(returnValue(UnitGroup.UNITS_NONE));
+				allowing(goal).getMinimizationParameter(1.0);
+				will(returnValue(2.0));
+			}
+		});
+		// @formatter:on
+		
+		RocketOptimizationFunction function = new RocketOptimizationFunction(simulation,
+				parameter, goal, domain, modifier1, modifier2) {
+			@Override
+			Simulation newSimulationInstance(Simulation sim) {
+				copies[0]++;
+				return new Simulation(new Rocket());
+			}
+		};
+		
+		assertEquals(2.0, function.evaluate(new Point(0.1, 0.2)), 0);
+		assertEquals(2.0, function.evaluate(new Point(0.3, 0.4)), 0);
+		assertEquals(1, copies[0]);
+		
+		// Changing the base rocket discards the copies
+		rocket.addChild(new AxialStage());
+		function.evaluate(new Point(0.5, 0.6));
+		assertEquals(2, copies[0]);
+	}
+	
+	@Test
+	public void testStoredValueReused() throws InterruptedException, OptimizationException, IOException {
+		final Rocket rocket = new Rocket();
+		final Simulation simulation = new Simulation(rocket);
+		final File file = File.createTempFile("evaluations", ".txt");
+		file.delete();
+		
+		// @formatter:off
+		context.checking(new Expectations() {
+			{
+				allowing(modifier1).modify(with(any(Simulation.class)), with(any(double.class)));
+				allowing(modifier2).modify(with(any(Simulation.class)), with(any(double.class)));
+				allowing(modifier1).getName();
+				will(returnValue("Length"));
+				allowing(modifier2).getName();
+				will(returnValue("Diameter"));
+				allowing(modifier1).getRelatedObject();
+				will(returnValue(rocket));
+				allowing(modifier2).getRelatedObject();
+				will(returnValue(rocket));
+				allowing(modifier1).getCurrentSIValue(with(any(Simulation.class)));
+				will(returnValue(0.2));
+				allowing(modifier2).getCurrentSIValue(with(any(Simulation.class)));
+				will(returnValue(0.3));
+				allowing(domain).getDistanceToDomain(with(any(Simulation.class)));
+				will(returnValue(new Pair<Double, Value>(-1.0, null)));
+				allowing(parameter).getName();
+				will(returnValue("Altitude"));
+				oneOf(parameter).computeValue(with(any(Simulation.class)));
+				will(returnValue(1.0));
+				allowing(parameter).getUnitGroup();
+				will(returnValue(UnitGroup.UNITS_NONE));
+				allowing(goal).getMinimizationParameter(1.0);
+				will(returnValue(2.0));
+			}
+		});
+		// @formatter:on
+		
+		try {
+			EvaluationStore store = new EvaluationStore(file, 10);
+			RocketOptimizationFunction function = new RocketOptimizationFunction(simulation,
+					parameter, goal, domain, modifier1, modifier2);
+			function.setEvaluationStore(store);
+			assertEquals(2.0, function.evaluate(new Point(0.1, 0.2)), 0);
+			store.close();
+			
+			// A new run with the same design uses the stored value
+			store = new EvaluationStore(file, 10);
+			function = new RocketOptimizationFunction(simulation,
+					parameter, goal, domain, modifier1, modifier2);
+			function.setEvaluationStore(store);
+			assertEquals(2.0, function.evaluate(new Point(0.1, 0.2)), 0);
+			assertEquals(1, store.getHitCount());
+			assertEquals(0, store.getMissCount());
+		} finally {
+			file.delete();
+		}
+	}
+	
 	@Test
 	public void testNewSimulationNames() {
 		final Rocket rocket = new Rocket();
@@ -0,0 +1,113 @@
+package net.sf.openrocket.rocketcomponent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import net.sf.openrocket.util.Coordinate;
+import net.sf.openrocket.util.MathUtil;
+import net.sf.openrocket.util.TestRockets;
+import net.sf.openrocket.util.BaseTestCase.BaseTestCase;
+
+public class CompiledConfigurationTest extends BaseTestCase {
+	private final static double EPSILON = MathUtil.EPSILON*1E3;
+
+	@Test
+	public void testSnapshotIsReused() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		FlightConfiguration config = rocket.getSelectedConfiguration();
+
+		CompiledConfiguration compiled = config.getCompiledConfiguration();
+		assertSame(compiled, config.getCompiledConfiguration());
+		assertSame(compiled.getActiveComponents(), config.getActiveComponents());
+	}
+
+	@Test
+	public void testStageChangeRebuildsSnapshot() {
+		Rocket rocket = TestRockets.makeBeta();
+		FlightConfiguration config = rocket.getSelectedConfiguration();
+		config.setAllStages();
+
+		CompiledConfiguration compiled = config.getCompiledConfiguration();
+		AxialStage booster = (AxialStage) rocket.getChild(1);
+		assertTrue(compiled.getActiveComponents().contains(booster));
+
+		config.clearStage(booster.getStageNumber());
+		CompiledConfiguration separated = config.getCompiledConfiguration();
+		assertNotSame(compiled, separated);
+		assertFalse(separated.getActiveComponents().contains(booster));
+		for (InstanceContext context : separated.getInstances()) {
+			assertEquals(context.component.toString(), config.isComponentActive(context.component), context.active);
+		}
+	}
+
+	@Test
+	public void testComponentChangeRebuildsSnapshot() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		FlightConfiguration config = rocket.getSelectedConfiguration();
+		NoseCone nose = (NoseCone) rocket.getChild(0).getChild(0);
+		BodyTube body = (BodyTube) rocket.getChild(0).getChild(1);
+
+		CompiledConfiguration compiled = config.getCompiledConfiguration();
+		assertEquals(0.07, locationOf(compiled, body).x, EPSILON);
+
+		nose.setLength(0.08);
+		CompiledConfiguration changed = config.getCompiledConfiguration();
+		assertNotSame(compiled, changed);
+		assertEquals(0.08, locationOf(changed, body).x, EPSILON);
+	}
+
+	@Test
+	public void testInstancesMatchActiveInstances() {
+		Rocket rocket = TestRockets.makeFalcon9Heavy();
+		FlightConfiguration config = rocket.getSelectedConfiguration();
+
+		InstanceMap instances = config.getActiveInstances();
+		List<InstanceContext> compiled = config.getCompiledConfiguration().getInstances();
+
+		int count = 0;
+		for (ArrayList<InstanceContext> contexts : instances.values()) {
+			count += contexts.size();
+			for (InstanceContext context : contexts) {
+				assertTrue(context.toString(), compiled.contains(context));
+			}
+		}
+		assertEquals(compiled.size(), count);
+	}
+
+	@Test
+	public void testMotorMountPlacements() {
+		Rocket rocket = TestRockets.makeFalcon9Heavy();
+		FlightConfiguration config = rocket.getSelectedConfiguration();
+		config.setAllStages();
+		CompiledConfiguration compiled = config.getCompiledConfiguration();
+
+		List<Coordinate> boosterOffsets = new ArrayList<Coordinate>();
+		for (int i = 0; i < compiled.getMotorMountCount(); i++) {
+			if ("Booster Motor Tubes".equals(compiled.getMotorMount(i).getName())) {
+				boosterOffsets.add(compiled.getMotorMountOffset(i));
+			}
+		}
+
+		// one placement for each of the two booster instances
+		assertEquals(2, boosterOffsets.size());
+		assertEquals(boosterOffsets.get(0).x, boosterOffsets.get(1).x, EPSILON);
+		assertEquals(-boosterOffsets.get(0).y, boosterOffsets.get(1).y, EPSILON);
+	}
+
+	private static Coordinate locationOf(CompiledConfiguration compiled, RocketComponent component) {
+		for (InstanceContext context : compiled.getInstances()) {
+			if (context.component == component) {
+				return context.getLocation();
+			}
+		}
+		throw new IllegalArgumentException("component not found: " + component);
+	}
+}
@@ -0,0 +1,84 @@
+package net.sf.openrocket.rocketcomponent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import net.sf.openrocket.document.OpenRocketDocument;
+import net.sf.openrocket.document.OpenRocketDocumentFactory;
+import net.sf.openrocket.util.TestRockets;
+import net.sf.openrocket.util.BaseTestCase.BaseTestCase;
+
+public class RocketSnapshotTest extends BaseTestCase {
+
+	@Test
+	public void testUnchangedComponentsShared() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		RocketSnapshot first = RocketSnapshot.take(rocket, null);
+
+		NoseCone nose = (NoseCone) rocket.getChild(0).getChild(0);
+		nose.setLength(nose.getLength() * 2);
+		RocketSnapshot second = RocketSnapshot.take(rocket, first);
+
+		// Only the rocket and the nose cone are copied again
+		assertEquals(first.getComponentCount(), second.getComponentCount());
+		assertEquals(2, second.getUnsharedComponentCount(first));
+
+		// Taking a snapshot of an unchanged rocket copies only the rocket
+		RocketSnapshot third = RocketSnapshot.take(rocket, second);
+		assertEquals(1, third.getUnsharedComponentCount(second));
+	}
+
+	@Test
+	public void testRestoreSnapshot() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		NoseCone nose = (NoseCone) rocket.getChild(0).getChild(0);
+		double length = nose.getLength();
+		int count = rocket.getChild(0).getChildCount();
+		RocketSnapshot snapshot = RocketSnapshot.take(rocket, null);
+
+		nose.setLength(length * 2);
+		rocket.getChild(0).addChild(new BodyTube());
+
+		rocket.loadFrom(snapshot.toRocket());
+		assertEquals(snapshot.getModID(), rocket.getModID());
+		assertEquals(count, rocket.getChild(0).getChildCount());
+		assertEquals(length, ((NoseCone) rocket.getChild(0).getChild(0)).getLength(), 0);
+
+		// The restored components are shared with the snapshot again
+		RocketSnapshot next = RocketSnapshot.take(rocket, snapshot);
+		assertEquals(1, next.getUnsharedComponentCount(snapshot));
+	}
+
+	@Test
+	public void testDocumentUndoRedo() {
+		OpenRocketDocument document = OpenRocketDocumentFactory.createDocumentFromRocket(TestRockets.makeEstesAlphaIII());
+		Rocket rocket = document.getRocket();
+		double length = ((NoseCone) rocket.getChild(0).getChild(0)).getLength();
+
+		for (int i = 1; i <= 3; i++) {
+			document.addUndoPosition("Modify nose cone");
+			((NoseCone) rocket.getChild(0).getChild(0)).setLength(length * (i + 1));
+		}
+		document.addUndoPosition("Add body tube");
+		rocket.getChild(0).addChild(new BodyTube());
+		int count = rocket.getChild(0).getChildCount();
+
+		for (int i = 0; i < 4; i++) {
+			assertTrue(document.isUndoAvailable());
+			document.undo();
+		}
+		assertEquals(count - 1, rocket.getChild(0).getChildCount());
+		assertEquals(length, ((NoseCone) rocket.getChild(0).getChild(0)).getLength(), 0);
+
+		document.redo();
+		document.redo();
+		assertEquals(length * 3, ((NoseCone) rocket.getChild(0).getChild(0)).getLength(), 0);
+		document.redo();
+		document.redo();
+		assertEquals(count, rocket.getChild(0).getChildCount());
+		assertEquals(length * 4, ((NoseCone) rocket.getChild(0).getChild(0)).getLength(), 0);
+	}
+
+}
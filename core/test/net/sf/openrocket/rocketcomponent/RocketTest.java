@@ -44,6 +44,62 @@ public class RocketTest extends BaseTestCase {
 	
 	
 	
+	@Test
+	public void testEventCoalescing() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		NoseCone nose = (NoseCone) rocket.getChild(0).getChild(0);
+		BodyTube body = (BodyTube) rocket.getChild(0).getChild(1);
+		int fired = rocket.getFiredEventCount();
+		int delivered = rocket.getDeliveredEventCount();
+		
+		nose.setName("Nose");
+		assertEquals(fired + 1, rocket.getFiredEventCount());
+		assertEquals(delivered + 1, rocket.getDeliveredEventCount());
+		
+		rocket.freeze();
+		try {
+			nose.setLength(nose.getLength() + 0.01);
+			nose.setName("Longer nose");
+		} finally {
+			rocket.thaw();
+		}
+		assertEquals(fired + 3, rocket.getFiredEventCount());
+		assertEquals(delivered + 2, rocket.getDeliveredEventCount());
+		
+		// The components following the changed one are still moved
+		assertEquals(nose.getLength(), body.getPosition().x, EPSILON);
+	}
+
+	@Test
+	public void testEventsReachAddedComponents() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		AxialStage stage = (AxialStage) rocket.getChild(0);
+		NoseCone nose = (NoseCone) stage.getChild(0);
+		
+		// Deliver a geometry change before the tree changes
+		nose.setLength(nose.getLength() + 0.01);
+		
+		final int[] notified = new int[1];
+		BodyTube tail = new BodyTube() {
+			@Override
+			protected void componentChanged(ComponentChangeEvent e) {
+				notified[0]++;
+				super.componentChanged(e);
+			}
+		};
+		stage.addChild(tail);
+		int count = notified[0];
+		
+		nose.setLength(nose.getLength() + 0.01);
+		assertEquals(count + 1, notified[0]);
+		nose.setName("Nose");
+		assertEquals(count + 1, notified[0]);
+		
+		stage.removeChild(tail);
+		nose.setLength(nose.getLength() + 0.01);
+		assertEquals(count + 1, notified[0]);
+	}
+	
 	@Test
 	public void testCopyRocketFrom() {
 		//Rocket r1 = net.sf.openrocket.util.TestRockets.makeBigBlue();
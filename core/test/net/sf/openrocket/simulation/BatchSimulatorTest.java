@@ -0,0 +1,98 @@
+package net.sf.openrocket.simulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import net.sf.openrocket.document.Simulation;
+import net.sf.openrocket.rocketcomponent.FlightConfigurationId;
+import net.sf.openrocket.rocketcomponent.Rocket;
+import net.sf.openrocket.util.BaseTestCase.BaseTestCase;
+import net.sf.openrocket.util.TestRockets;
+
+public class BatchSimulatorTest extends BaseTestCase {
+
+	private static Simulation createSimulation(Rocket rocket, FlightConfigurationId id, double windSpeed) {
+		Simulation simulation = new Simulation(rocket);
+		simulation.setFlightConfigurationId(id);
+		SimulationOptions options = simulation.getOptions();
+		options.setTimeStep(RK4SimulationStepper.RECOMMENDED_TIME_STEP);
+		options.setMaximumStepAngle(RK4SimulationStepper.RECOMMENDED_ANGLE_STEP);
+		options.setLaunchRodLength(1);
+		options.setISAAtmosphere(true);
+		options.setWindSpeedAverage(windSpeed);
+		options.setRandomSeed(42);
+		return simulation;
+	}
+
+	@Test
+	public void testParallelMatchesSerial() throws InterruptedException {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		FlightConfigurationId id = rocket.getFlightConfigurationByIndex(2).getId();
+
+		List<Simulation> simulations = new ArrayList<Simulation>();
+		for (int i = 0; i < 6; i++) {
+			simulations.add(createSimulation(rocket, id, i));
+		}
+
+		BatchSimulator simulator = new BatchSimulator();
+		simulator.setThreads(1);
+		List<BatchSimulator.Result> serial = simulator.run(simulations, null);
+		double[] apogees = new double[serial.size()];
+		for (int i = 0; i < serial.size(); i++) {
+			apogees[i] = serial.get(i).getFlightData().getMaxAltitude();
+		}
+
+		final AtomicInteger notifications = new AtomicInteger();
+		simulator.setThreads(3);
+		List<BatchSimulator.Result> parallel = simulator.run(simulations, new BatchSimulator.ProgressListener() {
+			@Override
+			public void simulationFinished(BatchSimulator.Result result, int finished, int total) {
+				assertEquals(6, total);
+				notifications.incrementAndGet();
+			}
+		});
+
+		assertEquals(6, notifications.get());
+		assertEquals(6, parallel.size());
+		for (int i = 0; i < parallel.size(); i++) {
+			BatchSimulator.Result result = parallel.get(i);
+			assertSame(simulations.get(i), result.getSimulation());
+			assertTrue(result.isSuccessful());
+			assertTrue(result.getTime() > 0);
+			assertEquals(Simulation.Status.UPTODATE, result.getSimulation().getStatus());
+			assertTrue("apogee=" + apogees[i], apogees[i] > 10);
+			assertEquals(apogees[i], result.getFlightData().getMaxAltitude(), 0);
+		}
+	}
+
+	@Test
+	public void testFailureDoesNotAffectOthers() throws InterruptedException {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		FlightConfigurationId id = rocket.getFlightConfigurationByIndex(2).getId();
+
+		List<Simulation> simulations = new ArrayList<Simulation>();
+		simulations.add(createSimulation(rocket, id, 2));
+		simulations.add(createSimulation(rocket, new FlightConfigurationId(), 2));
+		simulations.add(createSimulation(rocket, id, 2));
+
+		List<BatchSimulator.Result> results = new BatchSimulator().run(simulations, null);
+
+		assertTrue(results.get(0).isSuccessful());
+		assertFalse(results.get(1).isSuccessful());
+		assertNotNull(results.get(1).getException());
+		assertNull(results.get(1).getFlightData());
+		assertTrue(results.get(2).isSuccessful());
+		assertEquals(results.get(0).getFlightData().getMaxAltitude(),
+				results.get(2).getFlightData().getMaxAltitude(), 0);
+	}
+}
@@ -0,0 +1,104 @@
+package net.sf.openrocket.simulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import net.sf.openrocket.document.Simulation;
+import net.sf.openrocket.rocketcomponent.AxialStage;
+import net.sf.openrocket.rocketcomponent.Rocket;
+import net.sf.openrocket.rocketcomponent.StageSeparationConfiguration.SeparationEvent;
+import net.sf.openrocket.util.BaseTestCase.BaseTestCase;
+import net.sf.openrocket.util.TestRockets;
+
+public class ConcurrentBranchSimulationTest extends BaseTestCase {
+	
+	private static Rocket makeRocket() {
+		Rocket rocket = TestRockets.makeBeta();
+		AxialStage booster = (AxialStage) rocket.getChild(1);
+		booster.getSeparationConfigurations().getDefault().setSeparationEvent(SeparationEvent.BURNOUT);
+		return rocket;
+	}
+	
+	private FlightData simulate(int branchThreads) throws Exception {
+		return simulate(makeRocket(), branchThreads);
+	}
+	
+	private FlightData simulate(Rocket rocket, int branchThreads) throws Exception {
+		Simulation simulation = new Simulation(rocket);
+		simulation.setFlightConfigurationId(rocket.getSelectedConfiguration().getId());
+		SimulationOptions options = simulation.getOptions();
+		options.setTimeStep(RK4SimulationStepper.RECOMMENDED_TIME_STEP);
+		options.setMaximumStepAngle(RK4SimulationStepper.RECOMMENDED_ANGLE_STEP);
+		options.setRandomSeed(42);
+		options.setLaunchRodLength(1);
+		options.setISAAtmosphere(true);
+		options.setWindSpeedAverage(2);
+		SimulationConditions conditions = options.toSimulationConditions();
+		conditions.setSimulation(simulation);
+		conditions.setBranchThreads(branchThreads);
+		return new BasicEventSimulationEngine().simulate(conditions);
+	}
+	
+	@Test
+	public void testBranchesMatchSequential() throws Exception {
+		FlightData sequential = simulate(1);
+		FlightData concurrent = simulate(4);
+		
+		assertTrue("branches=" + sequential.getBranchCount(), sequential.getBranchCount() > 1);
+		assertEquals(sequential.getBranchCount(), concurrent.getBranchCount());
+		for (int i = 0; i < sequential.getBranchCount(); i++) {
+			FlightDataBranch expected = sequential.getBranch(i);
+			FlightDataBranch actual = concurrent.getBranch(i);
+			assertEquals(expected.getBranchName(), actual.getBranchName());
+			assertEquals(expected.getLength(), actual.getLength());
+			assertEquals(expected.getMaximum(FlightDataType.TYPE_ALTITUDE),
+					actual.getMaximum(FlightDataType.TYPE_ALTITUDE), 0);
+			assertEquals(expected.getLast(FlightDataType.TYPE_POSITION_X),
+					actual.getLast(FlightDataType.TYPE_POSITION_X), 0);
+		}
+	}
+	
+	@Test
+	public void testRepeatedRunsMatchSequential() throws Exception {
+		Rocket rocket = makeRocket();
+		FlightData sequential = simulate(rocket, 1);
+		for (int run = 0; run < 5; run++) {
+			FlightData concurrent = simulate(rocket, 4);
+			for (int i = 0; i < sequential.getBranchCount(); i++) {
+				assertEquals(sequential.getBranch(i).getLast(FlightDataType.TYPE_POSITION_X),
+						concurrent.getBranch(i).getLast(FlightDataType.TYPE_POSITION_X), 0);
+			}
+		}
+	}
+	
+	@Test
+	public void testSeparatedBranchesUseCopiedRocket() throws Exception {
+		Rocket rocket = makeRocket();
+		assertSources(simulate(rocket, 1), rocket, true);
+		assertSources(simulate(rocket, 4), rocket, false);
+	}
+	
+	/*
+	 * Check whether the apogee events of the separated branches come from the original rocket.
+	 */
+	private static void assertSources(FlightData data, Rocket rocket, boolean original) {
+		int count = 0;
+		for (int i = 1; i < data.getBranchCount(); i++) {
+			for (FlightEvent event : data.getBranch(i).getEvents()) {
+				if (event.getType() == FlightEvent.Type.APOGEE) {
+					assertEquals(rocket.getID(), event.getSource().getID());
+					assertEquals(original, rocket == event.getSource());
+					count++;
+				}
+			}
+		}
+		assertTrue(count > 0);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testBranchThreadsMustBePositive() {
+		new SimulationConditions().setBranchThreads(0);
+	}
+}
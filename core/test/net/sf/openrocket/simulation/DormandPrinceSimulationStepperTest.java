@@ -0,0 +1,50 @@
+package net.sf.openrocket.simulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import net.sf.openrocket.document.Simulation;
+import net.sf.openrocket.rocketcomponent.Rocket;
+import net.sf.openrocket.util.BaseTestCase.BaseTestCase;
+import net.sf.openrocket.util.TestRockets;
+
+public class DormandPrinceSimulationStepperTest extends BaseTestCase {
+	
+	private FlightData simulate(IntegrationMethod method) throws Exception {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		Simulation simulation = new Simulation(rocket);
+		simulation.setFlightConfigurationId(rocket.getFlightConfigurationByIndex(2).getId());
+		SimulationOptions options = simulation.getOptions();
+		options.setTimeStep(RK4SimulationStepper.RECOMMENDED_TIME_STEP);
+		options.setMaximumStepAngle(RK4SimulationStepper.RECOMMENDED_ANGLE_STEP);
+		options.setLaunchRodLength(1);
+		options.setISAAtmosphere(true);
+		options.setWindSpeedAverage(0);
+		options.setIntegrationMethod(method);
+		SimulationConditions conditions = options.toSimulationConditions();
+		conditions.setSimulation(simulation);
+		return new BasicEventSimulationEngine().simulate(conditions);
+	}
+	
+	@Test
+	public void testApogeeMatchesRK4() throws Exception {
+		FlightData rk4 = simulate(IntegrationMethod.RK4);
+		FlightData dp = simulate(IntegrationMethod.DORMAND_PRINCE);
+		
+		assertTrue("apogee=" + rk4.getMaxAltitude(), rk4.getMaxAltitude() > 10);
+		assertEquals(rk4.getMaxAltitude(), dp.getMaxAltitude(), 0.01 * rk4.getMaxAltitude());
+		assertEquals(rk4.getTimeToApogee(), dp.getTimeToApogee(), 0.1);
+		assertTrue("steps rk4=" + rk4.getBranch(0).getLength() + " dp=" + dp.getBranch(0).getLength(),
+				dp.getBranch(0).getLength() < rk4.getBranch(0).getLength());
+	}
+	
+	@Test
+	public void testSimulatorName() {
+		for (IntegrationMethod method : IntegrationMethod.values()) {
+			assertEquals(method, IntegrationMethod.fromSimulatorName(method.getSimulatorName()));
+		}
+		assertEquals(null, IntegrationMethod.fromSimulatorName("NoSuchSimulator"));
+	}
+}
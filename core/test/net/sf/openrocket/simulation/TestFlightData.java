@@ -2,8 +2,12 @@ package net.sf.openrocket.simulation;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.nio.DoubleBuffer;
+import java.nio.ReadOnlyBufferException;
+
 import org.junit.Test;
 
 import net.sf.openrocket.aerodynamics.WarningSet;
@@ -282,4 +286,46 @@ public class TestFlightData {
 		assertEquals(6.2, data.getGroundHitVelocity(), 0.000);
 	}
 	
+	/**
+	 * Tests the column storage of FlightDataBranch across capacity growth and
+	 * types added after data points.
+	 */
+	@Test
+	public void testBranchColumns() {
+		FlightDataBranch branch = new FlightDataBranch("Columns", FlightDataType.TYPE_TIME);
+		int n = 1000;
+		for (int i = 0; i < n; i++) {
+			branch.addPoint();
+			branch.setValue(FlightDataType.TYPE_TIME, i * 0.01);
+			if (i >= 500) {
+				branch.setValue(FlightDataType.TYPE_ALTITUDE, 2 * i);
+			}
+		}
+		
+		assertEquals(n, branch.getLength());
+		assertEquals(0, branch.getColumnIndex(FlightDataType.TYPE_TIME));
+		assertEquals(1, branch.getColumnIndex(FlightDataType.TYPE_ALTITUDE));
+		assertEquals(-1, branch.getColumnIndex(FlightDataType.TYPE_MACH_NUMBER));
+		
+		assertEquals(9.99, branch.getLast(FlightDataType.TYPE_TIME), 0.0);
+		assertEquals(1000.0, branch.getMinimum(FlightDataType.TYPE_ALTITUDE), 0.0);
+		assertEquals(1998.0, branch.getMaximum(FlightDataType.TYPE_ALTITUDE), 0.0);
+		assertEquals(Double.NaN, branch.getValue(FlightDataType.TYPE_ALTITUDE, 499), 0.0);
+		assertEquals(1000.0, branch.getValue(FlightDataType.TYPE_ALTITUDE, 500), 0.0);
+		assertEquals(Double.NaN, branch.getValue(FlightDataType.TYPE_MACH_NUMBER, 0), 0.0);
+		
+		DoubleBuffer altitude = branch.getColumn(FlightDataType.TYPE_ALTITUDE);
+		assertEquals(n, altitude.limit());
+		assertEquals(1998.0, altitude.get(n - 1), 0.0);
+		assertEquals(branch.get(FlightDataType.TYPE_ALTITUDE).get(700), altitude.get(700), 0.0);
+		assertNull(branch.getColumn(FlightDataType.TYPE_MACH_NUMBER));
+		assertNull(branch.get(FlightDataType.TYPE_MACH_NUMBER));
+		
+		try {
+			altitude.put(0, 1.0);
+			assertTrue("Column view should be read-only", false);
+		} catch (ReadOnlyBufferException expected) {
+		}
+	}
+	
 }
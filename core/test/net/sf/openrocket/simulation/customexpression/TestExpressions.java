@@ -1,8 +1,19 @@
 package net.sf.openrocket.simulation.customexpression;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import net.sf.openrocket.document.OpenRocketDocument;
 import net.sf.openrocket.document.OpenRocketDocumentFactory;
+import net.sf.openrocket.document.Simulation;
+import net.sf.openrocket.rocketcomponent.Rocket;
+import net.sf.openrocket.simulation.FlightDataBranch;
+import net.sf.openrocket.simulation.FlightDataType;
+import net.sf.openrocket.simulation.SimulationConditions;
+import net.sf.openrocket.simulation.SimulationOptions;
+import net.sf.openrocket.simulation.SimulationStatus;
 import net.sf.openrocket.util.BaseTestCase.BaseTestCase;
+import net.sf.openrocket.util.TestRockets;
 
 import org.junit.Test;
 
@@ -20,4 +31,85 @@ public class TestExpressions extends BaseTestCase {
 		//System.out.println(exp.getExpressionString());
 		
 	}
+	
+	@Test
+	public void testCompiledMatchesInterpreted() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		OpenRocketDocument doc = OpenRocketDocumentFactory.createDocumentFromRocket(rocket);
+		SimulationStatus status = new SimulationStatus(rocket.getSelectedConfiguration(),
+				new SimulationOptions().toSimulationConditions());
+		
+		FlightDataBranch data = new FlightDataBranch("test", FlightDataType.TYPE_TIME);
+		status.setFlightData(data);
+		for (int i = 0; i < 3; i++) {
+			data.addPoint();
+			data.setValue(FlightDataType.TYPE_TIME, 0.1 * i);
+			data.setValue(FlightDataType.TYPE_MASS, 0.05 - 0.01 * i);
+			data.setValue(FlightDataType.TYPE_VELOCITY_TOTAL, 10.0 * i);
+		}
+		
+		CustomExpression exp = new CustomExpression(doc, "Kinetic energy", "Ek", "J", ".5*m*Vt^2");
+		CompiledExpression compiled = exp.compile();
+		
+		assertArrayEquals(new FlightDataType[] { FlightDataType.TYPE_MASS, FlightDataType.TYPE_VELOCITY_TOTAL },
+				compiled.getReferencedTypes());
+		assertEquals(exp.evaluateDouble(status), compiled.evaluate(status), 0);
+		assertEquals(0.5 * 0.03 * 20 * 20, compiled.evaluate(status), 1e-9);
+		
+		// Values are re-read from the branch on every evaluation
+		data.addPoint();
+		data.setValue(FlightDataType.TYPE_MASS, 0.02);
+		data.setValue(FlightDataType.TYPE_VELOCITY_TOTAL, 30.0);
+		assertEquals(exp.evaluateDouble(status), compiled.evaluate(status), 0);
+		assertEquals(0.5 * 0.02 * 30 * 30, compiled.evaluate(status), 1e-9);
+	}
+	
+	@Test
+	public void testCompiledIndexAndRange() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		OpenRocketDocument doc = OpenRocketDocumentFactory.createDocumentFromRocket(rocket);
+		Simulation simulation = new Simulation(rocket);
+		simulation.getOptions().setTimeStep(0.05);
+		SimulationConditions conditions = simulation.getOptions().toSimulationConditions();
+		conditions.setSimulation(simulation);
+		SimulationStatus status = new SimulationStatus(rocket.getSelectedConfiguration(), conditions);
+		
+		FlightDataBranch data = new FlightDataBranch("test", FlightDataType.TYPE_TIME);
+		status.setFlightData(data);
+		
+		CustomExpression exp = new CustomExpression(doc, "Indexed", "Ix", "kg", "m[0.25] + 2*mean(m[0:t]) + m");
+		CompiledExpression compiled = exp.compile();
+		
+		// The interpolated data follows the points added and modified between evaluations
+		for (int i = 0; i < 30; i++) {
+			data.addPoint();
+			data.setValue(FlightDataType.TYPE_TIME, 0.037 * i);
+			data.setValue(FlightDataType.TYPE_MASS, 0.05 - 0.001 * i);
+			assertEquals(exp.evaluateDouble(status), compiled.evaluate(status), 1e-12);
+			data.setValue(FlightDataType.TYPE_MASS, 0.06 - 0.001 * i * i);
+			assertEquals(exp.evaluateDouble(status), compiled.evaluate(status), 1e-12);
+		}
+		
+		// A new branch is interpolated from its own data
+		data = new FlightDataBranch("other", FlightDataType.TYPE_TIME);
+		status.setFlightData(data);
+		for (int i = 0; i < 10; i++) {
+			data.addPoint();
+			data.setValue(FlightDataType.TYPE_TIME, 0.1 * i);
+			data.setValue(FlightDataType.TYPE_MASS, 1.0 + i);
+		}
+		assertEquals(exp.evaluateDouble(status), compiled.evaluate(status), 1e-12);
+	}
+	
+	@Test
+	public void testCompiledInvalidExpression() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		OpenRocketDocument doc = OpenRocketDocumentFactory.createDocumentFromRocket(rocket);
+		SimulationStatus status = new SimulationStatus(rocket.getSelectedConfiguration(),
+				new SimulationOptions().toSimulationConditions());
+		status.setFlightData(new FlightDataBranch("test", FlightDataType.TYPE_TIME));
+		
+		CustomExpression exp = new CustomExpression(doc, "Broken", "Br", "", "nosuchfunction(m)");
+		assertTrue(Double.isNaN(exp.compile().evaluate(status)));
+	}
 }
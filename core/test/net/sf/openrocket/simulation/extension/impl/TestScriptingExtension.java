@@ -0,0 +1,111 @@
+package net.sf.openrocket.simulation.extension.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import net.sf.openrocket.simulation.exception.SimulationException;
+import net.sf.openrocket.simulation.listeners.SimulationComputationListener;
+import net.sf.openrocket.simulation.listeners.SimulationListener;
+import net.sf.openrocket.util.BugException;
+
+import org.junit.Test;
+
+public class TestScriptingExtension {
+
+	private static final String SCRIPT =
+			"var steps = 0;\n" +
+			"function preStep(status) {\n" +
+			"  steps++;\n" +
+			"  return steps < 3;\n" +
+			"}\n" +
+			"function postGravityModel(status, gravity) {\n" +
+			"  return gravity * 2;\n" +
+			"}\n";
+
+	/*
+	 * Note:  This class assumes that the JRE supports JavaScript scripting.
+	 */
+
+	@Test
+	public void testListenersHaveSeparateState() throws SimulationException {
+		ScriptingExtension extension = new ScriptingExtension();
+		extension.setScript(SCRIPT);
+
+		SimulationListener first = extension.getListener();
+		assertTrue(first.preStep(null));
+		assertTrue(first.preStep(null));
+
+		// A new listener evaluates the script again on the same engine
+		SimulationListener second = extension.getListener();
+		assertTrue(second.preStep(null));
+
+		assertFalse(first.preStep(null));
+		assertTrue(second.preStep(null));
+		assertFalse(second.preStep(null));
+	}
+
+	@Test
+	public void testFunctions() throws SimulationException {
+		ScriptingExtension extension = new ScriptingExtension();
+		extension.setScript(SCRIPT);
+
+		SimulationComputationListener listener = (SimulationComputationListener) extension.getListener();
+		assertEquals(19.62, listener.postGravityModel(null, 9.81), 0.000001);
+
+		// Functions not defined by the script return the default values
+		assertTrue(Double.isNaN(listener.preGravityModel(null)));
+		assertNull(listener.preWindModel(null));
+		assertNull(listener.postWindModel(null, null));
+	}
+
+	@Test
+	public void testCloneInOtherThread() throws Exception {
+		ScriptingExtension extension = new ScriptingExtension();
+		extension.setScript(SCRIPT);
+
+		final SimulationListener original = extension.getListener();
+		assertTrue(original.preStep(null));
+		assertTrue(original.preStep(null));
+
+		// The clone evaluates the script again on the engine of the cloning thread
+		final SimulationListener[] clone = new SimulationListener[1];
+		final boolean[] steps = new boolean[3];
+		Thread thread = new Thread() {
+			@Override
+			public void run() {
+				try {
+					clone[0] = original.clone();
+					for (int i = 0; i < steps.length; i++) {
+						steps[i] = clone[0].preStep(null);
+					}
+				} catch (SimulationException e) {
+					throw new RuntimeException(e);
+				}
+			}
+		};
+		thread.start();
+		thread.join();
+
+		assertTrue(steps[0]);
+		assertTrue(steps[1]);
+		assertFalse(steps[2]);
+		assertFalse(original.preStep(null));
+
+		try {
+			clone[0].preStep(null);
+			fail("Listener called from another thread");
+		} catch (BugException e) {
+			// Expected
+		}
+	}
+
+	@Test(expected = SimulationException.class)
+	public void testInvalidScript() throws SimulationException {
+		ScriptingExtension extension = new ScriptingExtension();
+		extension.setScript("function preStep( {");
+		extension.getListener();
+	}
+
+}
@@ -0,0 +1,144 @@
+package net.sf.openrocket.simulation.montecarlo;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import net.sf.openrocket.document.Simulation;
+import net.sf.openrocket.rocketcomponent.Rocket;
+import net.sf.openrocket.simulation.RK4SimulationStepper;
+import net.sf.openrocket.simulation.SimulationConditions;
+import net.sf.openrocket.simulation.SimulationOptions;
+import net.sf.openrocket.simulation.extension.SimulationExtension;
+import net.sf.openrocket.simulation.extension.impl.AirStart;
+import net.sf.openrocket.util.BaseTestCase.BaseTestCase;
+import net.sf.openrocket.util.TestRockets;
+
+public class MonteCarloEngineTest extends BaseTestCase {
+	
+	private MonteCarloEngine createEngine() {
+		return createEngine(null);
+	}
+	
+	private MonteCarloEngine createEngine(SimulationExtension extension) {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		Simulation simulation = new Simulation(rocket);
+		if (extension != null) {
+			simulation.getSimulationExtensions().add(extension);
+		}
+		simulation.setFlightConfigurationId(rocket.getFlightConfigurationByIndex(2).getId());
+		SimulationOptions options = simulation.getOptions();
+		options.setTimeStep(RK4SimulationStepper.RECOMMENDED_TIME_STEP);
+		options.setMaximumStepAngle(RK4SimulationStepper.RECOMMENDED_ANGLE_STEP);
+		options.setLaunchRodLength(1);
+		options.setISAAtmosphere(true);
+		SimulationConditions conditions = options.toSimulationConditions();
+		conditions.setSimulation(simulation);
+		
+		MonteCarloEngine engine = new MonteCarloEngine(conditions);
+		engine.setSeed(1234);
+		engine.setWindSpeed(Distribution.normal(3, 1));
+		engine.setLaunchRodAngle(Distribution.normal(0, Math.toRadians(2)));
+		engine.setThrustScale(Distribution.uniform(0.95, 1.05));
+		engine.setDragScale(Distribution.normal(1, 0.05));
+		return engine;
+	}
+	
+	@Test
+	public void testDeterministicAcrossThreads() {
+		MonteCarloEngine engine = createEngine();
+		
+		engine.setThreads(1);
+		MonteCarloResults serial = engine.run(6, null);
+		engine.setThreads(3);
+		MonteCarloResults parallel = engine.run(6, null);
+		
+		assertEquals(6, serial.getCompletedCount());
+		assertEquals(6, parallel.getCompletedCount());
+		assertFalse(parallel.isCancelled());
+		assertArrayEquals(serial.getWindSpeeds(), parallel.getWindSpeeds(), 0);
+		assertArrayEquals(serial.getApogees(), parallel.getApogees(), 0);
+		assertArrayEquals(serial.getLandingX(), parallel.getLandingX(), 0);
+		
+		for (double apogee : parallel.getApogees()) {
+			assertTrue("apogee=" + apogee, apogee > 10);
+		}
+		for (double v : parallel.getMaxVelocities()) {
+			assertTrue("velocity=" + v, v > 1);
+		}
+	}
+	
+	@Test
+	public void testThrustScale() {
+		MonteCarloEngine engine = createEngine();
+		engine.setWindSpeed(Distribution.constant(0));
+		engine.setLaunchRodAngle(Distribution.constant(0));
+		engine.setDragScale(null);
+		
+		engine.setThrustScale(Distribution.constant(0.8));
+		double low = engine.run(1, null).getApogees()[0];
+		engine.setThrustScale(Distribution.constant(1.2));
+		double high = engine.run(1, null).getApogees()[0];
+		
+		assertTrue("low=" + low + " high=" + high, low < high);
+	}
+	
+	@Test
+	public void testExtensions() {
+		AirStart airStart = new AirStart();
+		airStart.setLaunchAltitude(100);
+		MonteCarloEngine engine = createEngine(airStart);
+		engine.setThreads(2);
+		MonteCarloResults launched = engine.run(4, null);
+		MonteCarloResults ground = createEngine().run(4, null);
+		
+		assertEquals(4, launched.getCompletedCount());
+		for (int i = 0; i < 4; i++) {
+			assertEquals(ground.getApogees()[i] + 100, launched.getApogees()[i], 5);
+		}
+	}
+	
+	@Test
+	public void testCancel() {
+		final MonteCarloEngine engine = createEngine();
+		engine.setThreads(1);
+		MonteCarloResults results = engine.run(20, new MonteCarloEngine.ProgressListener() {
+			@Override
+			public void runFinished(int finished, int total) {
+				if (finished == 2) {
+					engine.cancel();
+				}
+			}
+		});
+		
+		assertTrue(results.isCancelled());
+		assertEquals(2, results.getCompletedCount());
+		assertTrue(Double.isNaN(results.getApogees()[19]));
+	}
+	
+	@Test
+	public void testCancelBeforeRun() {
+		MonteCarloEngine engine = createEngine();
+		engine.cancel();
+		MonteCarloResults cancelled = engine.run(4, null);
+		
+		assertTrue(cancelled.isCancelled());
+		assertEquals(0, cancelled.getCompletedCount());
+		
+		// The cancel does not carry over to the next batch
+		assertFalse(engine.isCancelled());
+		MonteCarloResults next = engine.run(2, null);
+		assertFalse(next.isCancelled());
+		assertEquals(2, next.getCompletedCount());
+	}
+	
+	@Test
+	public void testRunSeeds() {
+		assertEquals(MonteCarloEngine.getRunSeed(5, 3), MonteCarloEngine.getRunSeed(5, 3));
+		assertFalse(MonteCarloEngine.getRunSeed(5, 3) == MonteCarloEngine.getRunSeed(5, 4));
+		assertFalse(MonteCarloEngine.getRunSeed(5, 3) == MonteCarloEngine.getRunSeed(6, 3));
+	}
+}
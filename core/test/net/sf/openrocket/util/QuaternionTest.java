@@ -1,6 +1,7 @@
 package net.sf.openrocket.util;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 import org.junit.Test;
 
@@ -45,5 +46,19 @@ public class QuaternionTest {
 		
 	}
 	
+	@Test
+	public void testMultiplyLeftRotation() {
+		Quaternion q = new Quaternion(0.237188, 0.570190, -0.514542, 0.594872).normalize();
+		Coordinate rot = new Coordinate(0.3, -0.2, 0.7);
+		
+		Quaternion expected = q.multiplyLeft(Quaternion.rotation(rot));
+		Quaternion result = q.multiplyLeftRotation(rot.x, rot.y, rot.z);
+		assertEquals(expected.getW(), result.getW(), 1e-12);
+		assertEquals(expected.getX(), result.getX(), 1e-12);
+		assertEquals(expected.getY(), result.getY(), 1e-12);
+		assertEquals(expected.getZ(), result.getZ(), 1e-12);
+		
+		assertSame(q, q.multiplyLeftRotation(0, 0, 0));
+	}
 	
 }
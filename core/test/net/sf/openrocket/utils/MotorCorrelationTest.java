@@ -0,0 +1,89 @@
+package net.sf.openrocket.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import net.sf.openrocket.motor.Manufacturer;
+import net.sf.openrocket.motor.Motor;
+import net.sf.openrocket.motor.ThrustCurveMotor;
+import net.sf.openrocket.util.Coordinate;
+
+public class MotorCorrelationTest {
+	
+	private static ThrustCurveMotor motor(String designation, double diameter, double[] time, double[] thrust) {
+		Coordinate[] cg = new Coordinate[time.length];
+		for (int i = 0; i < cg.length; i++) {
+			cg[i] = new Coordinate(0.05, 0, 0, 0.03 - 0.01 * i / (cg.length - 1));
+		}
+		return new ThrustCurveMotor.Builder()
+				.setManufacturer(Manufacturer.getManufacturer("foo"))
+				.setDesignation(designation)
+				.setMotorType(Motor.Type.SINGLE)
+				.setStandardDelays(new double[] { 0 })
+				.setDiameter(diameter)
+				.setLength(0.1)
+				.setTimePoints(time)
+				.setThrustPoints(thrust)
+				.setCGPoints(cg)
+				.setDigest(designation)
+				.build();
+	}
+	
+	private final ThrustCurveMotor motorA = motor("A", 0.018, new double[] { 0, 0.1, 0.5, 0.8 }, new double[] { 0, 10, 4, 0 });
+	private final ThrustCurveMotor motorB = motor("B", 0.018, new double[] { 0, 0.12, 0.5, 0.82 }, new double[] { 0, 9.8, 4.1, 0 });
+	private final ThrustCurveMotor motorC = motor("C", 0.018, new double[] { 0, 0.5, 2.0 }, new double[] { 0, 20, 0 });
+	private final ThrustCurveMotor motorD = motor("D", 0.024, new double[] { 0, 0.1, 0.5, 0.8 }, new double[] { 0, 10, 4, 0 });
+	// A curve that does not end at zero thrust
+	private final ThrustCurveMotor motorE = motor("E", 0.018, new double[] { 0, 0.2, 0.6 }, new double[] { 0, 8, 0.5 });
+	
+	/*
+	 * The cross-correlation sampled at every point, which the sampled curves must reproduce.
+	 */
+	private static double crossCorrelationSampled(Motor motor1, Motor motor2) {
+		double auto1 = 0;
+		double auto2 = 0;
+		double cross = 0;
+		for (double t = 0; t < 1000; t += 0.01) {
+			double thrust1 = motor1.getThrust(t);
+			double thrust2 = motor2.getThrust(t);
+			auto1 += thrust1 * thrust1;
+			auto2 += thrust2 * thrust2;
+			cross += thrust1 * thrust2;
+		}
+		return cross / Math.max(auto1, auto2);
+	}
+	
+	@Test
+	public void testCrossCorrelation() {
+		List<ThrustCurveMotor> motors = Arrays.asList(motorA, motorB, motorC, motorE);
+		for (ThrustCurveMotor m1 : motors) {
+			for (ThrustCurveMotor m2 : motors) {
+				assertEquals(m1.getDesignation() + "/" + m2.getDesignation(),
+						crossCorrelationSampled(m1, m2), MotorCorrelation.crossCorrelation(m1, m2), 0);
+			}
+		}
+		assertEquals(1.0, MotorCorrelation.crossCorrelation(motorA, motorA), 0);
+	}
+	
+	@Test
+	public void testSimilarityIndex() {
+		MotorSimilarityIndex index = new MotorSimilarityIndex(Arrays.asList(motorC, motorB, motorD, motorA, motorE));
+		assertEquals(5, index.getMotorCount());
+		
+		List<List<Motor>> clusters = index.findSimilarMotors(0.95);
+		assertEquals(1, clusters.size());
+		assertEquals(2, clusters.get(0).size());
+		// ordered by total impulse
+		assertSame(motorB, clusters.get(0).get(0));
+		assertSame(motorA, clusters.get(0).get(1));
+		
+		// A and D differ only by diameter
+		assertEquals(1.0, MotorCorrelation.similarity(motorA, motorD), 0);
+	}
+	
+}
@@ -37,6 +37,7 @@ import javax.swing.JSpinner;
 import javax.swing.JTable;
 import javax.swing.JToggleButton;
 import javax.swing.ListSelectionModel;
+import javax.swing.SpinnerNumberModel;
 import javax.swing.Timer;
 import javax.swing.border.TitledBorder;
 import javax.swing.event.ChangeEvent;
@@ -76,6 +77,7 @@ import net.sf.openrocket.gui.util.GUIUtil;
 import net.sf.openrocket.gui.util.SwingPreferences;
 import net.sf.openrocket.l10n.Translator;
 import net.sf.openrocket.logging.Markers;
+import net.sf.openrocket.optimization.general.EvaluationStore;
 import net.sf.openrocket.optimization.general.OptimizationException;
 import net.sf.openrocket.optimization.general.Point;
 import net.sf.openrocket.optimization.rocketoptimization.OptimizableParameter;
@@ -92,6 +94,7 @@ import net.sf.openrocket.rocketcomponent.FlightConfigurationId;
 import net.sf.openrocket.rocketcomponent.Rocket;
 import net.sf.openrocket.rocketcomponent.RocketComponent;
 import net.sf.openrocket.startup.Application;
+import net.sf.openrocket.startup.Preferences;
 import net.sf.openrocket.unit.CaliberUnit;
 import net.sf.openrocket.unit.Unit;
 import net.sf.openrocket.unit.UnitGroup;
@@ -118,6 +121,11 @@ public class GeneralOptimizationDialog extends JDialog {
 	private static final String START_TEXT = trans.get("btn.start");
 	private static final String STOP_TEXT = trans.get("btn.stop");
 	
+	/** Population sizes of the differential evolution search */
+	private static final int DEFAULT_POPULATION = 20;
+	private static final int MIN_POPULATION = 4;
+	private static final int MAX_POPULATION = 500;
+	
 	private RocketDescriptor descriptor = Application.getInjector().getInstance(RocketDescriptor.class);
 	
 	
@@ -146,6 +154,9 @@ public class GeneralOptimizationDialog extends JDialog {
 	private final UnitSelector optimizationGoalUnitSelector;
 	private final DoubleModel optimizationSeekValue;
 	
+	private final JCheckBox populationSearchSelected;
+	private final JSpinner populationSizeSpinner;
+	
 	private DoubleModel minimumStability;
 	private DoubleModel maximumStability;
 	private final JCheckBox minimumStabilitySelected;
@@ -184,6 +195,8 @@ public class GeneralOptimizationDialog extends JDialog {
 	private int stepCount = 0;
 	private int evaluationCount = 0;
 	private double stepSize = 0;
+	private int storedEvaluationCount = 0;
+	private int storeLookupCount = 0;
 	
 	private final Map<Point, FunctionEvaluationData> evaluationHistory = new LinkedHashMap<Point, FunctionEvaluationData>();
 	private final List<Point> optimizationPath = new LinkedList<Point>();
@@ -429,6 +442,28 @@ public class GeneralOptimizationDialog extends JDialog {
 		disableComponents.add(optimizationGoalUnitSelector);
 		sub.add(optimizationGoalUnitSelector, "width 20lp, wrap unrel");
 		
+		// // Population based search
+		int population = Application.getPreferences().getInt(Preferences.OPTIMIZATION_POPULATION, 0);
+		tip = trans.get("lbl.populationSearch.ttip");
+		populationSearchSelected = new JCheckBox(trans.get("lbl.populationSearch"));
+		populationSearchSelected.setSelected(population > 0);
+		populationSearchSelected.setToolTipText(tip);
+		populationSearchSelected.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				updateComponents();
+			}
+		});
+		disableComponents.add(populationSearchSelected);
+		sub.add(populationSearchSelected, "");
+		
+		populationSizeSpinner = new JSpinner(new SpinnerNumberModel(population > 0 ? population : DEFAULT_POPULATION,
+				MIN_POPULATION, MAX_POPULATION, 1));
+		populationSizeSpinner.setToolTipText(tip);
+		populationSizeSpinner.setEditor(new SpinnerEditor(populationSizeSpinner));
+		disableComponents.add(populationSizeSpinner);
+		sub.add(populationSizeSpinner, "wrap unrel");
+		
 		panel.add(sub, "grow");
 		
 		// // Required stability sub-panel
@@ -581,6 +616,7 @@ public class GeneralOptimizationDialog extends JDialog {
 						Collections.unmodifiableList(selectedModifiers),
 						getSelectedParameter(),
 						UnitGroup.stabilityUnits(getSelectedSimulation().getRocket()),
+						storedEvaluationCount, storeLookupCount,
 						GeneralOptimizationDialog.this);
 				dialog.setVisible(true);
 			}
@@ -752,11 +788,16 @@ public class GeneralOptimizationDialog extends JDialog {
 			
 		}
 		
+		// The worker selects the optimizer by the population size
+		int population = populationSearchSelected.isSelected() ? (Integer) populationSizeSpinner.getValue() : 0;
+		Application.getPreferences().putInt(Preferences.OPTIMIZATION_POPULATION, population);
+		
 		// Create and start the background worker
 		worker = new OptimizationWorker(simulation, parameter, goal, domain, modifiers) {
 			@Override
 			protected void done(OptimizationException exception) {
 				log.info("Optimization finished, exception=" + exception, exception);
+				updateStoreCounters(getEvaluationStore());
 				
 				if (exception != null) {
 					JOptionPane.showMessageDialog(GeneralOptimizationDialog.this,
@@ -789,6 +830,7 @@ public class GeneralOptimizationDialog extends JDialog {
 					evaluationHistory.put(d.getPoint(), d);
 					evaluationCount++;
 				}
+				updateStoreCounters(getEvaluationStore());
 				updateCounters();
 			}
 			
@@ -876,6 +918,8 @@ public class GeneralOptimizationDialog extends JDialog {
 		stepCount = 0;
 		evaluationCount = 0;
 		stepSize = 0.5;
+		storedEvaluationCount = 0;
+		storeLookupCount = 0;
 		updateCounters();
 		updateComponents();
 	}
@@ -1022,6 +1066,13 @@ public class GeneralOptimizationDialog extends JDialog {
 		stepSizeLabel.setText(UnitGroup.UNITS_RELATIVE.toStringUnit(stepSize));
 	}
 	
+	private void updateStoreCounters(EvaluationStore store) {
+		if (store != null) {
+			storedEvaluationCount = store.getHitCount();
+			storeLookupCount = store.getHitCount() + store.getMissCount();
+		}
+	}
+	
 	private void loadOptimizationParameters() {
 		optimizationParameters.clear();
 		optimizationParameters.addAll(OptimizationServiceHelper.getOptimizableParameters(documentCopy));
@@ -1138,6 +1189,11 @@ public class GeneralOptimizationDialog extends JDialog {
 		maximumStabilitySpinner.setEnabled(state);
 		maximumStabilityUnitSelector.setEnabled(state);
 		
+		// Population size
+		state = populationSearchSelected.isSelected();
+		log.debug("populationSizeSpinner enabled: " + state);
+		populationSizeSpinner.setEnabled(state);
+		
 		// Plot button (enabled if path exists and dimensionality is 1 or 2)
 		state = (!optimizationPath.isEmpty() && (selectedModifiers.size() == 1 || selectedModifiers.size() == 2));
 		log.debug("plotButton enabled: " + state + " optimizationPath.isEmpty=" + optimizationPath.isEmpty() +
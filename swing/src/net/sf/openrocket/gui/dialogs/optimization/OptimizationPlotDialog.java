@@ -79,7 +79,8 @@ public class OptimizationPlotDialog extends JDialog {
 	
 	
 	public OptimizationPlotDialog(List<Point> path, Map<Point, FunctionEvaluationData> evaluations,
-			List<SimulationModifier> modifiers, OptimizableParameter parameter, UnitGroup stabilityUnit, Window parent) {
+			List<SimulationModifier> modifiers, OptimizableParameter parameter, UnitGroup stabilityUnit,
+			int storedEvaluations, int storeLookups, Window parent) {
 		super(parent, trans.get("title"), ModalityType.APPLICATION_MODAL);
 		
 
@@ -98,6 +99,15 @@ public class OptimizationPlotDialog extends JDialog {
 		
 
 		JLabel label = new StyledLabel(trans.get("lbl.zoomInstructions"), -2);
+		panel.add(label, "split 2, flowy");
+		
+		String stored = trans.get("lbl.storedEvaluations");
+		stored = stored.replace("{stored}", "" + storedEvaluations);
+		stored = stored.replace("{total}", "" + storeLookups);
+		stored = stored.replace("{rate}", UnitGroup.UNITS_RELATIVE.toStringUnit(
+				(storeLookups > 0) ? ((double) storedEvaluations) / storeLookups : 0));
+		label = new StyledLabel(stored, -2);
+		label.setToolTipText(trans.get("lbl.storedEvaluations.ttip"));
 		panel.add(label, "");
 		
 
@@ -1,5 +1,7 @@
 package net.sf.openrocket.gui.dialogs.optimization;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.LinkedBlockingQueue;
@@ -9,13 +11,15 @@ import javax.swing.SwingUtilities;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import net.sf.openrocket.arch.SystemInfo;
 import net.sf.openrocket.document.Simulation;
+import net.sf.openrocket.optimization.general.EvaluationStore;
 import net.sf.openrocket.optimization.general.FunctionOptimizer;
 import net.sf.openrocket.optimization.general.OptimizationController;
 import net.sf.openrocket.optimization.general.OptimizationException;
 import net.sf.openrocket.optimization.general.ParallelExecutorCache;
-import net.sf.openrocket.optimization.general.ParallelFunctionCache;
 import net.sf.openrocket.optimization.general.Point;
+import net.sf.openrocket.optimization.general.multidim.DifferentialEvolutionOptimizer;
 import net.sf.openrocket.optimization.general.multidim.MultidirectionalSearchOptimizer;
 import net.sf.openrocket.optimization.general.onedim.GoldenSectionSearchOptimizer;
 import net.sf.openrocket.optimization.rocketoptimization.OptimizableParameter;
@@ -24,6 +28,8 @@ import net.sf.openrocket.optimization.rocketoptimization.RocketOptimizationFunct
 import net.sf.openrocket.optimization.rocketoptimization.RocketOptimizationListener;
 import net.sf.openrocket.optimization.rocketoptimization.SimulationDomain;
 import net.sf.openrocket.optimization.rocketoptimization.SimulationModifier;
+import net.sf.openrocket.startup.Application;
+import net.sf.openrocket.startup.Preferences;
 import net.sf.openrocket.unit.Value;
 import net.sf.openrocket.util.BugException;
 
@@ -53,6 +59,10 @@ public abstract class OptimizationWorker extends Thread implements OptimizationC
 	private static final long PURGE_TIMEOUT = 500;
 	/** End optimization when step size is below this threshold */
 	private static final double STEP_SIZE_LIMIT = 0.005;
+	/** Default maximum number of stored evaluations */
+	private static final int DEFAULT_STORE_SIZE = 20000;
+	/** File in the user application directory where evaluations are stored */
+	private static final String STORE_FILE = "OptimizationStore.txt";
 	
 	private final FunctionOptimizer optimizer;
 	private final RocketOptimizationFunction function;
@@ -60,7 +70,8 @@ public abstract class OptimizationWorker extends Thread implements OptimizationC
 	private final Simulation simulation;
 	private final SimulationModifier[] modifiers;
 	
-	private final ParallelFunctionCache cache;
+	private final ParallelExecutorCache cache;
+	private final EvaluationStore store;
 	
 
 	private final LinkedBlockingQueue<FunctionEvaluationData> evaluationQueue =
@@ -89,14 +100,31 @@ public abstract class OptimizationWorker extends Thread implements OptimizationC
 		function = new RocketOptimizationFunction(simulation, parameter, goal, domain, modifiers);
 		function.addRocketOptimizationListener(this);
 		
-		cache = new ParallelExecutorCache(1);
-		cache.setFunction(function);
+		// Simulations of earlier runs are reused from the evaluation store
+		int storeSize = Application.getPreferences().getInt(Preferences.OPTIMIZATION_STORE_SIZE, DEFAULT_STORE_SIZE);
+		if (storeSize > 0) {
+			store = new EvaluationStore(new File(SystemInfo.getUserApplicationDirectory(), STORE_FILE), storeSize);
+			function.setEvaluationStore(store);
+		} else {
+			store = null;
+		}
 		
-		if (modifiers.length == 1) {
-			optimizer = new GoldenSectionSearchOptimizer(cache);
+		int population = Application.getPreferences().getInt(Preferences.OPTIMIZATION_POPULATION, 0);
+		if (modifiers.length > 1 && population > 0) {
+			// A population based search keeps all processors busy
+			cache = new ParallelExecutorCache();
+			DifferentialEvolutionOptimizer evolution = new DifferentialEvolutionOptimizer(cache);
+			evolution.setPopulationSize(population);
+			optimizer = evolution;
 		} else {
-			optimizer = new MultidirectionalSearchOptimizer(cache);
+			cache = new ParallelExecutorCache(1);
+			if (modifiers.length == 1) {
+				optimizer = new GoldenSectionSearchOptimizer(cache);
+			} else {
+				optimizer = new MultidirectionalSearchOptimizer(cache);
+			}
 		}
+		cache.setFunction(function);
 	}
 	
 	
@@ -115,6 +143,14 @@ public abstract class OptimizationWorker extends Thread implements OptimizationC
 		} catch (OptimizationException e) {
 			this.optimizationException = e;
 		} finally {
+			cache.getExecutor().shutdownNow();
+			if (store != null) {
+				try {
+					store.close();
+				} catch (IOException e) {
+					log.warn("Unable to save evaluation store", e);
+				}
+			}
 			SwingUtilities.invokeLater(new Runnable() {
 				@Override
 				public void run() {
@@ -126,6 +162,15 @@ public abstract class OptimizationWorker extends Thread implements OptimizationC
 		}
 	}
 	
+	/**
+	 * Return the store from which earlier evaluations are reused, or <code>null</code>
+	 * if evaluations are not stored.
+	 */
+	public EvaluationStore getEvaluationStore() {
+		return store;
+	}
+	
+	
 	/**
 	 * This method is called after the optimization has ended, either normally, when interrupted
 	 * or by throwing an exception.  This method is called on the EDT, like the done() method of SwingWorker.
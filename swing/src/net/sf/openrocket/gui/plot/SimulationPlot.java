@@ -13,6 +13,7 @@ import java.awt.Stroke;
 import java.awt.geom.Line2D;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
+import java.nio.DoubleBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
@@ -166,11 +167,11 @@ public class SimulationPlot {
 				int branchIndex = 0;
 				FlightDataBranch thisBranch = simulation.getSimulatedData().getBranch(branchIndex);
 				// Store data in provided units
-				List<Double> plotx = thisBranch.get(domainType);
-				List<Double> ploty = thisBranch.get(type);
+				DoubleBuffer plotx = thisBranch.getColumn(domainType);
+				DoubleBuffer ploty = thisBranch.getColumn(type);
 				XYSeries series = new XYSeries(seriesCount++, false, true);
 				series.setDescription(name);
-				int pointCount = plotx.size();
+				int pointCount = plotx.limit();
 				for (int j = 0; j < pointCount; j++) {
 					series.add(domainUnit.toUnit(plotx.get(j)), unit.toUnit(ploty.get(j)));
 				}
@@ -182,17 +183,17 @@ public class SimulationPlot {
 				FlightDataBranch thisBranch = simulation.getSimulatedData().getBranch(branchIndex);
 				
 				// Get first time index used in secondary branch;
-				double firstSampleTime = thisBranch.get(FlightDataType.TYPE_TIME).get(0);
+				double firstSampleTime = thisBranch.getColumn(FlightDataType.TYPE_TIME).get(0);
 				
 				XYSeries series = new XYSeries(seriesCount++, false, true);
 				series.setDescription(thisBranch.getBranchName() + ": " + name);
 				
 				// Copy the first points from the primaryBranch.
-				List<Double> primaryT = primaryBranch.get(FlightDataType.TYPE_TIME);
-				List<Double> primaryx = primaryBranch.get(domainType);
-				List<Double> primaryy = primaryBranch.get(type);
+				DoubleBuffer primaryT = primaryBranch.getColumn(FlightDataType.TYPE_TIME);
+				DoubleBuffer primaryx = primaryBranch.getColumn(domainType);
+				DoubleBuffer primaryy = primaryBranch.getColumn(type);
 				
-				for (int j = 0; j < primaryT.size(); j++) {
+				for (int j = 0; j < primaryT.limit(); j++) {
 					if (primaryT.get(j) >= firstSampleTime) {
 						break;
 					}
@@ -200,10 +201,10 @@ public class SimulationPlot {
 				}
 				
 				// Now copy all the data from the secondary branch
-				List<Double> plotx = thisBranch.get(domainType);
-				List<Double> ploty = thisBranch.get(type);
+				DoubleBuffer plotx = thisBranch.getColumn(domainType);
+				DoubleBuffer ploty = thisBranch.getColumn(type);
 				
-				int pointCount = plotx.size();
+				int pointCount = plotx.limit();
 				for (int j = 0; j < pointCount; j++) {
 					series.add(domainUnit.toUnit(plotx.get(j)), unit.toUnit(ploty.get(j)));
 				}
@@ -219,6 +219,7 @@ public class SimulationExportPanel extends JPanel {
 	
 	public boolean doExport() {
 		JFileChooser chooser = new JFileChooser();
+		chooser.addChoosableFileFilter(FileHelper.BINARY_FLIGHT_DATA_FILTER);
 		chooser.setFileFilter(FileHelper.CSV_FILE_FILTER);
 		chooser.setCurrentDirectory(((SwingPreferences) Application.getPreferences()).getDefaultDirectory());
 		
@@ -229,7 +230,8 @@ public class SimulationExportPanel extends JPanel {
 		if (file == null)
 			return false;
 		
-		file = FileHelper.ensureExtension(file, "csv");
+		boolean binary = (chooser.getFileFilter() == FileHelper.BINARY_FLIGHT_DATA_FILTER);
+		file = FileHelper.ensureExtension(file, binary ? "bin" : "csv");
 		if (!FileHelper.confirmWrite(file, this)) {
 			return false;
 		}
@@ -270,9 +272,14 @@ public class SimulationExportPanel extends JPanel {
 		}
 		
 		
-		SaveCSVWorker.export(file, simulation, branch, fieldTypes, fieldUnits, fieldSep,
-				commentChar, simulationComment, fieldComment, eventComment,
-				SwingUtilities.getWindowAncestor(this));
+		if (binary) {
+			SaveCSVWorker.exportBinary(file, simulation, branch, fieldTypes, fieldUnits,
+					SwingUtilities.getWindowAncestor(this));
+		} else {
+			SaveCSVWorker.export(file, simulation, branch, fieldTypes, fieldUnits, fieldSep,
+					commentChar, simulationComment, fieldComment, eventComment,
+					SwingUtilities.getWindowAncestor(this));
+		}
 		
 		return true;
 	}
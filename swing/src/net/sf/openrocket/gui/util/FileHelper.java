@@ -57,6 +57,10 @@ public final class FileHelper {
 	public static final FileFilter CSV_FILE_FILTER =
 			new SimpleFileFilter(trans.get("SimExpPan.desc"), ".csv");
 
+	/** File filter for binary flight data files (*.bin) */
+	public static final FileFilter BINARY_FLIGHT_DATA_FILTER =
+			new SimpleFileFilter(trans.get("SimExpPan.desc.binary"), ".bin");
+
 
 
 
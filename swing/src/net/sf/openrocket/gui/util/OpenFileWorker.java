@@ -14,6 +14,7 @@ import javax.swing.SwingWorker;
 import net.sf.openrocket.document.OpenRocketDocument;
 import net.sf.openrocket.file.GeneralRocketLoader;
 import net.sf.openrocket.startup.Application;
+import net.sf.openrocket.startup.Preferences;
 import net.sf.openrocket.util.MathUtil;
 
 import org.slf4j.Logger;
@@ -36,6 +37,7 @@ public class OpenFileWorker extends SwingWorker<OpenRocketDocument, Void> {
 		this.file = file;
 		this.jarURL = null;
 		loader = new GeneralRocketLoader(file);
+		loader.setFlightDataDeferred(Application.getPreferences().getBoolean(Preferences.DEFER_FLIGHT_DATA, true));
 	}
 	
 	
@@ -43,6 +45,7 @@ public class OpenFileWorker extends SwingWorker<OpenRocketDocument, Void> {
 		this.jarURL = fileURL;
 		this.file = null;
 		loader = new GeneralRocketLoader(fileURL);
+		loader.setFlightDataDeferred(Application.getPreferences().getBoolean(Preferences.DEFER_FLIGHT_DATA, true));
 	}
 	
 	public GeneralRocketLoader getRocketLoader() {
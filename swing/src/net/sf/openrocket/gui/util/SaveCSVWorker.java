@@ -1,7 +1,6 @@
 package net.sf.openrocket.gui.util;
 
 import java.awt.Window;
-import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -11,6 +10,7 @@ import javax.swing.JOptionPane;
 import javax.swing.SwingWorker;
 
 import net.sf.openrocket.document.Simulation;
+import net.sf.openrocket.file.BinaryExport;
 import net.sf.openrocket.file.CSVExport;
 import net.sf.openrocket.gui.dialogs.SwingWorkerDialog;
 import net.sf.openrocket.simulation.FlightDataBranch;
@@ -23,6 +23,7 @@ import net.sf.openrocket.util.BugException;
 public class SaveCSVWorker extends SwingWorker<Void, Void> {
 	
 	private static final int BYTES_PER_FIELD_PER_POINT = 7;
+	private static final int BINARY_BYTES_PER_FIELD_PER_POINT = 8;
 
 	private final File file;
 	private final Simulation simulation;
@@ -34,11 +35,24 @@ public class SaveCSVWorker extends SwingWorker<Void, Void> {
 	private final boolean simulationComments;
 	private final boolean fieldComments;
 	private final boolean eventComments;
+	private final boolean binary;
 	
 	
 	public SaveCSVWorker(File file, Simulation simulation, FlightDataBranch branch,
 			FlightDataType[] fields, Unit[] units, String fieldSeparator, String commentStarter,
 			boolean simulationComments, boolean fieldComments, boolean eventComments) {
+		this(file, simulation, branch, fields, units, fieldSeparator, commentStarter,
+				simulationComments, fieldComments, eventComments, false);
+	}
+	
+	/**
+	 * Construct a worker that writes either a CSV file or, if <code>binary</code> is set,
+	 * a binary file of {@link BinaryExport}.  The CSV options are not used for binary files.
+	 */
+	public SaveCSVWorker(File file, Simulation simulation, FlightDataBranch branch,
+			FlightDataType[] fields, Unit[] units, String fieldSeparator, String commentStarter,
+			boolean simulationComments, boolean fieldComments, boolean eventComments,
+			boolean binary) {
 		this.file = file;
 		this.simulation = simulation;
 		this.branch = branch;
@@ -49,19 +63,21 @@ public class SaveCSVWorker extends SwingWorker<Void, Void> {
 		this.simulationComments = simulationComments;
 		this.fieldComments = fieldComments;
 		this.eventComments = eventComments;
+		this.binary = binary;
 	}
 
 
 	@Override
 	protected Void doInBackground() throws Exception {
 		
-		int estimate = BYTES_PER_FIELD_PER_POINT * fields.length * branch.getLength();
+		int bytes = binary ? BINARY_BYTES_PER_FIELD_PER_POINT : BYTES_PER_FIELD_PER_POINT;
+		int estimate = bytes * fields.length * branch.getLength();
 		estimate = Math.max(estimate, 1000);
 		
 		// Create the ProgressOutputStream that provides progress estimates
 		@SuppressWarnings("resource")
 		ProgressOutputStream os = new ProgressOutputStream(
-				new BufferedOutputStream(new FileOutputStream(file)), 
+				new FileOutputStream(file), 
 				estimate, this) {
 			
 			@Override
@@ -72,8 +88,12 @@ public class SaveCSVWorker extends SwingWorker<Void, Void> {
 		};
 		
 		try {
-			CSVExport.exportCSV(os, simulation, branch, fields, units, fieldSeparator, 
-					commentStarter, simulationComments, fieldComments, eventComments);
+			if (binary) {
+				BinaryExport.exportBinary(os, branch, fields, units);
+			} else {
+				CSVExport.exportCSV(os, simulation, branch, fields, units, fieldSeparator, 
+						commentStarter, simulationComments, fieldComments, eventComments);
+			}
 		} finally {
 			try {
 				os.close();
@@ -96,10 +116,25 @@ public class SaveCSVWorker extends SwingWorker<Void, Void> {
 			boolean simulationComments, boolean fieldComments, boolean eventComments,
 			Window parent) {
 		
-
-		SaveCSVWorker worker = new SaveCSVWorker(file, simulation, branch, fields, units,
+		return export(new SaveCSVWorker(file, simulation, branch, fields, units,
 				fieldSeparator, commentStarter, simulationComments, fieldComments, 
-				eventComments);
+				eventComments), file, parent);
+	}
+	
+	/**
+	 * Exports a binary flight data file using a progress dialog if necessary.
+	 *
+	 * @return	<code>true</code> if the save was successful, <code>false</code> otherwise.
+	 */
+	public static boolean exportBinary(File file, Simulation simulation, FlightDataBranch branch,
+			FlightDataType[] fields, Unit[] units, Window parent) {
+		
+		return export(new SaveCSVWorker(file, simulation, branch, fields, units,
+				null, null, false, false, false, true), file, parent);
+	}
+	
+	
+	private static boolean export(SaveCSVWorker worker, File file, Window parent) {
 		
 	    if (!SwingWorkerDialog.runWorker(parent, "Exporting flight data", 
 	    		"Writing " + file.getName() + "...", worker)) {
@@ -18,7 +18,6 @@ import java.util.prefs.Preferences;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import net.sf.openrocket.arch.SystemInfo;
 import net.sf.openrocket.document.Simulation;
 import net.sf.openrocket.material.Material;
 import net.sf.openrocket.motor.Manufacturer;
@@ -36,9 +35,6 @@ import net.sf.openrocket.util.BuildProperties;
 public class SwingPreferences extends net.sf.openrocket.startup.Preferences {
 	private static final Logger log = LoggerFactory.getLogger(SwingPreferences.class);
 	
-	private static final String SPLIT_CHARACTER = "|";
-	
-	
 	private static final List<Locale> SUPPORTED_LOCALES;
 	static {
 		List<Locale> list = new ArrayList<Locale>();
@@ -231,84 +227,6 @@ public class SwingPreferences extends net.sf.openrocket.startup.Preferences {
 		storeVersion();
 	}
 	
-	public File getDefaultUserComponentDirectory() {
-		
-		File compdir = new File(SystemInfo.getUserApplicationDirectory(), "Components");
-		
-		if (!compdir.isDirectory()) {
-			compdir.mkdirs();
-		}
-		
-		if (!compdir.isDirectory()) {
-			return null;
-		}
-		if (!compdir.canRead()) {
-			return null;
-		}
-		return compdir;
-	}
-	
-	/**
-	 * Return a list of files/directories to be loaded as custom thrust curves.
-	 * <p>
-	 * If this property has not been set, the directory "ThrustCurves" in the user
-	 * application directory will be used.  The directory will be created if it does not
-	 * exist.
-	 * 
-	 * @return	a list of files to load as thrust curves.
-	 */
-	public List<File> getUserThrustCurveFiles() {
-		List<File> list = new ArrayList<File>();
-		
-		String files = getString(USER_THRUST_CURVES_KEY, null);
-		if (files == null) {
-			// Default to application directory
-			File tcdir = getDefaultUserThrustCurveFile();
-			if (!tcdir.isDirectory()) {
-				tcdir.mkdirs();
-			}
-			list.add(tcdir);
-		} else {
-			for (String file : files.split("\\" + SPLIT_CHARACTER)) {
-				file = file.trim();
-				if (file.length() > 0) {
-					list.add(new File(file));
-				}
-			}
-		}
-		
-		return list;
-	}
-	
-	public File getDefaultUserThrustCurveFile() {
-		File appdir = SystemInfo.getUserApplicationDirectory();
-		File tcdir = new File(appdir, "ThrustCurves");
-		return tcdir;
-	}
-	
-	
-	/**
-	 * Set the list of files/directories to be loaded as custom thrust curves.
-	 * 
-	 * @param files		the files to load, or <code>null</code> to reset to default value.
-	 */
-	public void setUserThrustCurveFiles(List<File> files) {
-		if (files == null) {
-			putString(USER_THRUST_CURVES_KEY, null);
-			return;
-		}
-		
-		String str = "";
-		
-		for (File file : files) {
-			if (str.length() > 0) {
-				str += SPLIT_CHARACTER;
-			}
-			str += file.getAbsolutePath();
-		}
-		putString(USER_THRUST_CURVES_KEY, str);
-	}
-	
 	public Color getMotorBorderColor() {
 		// TODO: MEDIUM:  Motor color (settable?)
 		return new Color(0, 0, 0, 200);
@@ -0,0 +1,201 @@
+package net.sf.openrocket.utils;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import net.sf.openrocket.aerodynamics.AerodynamicCalculator;
+import net.sf.openrocket.aerodynamics.AerodynamicForces;
+import net.sf.openrocket.aerodynamics.BarrowmanCalculator;
+import net.sf.openrocket.aerodynamics.FlightConditions;
+import net.sf.openrocket.aerodynamics.TabulatedBarrowmanCalculator;
+import net.sf.openrocket.document.OpenRocketDocument;
+import net.sf.openrocket.document.Simulation;
+import net.sf.openrocket.file.GeneralRocketLoader;
+import net.sf.openrocket.plugin.PluginModule;
+import net.sf.openrocket.rocketcomponent.FlightConfiguration;
+import net.sf.openrocket.simulation.BasicEventSimulationEngine;
+import net.sf.openrocket.simulation.FlightData;
+import net.sf.openrocket.simulation.SimulationConditions;
+import net.sf.openrocket.startup.Application;
+import net.sf.openrocket.startup.HeadlessModule;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+
+/**
+ * Compares the tabulated aerodynamic calculator against the direct Barrowman calculator.
+ * <p>
+ * For every simulation the wall time of a flight and the differences in apogee, maximum
+ * velocity and flight time are reported.  For every design the time per force
+ * calculation and the maximum errors of the drag and normal force coefficients are
+ * reported for random flight conditions below Mach 2 and 30 degrees angle of attack.
+ * <p>
+ * Usage: AerodynamicTableBenchmark [iterations] [file.ork ...]
+ * <p>
+ * Without files, the simulations of the bundled example designs are used.
+ */
+public class AerodynamicTableBenchmark {
+
+	private static final String EXAMPLE_DIRECTORY = "resources/datafiles/examples";
+	private static final int WARMUP = 3;
+	private static final int SAMPLES = 20000;
+
+	public static void main(String[] args) throws Exception {
+		int iterations = 10;
+		if (args.length > 0) {
+			iterations = Integer.parseInt(args[0]);
+		}
+
+		List<File> files = new ArrayList<File>();
+		for (int i = 1; i < args.length; i++) {
+			files.add(new File(args[i]));
+		}
+		if (files.isEmpty()) {
+			File[] examples = new File(EXAMPLE_DIRECTORY).listFiles();
+			if (examples != null) {
+				for (File f : examples) {
+					if (f.getName().endsWith(".ork")) {
+						files.add(f);
+					}
+				}
+			}
+		}
+
+		HeadlessModule module = new HeadlessModule();
+		Injector injector = Guice.createInjector(module, new PluginModule());
+		Application.setInjector(injector);
+		module.startLoader();
+
+		System.out.println(String.format(Locale.US, "%-45s %10s %10s %10s %10s %10s",
+				"Simulation", "Direct ms", "Table ms", "Apogee", "Vmax", "Time"));
+
+		double totalDirect = 0;
+		double totalTable = 0;
+		List<OpenRocketDocument> documents = new ArrayList<OpenRocketDocument>();
+		List<String> names = new ArrayList<String>();
+		for (File file : files) {
+			OpenRocketDocument document;
+			try {
+				document = new GeneralRocketLoader(file).load();
+			} catch (Exception e) {
+				System.out.println(file.getName() + ": " + e);
+				continue;
+			}
+			documents.add(document);
+			names.add(file.getName().replace(".ork", ""));
+
+			for (Simulation simulation : document.getSimulations()) {
+				String name = file.getName().replace(".ork", "") + " / " + simulation.getName();
+				if (name.length() > 45) {
+					name = name.substring(0, 45);
+				}
+
+				FlightData direct, table;
+				double directTime, tableTime;
+				try {
+					direct = simulate(simulation, false, WARMUP);
+					directTime = time(simulation, false, iterations);
+					table = simulate(simulation, true, WARMUP);
+					tableTime = time(simulation, true, iterations);
+				} catch (Exception e) {
+					System.out.println(String.format(Locale.US, "%-45s %s", name, e));
+					continue;
+				}
+				totalDirect += directTime;
+				totalTable += tableTime;
+
+				System.out.println(String.format(Locale.US, "%-45s %10.2f %10.2f %+10.3f %+10.3f %+10.3f",
+						name, directTime, tableTime,
+						table.getMaxAltitude() - direct.getMaxAltitude(),
+						table.getMaxVelocity() - direct.getMaxVelocity(),
+						table.getFlightTime() - direct.getFlightTime()));
+			}
+		}
+		System.out.println(String.format(Locale.US, "%-45s %10.2f %10.2f", "Total", totalDirect, totalTable));
+
+		System.out.println();
+		System.out.println(String.format(Locale.US, "%-45s %10s %10s %10s %10s %10s",
+				"Design", "Direct us", "Table us", "CD err %", "CN err", "Nodes"));
+		for (int i = 0; i < documents.size(); i++) {
+			compareCoefficients(names.get(i), documents.get(i));
+		}
+	}
+
+
+	private static FlightData simulate(Simulation simulation, boolean tabulated, int count) throws Exception {
+		FlightData data = null;
+		for (int i = 0; i < count; i++) {
+			SimulationConditions conditions = simulation.getOptions().toSimulationConditions();
+			conditions.setSimulation(simulation);
+			conditions.setAerodynamicCalculator(tabulated ? new TabulatedBarrowmanCalculator() : new BarrowmanCalculator());
+			data = new BasicEventSimulationEngine().simulate(conditions);
+		}
+		return data;
+	}
+
+	private static double time(Simulation simulation, boolean tabulated, int iterations) throws Exception {
+		long t0 = System.nanoTime();
+		simulate(simulation, tabulated, iterations);
+		return (System.nanoTime() - t0) / 1e6 / iterations;
+	}
+
+
+	private static void compareCoefficients(String name, OpenRocketDocument document) {
+		FlightConfiguration config = document.getRocket().getSelectedConfiguration();
+		if (document.getSimulationCount() > 0) {
+			config = document.getRocket().getFlightConfiguration(document.getSimulation(0).getId());
+		}
+
+		Random random = new Random(0);
+		FlightConditions[] conditions = new FlightConditions[SAMPLES];
+		for (int i = 0; i < SAMPLES; i++) {
+			conditions[i] = new FlightConditions(config);
+			conditions[i].setMach(2 * random.nextDouble());
+			conditions[i].setAOA(Math.toRadians(30) * random.nextDouble());
+			conditions[i].setTheta(2 * Math.PI * random.nextDouble());
+		}
+
+		BarrowmanCalculator direct = new BarrowmanCalculator();
+		TabulatedBarrowmanCalculator table = new TabulatedBarrowmanCalculator();
+		AerodynamicForces[] expected = calculate(direct, config, conditions);
+		AerodynamicForces[] actual = calculate(table, config, conditions);
+
+		double cdError = 0;
+		double cnError = 0;
+		for (int i = 0; i < SAMPLES; i++) {
+			cdError = Math.max(cdError, Math.abs(actual[i].getCD() / expected[i].getCD() - 1));
+			cnError = Math.max(cnError, Math.abs(actual[i].getCN() - expected[i].getCN()));
+		}
+
+		double directTime = timeCalculations(direct, config, conditions);
+		double tableTime = timeCalculations(table, config, conditions);
+
+		if (name.length() > 45) {
+			name = name.substring(0, 45);
+		}
+		System.out.println(String.format(Locale.US, "%-45s %10.2f %10.2f %10.3f %10.4f %10d",
+				name, directTime, tableTime, cdError * 100, cnError, table.getComputedNodeCount()));
+	}
+
+	private static AerodynamicForces[] calculate(AerodynamicCalculator calculator, FlightConfiguration config,
+			FlightConditions[] conditions) {
+		AerodynamicForces[] forces = new AerodynamicForces[conditions.length];
+		for (int i = 0; i < conditions.length; i++) {
+			forces[i] = calculator.getAerodynamicForces(config, conditions[i], null);
+		}
+		return forces;
+	}
+
+	private static double timeCalculations(AerodynamicCalculator calculator, FlightConfiguration config,
+			FlightConditions[] conditions) {
+		for (int i = 0; i < WARMUP; i++) {
+			calculate(calculator, config, conditions);
+		}
+		long t0 = System.nanoTime();
+		calculate(calculator, config, conditions);
+		return (System.nanoTime() - t0) / 1e3 / conditions.length;
+	}
+}
@@ -0,0 +1,92 @@
+package net.sf.openrocket.utils;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import net.sf.openrocket.file.iterator.DirectoryIterator;
+import net.sf.openrocket.file.iterator.FileIterator;
+import net.sf.openrocket.file.motor.GeneralMotorLoader;
+import net.sf.openrocket.gui.util.SimpleFileFilter;
+import net.sf.openrocket.motor.ThrustCurveMotor;
+import net.sf.openrocket.motor.ThrustCurveMotorSnapshot;
+import net.sf.openrocket.util.Pair;
+
+/**
+ * Loads a set of thrust curve motors for the benchmark utilities.
+ * <p>
+ * Motors are read from a motor database snapshot (.bin), a serialized motor database
+ * (.ser), or from a directory of motor files.  Without an explicit source the bundled
+ * database is used, falling back to the motor files in resources-src.
+ */
+public class BenchmarkMotorLoader {
+	
+	private static final String THRUSTCURVE_DIRECTORY = "datafiles/thrustcurves/";
+	private static final String SOURCE_DIRECTORY = "../core/resources-src/datafiles/thrustcurves/";
+	
+	/**
+	 * Load motors from the given source.
+	 * 
+	 * @param source	a .bin or .ser file, a motor file directory, or null for the bundled motors
+	 * @return			the loaded motors
+	 */
+	public static List<ThrustCurveMotor> load(String source) throws IOException {
+		List<ThrustCurveMotor> motors = new ArrayList<ThrustCurveMotor>();
+		
+		if (source == null) {
+			FileIterator iterator = DirectoryIterator.findDirectory(THRUSTCURVE_DIRECTORY,
+					new SimpleFileFilter("", false, "ser", ThrustCurveMotorSnapshot.EXTENSION));
+			while (iterator != null && iterator.hasNext()) {
+				Pair<String, InputStream> f = iterator.next();
+				if (f.getU().endsWith("." + ThrustCurveMotorSnapshot.EXTENSION)) {
+					motors.addAll(ThrustCurveMotorSnapshot.read(f.getV()));
+				} else {
+					loadSerialized(f.getV(), motors);
+				}
+			}
+			if (motors.isEmpty()) {
+				loadDirectory(new File(SOURCE_DIRECTORY), motors);
+			}
+		} else if (source.endsWith("." + ThrustCurveMotorSnapshot.EXTENSION)) {
+			motors.addAll(ThrustCurveMotorSnapshot.read(new File(source)));
+		} else if (source.endsWith(".ser")) {
+			loadSerialized(new BufferedInputStream(new FileInputStream(source)), motors);
+		} else {
+			loadDirectory(new File(source), motors);
+		}
+		
+		return motors;
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static void loadSerialized(InputStream is, List<ThrustCurveMotor> motors) throws IOException {
+		try {
+			ObjectInputStream ois = new ObjectInputStream(is);
+			motors.addAll((List<ThrustCurveMotor>) ois.readObject());
+		} catch (ClassNotFoundException e) {
+			throw new IOException(e);
+		} finally {
+			is.close();
+		}
+	}
+	
+	private static void loadDirectory(File dir, List<ThrustCurveMotor> motors) throws IOException {
+		GeneralMotorLoader loader = new GeneralMotorLoader();
+		FileIterator iterator = new DirectoryIterator(dir, new SimpleFileFilter("", loader.getSupportedExtensions()), true);
+		while (iterator.hasNext()) {
+			Pair<String, InputStream> f = iterator.next();
+			try {
+				for (ThrustCurveMotor.Builder b : loader.load(f.getV(), f.getU())) {
+					motors.add(b.build());
+				}
+			} finally {
+				f.getV().close();
+			}
+		}
+	}
+}
@@ -0,0 +1,105 @@
+package net.sf.openrocket.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.sf.openrocket.document.OpenRocketDocument;
+import net.sf.openrocket.document.OpenRocketDocumentFactory;
+import net.sf.openrocket.rocketcomponent.Rocket;
+import net.sf.openrocket.simulation.FlightDataBranch;
+import net.sf.openrocket.simulation.FlightDataType;
+import net.sf.openrocket.simulation.SimulationOptions;
+import net.sf.openrocket.simulation.SimulationStatus;
+import net.sf.openrocket.simulation.customexpression.CompiledExpression;
+import net.sf.openrocket.simulation.customexpression.CustomExpression;
+import net.sf.openrocket.util.TestRockets;
+
+/**
+ * Compares evaluating custom expressions by re-building them on every call against
+ * evaluating expressions compiled once per simulation.
+ * <p>
+ * Usage: CustomExpressionBenchmark [iterations]
+ */
+public class CustomExpressionBenchmark extends BasicApplication {
+
+	private static final String[] FORMULAS = {
+			".5*m*Vt^2",
+			"m*g*h",
+			"Vz/Vt",
+			"sqrt(Vl^2+Vz^2)",
+			"Cd*Ar*P",
+			"atan(Vz/Vt)",
+			"abs(Az-g)",
+			"h/1000",
+			"Vt/M",
+			"m*Az",
+	};
+
+	private static final int EXPRESSIONS = 20;
+	private static final int WARMUP = 2000;
+
+	public static void main(String[] args) throws Exception {
+		int iterations = 20000;
+		if (args.length > 0) {
+			iterations = Integer.parseInt(args[0]);
+		}
+
+		CustomExpressionBenchmark app = new CustomExpressionBenchmark();
+		app.initializeApplication();
+
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		OpenRocketDocument doc = OpenRocketDocumentFactory.createDocumentFromRocket(rocket);
+
+		List<CustomExpression> expressions = new ArrayList<CustomExpression>();
+		for (int i = 0; i < EXPRESSIONS; i++) {
+			expressions.add(new CustomExpression(doc, "Bench " + i, "B" + i, "", FORMULAS[i % FORMULAS.length]));
+		}
+
+		SimulationStatus status = new SimulationStatus(rocket.getSelectedConfiguration(),
+				new SimulationOptions().toSimulationConditions());
+		FlightDataBranch data = new FlightDataBranch("benchmark", FlightDataType.ALL_TYPES);
+		data.addPoint();
+		for (FlightDataType type : FlightDataType.ALL_TYPES) {
+			data.setValue(type, 1.5);
+		}
+		status.setFlightData(data);
+
+		List<CompiledExpression> compiled = new ArrayList<CompiledExpression>();
+		for (CustomExpression e : expressions) {
+			compiled.add(e.compile());
+		}
+
+		interpreted(expressions, status, WARMUP);
+		compiled(compiled, status, WARMUP);
+
+		long t0 = System.nanoTime();
+		double a = interpreted(expressions, status, iterations);
+		long t1 = System.nanoTime();
+		double b = compiled(compiled, status, iterations);
+		long t2 = System.nanoTime();
+
+		System.out.println("Expressions per step: " + EXPRESSIONS + "  steps: " + iterations);
+		System.out.println("Interpreted: " + ((t1 - t0) / iterations) + " ns/step  (checksum " + a + ")");
+		System.out.println("Compiled:    " + ((t2 - t1) / iterations) + " ns/step  (checksum " + b + ")");
+	}
+
+	private static double interpreted(List<CustomExpression> expressions, SimulationStatus status, int n) {
+		double sum = 0;
+		for (int i = 0; i < n; i++) {
+			for (CustomExpression e : expressions) {
+				sum += e.evaluateDouble(status);
+			}
+		}
+		return sum;
+	}
+
+	private static double compiled(List<CompiledExpression> expressions, SimulationStatus status, int n) {
+		double sum = 0;
+		for (int i = 0; i < n; i++) {
+			for (CompiledExpression e : expressions) {
+				sum += e.evaluate(status);
+			}
+		}
+		return sum;
+	}
+}
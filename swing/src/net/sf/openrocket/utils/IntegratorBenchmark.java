@@ -0,0 +1,126 @@
+package net.sf.openrocket.utils;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import net.sf.openrocket.document.OpenRocketDocument;
+import net.sf.openrocket.document.Simulation;
+import net.sf.openrocket.file.GeneralRocketLoader;
+import net.sf.openrocket.plugin.PluginModule;
+import net.sf.openrocket.simulation.BasicEventSimulationEngine;
+import net.sf.openrocket.simulation.FlightData;
+import net.sf.openrocket.simulation.IntegrationMethod;
+import net.sf.openrocket.simulation.SimulationConditions;
+import net.sf.openrocket.startup.Application;
+import net.sf.openrocket.startup.HeadlessModule;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+
+/**
+ * Compares the flight integration methods by the number of steps per flight, the wall
+ * time and the apogee error.  The reference apogee is computed with the RK4 stepper using
+ * a tenth of the simulation time step.
+ * <p>
+ * Usage: IntegratorBenchmark [iterations] [file.ork ...]
+ * <p>
+ * Without files, the simulations of the bundled example designs are used.
+ */
+public class IntegratorBenchmark {
+
+	private static final String EXAMPLE_DIRECTORY = "resources/datafiles/examples";
+	private static final int WARMUP = 3;
+
+	public static void main(String[] args) throws Exception {
+		int iterations = 10;
+		if (args.length > 0) {
+			iterations = Integer.parseInt(args[0]);
+		}
+
+		List<File> files = new ArrayList<File>();
+		for (int i = 1; i < args.length; i++) {
+			files.add(new File(args[i]));
+		}
+		if (files.isEmpty()) {
+			File[] examples = new File(EXAMPLE_DIRECTORY).listFiles();
+			if (examples != null) {
+				for (File f : examples) {
+					if (f.getName().endsWith(".ork")) {
+						files.add(f);
+					}
+				}
+			}
+		}
+
+		HeadlessModule module = new HeadlessModule();
+		Injector injector = Guice.createInjector(module, new PluginModule());
+		Application.setInjector(injector);
+		module.startLoader();
+
+		System.out.println(String.format(Locale.US, "%-45s %-15s %8s %10s %10s %10s",
+				"Simulation", "Method", "Steps", "Time (ms)", "Apogee", "Error (m)"));
+
+		double[] totalTime = new double[IntegrationMethod.values().length];
+		long[] totalSteps = new long[IntegrationMethod.values().length];
+		for (File file : files) {
+			OpenRocketDocument document;
+			try {
+				document = new GeneralRocketLoader(file).load();
+			} catch (Exception e) {
+				System.out.println(file.getName() + ": " + e);
+				continue;
+			}
+
+			for (Simulation simulation : document.getSimulations()) {
+				String name = file.getName().replace(".ork", "") + " / " + simulation.getName();
+				if (name.length() > 45) {
+					name = name.substring(0, 45);
+				}
+
+				FlightData reference;
+				try {
+					reference = simulate(simulation, IntegrationMethod.RK4, 0.1);
+				} catch (Exception e) {
+					System.out.println(String.format(Locale.US, "%-45s %s", name, e));
+					continue;
+				}
+
+				for (IntegrationMethod method : IntegrationMethod.values()) {
+					FlightData data = null;
+					for (int i = 0; i < WARMUP; i++) {
+						data = simulate(simulation, method, 1);
+					}
+					long t0 = System.nanoTime();
+					for (int i = 0; i < iterations; i++) {
+						data = simulate(simulation, method, 1);
+					}
+					double time = (System.nanoTime() - t0) / 1e6 / iterations;
+					int steps = data.getBranch(0).getLength();
+
+					totalTime[method.ordinal()] += time;
+					totalSteps[method.ordinal()] += steps;
+					System.out.println(String.format(Locale.US, "%-45s %-15s %8d %10.2f %10.2f %10.3f",
+							name, method, steps, time, data.getMaxAltitude(),
+							data.getMaxAltitude() - reference.getMaxAltitude()));
+				}
+			}
+		}
+
+		System.out.println();
+		for (IntegrationMethod method : IntegrationMethod.values()) {
+			System.out.println(String.format(Locale.US, "%-15s total steps %8d   total time %10.2f ms",
+					method, totalSteps[method.ordinal()], totalTime[method.ordinal()]));
+		}
+	}
+
+	private static FlightData simulate(Simulation simulation, IntegrationMethod method, double timeStepFactor)
+			throws Exception {
+		SimulationConditions conditions = simulation.getOptions().toSimulationConditions();
+		conditions.setSimulation(simulation);
+		conditions.setIntegrationMethod(method);
+		conditions.setTimeStep(conditions.getTimeStep() * timeStepFactor);
+		return new BasicEventSimulationEngine().simulate(conditions);
+	}
+}
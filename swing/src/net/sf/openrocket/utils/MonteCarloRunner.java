@@ -0,0 +1,127 @@
+package net.sf.openrocket.utils;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.util.Locale;
+
+import net.sf.openrocket.document.OpenRocketDocument;
+import net.sf.openrocket.document.Simulation;
+import net.sf.openrocket.file.GeneralRocketLoader;
+import net.sf.openrocket.plugin.PluginModule;
+import net.sf.openrocket.simulation.SimulationConditions;
+import net.sf.openrocket.simulation.SimulationOptions;
+import net.sf.openrocket.simulation.montecarlo.Distribution;
+import net.sf.openrocket.simulation.montecarlo.MonteCarloEngine;
+import net.sf.openrocket.simulation.montecarlo.MonteCarloResults;
+import net.sf.openrocket.startup.Application;
+import net.sf.openrocket.startup.HeadlessModule;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+
+/**
+ * Runs a Monte-Carlo dispersion of one simulation of a rocket design without starting
+ * the user interface.  The per-run parameters and results are written to standard output
+ * in CSV format, and a summary to standard error.
+ * <p>
+ * The wind speed is dispersed by the wind speed deviation of the simulation, the launch
+ * rod angle by 1 degree, the motor thrust by 3% and the drag coefficient by 5%
+ * (one standard deviation each).  The wind direction and launch rod direction are
+ * uniform over the full circle.
+ * <p>
+ * Usage: MonteCarloRunner file.ork [simulation] [runs] [threads] [seed]
+ */
+public class MonteCarloRunner {
+
+	private static final double ROD_ANGLE_DEVIATION = Math.toRadians(1);
+	private static final double THRUST_DEVIATION = 0.03;
+	private static final double DRAG_DEVIATION = 0.05;
+
+	public static void main(String[] args) throws Exception {
+		if (args.length < 1) {
+			System.err.println("Usage: MonteCarloRunner file.ork [simulation] [runs] [threads] [seed]");
+			System.exit(1);
+		}
+		int simulationIndex = (args.length > 1) ? Integer.parseInt(args[1]) : 0;
+		int runs = (args.length > 2) ? Integer.parseInt(args[2]) : 100;
+		int threads = (args.length > 3) ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+		long seed = (args.length > 4) ? Long.parseLong(args[4]) : System.nanoTime();
+
+		initializeApplication();
+
+		OpenRocketDocument document = new GeneralRocketLoader(new File(args[0])).load();
+		Simulation simulation = document.getSimulation(simulationIndex);
+		SimulationOptions options = simulation.getOptions();
+		SimulationConditions conditions = options.toSimulationConditions();
+		conditions.setSimulation(simulation);
+
+		MonteCarloEngine engine = new MonteCarloEngine(conditions);
+		engine.setSeed(seed);
+		engine.setThreads(threads);
+		engine.setWindSpeed(Distribution.normal(options.getWindSpeedAverage(), options.getWindSpeedDeviation()));
+		engine.setWindDirection(Distribution.uniform(0, 2 * Math.PI));
+		engine.setLaunchRodAngle(Distribution.normal(options.getLaunchRodAngle(), ROD_ANGLE_DEVIATION));
+		engine.setLaunchRodDirection(Distribution.uniform(0, 2 * Math.PI));
+		engine.setThrustScale(Distribution.normal(1, THRUST_DEVIATION));
+		engine.setDragScale(Distribution.normal(1, DRAG_DEVIATION));
+
+		long t0 = System.currentTimeMillis();
+		MonteCarloResults results = engine.run(runs, null);
+		long t1 = System.currentTimeMillis();
+
+		print(results, System.out);
+
+		System.err.println("Simulation:  " + simulation.getName());
+		System.err.println("Runs:        " + results.getCompletedCount() + " of " + runs + " completed");
+		System.err.println("Threads:     " + threads);
+		System.err.println("Seed:        " + seed);
+		System.err.println("Time:        " + (t1 - t0) + " ms");
+		if (results.getCompletedCount() < runs) {
+			for (int i = 0; i < runs; i++) {
+				if (results.getError(i) != null) {
+					System.err.println("First error: run " + i + ": " + results.getError(i));
+					break;
+				}
+			}
+		}
+	}
+
+	private static void print(MonteCarloResults results, PrintStream out) {
+		double[][] columns = {
+				results.getWindSpeeds(),
+				results.getWindDirections(),
+				results.getLaunchRodAngles(),
+				results.getLaunchRodDirections(),
+				results.getThrustScales(),
+				results.getDragScales(),
+				results.getApogees(),
+				results.getMaxVelocities(),
+				results.getFlightTimes(),
+				results.getLandingX(),
+				results.getLandingY(),
+		};
+
+		out.println("run,seed,wind speed,wind direction,rod angle,rod direction,thrust scale,drag scale,"
+				+ "apogee,max velocity,flight time,landing x,landing y");
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < results.getRunCount(); i++) {
+			sb.setLength(0);
+			sb.append(i).append(',').append(results.getSeed(i));
+			for (double[] column : columns) {
+				sb.append(',').append(String.format(Locale.US, "%.6g", column[i]));
+			}
+			out.println(sb);
+		}
+	}
+
+	/**
+	 * Set up the application with the core services and a motor database that is
+	 * loaded without the user interface.
+	 */
+	private static void initializeApplication() {
+		HeadlessModule module = new HeadlessModule();
+		Injector injector = Guice.createInjector(module, new PluginModule());
+		Application.setInjector(injector);
+		module.startLoader();
+	}
+}
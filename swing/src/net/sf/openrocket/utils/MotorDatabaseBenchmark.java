@@ -0,0 +1,103 @@
+package net.sf.openrocket.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.sf.openrocket.database.motor.ThrustCurveMotorSet;
+import net.sf.openrocket.database.motor.ThrustCurveMotorSetDatabase;
+import net.sf.openrocket.motor.Motor;
+import net.sf.openrocket.motor.ThrustCurveMotor;
+
+/**
+ * Resolves every motor of a motor database by digest and by its search criteria,
+ * comparing a linear scan over the motor sets with the indexed lookups of
+ * ThrustCurveMotorSetDatabase.
+ * <p>
+ * Usage: MotorDatabaseBenchmark [motors.ser | motor-directory] [rounds]
+ */
+public class MotorDatabaseBenchmark extends BasicApplication {
+	
+	public static void main(String[] args) throws Exception {
+		MotorDatabaseBenchmark app = new MotorDatabaseBenchmark();
+		app.initializeApplication();
+		
+		List<ThrustCurveMotor> motors = BenchmarkMotorLoader.load(args.length > 0 ? args[0] : null);
+		int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+		
+		ThrustCurveMotorSetDatabase db = new ThrustCurveMotorSetDatabase();
+		for (ThrustCurveMotor m : motors) {
+			db.addMotor(m);
+		}
+		List<ThrustCurveMotor> all = new ArrayList<ThrustCurveMotor>();
+		for (ThrustCurveMotorSet set : db.getMotorSets()) {
+			all.addAll(set.getMotors());
+		}
+		System.out.println("Motors: " + all.size() + " in " + db.getMotorSets().size() + " sets");
+		
+		// Build the index before timing
+		db.findMotor("");
+		
+		long linear = 0, indexed = 0;
+		int a = 0, b = 0;
+		for (int r = 0; r < rounds; r++) {
+			long t0 = System.nanoTime();
+			a = resolveLinear(db.getMotorSets(), all);
+			long t1 = System.nanoTime();
+			b = resolveIndexed(db, all);
+			long t2 = System.nanoTime();
+			linear += t1 - t0;
+			indexed += t2 - t1;
+		}
+		
+		System.out.println("Linear scan: " + (linear / rounds / 1000000.0) + " ms per full resolve  (matches " + a + ")");
+		System.out.println("Indexed:     " + (indexed / rounds / 1000000.0) + " ms per full resolve  (matches " + b + ")");
+	}
+	
+	private static int resolveIndexed(ThrustCurveMotorSetDatabase db, List<ThrustCurveMotor> all) {
+		int count = 0;
+		for (ThrustCurveMotor m : all) {
+			if (db.findMotor(m.getDigest()) != null) {
+				count++;
+			}
+			count += db.findMotors(m.getMotorType(), m.getManufacturer().getSimpleName(), m.getDesignation(),
+					m.getDiameter(), m.getLength()).size();
+		}
+		return count;
+	}
+	
+	/*
+	 * The nested scans the database used before it was indexed.
+	 */
+	private static int resolveLinear(List<ThrustCurveMotorSet> sets, List<ThrustCurveMotor> all) {
+		int count = 0;
+		for (ThrustCurveMotor motor : all) {
+			String digest = motor.getDigest();
+			search: for (ThrustCurveMotorSet set : sets) {
+				for (ThrustCurveMotor m : set.getMotors()) {
+					if (digest.equals(m.getDigest())) {
+						count++;
+						break search;
+					}
+				}
+			}
+			
+			String manufacturer = motor.getManufacturer().getSimpleName();
+			for (ThrustCurveMotorSet set : sets) {
+				for (ThrustCurveMotor m : set.getMotors()) {
+					if (motor.getMotorType() != set.getType())
+						continue;
+					if (!m.getManufacturer().matches(manufacturer))
+						continue;
+					if (!motor.getDesignation().equalsIgnoreCase(m.getDesignation()))
+						continue;
+					if (Math.abs(motor.getDiameter() - m.getDiameter()) > 0.005)
+						continue;
+					if (Math.abs(motor.getLength() - m.getLength()) > 0.005)
+						continue;
+					count++;
+				}
+			}
+		}
+		return count;
+	}
+}
@@ -0,0 +1,79 @@
+package net.sf.openrocket.utils;
+
+import java.util.List;
+
+import net.sf.openrocket.motor.Motor;
+import net.sf.openrocket.motor.ThrustCurveMotor;
+
+/**
+ * Reports the clusters of similar motors of a motor database, such as duplicate thrust
+ * curves of the same motor, using MotorSimilarityIndex.  The time taken is compared with
+ * the time the previous cross-correlation, which sampled both thrust curves up to 1000 s
+ * for every pair, took for a number of the same pairs.
+ * <p>
+ * Usage: MotorSimilarityReport [motors.ser | motor-directory] [threshold]
+ */
+public class MotorSimilarityReport extends BasicApplication {
+
+	private static final int SAMPLED_PAIRS = 200;
+
+	public static void main(String[] args) throws Exception {
+		MotorSimilarityReport app = new MotorSimilarityReport();
+		app.initializeApplication();
+
+		List<ThrustCurveMotor> motors = BenchmarkMotorLoader.load(args.length > 0 ? args[0] : null);
+		double threshold = args.length > 1 ? Double.parseDouble(args[1]) : 0.95;
+
+		long t0 = System.nanoTime();
+		MotorSimilarityIndex index = new MotorSimilarityIndex(motors);
+		long t1 = System.nanoTime();
+		List<List<Motor>> clusters = index.findSimilarMotors(threshold);
+		long t2 = System.nanoTime();
+
+		int similar = 0;
+		for (List<Motor> cluster : clusters) {
+			System.out.println(cluster.size() + " motors, " + cluster.get(0).getDiameter() * 1000 + " mm:");
+			for (Motor m : cluster) {
+				ThrustCurveMotor motor = (ThrustCurveMotor) m;
+				System.out.println("    " + motor.getManufacturer() + " " + motor.getDesignation() +
+						"  " + motor.getDigest());
+			}
+			similar += cluster.size();
+		}
+
+		// Time the previous cross-correlation for a number of the same pairs
+		int pairs = Math.min(SAMPLED_PAIRS, motors.size() - 1);
+		long t3 = System.nanoTime();
+		for (int i = 0; i < pairs; i++) {
+			crossCorrelationSampled(motors.get(i), motors.get(i + 1));
+		}
+		long t4 = System.nanoTime();
+		double perPair = (t4 - t3) / 1000000.0 / pairs;
+
+		System.out.println();
+		System.out.println("Motors: " + motors.size() + ", threshold " + threshold + ", " + clusters.size() +
+				" clusters of " + similar + " motors");
+		System.out.println("Sampling: " + (t1 - t0) / 1000000.0 + " ms");
+		System.out.println("Clustering: " + (t2 - t1) / 1000000.0 + " ms for " + index.getComparisonCount() + " pairs");
+		System.out.println("Previous cross-correlation: " + perPair + " ms per pair, " +
+				perPair * index.getComparisonCount() / 1000 + " s for the same pairs, " +
+				perPair * motors.size() * (motors.size() - 1) / 2 / 1000 + " s for all pairs");
+	}
+
+	/*
+	 * The cross-correlation before the thrust curves were sampled once per motor.
+	 */
+	private static double crossCorrelationSampled(Motor motor1, Motor motor2) {
+		double auto1 = 0;
+		double auto2 = 0;
+		double cross = 0;
+		for (double t = 0; t < 1000; t += 0.01) {
+			double thrust1 = motor1.getThrust(t);
+			double thrust2 = motor2.getThrust(t);
+			auto1 += thrust1 * thrust1;
+			auto2 += thrust2 * thrust2;
+			cross += thrust1 * thrust2;
+		}
+		return cross / Math.max(auto1, auto2);
+	}
+}
@@ -0,0 +1,129 @@
+package net.sf.openrocket.utils;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import net.sf.openrocket.document.OpenRocketDocument;
+import net.sf.openrocket.document.Simulation;
+import net.sf.openrocket.file.GeneralRocketLoader;
+import net.sf.openrocket.plugin.PluginModule;
+import net.sf.openrocket.simulation.BasicEventSimulationEngine;
+import net.sf.openrocket.simulation.FlightData;
+import net.sf.openrocket.simulation.IntegrationMethod;
+import net.sf.openrocket.simulation.SimulationConditions;
+import net.sf.openrocket.startup.Application;
+import net.sf.openrocket.startup.HeadlessModule;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+
+/**
+ * Measures the memory allocated per flight step by the flight steppers.  The allocation
+ * is read from the thread allocation counter of the JVM, so this requires a HotSpot
+ * based JVM.
+ * <p>
+ * Usage: StepperAllocationBenchmark [iterations] [file.ork ...]
+ * <p>
+ * Without files, the simulations of the bundled example designs are used.
+ */
+public class StepperAllocationBenchmark {
+
+	private static final String EXAMPLE_DIRECTORY = "resources/datafiles/examples";
+	private static final int WARMUP = 3;
+
+	public static void main(String[] args) throws Exception {
+		int iterations = 10;
+		if (args.length > 0) {
+			iterations = Integer.parseInt(args[0]);
+		}
+
+		List<File> files = new ArrayList<File>();
+		for (int i = 1; i < args.length; i++) {
+			files.add(new File(args[i]));
+		}
+		if (files.isEmpty()) {
+			File[] examples = new File(EXAMPLE_DIRECTORY).listFiles();
+			if (examples != null) {
+				for (File f : examples) {
+					if (f.getName().endsWith(".ork")) {
+						files.add(f);
+					}
+				}
+			}
+		}
+
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long thread = Thread.currentThread().getId();
+
+		HeadlessModule module = new HeadlessModule();
+		Injector injector = Guice.createInjector(module, new PluginModule());
+		Application.setInjector(injector);
+		module.startLoader();
+
+		System.out.println(String.format(Locale.US, "%-45s %-15s %8s %10s %12s %10s",
+				"Simulation", "Method", "Steps", "Time (ms)", "Bytes/step", "Apogee"));
+
+		long[] totalBytes = new long[IntegrationMethod.values().length];
+		long[] totalSteps = new long[IntegrationMethod.values().length];
+		for (File file : files) {
+			OpenRocketDocument document;
+			try {
+				document = new GeneralRocketLoader(file).load();
+			} catch (Exception e) {
+				System.out.println(file.getName() + ": " + e);
+				continue;
+			}
+
+			for (Simulation simulation : document.getSimulations()) {
+				String name = file.getName().replace(".ork", "") + " / " + simulation.getName();
+				if (name.length() > 45) {
+					name = name.substring(0, 45);
+				}
+
+				for (IntegrationMethod method : IntegrationMethod.values()) {
+					FlightData data = null;
+					try {
+						for (int i = 0; i < WARMUP; i++) {
+							data = simulate(simulation, method);
+						}
+					} catch (Exception e) {
+						System.out.println(String.format(Locale.US, "%-45s %-15s %s", name, method, e));
+						continue;
+					}
+
+					long steps = 0;
+					long bytes0 = threads.getThreadAllocatedBytes(thread);
+					long t0 = System.nanoTime();
+					for (int i = 0; i < iterations; i++) {
+						data = simulate(simulation, method);
+						steps += data.getBranch(0).getLength();
+					}
+					double time = (System.nanoTime() - t0) / 1e6 / iterations;
+					long bytes = threads.getThreadAllocatedBytes(thread) - bytes0;
+
+					totalBytes[method.ordinal()] += bytes;
+					totalSteps[method.ordinal()] += steps;
+					System.out.println(String.format(Locale.US, "%-45s %-15s %8d %10.2f %12d %10.2f",
+							name, method, steps / iterations, time, bytes / steps, data.getMaxAltitude()));
+				}
+			}
+		}
+
+		System.out.println();
+		for (IntegrationMethod method : IntegrationMethod.values()) {
+			long steps = totalSteps[method.ordinal()];
+			System.out.println(String.format(Locale.US, "%-15s total steps %10d   bytes/step %10d",
+					method, steps, steps > 0 ? totalBytes[method.ordinal()] / steps : 0));
+		}
+	}
+
+	private static FlightData simulate(Simulation simulation, IntegrationMethod method) throws Exception {
+		SimulationConditions conditions = simulation.getOptions().toSimulationConditions();
+		conditions.setSimulation(simulation);
+		conditions.setIntegrationMethod(method);
+		return new BasicEventSimulationEngine().simulate(conditions);
+	}
+}
@@ -0,0 +1,115 @@
+package net.sf.openrocket.utils;
+
+import java.util.List;
+
+import net.sf.openrocket.motor.ThrustCurveMotor;
+import net.sf.openrocket.util.MathUtil;
+
+/**
+ * Evaluates the thrust and average thrust of every motor of a motor database at the
+ * successive time steps of a simulation.  Compares the average thrust computation that
+ * rescanned and integrated the curve on every call with the cumulative impulse lookups of
+ * ThrustCurveMotor, and with the evaluation by a ThrustCurveMotor.Cursor.
+ * <p>
+ * Usage: ThrustCurveBenchmark [motors.ser | motor-directory] [rounds] [time step]
+ */
+public class ThrustCurveBenchmark extends BasicApplication {
+
+	public static void main(String[] args) throws Exception {
+		ThrustCurveBenchmark app = new ThrustCurveBenchmark();
+		app.initializeApplication();
+
+		List<ThrustCurveMotor> motors = BenchmarkMotorLoader.load(args.length > 0 ? args[0] : null);
+		int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+		double step = args.length > 2 ? Double.parseDouble(args[2]) : 0.005;
+
+		System.out.println("Motors: " + motors.size() + ", time step " + step + " s");
+
+		long rescan = 0, lookup = 0, cursor = 0;
+		double a = 0, b = 0, c = 0;
+		for (int r = 0; r < rounds; r++) {
+			long t0 = System.nanoTime();
+			a = evaluateRescan(motors, step);
+			long t1 = System.nanoTime();
+			b = evaluateMotor(motors, step);
+			long t2 = System.nanoTime();
+			c = evaluateCursor(motors, step);
+			long t3 = System.nanoTime();
+			rescan += t1 - t0;
+			lookup += t2 - t1;
+			cursor += t3 - t2;
+		}
+
+		System.out.println("Rescanning: " + (rescan / rounds / 1000000.0) + " ms per database  (impulse " + a + ")");
+		System.out.println("Motor:      " + (lookup / rounds / 1000000.0) + " ms per database  (impulse " + b + ")");
+		System.out.println("Cursor:     " + (cursor / rounds / 1000000.0) + " ms per database  (impulse " + c + ")");
+	}
+
+	private static double evaluateMotor(List<ThrustCurveMotor> motors, double step) {
+		double impulse = 0;
+		for (ThrustCurveMotor motor : motors) {
+			double end = motor.getBurnTime();
+			for (double t = 0; t < end; t += step) {
+				impulse += (motor.getAverageThrust(t, t + step) + motor.getThrust(t)) * step / 2;
+			}
+		}
+		return impulse;
+	}
+
+	private static double evaluateCursor(List<ThrustCurveMotor> motors, double step) {
+		double impulse = 0;
+		for (ThrustCurveMotor motor : motors) {
+			ThrustCurveMotor.Cursor cursor = motor.newCursor();
+			double end = motor.getBurnTime();
+			for (double t = 0; t < end; t += step) {
+				impulse += (cursor.getAverageThrust(t, t + step) + cursor.getThrust(t)) * step / 2;
+			}
+		}
+		return impulse;
+	}
+
+	private static double evaluateRescan(List<ThrustCurveMotor> motors, double step) {
+		double impulse = 0;
+		for (ThrustCurveMotor motor : motors) {
+			double[] time = motor.getTimePoints();
+			double[] thrust = motor.getThrustPoints();
+			double end = motor.getBurnTime();
+			for (double t = 0; t < end; t += step) {
+				impulse += (getAverageThrustRescan(time, thrust, t, t + step) + motor.getThrust(t)) * step / 2;
+			}
+		}
+		return impulse;
+	}
+
+	/*
+	 * The average thrust computation before the cumulative impulse was precomputed.
+	 */
+	private static double getAverageThrustRescan(double[] time, double[] thrust, double startTime, double endTime) {
+		int timeIndex = 0;
+		while (timeIndex < time.length - 2 && startTime > time[timeIndex + 1]) {
+			timeIndex++;
+		}
+
+		if (endTime <= time[timeIndex + 1]) {
+			double startThrust = MathUtil.map(startTime, time[timeIndex], time[timeIndex + 1], thrust[timeIndex], thrust[timeIndex + 1]);
+			double endThrust = MathUtil.map(endTime, time[timeIndex], time[timeIndex + 1], thrust[timeIndex], thrust[timeIndex + 1]);
+			return (startThrust + endThrust) / 2.0;
+		}
+
+		double startThrust = MathUtil.map(startTime, time[timeIndex], time[timeIndex + 1], thrust[timeIndex], thrust[timeIndex + 1]);
+		double impulse = (time[timeIndex + 1] - startTime) * (startThrust + thrust[timeIndex + 1]) / 2.0;
+
+		timeIndex++;
+		while (timeIndex < time.length - 1 && endTime >= time[timeIndex + 1]) {
+			impulse += (time[timeIndex + 1] - time[timeIndex]) * (thrust[timeIndex] + thrust[timeIndex + 1]) / 2.0;
+			timeIndex++;
+		}
+
+		if (timeIndex < time.length - 1) {
+			double endThrust = MathUtil.map(endTime, time[timeIndex], time[timeIndex + 1], thrust[timeIndex], thrust[timeIndex + 1]);
+			impulse += (endTime - time[timeIndex]) * (thrust[timeIndex] + endThrust) / 2.0;
+		}
+
+		return impulse / (endTime - startTime);
+	}
+}